@@ -39,6 +39,7 @@ public class CamelSyncEndpointParser extends CamelEndpointParser {
                 element.getAttribute("message-correlator"), "correlator");
 
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("polling-interval"), "pollingInterval");
+        BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration, element.getAttribute("object-store"), "objectStore");
     }
 
     @Override
@@ -20,7 +20,7 @@ import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.message.correlation.CorrelationManager;
-import com.consol.citrus.message.correlation.PollingCorrelationManager;
+import com.consol.citrus.message.correlation.WaitingCorrelationManager;
 import com.consol.citrus.messaging.ReplyConsumer;
 import org.apache.camel.*;
 import org.slf4j.Logger;
@@ -55,7 +55,7 @@ public class CamelSyncProducer extends CamelProducer implements ReplyConsumer {
         super(name, endpointConfiguration);
         this.endpointConfiguration = endpointConfiguration;
 
-        this.correlationManager = new PollingCorrelationManager(endpointConfiguration, "Reply message did not arrive yet");
+        this.correlationManager = new WaitingCorrelationManager(endpointConfiguration, "Reply message did not arrive yet");
     }
 
     @Override
@@ -19,6 +19,7 @@ package com.consol.citrus.camel.config.xml;
 import com.consol.citrus.TestActor;
 import com.consol.citrus.camel.endpoint.CamelSyncEndpoint;
 import com.consol.citrus.message.DefaultMessageCorrelator;
+import com.consol.citrus.message.correlation.ExpiringObjectStore;
 import com.consol.citrus.testng.AbstractBeanDefinitionParserTest;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -44,6 +45,7 @@ public class CamelSyncEndpointParserTest extends AbstractBeanDefinitionParserTes
         Assert.assertEquals(camelEndpoint.getEndpointConfiguration().getEndpointUri(), "direct:news-feed1");
         Assert.assertEquals(camelEndpoint.getEndpointConfiguration().getPollingInterval(), 500L);
         Assert.assertEquals(camelEndpoint.getEndpointConfiguration().getTimeout(), 5000L);
+        Assert.assertNull(camelEndpoint.getEndpointConfiguration().getObjectStore());
 
         // 2nd message receiver
         camelEndpoint = endpoints.get("camelSyncEndpoint2");
@@ -58,6 +60,7 @@ public class CamelSyncEndpointParserTest extends AbstractBeanDefinitionParserTes
         Assert.assertEquals(camelEndpoint.getEndpointConfiguration().getMessageConverter(), beanDefinitionContext.getBean("messageConverter"));
         Assert.assertEquals(camelEndpoint.getEndpointConfiguration().getEndpointUri(), "direct:news-feed3");
         Assert.assertEquals(camelEndpoint.getEndpointConfiguration().getPollingInterval(), 200L);
+        Assert.assertEquals(camelEndpoint.getEndpointConfiguration().getObjectStore(), beanDefinitionContext.getBean("objectStore", ExpiringObjectStore.class));
         Assert.assertEquals(camelEndpoint.getActor(), beanDefinitionContext.getBean("testActor", TestActor.class));
     }
 }
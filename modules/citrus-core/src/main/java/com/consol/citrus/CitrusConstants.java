@@ -35,6 +35,9 @@ public final class CitrusConstants {
     /** File encoding system property */
     public static final String CITRUS_FILE_ENCODING = "citrus.file.encoding";
 
+    /** XML payload size system property above which XML messages are validated in streaming mode */
+    public static final String CITRUS_XML_STREAMING_THRESHOLD = "citrus.xml.streaming.threshold";
+
     /** Prefix/sufix used to identify variable expressions */
     public static final String VARIABLE_PREFIX = "${";
     public static final char VARIABLE_SUFFIX = '}';
@@ -19,6 +19,7 @@ package com.consol.citrus.actions;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.util.FileUtils;
+import com.consol.citrus.xml.XsltTemplatesCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.xml.transform.StringResult;
@@ -80,21 +81,20 @@ public class TransformAction extends AbstractTestAction {
         				"Cannot transform XML document.");
 			}
 			
-			//parse XSLT document and define  XSLT source for transformation
-			Source xsltSource = null;
+			//resolve XSLT document
+			String xslt;
 			if (xsltResourcePath != null) {
-				xsltSource = new StringSource(context.replaceDynamicContentInString(FileUtils.readToString(FileUtils.getFileResource(xsltResourcePath, context))));
+				xslt = context.replaceDynamicContentInString(FileUtils.readToString(FileUtils.getFileResource(xsltResourcePath, context)));
 			} else if (xsltData != null) {
-				xsltSource = new StringSource(context.replaceDynamicContentInString(xsltData));
+				xslt = context.replaceDynamicContentInString(xsltData);
 			} else {
 				throw new CitrusRuntimeException("Neither inline XSLT nor " +
                 		"external file resource is defined for bean. " +
         				"Cannot transform XSLT document.");
 			}
 			
-			//create transformer
-			TransformerFactory transformerFactory = TransformerFactory.newInstance();
-			Transformer transformer = transformerFactory.newTransformer(xsltSource);
+			//create transformer from compiled and cached stylesheet
+			Transformer transformer = XsltTemplatesCache.newTransformer(xslt);
 			
 			//transform
 			StringResult result = new StringResult();
@@ -19,12 +19,14 @@ package com.consol.citrus.channel;
 import com.consol.citrus.endpoint.PollableEndpointConfiguration;
 import com.consol.citrus.message.DefaultMessageCorrelator;
 import com.consol.citrus.message.MessageCorrelator;
+import com.consol.citrus.message.correlation.ObjectStore;
+import com.consol.citrus.message.correlation.ObjectStoreProvider;
 
 /**
  * @author Christoph Deppisch
  * @since 1.4
  */
-public class ChannelSyncEndpointConfiguration extends ChannelEndpointConfiguration implements PollableEndpointConfiguration {
+public class ChannelSyncEndpointConfiguration extends ChannelEndpointConfiguration implements PollableEndpointConfiguration, ObjectStoreProvider {
 
     /** Reply message correlator */
     private MessageCorrelator correlator = new DefaultMessageCorrelator();
@@ -32,6 +34,9 @@ public class ChannelSyncEndpointConfiguration extends ChannelEndpointConfigurati
     /** Polling interval when waiting for synchronous reply message to arrive */
     private long pollingInterval = 500;
 
+    /** Object store for correlated objects, default object store of correlation manager is used when not set */
+    private ObjectStore objectStore;
+
     /**
      * Set the reply message correlator.
      * @param correlator the correlator to set
@@ -63,4 +68,20 @@ public class ChannelSyncEndpointConfiguration extends ChannelEndpointConfigurati
     public void setPollingInterval(long pollingInterval) {
         this.pollingInterval = pollingInterval;
     }
+
+    /**
+     * Gets the objectStore.
+     * @return the objectStore the objectStore to get.
+     */
+    public ObjectStore getObjectStore() {
+        return objectStore;
+    }
+
+    /**
+     * Sets the objectStore.
+     * @param objectStore the objectStore to set
+     */
+    public void setObjectStore(ObjectStore objectStore) {
+        this.objectStore = objectStore;
+    }
 }
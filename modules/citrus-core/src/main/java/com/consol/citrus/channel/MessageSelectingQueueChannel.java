@@ -15,18 +15,26 @@
  */
 package com.consol.citrus.channel;
 
+import com.consol.citrus.channel.selector.DispatchingMessageSelector;
+import com.consol.citrus.channel.selector.HeaderMatchingMessageSelector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.Message;
 import org.springframework.integration.channel.QueueChannel;
 import org.springframework.integration.core.MessageSelector;
 import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.*;
+import java.util.concurrent.*;
 
 /**
- * Added selective consumption of messages according to a message selector implementation.
+ * Added selective consumption of messages according to a message selector implementation. Consumers waiting for
+ * a selected message are notified as soon as new messages arrive on the channel so that newly arrived messages
+ * are handed over without delay. In addition the whole queue is scanned again after each polling interval.
+ *
+ * Optionally channel maintains a secondary index on configured message header names. Header matching selectors
+ * that use one of these header names are resolved via index lookup instead of scanning the whole queue.
  * 
  * @author Christoph Deppisch
  */
@@ -37,8 +45,17 @@ public class MessageSelectingQueueChannel extends QueueChannel {
     /** Blocking in memory message store */
     private final BlockingQueue<Message<?>> queue;
     
-    /** Polling interval when waiting for synchronous reply message to arrive */
+    /** Polling interval when waiting for synchronous reply message to arrive, full queue is scanned again after this interval */
     private long pollingInterval = 500;
+
+    /** Arrival notification queues of consumers currently waiting for a selected message */
+    private final List<BlockingQueue<Message<?>>> waitingConsumers = new CopyOnWriteArrayList<BlockingQueue<Message<?>>>();
+
+    /** Message header names that get indexed for selective consumption */
+    private List<String> indexedHeaders = new ArrayList<String>();
+
+    /** Secondary index of queued messages by header name and header value, guarded by itself */
+    private final Map<String, Map<String, List<Message<?>>>> headerIndex = new HashMap<String, Map<String, List<Message<?>>>>();
     
     /**
      * Create a channel with the specified queue.
@@ -74,10 +91,17 @@ public class MessageSelectingQueueChannel extends QueueChannel {
      * @return
      */
     public Message<?> receive(MessageSelector selector) {
-        Object[] array = this.queue.toArray();
-        for (Object o : array) {
+        Map.Entry<String, String> indexedHeader = getIndexedHeader(selector);
+        Collection<?> candidates;
+        if (indexedHeader != null) {
+            candidates = lookupIndex(indexedHeader.getKey(), indexedHeader.getValue());
+        } else {
+            candidates = Arrays.asList(this.queue.toArray());
+        }
+
+        for (Object o : candidates) {
             Message<?> message = (Message<?>) o;
-            if (selector.accept(message) && this.queue.remove(message)) {
+            if (selector.accept(message) && remove(message)) {
                 return message;
             }
         }
@@ -86,36 +110,299 @@ public class MessageSelectingQueueChannel extends QueueChannel {
     }
     
     /**
-     * Consume messages on the channel via message selector. Timeout forces several retries
-     * with polling interval setting.
+     * Consume messages on the channel via message selector. Consumer waits for new messages to arrive on the channel
+     * and checks each of them with the message selector. After each polling interval the whole queue is checked again.
      * 
      * @param selector
      * @param timeout
      * @return
      */
     public Message<?> receive(MessageSelector selector, long timeout) {
-        long timeLeft = timeout;
-        Message<?> message = receive(selector);
+        BlockingQueue<Message<?>> arrivals = new LinkedBlockingQueue<Message<?>>();
+        waitingConsumers.add(arrivals);
+
+        try {
+            long timeLeft = timeout;
+            Message<?> message = receive(selector);
+
+            while (message == null && timeLeft > 0) {
+                long waitTime = timeLeft > pollingInterval ? pollingInterval : timeLeft;
+                timeLeft -= pollingInterval;
+
+                if (RETRY_LOG.isDebugEnabled()) {
+                    RETRY_LOG.debug("No message received with message selector - waiting " + waitTime + "ms for new messages to arrive");
+                }
+
+                message = waitForArrival(selector, arrivals, waitTime);
+
+                if (message == null) {
+                    message = receive(selector);
+                }
+            }
+
+            return message;
+        } finally {
+            waitingConsumers.remove(arrivals);
+        }
+    }
+
+    /**
+     * Waits given time for new messages to arrive on this channel. Only the newly arrived messages are
+     * checked with the message selector. Returns null when no matching message has arrived in time.
+     *
+     * @param selector
+     * @param arrivals
+     * @param waitTime
+     * @return
+     */
+    private Message<?> waitForArrival(MessageSelector selector, BlockingQueue<Message<?>> arrivals, long waitTime) {
+        long waitUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTime);
+
+        try {
+            long nanosLeft = waitUntil - System.nanoTime();
+            while (nanosLeft > 0) {
+                Message<?> arrived = arrivals.poll(nanosLeft, TimeUnit.NANOSECONDS);
+
+                if (arrived != null && selector.accept(arrived) && remove(arrived)) {
+                    return arrived;
+                }
 
-        while (message == null && timeLeft > 0) {
-            timeLeft -= pollingInterval;
-            
-            if (RETRY_LOG.isDebugEnabled()) {
-                RETRY_LOG.debug("No message received with message selector - retrying in " + (timeLeft > 0 ? pollingInterval : pollingInterval + timeLeft) + "ms");
+                nanosLeft = waitUntil - System.nanoTime();
             }
-            
-            try {
-                Thread.sleep(timeLeft > 0 ? pollingInterval : pollingInterval + timeLeft);
-            } catch (InterruptedException e) {
-                RETRY_LOG.warn("Thread interrupted while waiting for retry", e);
+        } catch (InterruptedException e) {
+            RETRY_LOG.warn("Thread interrupted while waiting for retry", e);
+        }
+
+        return null;
+    }
+
+    @Override
+    protected boolean doSend(Message<?> message, long timeout) {
+        boolean sent;
+        if (!isIndexed()) {
+            sent = super.doSend(message, timeout);
+        } else {
+            sent = doSendIndexed(message, timeout);
+        }
+
+        if (sent) {
+            for (BlockingQueue<Message<?>> arrivals : waitingConsumers) {
+                arrivals.offer(message);
             }
-            
-            message = receive(selector);
         }
-        
+
+        return sent;
+    }
+
+    @Override
+    protected Message<?> doReceive(long timeout) {
+        Message<?> message = super.doReceive(timeout);
+
+        if (message != null && isIndexed()) {
+            synchronized (headerIndex) {
+                removeFromIndex(message);
+            }
+        }
+
         return message;
     }
 
+    @Override
+    public List<Message<?>> clear() {
+        synchronized (headerIndex) {
+            List<Message<?>> removed = super.clear();
+
+            for (Map<String, List<Message<?>>> valueIndex : headerIndex.values()) {
+                valueIndex.clear();
+            }
+
+            return removed;
+        }
+    }
+
+    @Override
+    public List<Message<?>> purge(MessageSelector selector) {
+        synchronized (headerIndex) {
+            List<Message<?>> purged = super.purge(selector);
+
+            for (Message<?> message : purged) {
+                removeFromIndex(message);
+            }
+
+            return purged;
+        }
+    }
+
+    /**
+     * Removes message from queue. Header index is cleaned up in the same step so
+     * index and queue stay consistent. Without indexed headers the index lock is not needed.
+     * @param message
+     * @return true if message was removed from queue.
+     */
+    private boolean remove(Message<?> message) {
+        if (!isIndexed()) {
+            return this.queue.remove(message);
+        }
+
+        synchronized (headerIndex) {
+            if (this.queue.remove(message)) {
+                removeFromIndex(message);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if any message header names are indexed on this channel.
+     * @return
+     */
+    private boolean isIndexed() {
+        return !CollectionUtils.isEmpty(indexedHeaders);
+    }
+
+    /**
+     * Finds indexed header name and expected value in message selector. Only header matching
+     * selectors are able to use the header index. Returns null if no indexed header is used by selector.
+     * @param selector
+     * @return
+     */
+    private Map.Entry<String, String> getIndexedHeader(MessageSelector selector) {
+        if (!isIndexed()) {
+            return null;
+        }
+
+        Map<String, String> matchingHeaders;
+        if (selector instanceof DispatchingMessageSelector) {
+            matchingHeaders = ((DispatchingMessageSelector) selector).getMatchingHeaders();
+        } else if (selector instanceof HeaderMatchingMessageSelector) {
+            matchingHeaders = ((HeaderMatchingMessageSelector) selector).getMatchingHeaders();
+        } else {
+            return null;
+        }
+
+        for (Map.Entry<String, String> matchEntry : matchingHeaders.entrySet()) {
+            if (indexedHeaders.contains(matchEntry.getKey())) {
+                return matchEntry;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets all queued messages that have given header value.
+     * @param headerName
+     * @param headerValue
+     * @return
+     */
+    private List<Message<?>> lookupIndex(String headerName, String headerValue) {
+        synchronized (headerIndex) {
+            Map<String, List<Message<?>>> valueIndex = headerIndex.get(headerName);
+            if (valueIndex != null && valueIndex.containsKey(headerValue)) {
+                return new ArrayList<Message<?>>(valueIndex.get(headerValue));
+            }
+        }
+
+        return Collections.emptyList();
+    }
+
+    /**
+     * Sends message to queue and adds it to the header index. Message is added to queue and index in one step
+     * so consumers never see a queued message that is not indexed yet. Only in case queue capacity is exhausted
+     * and sender has to wait for free space the index is updated after the message has been queued.
+     * @param message
+     * @param timeout
+     * @return
+     */
+    private boolean doSendIndexed(Message<?> message, long timeout) {
+        synchronized (headerIndex) {
+            if (super.doSend(message, 0)) {
+                addToIndex(message);
+                return true;
+            }
+        }
+
+        if (timeout != 0 && super.doSend(message, timeout)) {
+            synchronized (headerIndex) {
+                if (this.queue.contains(message)) {
+                    addToIndex(message);
+                }
+            }
+
+            return true;
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds message to header index for all indexed header names that are present in message. Caller must hold the index lock.
+     * @param message
+     */
+    private void addToIndex(Message<?> message) {
+        for (String headerName : indexedHeaders) {
+            String headerValue = getHeaderValue(message, headerName);
+            if (headerValue == null) {
+                continue;
+            }
+
+            Map<String, List<Message<?>>> valueIndex = headerIndex.get(headerName);
+            if (valueIndex == null) {
+                valueIndex = new HashMap<String, List<Message<?>>>();
+                headerIndex.put(headerName, valueIndex);
+            }
+
+            List<Message<?>> messages = valueIndex.get(headerValue);
+            if (messages == null) {
+                messages = new LinkedList<Message<?>>();
+                valueIndex.put(headerValue, messages);
+            }
+
+            messages.add(message);
+        }
+    }
+
+    /**
+     * Removes message from header index. Caller must hold the index lock.
+     * @param message
+     */
+    private void removeFromIndex(Message<?> message) {
+        for (Map.Entry<String, Map<String, List<Message<?>>>> indexEntry : headerIndex.entrySet()) {
+            String headerValue = getHeaderValue(message, indexEntry.getKey());
+            List<Message<?>> messages = headerValue != null ? indexEntry.getValue().get(headerValue) : null;
+
+            if (messages != null) {
+                messages.remove(message);
+
+                if (messages.isEmpty()) {
+                    indexEntry.getValue().remove(headerValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads header value from message. Citrus message headers in payload take precedence over
+     * message channel headers as it is done in {@link HeaderMatchingMessageSelector}.
+     * @param message
+     * @param headerName
+     * @return
+     */
+    private String getHeaderValue(Message<?> message, String headerName) {
+        if (message.getPayload() instanceof com.consol.citrus.message.Message) {
+            Object headerValue = ((com.consol.citrus.message.Message) message.getPayload()).getHeader(headerName);
+
+            if (headerValue != null) {
+                return headerValue.toString();
+            }
+        }
+
+        Object headerValue = message.getHeaders().get(headerName);
+        return headerValue != null ? headerValue.toString() : null;
+    }
+
     /**
      * Gets the pollingInterval.
      * @return the pollingInterval the pollingInterval to get.
@@ -131,4 +418,20 @@ public class MessageSelectingQueueChannel extends QueueChannel {
     public void setPollingInterval(long pollingInterval) {
         this.pollingInterval = pollingInterval;
     }
+
+    /**
+     * Gets the indexedHeaders.
+     * @return the indexedHeaders the indexedHeaders to get.
+     */
+    public List<String> getIndexedHeaders() {
+        return indexedHeaders;
+    }
+
+    /**
+     * Sets the indexedHeaders.
+     * @param indexedHeaders the indexedHeaders to set
+     */
+    public void setIndexedHeaders(List<String> indexedHeaders) {
+        this.indexedHeaders = indexedHeaders;
+    }
 }
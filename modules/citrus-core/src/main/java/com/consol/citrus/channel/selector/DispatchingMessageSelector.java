@@ -44,6 +44,9 @@ public class DispatchingMessageSelector implements MessageSelector {
     
     /** Spring bean factory */
     private BeanFactory beanFactory;
+
+    /** Delegate selectors created once for all messages to check */
+    private List<MessageSelector> delegateSelectors;
     
     /**
      * Default constructor using a selector string.
@@ -57,15 +60,32 @@ public class DispatchingMessageSelector implements MessageSelector {
     
     @Override
     public boolean accept(Message<?> message) {
-        boolean success = true;
+        for (MessageSelector delegate : getDelegateSelectors()) {
+            if (!delegate.accept(message)) {
+                return false;
+            }
+        }
         
+        return true;
+    }
+
+    /**
+     * Creates delegate selectors according to selector names. Delegates are created only once
+     * so they can reuse compiled expressions for all messages to check.
+     * @return
+     */
+    private List<MessageSelector> getDelegateSelectors() {
+        if (delegateSelectors != null) {
+            return delegateSelectors;
+        }
+
+        List<MessageSelector> selectors = new ArrayList<MessageSelector>();
         Map<String, String> matchingHeadersCopy = new HashMap<String, String>();
         matchingHeadersCopy.putAll(matchingHeaders);
                 
         // delegate to root QName message selector if necessary
-        if (matchingHeadersCopy.containsKey(RootQNameMessageSelector.ROOT_QNAME_SELECTOR_ELEMENT)
-                && !(new RootQNameMessageSelector(matchingHeadersCopy.remove(RootQNameMessageSelector.ROOT_QNAME_SELECTOR_ELEMENT))).accept(message)) {
-            success = false;
+        if (matchingHeadersCopy.containsKey(RootQNameMessageSelector.ROOT_QNAME_SELECTOR_ELEMENT)) {
+            selectors.add(new RootQNameMessageSelector(matchingHeadersCopy.remove(RootQNameMessageSelector.ROOT_QNAME_SELECTOR_ELEMENT)));
         }
         
         //search for xpath selector name
@@ -75,9 +95,7 @@ public class DispatchingMessageSelector implements MessageSelector {
                 foundXPathSelectors.add(headerEntry.getKey());
                 
                 // delegate to xpath evaluating message selector
-                if (!(new XPathEvaluatingMessageSelector(headerEntry.getKey(), headerEntry.getValue(), getNamespContextBuilder())).accept(message)) {
-                    success = false;
-                }
+                selectors.add(new XPathEvaluatingMessageSelector(headerEntry.getKey(), headerEntry.getValue(), getNamespContextBuilder()));
             }
         }
         
@@ -86,11 +104,10 @@ public class DispatchingMessageSelector implements MessageSelector {
             matchingHeadersCopy.remove(selectorName);
         }
         
-        if (!new HeaderMatchingMessageSelector(matchingHeadersCopy).accept(message)) {
-            success = false;
-        }
-        
-        return success;
+        selectors.add(new HeaderMatchingMessageSelector(matchingHeadersCopy));
+
+        delegateSelectors = selectors;
+        return delegateSelectors;
     }
 
     /**
@@ -111,4 +128,11 @@ public class DispatchingMessageSelector implements MessageSelector {
         return nsContextBuilder;
     }
 
+    /**
+     * Gets the matchingHeaders.
+     * @return the matchingHeaders the matchingHeaders to get.
+     */
+    public Map<String, String> getMatchingHeaders() {
+        return matchingHeaders;
+    }
 }
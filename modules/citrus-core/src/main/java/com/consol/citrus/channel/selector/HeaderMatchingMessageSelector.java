@@ -68,4 +68,11 @@ public class HeaderMatchingMessageSelector implements MessageSelector {
         return true;
     }
 
+    /**
+     * Gets the matchingHeaders.
+     * @return the matchingHeaders the matchingHeaders to get.
+     */
+    public Map<String, String> getMatchingHeaders() {
+        return matchingHeaders;
+    }
 }
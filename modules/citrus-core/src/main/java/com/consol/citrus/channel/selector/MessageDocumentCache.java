@@ -0,0 +1,165 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.channel.selector;
+
+import com.consol.citrus.util.XMLUtils;
+import org.springframework.messaging.Message;
+import org.w3c.dom.Document;
+import org.w3c.dom.ls.LSException;
+
+import java.util.*;
+
+/**
+ * Cache holds parsed XML payload documents of queued channel messages. Message selectors evaluate the same
+ * queued messages over and over again while waiting for a matching message to arrive. With this cache each message
+ * payload is parsed at most once. Cache entries are weakly tied to the message so entries are released as soon
+ * as the message itself is garbage collected.
+ *
+ * Parsed documents are shared between selectors, so callers must synchronize on the document when evaluating
+ * expressions on it as DOM implementations are not guaranteed to be thread safe even for read operations.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public final class MessageDocumentCache {
+
+    /** Parsed payloads weakly referenced by message */
+    private static final Map<Message<?>, ParsedPayload> cache = Collections.synchronizedMap(new WeakHashMap<Message<?>, ParsedPayload>());
+
+    /** Number of internal parse locks */
+    private static final int PARSE_LOCK_COUNT = 16;
+
+    /** Internal parse locks striped by message identity */
+    private static final Object[] parseLocks = new Object[PARSE_LOCK_COUNT];
+
+    static {
+        for (int i = 0; i < PARSE_LOCK_COUNT; i++) {
+            parseLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Prevent instantiation.
+     */
+    private MessageDocumentCache() {
+    }
+
+    /**
+     * Gets parsed XML document for message payload. Parses the payload in case message is not cached yet.
+     * @param message
+     * @throws LSException in case message payload is not well-formed XML.
+     * @return
+     */
+    public static Document getDocument(Message<?> message) {
+        return getParsedPayload(message).getDocument();
+    }
+
+    /**
+     * Gets namespace declarations on the message payload root element. Returns a new modifiable map instance
+     * so callers may add further namespace mappings.
+     * @param message
+     * @throws LSException in case message payload is not well-formed XML.
+     * @return
+     */
+    public static Map<String, String> getNamespaces(Message<?> message) {
+        return new HashMap<String, String>(getParsedPayload(message).getNamespaces());
+    }
+
+    /**
+     * Gets cached parsed payload or parses message payload. Parsing is synchronized on an internal
+     * lock chosen by message identity so several selectors do not parse the same message in parallel.
+     * Messages are never used as lock as they are owned by callers.
+     * @param message
+     * @return
+     */
+    private static ParsedPayload getParsedPayload(Message<?> message) {
+        ParsedPayload parsedPayload = cache.get(message);
+
+        if (parsedPayload == null) {
+            synchronized (getParseLock(message)) {
+                parsedPayload = cache.get(message);
+
+                if (parsedPayload == null) {
+                    parsedPayload = parse(message);
+                    cache.put(message, parsedPayload);
+                }
+            }
+        }
+
+        return parsedPayload;
+    }
+
+    /**
+     * Gets internal parse lock for message.
+     * @param message
+     * @return
+     */
+    private static Object getParseLock(Message<?> message) {
+        return parseLocks[(System.identityHashCode(message) & Integer.MAX_VALUE) % PARSE_LOCK_COUNT];
+    }
+
+    /**
+     * Parses message payload. Errors are saved so non XML payloads are not parsed again.
+     * @param message
+     * @return
+     */
+    private static ParsedPayload parse(Message<?> message) {
+        String payload;
+        if (message.getPayload() instanceof com.consol.citrus.message.Message) {
+            payload = ((com.consol.citrus.message.Message) message.getPayload()).getPayload(String.class);
+        } else {
+            payload = message.getPayload().toString();
+        }
+
+        try {
+            Document doc = XMLUtils.parseMessagePayload(payload);
+            return new ParsedPayload(doc, XMLUtils.lookupNamespaces(doc), null);
+        } catch (LSException e) {
+            return new ParsedPayload(null, null, e);
+        }
+    }
+
+    /**
+     * Parsed message payload holding either the document or the parsing error.
+     */
+    private static final class ParsedPayload {
+        private final Document document;
+        private final Map<String, String> namespaces;
+        private final LSException error;
+
+        private ParsedPayload(Document document, Map<String, String> namespaces, LSException error) {
+            this.document = document;
+            this.namespaces = namespaces;
+            this.error = error;
+        }
+
+        private Document getDocument() {
+            if (error != null) {
+                throw error;
+            }
+
+            return document;
+        }
+
+        private Map<String, String> getNamespaces() {
+            if (error != null) {
+                throw error;
+            }
+
+            return namespaces;
+        }
+    }
+}
@@ -16,7 +16,6 @@
 package com.consol.citrus.channel.selector;
 
 import com.consol.citrus.exceptions.CitrusRuntimeException;
-import com.consol.citrus.util.XMLUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.Message;
@@ -29,7 +28,8 @@ import org.w3c.dom.ls.LSException;
 import javax.xml.namespace.QName;
 
 /**
- * Message selector accepts XML messages according to specified root element QName.
+ * Message selector accepts XML messages according to specified root element QName. Parsed message
+ * payloads are shared via {@link MessageDocumentCache}.
  * 
  * @author Christoph Deppisch
  */
@@ -60,23 +60,18 @@ public class RootQNameMessageSelector implements MessageSelector {
         Document doc;
         
         try {
-            String payload;
-            if (message.getPayload() instanceof com.consol.citrus.message.Message) {
-                payload = ((com.consol.citrus.message.Message) message.getPayload()).getPayload(String.class);
-            } else {
-                payload = message.getPayload().toString();
-            }
-
-            doc = XMLUtils.parseMessagePayload(payload);
+            doc = MessageDocumentCache.getDocument(message);
         } catch (LSException e) {
             log.warn("Root QName message selector ignoring not well-formed XML message payload", e);
             return false; // non XML message - not accepted
         }
-        
-        if (StringUtils.hasText(rootQName.getNamespaceURI())) {
-            return rootQName.equals(QNameUtils.getQNameForNode(doc.getFirstChild())); 
-        } else {
-            return rootQName.getLocalPart().equals(doc.getFirstChild().getLocalName());
+
+        synchronized (doc) {
+            if (StringUtils.hasText(rootQName.getNamespaceURI())) {
+                return rootQName.equals(QNameUtils.getQNameForNode(doc.getFirstChild()));
+            } else {
+                return rootQName.getLocalPart().equals(doc.getFirstChild().getLocalName());
+            }
         }
     }
 
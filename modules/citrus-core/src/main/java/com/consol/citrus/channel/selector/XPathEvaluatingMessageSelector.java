@@ -15,18 +15,18 @@
  */
 package com.consol.citrus.channel.selector;
 
-import com.consol.citrus.util.XMLUtils;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.xml.namespace.NamespaceContextBuilder;
 import com.consol.citrus.xml.xpath.XPathUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.messaging.Message;
 import org.springframework.integration.core.MessageSelector;
-import org.springframework.xml.xpath.XPathExpressionFactory;
-import org.springframework.xml.xpath.XPathParseException;
+import org.springframework.xml.namespace.SimpleNamespaceContext;
 import org.w3c.dom.Document;
 import org.w3c.dom.ls.LSException;
 
+import javax.xml.xpath.XPathConstants;
 import java.util.Map;
 
 /**
@@ -35,6 +35,10 @@ import java.util.Map;
  * element value for instance.
  * 
  * Syntax is xpath://root/element
+ *
+ * Parsed message payloads are shared via {@link MessageDocumentCache} and compiled XPath expressions are pooled in the
+ * {@link com.consol.citrus.xml.xpath.XPathExpressionCache} so repeated evaluations on queued messages do not parse and
+ * compile again.
  * 
  * @author Christoph Deppisch
  * @since 1.2
@@ -49,7 +53,7 @@ public class XPathEvaluatingMessageSelector implements MessageSelector {
     
     /** Namespace context builder */
     private NamespaceContextBuilder nsContextBuilder;
-    
+
     /** Special selector element name identifying this message selector implementation */
     public static final String XPATH_SELECTOR_ELEMENT = "xpath:";
     
@@ -68,38 +72,33 @@ public class XPathEvaluatingMessageSelector implements MessageSelector {
     @Override
     public boolean accept(Message<?> message) {
         Document doc;
+        Map<String, String> namespaces;
 
         try {
-            String payload;
-            if (message.getPayload() instanceof com.consol.citrus.message.Message) {
-                payload = ((com.consol.citrus.message.Message) message.getPayload()).getPayload(String.class);
-            } else {
-                payload = message.getPayload().toString();
-            }
-
-            doc = XMLUtils.parseMessagePayload(payload);
+            doc = MessageDocumentCache.getDocument(message);
+            namespaces = MessageDocumentCache.getNamespaces(message);
         } catch (LSException e) {
             log.warn("Ignoring non XML message for XPath message selector (" + e.getClass().getName() + ")");
             return false; // non XML message - not accepted
         }
         
         try {
-            Map<String, String> namespaces = XMLUtils.lookupNamespaces(doc);
-            
             // add default namespace mappings
             namespaces.putAll(nsContextBuilder.getNamespaceMappings());
-            
+
+            String xPathExpression = expression;
             if (XPathUtils.hasDynamicNamespaces(expression)) {
                 namespaces.putAll(XPathUtils.getDynamicNamespaces(expression));
-                return XPathExpressionFactory.createXPathExpression(XPathUtils.replaceDynamicNamespaces(expression, namespaces), namespaces)
-                        .evaluateAsString(doc).equals(control);
-            } else {
-                return XPathExpressionFactory.createXPathExpression(expression, namespaces)
-                        .evaluateAsString(doc).equals(control);
+                xPathExpression = XPathUtils.replaceDynamicNamespaces(expression, namespaces);
+            }
+
+            SimpleNamespaceContext nsContext = new SimpleNamespaceContext();
+            nsContext.setBindings(namespaces);
+
+            synchronized (doc) {
+                return XPathUtils.evaluateExpression(doc, xPathExpression, nsContext, XPathConstants.STRING).equals(control);
             }
-            
-            
-        } catch (XPathParseException e) {
+        } catch (CitrusRuntimeException e) {
             log.warn("Could not evaluate XPath expression for message selector - ignoring message (" + e.getClass().getName() + ")");
             return false; // wrong XML message - not accepted
         }
@@ -51,5 +51,7 @@ public class ChannelSyncEndpointParser extends AbstractChannelEndpointParser {
 
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration,
                 element.getAttribute("polling-interval"), "pollingInterval");
+        BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration,
+                element.getAttribute("object-store"), "objectStore");
     }
 }
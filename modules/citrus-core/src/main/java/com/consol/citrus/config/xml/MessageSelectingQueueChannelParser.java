@@ -20,11 +20,14 @@ import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.xml.BeanDefinitionParser;
 import org.springframework.beans.factory.xml.ParserContext;
+import org.springframework.util.StringUtils;
 import org.w3c.dom.Element;
 
 import com.consol.citrus.channel.MessageSelectingQueueChannel;
 import com.consol.citrus.config.util.BeanDefinitionParserUtils;
 
+import java.util.Arrays;
+
 /**
  * Bean definition parser for special message channel configuration which
  * supports message selection.
@@ -42,6 +45,10 @@ public class MessageSelectingQueueChannelParser implements BeanDefinitionParser
         BeanDefinitionParserUtils.setConstructorArgValue(builder, element.getAttribute("capacity"));
         
         BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("polling-interval"), "pollingInterval");
+
+        if (StringUtils.hasText(element.getAttribute("indexed-headers"))) {
+            builder.addPropertyValue("indexedHeaders", Arrays.asList(StringUtils.trimArrayElements(StringUtils.commaDelimitedListToStringArray(element.getAttribute("indexed-headers")))));
+        }
         
         parserContext.getRegistry().registerBeanDefinition(element.getAttribute("id"), builder.getBeanDefinition());
         
@@ -13,7 +13,6 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package com.consol.citrus.container;
 
 import com.consol.citrus.TestAction;
@@ -22,23 +21,40 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.exceptions.ParallelContainerException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Test action will execute nested actions in parallel. Each action is executed in a
- * separate thread. Container joins all threads and waiting for them to end successfully.
+ * separate thread. Container waits for all actions to end successfully.
+ *
+ * By default each execution uses its own thread pool with one thread per nested action. Maximum concurrency limits
+ * the number of actions running at the same time, remaining actions are started as soon as running actions finish.
+ * Optional executor service is shared across executions and is not shut down by this container. Be aware that
+ * nested parallel containers sharing a bounded executor may wait for each other forever, so do not share bounded
+ * executors with nested parallel containers.
+ *
+ * Optional timeout limits the overall execution time of all nested actions. On timeout or in fail fast mode on
+ * first action error all actions still running get interrupted and remaining actions are not started at all.
  * 
  * @author Christoph Deppisch
  */
 public class Parallel extends AbstractActionContainer {
 
-    /** Store created threads in stack */
-    private Stack<Thread> threads = new Stack<Thread>();
+    /** Maximum number of actions running at the same time, zero or less means all actions at once */
+    private int maxConcurrency = 0;
+
+    /** Overall timeout in milliseconds for all nested actions, zero or less means no timeout */
+    private long timeout = 0L;
+
+    /** Stop on first action error */
+    private boolean failFast = false;
+
+    /** Optional shared executor service */
+    private ExecutorService executorService;
 
-    /** Collect exceptions in list */
-    private List<CitrusRuntimeException> exceptions = new ArrayList<CitrusRuntimeException>();
-    
     /** Logger */
     private static Logger log = LoggerFactory.getLogger(Parallel.class);
 
@@ -51,27 +67,76 @@ public class Parallel extends AbstractActionContainer {
 
     @Override
     public void doExecute(TestContext context) {
-        for (final TestAction action : actions) {
-            Thread t = new Thread(new ActionRunner(action, context) {
-                @Override
-                public void exceptionCallback(CitrusRuntimeException e) {
+        if (actions.isEmpty()) {
+            return;
+        }
+
+        int concurrency = maxConcurrency > 0 ? Math.min(maxConcurrency, actions.size()) : actions.size();
+
+        ExecutorService executor = executorService;
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory(getName() + "-"));
+        }
+
+        CompletionService<ActionRunner> completionService = new ExecutorCompletionService<ActionRunner>(executor);
+        List<Future<ActionRunner>> futures = new ArrayList<Future<ActionRunner>>();
+        List<CitrusRuntimeException> exceptions = new ArrayList<CitrusRuntimeException>();
+        Iterator<TestAction> pending = actions.iterator();
+        long deadline = System.currentTimeMillis() + timeout;
+        int running = 0;
+
+        try {
+            while (running < concurrency && pending.hasNext()) {
+                futures.add(completionService.submit(new ActionRunner(pending.next(), context)));
+                running++;
+            }
+
+            while (running > 0) {
+                Future<ActionRunner> completed;
+                if (timeout > 0) {
+                    long remaining = deadline - System.currentTimeMillis();
+                    completed = remaining > 0 ? completionService.poll(remaining, TimeUnit.MILLISECONDS) : null;
+
+                    if (completed == null) {
+                        log.error(String.format("Parallel container timed out after %s ms - interrupting running actions", timeout));
+                        exceptions.add(new CitrusRuntimeException(String.format("Parallel container timed out after %s ms", timeout)));
+                        break;
+                    }
+                } else {
+                    completed = completionService.take();
+                }
+
+                running--;
+
+                ActionRunner result = getResult(completed);
+                if (result.getException() != null) {
                     if (exceptions.isEmpty()) {
-                        setLastExecutedAction(action);
+                        setLastExecutedAction(result.getAction());
+                    }
+
+                    exceptions.add(result.getException());
+
+                    if (failFast) {
+                        log.info("Parallel container fail fast - cancelling remaining actions");
+                        break;
                     }
-                    
-                    exceptions.add(e);
                 }
-            });
 
-            threads.push(t);
-            t.start();
-        }
+                if (pending.hasNext()) {
+                    futures.add(completionService.submit(new ActionRunner(pending.next(), context)));
+                    running++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exceptions.add(new CitrusRuntimeException("Interrupted while waiting for parallel actions to finish", e));
+        } finally {
+            for (Future<ActionRunner> future : futures) {
+                future.cancel(true);
+            }
 
-        while (!threads.isEmpty()) {
-            try {
-                threads.pop().join();
-            } catch (InterruptedException e) {
-                log.error("Unable to join thread", e);
+            if (executorService == null) {
+                executor.shutdownNow();
             }
         }
         
@@ -85,14 +150,32 @@ public class Parallel extends AbstractActionContainer {
     }
 
     /**
-     * Runnable wrapper for executing an action in separate Thread.
+     * Gets action runner result from completed future.
+     * @param completed
+     * @return
+     * @throws InterruptedException
+     */
+    private ActionRunner getResult(Future<ActionRunner> completed) throws InterruptedException {
+        try {
+            return completed.get();
+        } catch (ExecutionException e) {
+            throw new CitrusRuntimeException("Failed to execute parallel action", e.getCause());
+        }
+    }
+
+    /**
+     * Callable wrapper for executing an action in separate Thread. Returns itself holding
+     * the optional action error.
      */
-    private abstract static class ActionRunner implements Runnable {
+    private static class ActionRunner implements Callable<ActionRunner> {
         /** Test action to execute */
-        private TestAction action;
+        private final TestAction action;
         
         /** Test context */
-        private TestContext context;
+        private final TestContext context;
+
+        /** Error raised by test action */
+        private CitrusRuntimeException exception;
         
         public ActionRunner(TestAction action, TestContext context) {
             this.action = action;
@@ -102,28 +185,104 @@ public class Parallel extends AbstractActionContainer {
         /**
          * Run the test action
          */
-        public void run() {
+        public ActionRunner call() {
             try {
                 action.execute(context);
             } catch (CitrusRuntimeException e) {
                 log.error("Parallel test action raised error", e);
-                exceptionCallback(e);
+                exception = e;
             } catch (RuntimeException e) {
                 log.error("Parallel test action raised error", e);
-                exceptionCallback(new CitrusRuntimeException(e));
+                exception = new CitrusRuntimeException(e);
             } catch (Exception e) {
                 log.error("Parallel test action raised error", e);
-                exceptionCallback(new CitrusRuntimeException(e));
+                exception = new CitrusRuntimeException(e);
             } catch (Error e) {
                 log.error("Parallel test action raised error", e);
-                exceptionCallback(new CitrusRuntimeException(e));
+                exception = new CitrusRuntimeException(e);
             }
+
+            return this;
         }
-        
+
         /**
-         * Callback for exception tracking.
-         * @param exception
+         * Gets the test action.
+         * @return
          */
-        public abstract void exceptionCallback(CitrusRuntimeException exception);
+        public TestAction getAction() {
+            return action;
+        }
+
+        /**
+         * Gets the error raised by test action.
+         * @return
+         */
+        public CitrusRuntimeException getException() {
+            return exception;
+        }
+    }
+
+    /**
+     * Gets the maxConcurrency.
+     * @return the maxConcurrency the maxConcurrency to get.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the maxConcurrency.
+     * @param maxConcurrency the maxConcurrency to set
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Gets the timeout.
+     * @return the timeout the timeout to get.
+     */
+    public long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the timeout.
+     * @param timeout the timeout to set
+     */
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the failFast.
+     * @return the failFast the failFast to get.
+     */
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    /**
+     * Sets the failFast.
+     * @param failFast the failFast to set
+     */
+    public void setFailFast(boolean failFast) {
+        this.failFast = failFast;
+    }
+
+    /**
+     * Gets the executorService.
+     * @return the executorService the executorService to get.
+     */
+    public ExecutorService getExecutorService() {
+        return executorService;
+    }
+
+    /**
+     * Sets the executorService.
+     * @param executorService the executorService to set
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
     }
-}
\ No newline at end of file
+}
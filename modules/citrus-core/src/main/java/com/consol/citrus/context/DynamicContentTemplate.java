@@ -0,0 +1,684 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.context;
+
+import com.consol.citrus.CitrusConstants;
+import com.consol.citrus.exceptions.NoSuchFunctionException;
+import com.consol.citrus.exceptions.NoSuchVariableException;
+import com.consol.citrus.functions.*;
+import com.consol.citrus.variable.VariableUtils;
+
+import java.util.*;
+
+/**
+ * Compiled template for replacing variables and functions in a string. The source string is tokenized once into
+ * literal, variable and function nodes where function nodes hold their arguments as nested nodes. Evaluating
+ * a compiled template against a test context is a single pass over these nodes, so large message templates are not
+ * rescanned for each registered function library over and over again.
+ *
+ * Compiled templates are cached by source string. Templates that can not be represented as nodes with the exact
+ * same result as {@link VariableUtils#replaceVariablesInString(String, TestContext, boolean)} followed by
+ * {@link FunctionUtils#replaceFunctionsInString(String, TestContext, boolean)} are evaluated with these utility
+ * methods instead. Function nodes are only compiled for the last registered function library, as function utilities evaluate
+ * each library in a separate pass over the output of the previous library and results of the last library are never rescanned.
+ * Templates holding prefixes of other function libraries as well as malformed function expressions are evaluated with the
+ * utility methods right away. Variable values that contain function expressions themselves are detected before
+ * any function is executed, so functions are never executed twice.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public final class DynamicContentTemplate {
+
+    /** Maximum number of cached templates */
+    private static final int MAX_CACHE_SIZE = 1000;
+
+    /** Maximum number of source characters held by cached templates */
+    private static final long MAX_CACHE_CHARACTERS = 10 * 1024 * 1024;
+
+    /** Compiled templates by source string in least recently used order, guarded by itself */
+    private static final LinkedHashMap<String, DynamicContentTemplate> cache = new LinkedHashMap<String, DynamicContentTemplate>(16, 0.75f, true);
+
+    /** Number of source characters held by cached templates */
+    private static long cachedCharacters = 0L;
+
+    /** Marks variable positions in tokenized source string */
+    private static final char VARIABLE_PLACEHOLDER = '\uE000';
+
+    /** Template source */
+    private final String source;
+
+    /** Function library prefixes this template was compiled for */
+    private final List<String> prefixes;
+
+    /** Maximum length of function library prefixes */
+    private final int maxPrefixLength;
+
+    /** Top level template nodes */
+    private final List<Node> nodes;
+
+    /** All variable nodes in order of appearance */
+    private final List<VariableNode> variables;
+
+    /** Marks template that has to be evaluated with variable and function utilities */
+    private final boolean legacy;
+
+    /**
+     * Constructor using fields.
+     * @param source
+     * @param prefixes
+     * @param nodes
+     * @param variables
+     * @param legacy
+     */
+    private DynamicContentTemplate(String source, List<String> prefixes, List<Node> nodes, List<VariableNode> variables, boolean legacy) {
+        this.source = source;
+        this.prefixes = prefixes;
+        this.nodes = nodes;
+        this.variables = variables;
+        this.legacy = legacy;
+
+        int maxLength = 0;
+        for (String prefix : prefixes) {
+            maxLength = Math.max(maxLength, prefix.length());
+        }
+        this.maxPrefixLength = maxLength;
+    }
+
+    /**
+     * Gets compiled template for source string. Template is compiled in case it is not cached yet or in case
+     * function libraries have changed since compilation.
+     * @param source the template source.
+     * @param functionRegistry the function registry providing available function libraries.
+     * @return the compiled template.
+     */
+    public static DynamicContentTemplate getTemplate(String source, FunctionRegistry functionRegistry) {
+        List<String> prefixes = new ArrayList<String>(functionRegistry.getFunctionLibraries().size());
+        for (FunctionLibrary library : functionRegistry.getFunctionLibraries()) {
+            prefixes.add(library.getPrefix());
+        }
+
+        synchronized (cache) {
+            DynamicContentTemplate template = cache.get(source);
+            if (template != null && template.prefixes.equals(prefixes)) {
+                return template;
+            }
+        }
+
+        DynamicContentTemplate template = compile(source, prefixes);
+
+        if (template.isDynamic()) {
+            synchronized (cache) {
+                DynamicContentTemplate previous = cache.put(source, template);
+                if (previous == null) {
+                    cachedCharacters += source.length();
+                }
+
+                Iterator<Map.Entry<String, DynamicContentTemplate>> it = cache.entrySet().iterator();
+                while ((cache.size() > MAX_CACHE_SIZE || cachedCharacters > MAX_CACHE_CHARACTERS) && it.hasNext()) {
+                    cachedCharacters -= it.next().getKey().length();
+                    it.remove();
+                }
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * Compiles source string to template using given function library prefixes.
+     * @param source the template source.
+     * @param prefixes the function library prefixes in order of registration.
+     * @return the compiled template.
+     */
+    public static DynamicContentTemplate compile(String source, List<String> prefixes) {
+        return new Compiler(source, prefixes).compile();
+    }
+
+    /**
+     * Evaluates template replacing all variables and functions with respective values. Variable values and function
+     * results get surrounded with single quotes if quoting is enabled.
+     * @param context the test context.
+     * @param enableQuoting flag marking surrounding quotes should be added or not.
+     * @return resulting string without any variable place holders and functions.
+     */
+    public String evaluate(TestContext context, boolean enableQuoting) {
+        if (legacy) {
+            return evaluateLegacy(context, enableQuoting);
+        }
+
+        if (!isDynamic()) {
+            return source;
+        }
+
+        // resolve all variables first so errors and values are the same as with variable utilities
+        String[] values = new String[variables.size()];
+        for (int i = 0; i < values.length; i++) {
+            VariableNode variable = variables.get(i);
+            String value = context.getVariable(variable.getName());
+            if (value == null) {
+                throw new NoSuchVariableException("Variable: " + variable.getName() + " could not be found");
+            }
+
+            values[i] = enableQuoting ? "'" + value + "'" : value;
+
+            if (!isSafeValue(variable, values[i])) {
+                return evaluateLegacy(context, enableQuoting);
+            }
+        }
+
+        StringBuilder result = new StringBuilder(source.length());
+        for (Node node : nodes) {
+            node.appendTo(result, values, context, enableQuoting);
+        }
+
+        return result.toString();
+    }
+
+    /**
+     * Evaluates source string with variable and function utilities.
+     * @param context
+     * @param enableQuoting
+     * @return
+     */
+    private String evaluateLegacy(TestContext context, boolean enableQuoting) {
+        String result = VariableUtils.replaceVariablesInString(source, context, enableQuoting);
+        return FunctionUtils.replaceFunctionsInString(result, context, enableQuoting);
+    }
+
+    /**
+     * Checks that inserted variable value does not change the template structure. This is the case when value
+     * contains function expressions, or when value is part of function arguments and holds brackets or
+     * variable expressions that would be evaluated again.
+     * @param variable
+     * @param value
+     * @return
+     */
+    private boolean isSafeValue(VariableNode variable, String value) {
+        if (variable.isFunctionArgument() &&
+                (value.indexOf('(') >= 0 || value.indexOf(')') >= 0 || value.contains(CitrusConstants.VARIABLE_PREFIX))) {
+            return false;
+        }
+
+        if (maxPrefixLength == 0 || value.length() == 0) {
+            return true;
+        }
+
+        String before = variable.getBefore();
+        String after = variable.getAfter();
+
+        if (value.length() < maxPrefixLength) {
+            return !containsPrefix(before + value + after, before.length(), before.length() + value.length());
+        }
+
+        for (String prefix : prefixes) {
+            if (value.contains(prefix)) {
+                return false;
+            }
+        }
+
+        return !containsPrefix(before + value.substring(0, maxPrefixLength), before.length(), before.length() + maxPrefixLength) &&
+                !containsPrefix(value.substring(value.length() - maxPrefixLength) + after, 0, maxPrefixLength);
+    }
+
+    /**
+     * Checks if window holds a function library prefix that overlaps given range.
+     * @param window
+     * @param from
+     * @param to
+     * @return
+     */
+    private boolean containsPrefix(String window, int from, int to) {
+        for (String prefix : prefixes) {
+            int index = window.indexOf(prefix);
+            while (index >= 0 && index < to) {
+                if (index + prefix.length() > from) {
+                    return true;
+                }
+
+                index = window.indexOf(prefix, index + 1);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if template holds any variables or functions.
+     * @return
+     */
+    public boolean isDynamic() {
+        return legacy || nodes.size() != 1 || !(nodes.get(0) instanceof LiteralNode);
+    }
+
+    /**
+     * Gets the source.
+     * @return the source the source to get.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Removes all cached templates.
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+            cachedCharacters = 0L;
+        }
+    }
+
+    /**
+     * Compiles source string to template nodes. Tokenizes variables first with exactly the same rules as variable
+     * utilities. Afterwards functions are searched in the tokenized string where variables are represented by
+     * a placeholder character.
+     */
+    private static final class Compiler {
+        private final String source;
+        private final List<String> prefixes;
+        private final int maxPrefixLength;
+
+        /** Prefix of last registered function library, the only library compiled to function nodes */
+        private final String functionPrefix;
+
+        /** Tokenized source with variable placeholders */
+        private String tokenized;
+        private final List<String> variableNames = new ArrayList<String>();
+        private final List<VariableNode> variables = new ArrayList<VariableNode>();
+        private int nextVariable = 0;
+
+        /** Next known occurrence of function prefix in tokenized string */
+        private int occurrence = -2;
+
+        private boolean legacy = false;
+
+        private Compiler(String source, List<String> prefixes) {
+            this.source = source;
+            this.prefixes = prefixes;
+
+            int maxLength = 0;
+            for (String prefix : prefixes) {
+                maxLength = Math.max(maxLength, prefix.length());
+            }
+            this.maxPrefixLength = maxLength;
+            this.functionPrefix = prefixes.isEmpty() ? null : prefixes.get(prefixes.size() - 1);
+        }
+
+        private DynamicContentTemplate compile() {
+            if (source.indexOf(VARIABLE_PLACEHOLDER) >= 0 || !isSingleFunctionLibrary()) {
+                return new DynamicContentTemplate(source, prefixes, Collections.<Node>emptyList(), Collections.<VariableNode>emptyList(), true);
+            }
+
+            tokenized = tokenizeVariables();
+
+            List<Node> nodes = parse(0, tokenized.length(), false);
+
+            if (legacy) {
+                return new DynamicContentTemplate(source, prefixes, Collections.<Node>emptyList(), Collections.<VariableNode>emptyList(), true);
+            }
+
+            if (nodes.isEmpty()) {
+                nodes.add(new LiteralNode(""));
+            }
+
+            return new DynamicContentTemplate(source, prefixes, nodes, variables, false);
+        }
+
+        /**
+         * Function expressions are only compiled when source holds no prefix of other function libraries than the last
+         * registered one and when this prefix ends with a single colon. Otherwise function library passes of function
+         * utilities may evaluate function results or overlapping prefixes again.
+         * @return
+         */
+        private boolean isSingleFunctionLibrary() {
+            if (functionPrefix == null) {
+                return true;
+            }
+
+            if (functionPrefix.length() == 0 || functionPrefix.indexOf(':') != functionPrefix.length() - 1) {
+                return false;
+            }
+
+            for (int i = 0; i < prefixes.size() - 1; i++) {
+                String prefix = prefixes.get(i);
+                if (prefix == null || prefix.length() == 0 || source.contains(prefix)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * Replaces variable expressions with placeholder characters and saves variable names. Uses the same
+         * rules as {@link VariableUtils#replaceVariablesInString(String, TestContext, boolean)}.
+         * @return
+         */
+        private String tokenizeVariables() {
+            if (source.indexOf(CitrusConstants.VARIABLE_PREFIX) < 0) {
+                return source;
+            }
+
+            StringBuilder newStr = new StringBuilder(source.length());
+            StringBuilder variableNameBuf = new StringBuilder();
+
+            int startIndex = 0;
+            int curIndex;
+            int searchIndex;
+
+            while ((searchIndex = source.indexOf(CitrusConstants.VARIABLE_PREFIX, startIndex)) != -1) {
+                int control = 0;
+                boolean isVarComplete = false;
+
+                curIndex = searchIndex + CitrusConstants.VARIABLE_PREFIX.length();
+
+                while (curIndex < source.length() && !isVarComplete) {
+                    if (source.startsWith(CitrusConstants.VARIABLE_PREFIX, curIndex)) {
+                        control++;
+                    }
+
+                    if ((!Character.isJavaIdentifierPart(source.charAt(curIndex)) && (source.charAt(curIndex) == CitrusConstants.VARIABLE_SUFFIX)) || (curIndex + 1 == source.length())) {
+                        if (control == 0) {
+                            isVarComplete = true;
+                        } else {
+                            control--;
+                        }
+                    }
+
+                    if (!isVarComplete) {
+                        variableNameBuf.append(source.charAt(curIndex));
+                    }
+                    ++curIndex;
+                }
+
+                newStr.append(source, startIndex, searchIndex);
+                newStr.append(VARIABLE_PLACEHOLDER);
+                variableNames.add(variableNameBuf.toString());
+
+                startIndex = curIndex;
+                variableNameBuf.setLength(0);
+            }
+
+            newStr.append(source, startIndex, source.length());
+
+            return newStr.toString();
+        }
+
+        /**
+         * Parses region of tokenized string to nodes. Function search follows the same rules as
+         * {@link FunctionUtils#replaceFunctionsInString(String, TestContext, boolean)}.
+         * @param start
+         * @param end
+         * @param functionArgument
+         * @return
+         */
+        private List<Node> parse(int start, int end, boolean functionArgument) {
+            List<Node> nodes = new ArrayList<Node>();
+            int position = start;
+
+            while (position < end && !legacy) {
+                int functionStart = findFunction(position, end);
+
+                addText(nodes, position, functionStart >= 0 ? functionStart : end, functionArgument);
+
+                if (functionStart < 0) {
+                    break;
+                }
+
+                int control = -1;
+                boolean isComplete = false;
+                int curIndex = functionStart;
+
+                while (curIndex < end && !isComplete) {
+                    char c = tokenized.charAt(curIndex);
+                    if (c == '(') {
+                        control++;
+                    }
+
+                    if (c == ')' || curIndex == end - 1) {
+                        if (control == 0) {
+                            isComplete = true;
+                        } else {
+                            control--;
+                        }
+                    }
+
+                    curIndex++;
+                }
+
+                int argumentStart = tokenized.indexOf('(', functionStart) + 1;
+
+                if (!isComplete || tokenized.charAt(curIndex - 1) != ')' || argumentStart <= 0 || argumentStart >= curIndex) {
+                    legacy = true;
+                    break;
+                }
+
+                String name = tokenized.substring(functionStart + functionPrefix.length(), argumentStart - 1);
+                if (name.indexOf(':') >= 0 || name.indexOf(')') >= 0 || name.indexOf(VARIABLE_PLACEHOLDER) >= 0) {
+                    legacy = true;
+                    break;
+                }
+
+                String expression = getExpression(functionStart, curIndex);
+                List<Node> arguments = parse(argumentStart, curIndex - 1, true);
+                nodes.add(new FunctionNode(functionPrefix, name, arguments, expression));
+
+                position = curIndex;
+            }
+
+            return nodes;
+        }
+
+        /**
+         * Finds next function prefix occurrence in region.
+         * @param start
+         * @param end
+         * @return index of the function prefix or -1 if there is no function prefix in region.
+         */
+        private int findFunction(int start, int end) {
+            if (functionPrefix == null) {
+                return -1;
+            }
+
+            if (occurrence != -1 && occurrence < start) {
+                occurrence = tokenized.indexOf(functionPrefix, start);
+            }
+
+            return occurrence >= 0 && occurrence + functionPrefix.length() <= end ? occurrence : -1;
+        }
+
+        /**
+         * Adds literal and variable nodes for region of tokenized string.
+         * @param nodes
+         * @param start
+         * @param end
+         * @param functionArgument
+         */
+        private void addText(List<Node> nodes, int start, int end, boolean functionArgument) {
+            int position = start;
+
+            while (position < end) {
+                int placeholder = tokenized.indexOf(VARIABLE_PLACEHOLDER, position);
+                if (placeholder < 0 || placeholder >= end) {
+                    nodes.add(new LiteralNode(tokenized.substring(position, end)));
+                    break;
+                }
+
+                if (placeholder > position) {
+                    nodes.add(new LiteralNode(tokenized.substring(position, placeholder)));
+                }
+
+                VariableNode variable = new VariableNode(variables.size(), variableNames.get(nextVariable++),
+                        getContext(placeholder, -1), getContext(placeholder, 1), functionArgument);
+                variables.add(variable);
+                nodes.add(variable);
+
+                position = placeholder + 1;
+            }
+        }
+
+        /**
+         * Gets literal characters next to variable placeholder that may form a function library prefix
+         * together with the variable value.
+         * @param placeholder
+         * @param direction
+         * @return
+         */
+        private String getContext(int placeholder, int direction) {
+            int length = 0;
+            int index = placeholder + direction;
+
+            while (length < maxPrefixLength - 1 && index >= 0 && index < tokenized.length() &&
+                    tokenized.charAt(index) != VARIABLE_PLACEHOLDER) {
+                length++;
+                index += direction;
+            }
+
+            return direction < 0 ? tokenized.substring(placeholder - length, placeholder) : tokenized.substring(placeholder + 1, placeholder + 1 + length);
+        }
+
+        /**
+         * Gets function expression with original variable expressions for error messages.
+         * @param start
+         * @param end
+         * @return
+         */
+        private String getExpression(int start, int end) {
+            StringBuilder expression = new StringBuilder();
+            int variable = nextVariable;
+
+            for (int i = start; i < end; i++) {
+                char c = tokenized.charAt(i);
+                if (c == VARIABLE_PLACEHOLDER) {
+                    expression.append(CitrusConstants.VARIABLE_PREFIX).append(variableNames.get(variable++)).append(CitrusConstants.VARIABLE_SUFFIX);
+                } else {
+                    expression.append(c);
+                }
+            }
+
+            return expression.toString();
+        }
+    }
+
+    /**
+     * Template node appends its value to the result.
+     */
+    private interface Node {
+        /**
+         * Appends node value to builder.
+         * @param builder the result builder.
+         * @param values resolved variable values.
+         * @param context the test context.
+         * @param enableQuoting quote function results.
+         */
+        void appendTo(StringBuilder builder, String[] values, TestContext context, boolean enableQuoting);
+    }
+
+    /**
+     * Static text.
+     */
+    private static final class LiteralNode implements Node {
+        private final String text;
+
+        private LiteralNode(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void appendTo(StringBuilder builder, String[] values, TestContext context, boolean enableQuoting) {
+            builder.append(text);
+        }
+    }
+
+    /**
+     * Variable expression. Value is resolved before nodes are evaluated.
+     */
+    private static final class VariableNode implements Node {
+        private final int index;
+        private final String name;
+        private final String before;
+        private final String after;
+        private final boolean functionArgument;
+
+        private VariableNode(int index, String name, String before, String after, boolean functionArgument) {
+            this.index = index;
+            this.name = name;
+            this.before = before;
+            this.after = after;
+            this.functionArgument = functionArgument;
+        }
+
+        @Override
+        public void appendTo(StringBuilder builder, String[] values, TestContext context, boolean enableQuoting) {
+            builder.append(values[index]);
+        }
+
+        private String getName() {
+            return name;
+        }
+
+        private String getBefore() {
+            return before;
+        }
+
+        private String getAfter() {
+            return after;
+        }
+
+        private boolean isFunctionArgument() {
+            return functionArgument;
+        }
+    }
+
+    /**
+     * Function expression with nested argument nodes.
+     */
+    private static final class FunctionNode implements Node {
+        private final String prefix;
+        private final String name;
+        private final List<Node> arguments;
+        private final String expression;
+
+        private FunctionNode(String prefix, String name, List<Node> arguments, String expression) {
+            this.prefix = prefix;
+            this.name = name;
+            this.arguments = arguments;
+            this.expression = expression;
+        }
+
+        @Override
+        public void appendTo(StringBuilder builder, String[] values, TestContext context, boolean enableQuoting) {
+            FunctionLibrary library = context.getFunctionRegistry().getLibraryForPrefix(prefix);
+
+            StringBuilder parameters = new StringBuilder();
+            for (Node argument : arguments) {
+                argument.appendTo(parameters, values, context, false);
+            }
+
+            String value = library.getFunction(name).execute(FunctionParameterHelper.getParameterList(parameters.toString()), context);
+            if (value == null) {
+                throw new NoSuchFunctionException("Function: " + expression + " could not be found");
+            }
+
+            if (enableQuoting) {
+                builder.append('\'').append(value).append('\'');
+            } else {
+                builder.append(value);
+            }
+        }
+    }
+}
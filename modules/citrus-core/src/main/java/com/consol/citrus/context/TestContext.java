@@ -243,11 +243,7 @@ public class TestContext {
      * @return resulting string without any variable place holders.
      */
     public String replaceDynamicContentInString(final String str, boolean enableQuoting) {
-        String result;
-        result = VariableUtils.replaceVariablesInString(str, this, enableQuoting);
-        result = FunctionUtils.replaceFunctionsInString(result, this, enableQuoting);
-        
-        return result;
+        return DynamicContentTemplate.getTemplate(str, functionRegistry).evaluate(this, enableQuoting);
     }
     
     /**
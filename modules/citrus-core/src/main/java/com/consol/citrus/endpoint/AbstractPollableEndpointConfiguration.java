@@ -16,17 +16,23 @@
 
 package com.consol.citrus.endpoint;
 
+import com.consol.citrus.message.correlation.ObjectStore;
+import com.consol.citrus.message.correlation.ObjectStoreProvider;
+
 /**
  * Abstract pollable endpoint configuration adds polling interval settings.
  *
  * @author Christoph Deppisch
  * @since 2.1
  */
-public class AbstractPollableEndpointConfiguration extends AbstractEndpointConfiguration implements PollableEndpointConfiguration {
+public class AbstractPollableEndpointConfiguration extends AbstractEndpointConfiguration implements PollableEndpointConfiguration, ObjectStoreProvider {
 
     /** Polling interval when waiting for synchronous reply message to arrive */
     private long pollingInterval = 500;
 
+    /** Object store for correlated objects, default object store of correlation manager is used when not set */
+    private ObjectStore objectStore;
+
     /**
      * Gets the pollingInterval.
      * @return the pollingInterval the pollingInterval to get.
@@ -42,4 +48,20 @@ public class AbstractPollableEndpointConfiguration extends AbstractEndpointConfi
     public void setPollingInterval(long pollingInterval) {
         this.pollingInterval = pollingInterval;
     }
+
+    /**
+     * Gets the objectStore.
+     * @return the objectStore the objectStore to get.
+     */
+    public ObjectStore getObjectStore() {
+        return objectStore;
+    }
+
+    /**
+     * Sets the objectStore.
+     * @param objectStore the objectStore to set
+     */
+    public void setObjectStore(ObjectStore objectStore) {
+        this.objectStore = objectStore;
+    }
 }
@@ -26,25 +26,55 @@ import com.consol.citrus.endpoint.adapter.mapping.BeanNameMappingStrategy;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.server.AbstractServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.*;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Special request dispatching endpoint adapter invokes XML test case for each incoming message. Incoming message is
  * passed to test case via normal message channel connection as usual.
  *
+ * Test case bean definitions are loaded once per test name and cached. Each request gets a new prototype test case
+ * instance created from these bean definitions. Test cases are executed with a bounded thread pool, requests exceeding
+ * pool and queue capacity are rejected.
+ *
  * @author Christoph Deppisch
  * @since 1.4
  */
-public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointAdapter implements InitializingBean, BeanNameAware, ApplicationContextAware {
+public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointAdapter implements InitializingBean, DisposableBean, BeanNameAware, ApplicationContextAware {
+    /** Logger */
+    private static Logger log = LoggerFactory.getLogger(XmlTestExecutingEndpointAdapter.class);
+
     /** Executor start action sequence logic in separate thread task */
-    private TaskExecutor taskExecutor = new SimpleAsyncTaskExecutor();
+    private TaskExecutor taskExecutor;
+
+    /** Default bounded executor created by this adapter when no executor is set */
+    private ThreadPoolTaskExecutor defaultTaskExecutor;
+
+    /** Maximum number of parallel test executions in default executor */
+    private int maxConcurrency = 10;
+
+    /** Maximum number of test executions waiting in default executor queue */
+    private int queueCapacity = 100;
+
+    /** Number of test executions rejected by task executor */
+    private final AtomicLong rejectedExecutions = new AtomicLong();
+
+    /** Cached test application contexts by test name holding test case prototype bean definitions */
+    private final ConcurrentMap<String, ClassPathXmlApplicationContext> testApplicationContexts = new ConcurrentHashMap<String, ClassPathXmlApplicationContext>();
 
     /** This adapter name - used for message channel generation */
     private String name = EndpointAdapter.class.getSimpleName();
@@ -74,7 +104,7 @@ public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointA
                     mappingName + "' in Spring bean context", e);
         }
 
-        taskExecutor.execute(new Runnable() {
+        executeTest(mappingName, new Runnable() {
             public void run() {
                 prepareExecution(request, test);
                 test.execute(testContext);
@@ -84,6 +114,21 @@ public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointA
         return endpointAdapterDelegate.handleMessage(request);
     }
 
+    /**
+     * Executes test with task executor. Rejected executions are counted and raise runtime exception.
+     * @param testName
+     * @param execution
+     */
+    protected void executeTest(String testName, Runnable execution) {
+        try {
+            getTaskExecutor().execute(execution);
+        } catch (TaskRejectedException e) {
+            long rejected = rejectedExecutions.incrementAndGet();
+            log.warn(String.format("Rejected execution of test '%s' - %s test executions rejected so far", testName, rejected));
+            throw new CitrusRuntimeException("Unable to execute test '" + testName + "' - test execution capacity exceeded", e);
+        }
+    }
+
     /**
      * Gets the test case from application context.
      * @param context
@@ -91,7 +136,7 @@ public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointA
      * @return the new test case.
      */
     protected TestCase getTestCase(TestContext context, String testName) {
-        ClassPathXmlApplicationContext ctx = createApplicationContext(context, packageName, testName);
+        ClassPathXmlApplicationContext ctx = getTestApplicationContext(context, testName);
 
         try {
             TestCase testCase = ctx.getBean(testName, TestCase.class);
@@ -103,16 +148,53 @@ public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointA
     }
 
     /**
-     * Creates the Spring application context.
+     * Gets cached test application context or creates new context on first access.
+     * @param context
+     * @param testName
+     * @return
+     */
+    private ClassPathXmlApplicationContext getTestApplicationContext(TestContext context, String testName) {
+        String key = packageName + "." + testName;
+        ClassPathXmlApplicationContext ctx = testApplicationContexts.get(key);
+
+        if (ctx == null) {
+            ClassPathXmlApplicationContext newContext = createApplicationContext(context, packageName, testName);
+            ctx = testApplicationContexts.putIfAbsent(key, newContext);
+
+            if (ctx == null) {
+                ctx = newContext;
+            } else {
+                newContext.close();
+            }
+        }
+
+        return ctx;
+    }
+
+    /**
+     * Creates the Spring application context. Test case bean definition is registered as prototype so each
+     * request gets a new test case instance.
      * @return
      */
-    protected ClassPathXmlApplicationContext createApplicationContext(TestContext context, String packageName, String testName) {
+    protected ClassPathXmlApplicationContext createApplicationContext(TestContext context, String packageName, final String testName) {
         try {
-            return new ClassPathXmlApplicationContext(
+            ClassPathXmlApplicationContext ctx = new ClassPathXmlApplicationContext(
                     new String[] {
                             packageName.replace('.', '/') + "/" + testName + ".xml",
                             "com/consol/citrus/spring/annotation-config-ctx.xml"},
-                    true, applicationContext);
+                    false, applicationContext);
+
+            ctx.addBeanFactoryPostProcessor(new BeanFactoryPostProcessor() {
+                @Override
+                public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+                    if (beanFactory.containsBeanDefinition(testName)) {
+                        beanFactory.getBeanDefinition(testName).setScope(BeanDefinition.SCOPE_PROTOTYPE);
+                    }
+                }
+            });
+            ctx.refresh();
+
+            return ctx;
         } catch (Exception e) {
             throw context.handleError(getClass().getSimpleName(), getClass().getPackage().getName(), "Failed to load test case", e);
         }
@@ -149,6 +231,22 @@ public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointA
         }
     }
 
+    /**
+     * Shuts down default task executor and closes cached test application contexts.
+     */
+    public void destroy() throws Exception {
+        synchronized (this) {
+            if (defaultTaskExecutor != null) {
+                defaultTaskExecutor.shutdown();
+            }
+        }
+
+        for (ClassPathXmlApplicationContext ctx : testApplicationContexts.values()) {
+            ctx.close();
+        }
+        testApplicationContexts.clear();
+    }
+
     /**
      * Injects this adapters bean name.
      * @param name
@@ -174,10 +272,21 @@ public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointA
     }
 
     /**
-     * Gets the task executor.
+     * Gets the task executor. When no task executor is set a default bounded executor is created on first usage.
      * @return
      */
-    public TaskExecutor getTaskExecutor() {
+    public synchronized TaskExecutor getTaskExecutor() {
+        if (taskExecutor == null) {
+            defaultTaskExecutor = new ThreadPoolTaskExecutor();
+            defaultTaskExecutor.setCorePoolSize(maxConcurrency);
+            defaultTaskExecutor.setMaxPoolSize(maxConcurrency);
+            defaultTaskExecutor.setQueueCapacity(queueCapacity);
+            defaultTaskExecutor.setAllowCoreThreadTimeOut(true);
+            defaultTaskExecutor.setThreadNamePrefix(name + "-");
+            defaultTaskExecutor.initialize();
+            taskExecutor = defaultTaskExecutor;
+        }
+
         return taskExecutor;
     }
 
@@ -187,10 +296,63 @@ public class XmlTestExecutingEndpointAdapter extends RequestDispatchingEndpointA
      *
      * @param taskExecutor
      */
-    public void setTaskExecutor(TaskExecutor taskExecutor) {
+    public synchronized void setTaskExecutor(TaskExecutor taskExecutor) {
         this.taskExecutor = taskExecutor;
     }
 
+    /**
+     * Gets the maxConcurrency.
+     * @return the maxConcurrency the maxConcurrency to get.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Sets the maximum number of parallel test executions in default task executor.
+     * @param maxConcurrency the maxConcurrency to set
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Gets the queueCapacity.
+     * @return the queueCapacity the queueCapacity to get.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Sets the maximum number of waiting test executions in default task executor.
+     * @param queueCapacity the queueCapacity to set
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Gets the number of test executions rejected by task executor.
+     * @return
+     */
+    public long getRejectedExecutions() {
+        return rejectedExecutions.get();
+    }
+
+    /**
+     * Gets the number of test executions waiting in default task executor queue. Returns -1 when custom task
+     * executor is used.
+     * @return
+     */
+    public int getQueueSize() {
+        if (defaultTaskExecutor == null || defaultTaskExecutor.getThreadPoolExecutor() == null) {
+            return -1;
+        }
+
+        return defaultTaskExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
     /**
      * Gets the response generating endpoint adapter delegate.
      * @return
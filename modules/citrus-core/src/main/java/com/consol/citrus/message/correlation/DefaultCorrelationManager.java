@@ -69,7 +69,7 @@ public class DefaultCorrelationManager<T> implements CorrelationManager<T> {
             log.debug(String.format("Saving correlated object for '%s'", correlationKey));
         }
 
-        objectStore.add(correlationKey, object);
+        getObjectStore().add(correlationKey, object);
     }
 
     @Override
@@ -78,7 +78,7 @@ public class DefaultCorrelationManager<T> implements CorrelationManager<T> {
             log.debug(String.format("Finding correlated object for '%s'", correlationKey));
         }
 
-        return objectStore.remove(correlationKey);
+        return getObjectStore().remove(correlationKey);
     }
 
     @Override
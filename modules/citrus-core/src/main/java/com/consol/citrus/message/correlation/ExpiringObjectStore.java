@@ -0,0 +1,293 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.message.correlation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Object store implementation with limited capacity and time to live for stored objects. Objects that have not been
+ * picked up in time or that exceed the maximum store size are evicted. This prevents correlated objects that are never
+ * consumed, for instance replies to fire and forget requests or objects of failed tests, to pile up in long running
+ * JVMs.
+ *
+ * Evicted objects are logged as orphaned objects and passed to an optional eviction listener. Store provides
+ * simple statistics on current size, hits, misses, expired and evicted objects.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public class ExpiringObjectStore<T> implements ObjectStore<T> {
+
+    /** Logger */
+    private static Logger log = LoggerFactory.getLogger(ExpiringObjectStore.class);
+
+    /** Maximum number of stored objects, zero or negative means unlimited */
+    private int maxSize = 1000;
+
+    /** Time to live in milliseconds for stored objects, zero or negative means unlimited */
+    private long timeToLive = 300000L;
+
+    /** Optional listener gets notified on evicted objects */
+    private EvictionListener<T> evictionListener;
+
+    /** Stored entries in insertion order so oldest entries come first, guarded by itself */
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<String, Entry<T>>();
+
+    /** Statistics */
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    /**
+     * Default constructor.
+     */
+    public ExpiringObjectStore() {
+        super();
+    }
+
+    /**
+     * Constructor using max size and time to live settings.
+     * @param maxSize
+     * @param timeToLive
+     */
+    public ExpiringObjectStore(int maxSize, long timeToLive) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public void add(String correlationKey, T object) {
+        List<Map.Entry<String, Entry<T>>> evicted = new ArrayList<Map.Entry<String, Entry<T>>>();
+        List<Map.Entry<String, Entry<T>>> expired;
+
+        synchronized (entries) {
+            // remove first so re-added objects move to the end of insertion order
+            entries.remove(correlationKey);
+            entries.put(correlationKey, new Entry<T>(object, System.currentTimeMillis()));
+
+            expired = removeExpired();
+
+            if (maxSize > 0) {
+                Iterator<Map.Entry<String, Entry<T>>> it = entries.entrySet().iterator();
+                while (entries.size() > maxSize && it.hasNext()) {
+                    evicted.add(it.next());
+                    it.remove();
+                }
+            }
+        }
+
+        notifyEvicted(expired, true);
+        notifyEvicted(evicted, false);
+    }
+
+    @Override
+    public T remove(String correlationKey) {
+        Entry<T> entry;
+        List<Map.Entry<String, Entry<T>>> expired;
+
+        synchronized (entries) {
+            expired = removeExpired();
+            entry = entries.remove(correlationKey);
+        }
+
+        notifyEvicted(expired, true);
+
+        if (entry != null) {
+            hitCount.incrementAndGet();
+            return entry.getObject();
+        } else {
+            missCount.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Removes all expired entries from store. As entries are kept in insertion order
+     * only the oldest entries need to be checked. Caller must hold the entries lock.
+     * @return list of expired entries.
+     */
+    private List<Map.Entry<String, Entry<T>>> removeExpired() {
+        if (timeToLive <= 0 || entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Map.Entry<String, Entry<T>>> expired = new ArrayList<Map.Entry<String, Entry<T>>>();
+        long expiryTime = System.currentTimeMillis() - timeToLive;
+
+        Iterator<Map.Entry<String, Entry<T>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Entry<T>> entry = it.next();
+            if (entry.getValue().getCreated() > expiryTime) {
+                break;
+            }
+
+            expired.add(entry);
+            it.remove();
+        }
+
+        return expired;
+    }
+
+    /**
+     * Logs evicted objects as orphaned and informs eviction listener.
+     * @param evicted
+     * @param expired
+     */
+    private void notifyEvicted(List<Map.Entry<String, Entry<T>>> evicted, boolean expired) {
+        for (Map.Entry<String, Entry<T>> entry : evicted) {
+            if (expired) {
+                expiredCount.incrementAndGet();
+                log.warn(String.format("Evicted orphaned correlated object for '%s' - time to live of %sms exceeded", entry.getKey(), timeToLive));
+            } else {
+                evictedCount.incrementAndGet();
+                log.warn(String.format("Evicted orphaned correlated object for '%s' - maximum store size of %s exceeded", entry.getKey(), maxSize));
+            }
+
+            if (evictionListener != null) {
+                evictionListener.onEviction(entry.getKey(), entry.getValue().getObject(), expired);
+            }
+        }
+    }
+
+    /**
+     * Gets the current number of stored objects.
+     * @return
+     */
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Gets the number of successful object lookups.
+     * @return
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of object lookups that did not find an object.
+     * @return
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the number of objects evicted because time to live was exceeded.
+     * @return
+     */
+    public long getExpiredCount() {
+        return expiredCount.get();
+    }
+
+    /**
+     * Gets the number of objects evicted because maximum store size was exceeded.
+     * @return
+     */
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    /**
+     * Gets the maxSize.
+     * @return the maxSize the maxSize to get.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maxSize.
+     * @param maxSize the maxSize to set
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the timeToLive.
+     * @return the timeToLive the timeToLive to get.
+     */
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    /**
+     * Sets the timeToLive.
+     * @param timeToLive the timeToLive to set
+     */
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    /**
+     * Gets the evictionListener.
+     * @return the evictionListener the evictionListener to get.
+     */
+    public EvictionListener<T> getEvictionListener() {
+        return evictionListener;
+    }
+
+    /**
+     * Sets the evictionListener.
+     * @param evictionListener the evictionListener to set
+     */
+    public void setEvictionListener(EvictionListener<T> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Listener gets notified when objects are evicted from store.
+     */
+    public interface EvictionListener<T> {
+        /**
+         * Called for each evicted object.
+         * @param correlationKey the correlation key of evicted object.
+         * @param object the evicted object.
+         * @param expired true if time to live was exceeded, false if maximum store size was exceeded.
+         */
+        void onEviction(String correlationKey, T object, boolean expired);
+    }
+
+    /**
+     * Stored object with creation time.
+     */
+    private static final class Entry<T> {
+        private final T object;
+        private final long created;
+
+        private Entry(T object, long created) {
+            this.object = object;
+            this.created = created;
+        }
+
+        private T getObject() {
+            return object;
+        }
+
+        private long getCreated() {
+            return created;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.consol.citrus.message.correlation;
+
+/**
+ * Endpoint configurations implementing this interface provide a custom object store for correlated objects. Correlation
+ * managers resolve the object store when it is used for the first time.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public interface ObjectStoreProvider {
+
+    /**
+     * Gets the object store or null when default object store of correlation manager should be used.
+     * @return
+     */
+    ObjectStore getObjectStore();
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.message.correlation;
+
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.endpoint.PollableEndpointConfiguration;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+
+/**
+ * Correlation manager blocks find operations until the correlated object is stored. Each waiting client
+ * registers a waiter for its correlation key that is released immediately when the object gets stored, so clients
+ * do not have to sleep for a whole polling interval. Same mechanism is used when waiting for correlation keys saved
+ * by other threads.
+ *
+ * Polling interval of the endpoint configuration is still used as interval for checking the object store again while waiting.
+ * This way objects that are added to the object store directly are also found.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public class WaitingCorrelationManager<T> extends DefaultCorrelationManager<T> {
+
+    /** Overall time to wait for correlation keys */
+    private static final long CORRELATION_KEY_TIMEOUT = 1000L;
+
+    private String retryLogMessage = "Correlated object not found yet";
+
+    private final PollableEndpointConfiguration endpointConfiguration;
+
+    /** Object store of endpoint configuration has been resolved */
+    private volatile boolean objectStoreResolved = false;
+
+    /** Waiters for correlated objects by correlation key */
+    private final ConcurrentMap<String, CountDownLatch> objectWaiters = new ConcurrentHashMap<String, CountDownLatch>();
+
+    /** Waiters for correlation keys by correlation key name */
+    private final ConcurrentMap<String, CountDownLatch> correlationKeyWaiters = new ConcurrentHashMap<String, CountDownLatch>();
+
+    /** Logger */
+    private static Logger log = LoggerFactory.getLogger(WaitingCorrelationManager.class);
+
+    /** Retry logger */
+    private static final Logger RETRY_LOG = LoggerFactory.getLogger("com.consol.citrus.RetryLogger");
+
+    /**
+     * Constructor using fields.
+     * @param endpointConfiguration
+     * @param retryLogMessage
+     */
+    public WaitingCorrelationManager(PollableEndpointConfiguration endpointConfiguration, String retryLogMessage) {
+        this.retryLogMessage = retryLogMessage;
+        this.endpointConfiguration = endpointConfiguration;
+    }
+
+    /**
+     * Gets the object store. Custom object store of endpoint configuration is resolved on first usage so
+     * the object store may also be set on the endpoint configuration after the endpoint has been created.
+     * @return
+     */
+    @Override
+    public ObjectStore<T> getObjectStore() {
+        if (!objectStoreResolved) {
+            synchronized (this) {
+                if (!objectStoreResolved) {
+                    if (endpointConfiguration instanceof ObjectStoreProvider &&
+                            ((ObjectStoreProvider) endpointConfiguration).getObjectStore() != null) {
+                        super.setObjectStore(((ObjectStoreProvider) endpointConfiguration).getObjectStore());
+                    }
+
+                    objectStoreResolved = true;
+                }
+            }
+        }
+
+        return super.getObjectStore();
+    }
+
+    @Override
+    public synchronized void setObjectStore(ObjectStore<T> store) {
+        super.setObjectStore(store);
+        objectStoreResolved = true;
+    }
+
+    /**
+     * Convenience method for using default timeout settings of endpoint configuration.
+     * @param correlationKey
+     * @return
+     */
+    public T find(String correlationKey) {
+        return find(correlationKey, endpointConfiguration.getTimeout());
+    }
+
+    @Override
+    public void saveCorrelationKey(String correlationKeyName, String correlationKey, TestContext context) {
+        super.saveCorrelationKey(correlationKeyName, correlationKey, context);
+        release(correlationKeyWaiters, correlationKeyName);
+    }
+
+    @Override
+    public String getCorrelationKey(String correlationKeyName, TestContext context) {
+        if (log.isDebugEnabled()) {
+            log.debug(String.format("Get correlation key for '%s'", correlationKeyName));
+        }
+
+        long timeLeft = CORRELATION_KEY_TIMEOUT;
+        CountDownLatch waiter = register(correlationKeyWaiters, correlationKeyName);
+        String correlationKey = lookupCorrelationKey(correlationKeyName, context);
+
+        while (correlationKey == null && timeLeft > 0) {
+            long waitTime = Math.min(timeLeft, endpointConfiguration.getPollingInterval());
+            timeLeft -= waitTime;
+
+            if (RETRY_LOG.isDebugEnabled()) {
+                RETRY_LOG.debug("Correlation key not available yet - waiting " + waitTime + "ms");
+            }
+
+            await(correlationKeyWaiters, correlationKeyName, waiter, waitTime);
+
+            waiter = register(correlationKeyWaiters, correlationKeyName);
+            correlationKey = lookupCorrelationKey(correlationKeyName, context);
+        }
+
+        correlationKeyWaiters.remove(correlationKeyName, waiter);
+
+        if (correlationKey == null) {
+            throw new CitrusRuntimeException(String.format("Failed to get correlation key for '%s'", correlationKeyName));
+        }
+
+        return correlationKey;
+    }
+
+    @Override
+    public void store(String correlationKey, T object) {
+        super.store(correlationKey, object);
+
+        if (object != null) {
+            release(objectWaiters, correlationKey);
+        }
+    }
+
+    @Override
+    public T find(String correlationKey, long timeout) {
+        long timeLeft = timeout;
+        CountDownLatch waiter = register(objectWaiters, correlationKey);
+        T stored = super.find(correlationKey, timeLeft);
+
+        while (stored == null && timeLeft > 0) {
+            long waitTime = Math.min(timeLeft, endpointConfiguration.getPollingInterval());
+            timeLeft -= waitTime;
+
+            if (RETRY_LOG.isDebugEnabled()) {
+                RETRY_LOG.debug(retryLogMessage + " - waiting " + waitTime + "ms");
+            }
+
+            await(objectWaiters, correlationKey, waiter, waitTime);
+
+            waiter = register(objectWaiters, correlationKey);
+            stored = super.find(correlationKey, timeLeft);
+        }
+
+        objectWaiters.remove(correlationKey, waiter);
+
+        return stored;
+    }
+
+    /**
+     * Looks up correlation key in test context.
+     * @param correlationKeyName
+     * @param context
+     * @return the correlation key or null if not present.
+     */
+    private String lookupCorrelationKey(String correlationKeyName, TestContext context) {
+        if (context.getVariables().containsKey(correlationKeyName)) {
+            return context.getVariable(correlationKeyName);
+        }
+
+        return null;
+    }
+
+    /**
+     * Registers new waiter for key. Several clients waiting for the same key share the waiter.
+     * @param waiters
+     * @param key
+     * @return
+     */
+    private CountDownLatch register(ConcurrentMap<String, CountDownLatch> waiters, String key) {
+        CountDownLatch waiter = new CountDownLatch(1);
+        CountDownLatch existing = waiters.putIfAbsent(key, waiter);
+        return existing != null ? existing : waiter;
+    }
+
+    /**
+     * Releases all clients waiting for key.
+     * @param waiters
+     * @param key
+     */
+    private void release(ConcurrentMap<String, CountDownLatch> waiters, String key) {
+        CountDownLatch waiter = waiters.remove(key);
+
+        if (waiter != null) {
+            waiter.countDown();
+        }
+    }
+
+    /**
+     * Waits for waiter to be released or timeout. Removes waiter afterwards so next
+     * wait attempt registers a new one.
+     * @param waiters
+     * @param key
+     * @param waiter
+     * @param timeout
+     */
+    private void await(ConcurrentMap<String, CountDownLatch> waiters, String key, CountDownLatch waiter, long timeout) {
+        try {
+            waiter.await(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            RETRY_LOG.warn("Thread interrupted while waiting for retry", e);
+        } finally {
+            waiters.remove(key, waiter);
+        }
+    }
+
+    /**
+     * Gets the retry log message
+     * @return
+     */
+    public String getRetryLogMessage() {
+        return retryLogMessage;
+    }
+
+    /**
+     * Sets the retry log message.
+     * @param retryLogMessage
+     */
+    public void setRetryLogMessage(String retryLogMessage) {
+        this.retryLogMessage = retryLogMessage;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.script;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import groovy.lang.GroovyClassLoader;
+import org.codehaus.groovy.control.CompilationFailedException;
+
+import java.io.UnsupportedEncodingException;
+import java.lang.ref.SoftReference;
+import java.security.*;
+import java.util.*;
+
+/**
+ * Cache of compiled Groovy script classes keyed by parent class loader and content hash of the script code. Repeated
+ * executions of the same script code with the same parent class loader only instantiate the cached class instead of
+ * compiling the script again.
+ *
+ * Parent class loaders are weakly referenced and compiled classes are softly referenced, because each compiled class
+ * strongly references its parent class loader. This way cached classes never pin class loaders that are not used anymore.
+ * Cache is bounded per parent class loader and evicts least recently used classes.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public final class GroovyClassCache {
+
+    /** Maximum number of cached script classes per parent class loader */
+    private static final int MAX_CACHE_SIZE = 500;
+
+    /** Compiled script classes by parent class loader and content hash, least recently used first */
+    private static final Map<ClassLoader, Map<String, SoftReference<Class<?>>>> compiledClasses = new WeakHashMap<ClassLoader, Map<String, SoftReference<Class<?>>>>();
+
+    /** Guards access to compiled classes */
+    private static final Object lock = new Object();
+
+    /**
+     * Prevent instantiation.
+     */
+    private GroovyClassCache() {
+        super();
+    }
+
+    /**
+     * Gets compiled class for script code. Script is compiled with given parent class loader on first usage and cached.
+     * @param code
+     * @param parent
+     * @return
+     * @throws CompilationFailedException
+     */
+    public static Class<?> parseClass(String code, final ClassLoader parent) throws CompilationFailedException {
+        String key = hash(code);
+
+        Class<?> groovyClass = null;
+        synchronized (lock) {
+            SoftReference<Class<?>> cached = getCachedClasses(parent).get(key);
+            if (cached != null) {
+                groovyClass = cached.get();
+            }
+        }
+
+        if (groovyClass == null) {
+            GroovyClassLoader loader = AccessController.doPrivileged(new PrivilegedAction<GroovyClassLoader>() {
+                public GroovyClassLoader run() {
+                    return new GroovyClassLoader(parent);
+                }
+            });
+
+            groovyClass = loader.parseClass(code);
+
+            synchronized (lock) {
+                getCachedClasses(parent).put(key, new SoftReference<Class<?>>(groovyClass));
+            }
+        }
+
+        return groovyClass;
+    }
+
+    /**
+     * Gets cached classes for parent class loader. Creates new bounded least recently used cache on first usage.
+     * Callers must hold the lock.
+     * @param parent
+     * @return
+     */
+    private static Map<String, SoftReference<Class<?>>> getCachedClasses(ClassLoader parent) {
+        Map<String, SoftReference<Class<?>>> cachedClasses = compiledClasses.get(parent);
+
+        if (cachedClasses == null) {
+            cachedClasses = new LinkedHashMap<String, SoftReference<Class<?>>>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, SoftReference<Class<?>>> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            };
+            compiledClasses.put(parent, cachedClasses);
+        }
+
+        return cachedClasses;
+    }
+
+    /**
+     * Builds SHA-256 content hash of script code.
+     * @param code
+     * @return
+     */
+    private static String hash(String code) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(code.getBytes("UTF-8"));
+
+            StringBuilder hash = new StringBuilder();
+            for (byte b : digest) {
+                hash.append(String.format("%02x", b));
+            }
+
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new CitrusRuntimeException("Failed to build script content hash", e);
+        } catch (UnsupportedEncodingException e) {
+            throw new CitrusRuntimeException("Failed to build script content hash", e);
+        }
+    }
+
+    /**
+     * Gets the number of cached script classes over all parent class loaders.
+     * @return
+     */
+    public static int getCacheSize() {
+        synchronized (lock) {
+            int size = 0;
+            for (Map<String, SoftReference<Class<?>>> cachedClasses : compiledClasses.values()) {
+                size += cachedClasses.size();
+            }
+            return size;
+        }
+    }
+
+    /**
+     * Removes all cached script classes.
+     */
+    public static void clearCache() {
+        synchronized (lock) {
+            compiledClasses.clear();
+        }
+    }
+}
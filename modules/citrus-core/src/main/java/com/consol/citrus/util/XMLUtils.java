@@ -30,6 +30,7 @@ import javax.xml.XMLConstants;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Class providing several utility methods for XML processing.
@@ -54,6 +55,9 @@ public final class XMLUtils {
     private static DOMImplementationRegistry registry = null;
     private static DOMImplementationLS domImpl = null;
 
+    /** Pool of reusable parser instances for message payload parsing */
+    private static final Queue<LSParser> payloadParserPool = new ConcurrentLinkedQueue<LSParser>();
+
     static {
         try {
             registry = DOMImplementationRegistry.newInstance();
@@ -378,11 +382,6 @@ public final class XMLUtils {
      * @return DOM document.
      */
     public static Document parseMessagePayload(String messagePayload) {
-        LSParser parser = createLSParser();
-        setParserConfigParameter(parser, VALIDATE_IF_SCHEMA, true);
-        setParserConfigParameter(parser, RESOURCE_RESOLVER, new LSResolverImpl(domImpl));
-        setParserConfigParameter(parser, ELEMENT_CONTENT_WHITESPACE, false);
-
         LSInput receivedInput = createLSInput();
         try {
             Charset charset = getTargetCharset(messagePayload);
@@ -392,7 +391,31 @@ public final class XMLUtils {
             throw new CitrusRuntimeException(e);
         }
 
-        return parser.parse(receivedInput);
+        LSParser parser = payloadParserPool.poll();
+        if (parser == null) {
+            parser = createPayloadParser();
+        }
+
+        Document document = parser.parse(receivedInput);
+
+        // parser is only reused after successful parsing as error state is not reset reliably
+        payloadParserPool.offer(parser);
+
+        return document;
+    }
+
+    /**
+     * Creates new parser instance for message payload parsing. Parser instances are not thread safe
+     * but can be reused for subsequent parse operations, so they are pooled.
+     * @return
+     */
+    private static LSParser createPayloadParser() {
+        LSParser parser = createLSParser();
+        setParserConfigParameter(parser, VALIDATE_IF_SCHEMA, true);
+        setParserConfigParameter(parser, RESOURCE_RESOLVER, new LSResolverImpl(domImpl));
+        setParserConfigParameter(parser, ELEMENT_CONTENT_WHITESPACE, false);
+
+        return parser;
     }
 
     /**
@@ -23,7 +23,6 @@ import com.consol.citrus.message.Message;
 import com.consol.citrus.message.MessageType;
 import com.consol.citrus.validation.interceptor.AbstractMessageConstructionInterceptor;
 import com.jayway.jsonpath.*;
-import net.minidev.json.parser.JSONParser;
 import net.minidev.json.parser.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,15 +74,14 @@ public class JsonPathMessageConstructionInterceptor extends AbstractMessageConst
 
         String jsonPathExpression = null;
         try {
-            JSONParser parser = new JSONParser(JSONParser.MODE_JSON_SIMPLE);
-            Object jsonData = parser.parse(message.getPayload(String.class));
+            Object jsonData = ParsedJsonPayload.parse(message.getPayload(String.class));
             DocumentContext documentContext = JsonPath.parse(jsonData);
 
             for (Map.Entry<String, String> entry : jsonPathExpressions.entrySet()) {
                 jsonPathExpression = entry.getKey();
                 String valueExpression = context.replaceDynamicContentInString(entry.getValue());
 
-                documentContext.set(jsonPathExpression, valueExpression);
+                documentContext.set(JsonPathUtils.compile(jsonPathExpression), valueExpression);
 
                 if (log.isDebugEnabled()) {
                     log.debug("Element " + jsonPathExpression + " was set to value: " + valueExpression);
@@ -91,6 +89,7 @@ public class JsonPathMessageConstructionInterceptor extends AbstractMessageConst
             }
 
             message.setPayload(jsonData.toString());
+            ParsedJsonPayload.attach(message, jsonData);
         } catch (ParseException e) {
             throw new CitrusRuntimeException("Failed to parse JSON text", e);
         } catch (PathNotFoundException e) {
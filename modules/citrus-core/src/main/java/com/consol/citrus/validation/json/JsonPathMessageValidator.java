@@ -24,8 +24,6 @@ import com.consol.citrus.validation.AbstractMessageValidator;
 import com.consol.citrus.validation.ValidationUtils;
 import com.consol.citrus.validation.context.ValidationContext;
 import com.jayway.jsonpath.*;
-import net.minidev.json.JSONArray;
-import net.minidev.json.parser.JSONParser;
 import net.minidev.json.parser.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,25 +54,12 @@ public class JsonPathMessageValidator extends AbstractMessageValidator<JsonPathM
 
         String jsonPathExpression = null;
         try {
-            JSONParser parser = new JSONParser(JSONParser.MODE_JSON_SIMPLE);
-            Object receivedJson = parser.parse(receivedMessage.getPayload(String.class));
-            ReadContext readerContext = JsonPath.parse(receivedJson);
+            ReadContext readerContext = ParsedJsonPayload.forMessage(receivedMessage).getReadContext();
 
             for (Map.Entry<String, String> entry : validationContext.getJsonPathExpressions().entrySet()) {
                 jsonPathExpression = context.replaceDynamicContentInString(entry.getKey());
                 String expectedValue = context.replaceDynamicContentInString(entry.getValue());
-                String actualValue;
-
-                if (JsonPath.isPathDefinite(jsonPathExpression)) {
-                    actualValue = readerContext.read(jsonPathExpression).toString();
-                } else {
-                    JSONArray values = readerContext.read(jsonPathExpression);
-                    if (values.size() == 1) {
-                        actualValue = values.get(0).toString();
-                    } else {
-                        actualValue = values.toJSONString();
-                    }
-                }
+                String actualValue = JsonPathUtils.evaluateAsString(readerContext, jsonPathExpression);
 
                 //do the validation of actual and expected value for element
                 ValidationUtils.validateValues(actualValue, expectedValue, jsonPathExpression, context);
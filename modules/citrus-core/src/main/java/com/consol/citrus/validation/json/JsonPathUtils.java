@@ -0,0 +1,104 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.validation.json;
+
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ReadContext;
+import net.minidev.json.JSONArray;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Utility class for JSONPath expressions. Compiled JSONPath expressions are immutable and thread safe so each
+ * expression is compiled only once and cached for all following evaluations.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public final class JsonPathUtils {
+
+    /** Maximum number of cached compiled expressions, cache is cleared when exceeded */
+    private static final int MAX_CACHE_SIZE = 1000;
+
+    /** Compiled expressions by expression string */
+    private static final ConcurrentMap<String, JsonPath> compiledExpressions = new ConcurrentHashMap<String, JsonPath>();
+
+    /**
+     * Prevent instantiation.
+     */
+    private JsonPathUtils() {
+        super();
+    }
+
+    /**
+     * Gets compiled JSONPath expression. Expression is compiled on first usage and cached.
+     * @param jsonPathExpression
+     * @return
+     */
+    public static JsonPath compile(String jsonPathExpression) {
+        JsonPath jsonPath = compiledExpressions.get(jsonPathExpression);
+
+        if (jsonPath == null) {
+            jsonPath = JsonPath.compile(jsonPathExpression);
+
+            if (compiledExpressions.size() >= MAX_CACHE_SIZE) {
+                compiledExpressions.clear();
+            }
+
+            compiledExpressions.put(jsonPathExpression, jsonPath);
+        }
+
+        return jsonPath;
+    }
+
+    /**
+     * Evaluates JSONPath expression on read context and returns result as String. Results of indefinite expressions
+     * with exactly one item are returned as item value, all other results as JSON array representation.
+     * @param readContext
+     * @param jsonPathExpression
+     * @return
+     */
+    public static String evaluateAsString(ReadContext readContext, String jsonPathExpression) {
+        JsonPath jsonPath = compile(jsonPathExpression);
+
+        if (jsonPath.isDefinite()) {
+            return readContext.read(jsonPath).toString();
+        } else {
+            JSONArray values = readContext.read(jsonPath);
+            if (values.size() == 1) {
+                return values.get(0).toString();
+            } else {
+                return values.toJSONString();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of cached compiled expressions.
+     * @return
+     */
+    public static int getCacheSize() {
+        return compiledExpressions.size();
+    }
+
+    /**
+     * Removes all cached compiled expressions.
+     */
+    public static void clearCache() {
+        compiledExpressions.clear();
+    }
+}
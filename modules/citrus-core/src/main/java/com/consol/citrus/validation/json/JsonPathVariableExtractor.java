@@ -21,8 +21,6 @@ import com.consol.citrus.exceptions.*;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.variable.VariableExtractor;
 import com.jayway.jsonpath.*;
-import net.minidev.json.JSONArray;
-import net.minidev.json.parser.JSONParser;
 import net.minidev.json.parser.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +54,8 @@ public class JsonPathVariableExtractor implements VariableExtractor {
 
         String jsonPathExpression = null;
         try {
+            ReadContext readerContext = ParsedJsonPayload.forMessage(message).getReadContext();
+
             for (Map.Entry<String, String> entry : jsonPathExpressions.entrySet()) {
                 jsonPathExpression = entry.getKey();
                 String variableName = entry.getValue();
@@ -64,21 +64,7 @@ public class JsonPathVariableExtractor implements VariableExtractor {
                     log.debug("Evaluating JSONPath expression: " + jsonPathExpression);
                 }
 
-                JSONParser parser = new JSONParser(JSONParser.MODE_JSON_SIMPLE);
-                Object receivedJson = parser.parse(message.getPayload(String.class));
-                ReadContext readerContext = JsonPath.parse(receivedJson);
-                String value;
-
-                if (JsonPath.isPathDefinite(jsonPathExpression)) {
-                    value = readerContext.read(jsonPathExpression).toString();
-                } else {
-                    JSONArray values = readerContext.read(jsonPathExpression);
-                    if (values.size() == 1) {
-                        value = values.get(0).toString();
-                    } else {
-                        value = values.toJSONString();
-                    }
-                }
+                String value = JsonPathUtils.evaluateAsString(readerContext, jsonPathExpression);
 
                 context.setVariable(variableName, value);
             }
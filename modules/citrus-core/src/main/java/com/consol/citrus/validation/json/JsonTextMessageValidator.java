@@ -26,10 +26,8 @@ import com.consol.citrus.validation.ControlMessageValidator;
 import com.consol.citrus.validation.ValidationUtils;
 import com.consol.citrus.validation.context.ValidationContext;
 import com.consol.citrus.validation.matcher.ValidationMatcherUtils;
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.ReadContext;
+import com.jayway.jsonpath.*;
 import net.minidev.json.*;
-import net.minidev.json.parser.JSONParser;
 import net.minidev.json.parser.ParseException;
 import org.springframework.util.*;
 
@@ -49,6 +47,9 @@ import java.util.*;
  */
 public class JsonTextMessageValidator extends ControlMessageValidator<JsonMessageValidationContext> {
 
+    /** Root of concrete JSONPaths in received JSON document */
+    private static final String JSON_PATH_ROOT = "$";
+
     /** Should also check exact amount of object fields */
     private boolean strict = true;
 
@@ -75,21 +76,21 @@ public class JsonTextMessageValidator extends ControlMessageValidator<JsonMessag
                 		"expected message contents, but received empty message!");
             }
             
-            JSONParser parser = new JSONParser(JSONParser.MODE_JSON_SIMPLE);
-        
-            Object receivedJson = parser.parse(receivedJsonText);
-            ReadContext readContext = JsonPath.parse(receivedJson);
-            Object controlJson = parser.parse(controlJsonText);
+            ParsedJsonPayload parsedPayload = ParsedJsonPayload.forMessage(receivedMessage);
+            Object receivedJson = parsedPayload.getJson();
+            ReadContext readContext = parsedPayload.getReadContext();
+            Object controlJson = ParsedJsonPayload.parse(controlJsonText);
+            Set<String> ignoredPaths = getIgnoredPaths(validationContext.getIgnoreExpressions(), readContext);
             
             if (receivedJson instanceof JSONObject) {
-                validateJson((JSONObject) receivedJson, (JSONObject) controlJson, validationContext, context, readContext);
+                validateJson((JSONObject) receivedJson, (JSONObject) controlJson, JSON_PATH_ROOT, ignoredPaths, validationContext, context);
             } else if (receivedJson instanceof JSONArray) {
                 JSONObject tempReceived = new JSONObject();
                 tempReceived.put("array", receivedJson);
                 JSONObject tempControl = new JSONObject();
                 tempControl.put("array", controlJson);
                 
-                validateJson(tempReceived, tempControl, validationContext, context, readContext);
+                validateJson(tempReceived, tempControl, null, ignoredPaths, validationContext, context);
             } else {
                 throw new CitrusRuntimeException("Unsupported json type " + receivedJson.getClass());
             }
@@ -112,8 +113,23 @@ public class JsonTextMessageValidator extends ControlMessageValidator<JsonMessag
      * @param context the current test context.
      * @param readContext the JSONPath read context.
      */
-    @SuppressWarnings("rawtypes")
     public void validateJson(JSONObject receivedJson, JSONObject controlJson, JsonMessageValidationContext validationContext, TestContext context, ReadContext readContext) {
+        validateJson(receivedJson, controlJson, JSON_PATH_ROOT, getIgnoredPaths(validationContext.getIgnoreExpressions(), readContext), validationContext, context);
+    }
+
+    /**
+     * Validates JSON text with comparison to expected control JSON object. Entries whose concrete JSONPath in the received
+     * document is part of the precomputed ignored paths are skipped, so ignore expressions are evaluated only once per validation.
+     *
+     * @param receivedJson the received JSON text object.
+     * @param controlJson the expected control JSON text.
+     * @param path the concrete JSONPath of the received JSON object, null for the object wrapping a received JSON array.
+     * @param ignoredPaths the concrete JSONPaths of received JSON nodes ignored by JSONPath expressions.
+     * @param validationContext the JSON message validation context.
+     * @param context the current test context.
+     */
+    @SuppressWarnings("rawtypes")
+    protected void validateJson(JSONObject receivedJson, JSONObject controlJson, String path, Set<String> ignoredPaths, JsonMessageValidationContext validationContext, TestContext context) {
         if (strict) {
             Assert.isTrue(controlJson.size() == receivedJson.size(),
                           ValidationUtils.buildValueMismatchErrorMessage("Number of JSON entries not equal", controlJson.size(), receivedJson.size()));
@@ -121,6 +137,7 @@ public class JsonTextMessageValidator extends ControlMessageValidator<JsonMessag
         
         for (Iterator it = controlJson.entrySet().iterator(); it.hasNext();) {
             Map.Entry controlJsonEntry = (Map.Entry) it.next();
+            String entryPath = getEntryPath(path, controlJsonEntry.getKey());
             
             Assert.isTrue(receivedJson.containsKey(controlJsonEntry.getKey()), 
                     "Missing JSON entry: + '" + controlJsonEntry.getKey() + "'");
@@ -138,7 +155,7 @@ public class JsonTextMessageValidator extends ControlMessageValidator<JsonMessag
             }
             
             // check if entry is ignored by placeholder
-            if (isIgnored(controlJsonEntry, receivedJson.get(controlJsonEntry.getKey()), validationContext.getIgnoreExpressions(), readContext)) {
+            if (isIgnored(controlJsonEntry, entryPath, ignoredPaths)) {
                 continue;
             }
             
@@ -152,7 +169,7 @@ public class JsonTextMessageValidator extends ControlMessageValidator<JsonMessag
                                 JSONObject.class.getSimpleName(), receivedJson.get(controlJsonEntry.getKey()).getClass().getSimpleName()));
                 
                 validateJson((JSONObject) receivedJson.get(controlJsonEntry.getKey()), 
-                             (JSONObject) controlJsonEntry.getValue(), validationContext, context, readContext);
+                             (JSONObject) controlJsonEntry.getValue(), entryPath, ignoredPaths, validationContext, context);
             } else if (controlJsonEntry.getValue() instanceof JSONArray) {
                 Assert.isTrue(receivedJson.get(controlJsonEntry.getKey()) instanceof JSONArray, 
                         ValidationUtils.buildValueMismatchErrorMessage("Type mismatch for JSON entry '" + controlJsonEntry.getKey() + "'", 
@@ -171,17 +188,24 @@ public class JsonTextMessageValidator extends ControlMessageValidator<JsonMessag
                                                                                  jsonArrayControl.size(), jsonArrayReceived.size()));
                 }
                 for (int i = 0; i < jsonArrayControl.size(); i++) {
-                    if (jsonArrayControl.get(i).getClass().isAssignableFrom(JSONObject.class)) {
-                        Assert.isTrue(jsonArrayReceived.get(i).getClass().isAssignableFrom(JSONObject.class), 
-                                ValidationUtils.buildValueMismatchErrorMessage("Value types not equal for entry: '" + jsonArrayControl.get(i) + "'",
-                                        JSONObject.class.getName(), jsonArrayReceived.get(i).getClass().getName()));
+                    Object controlItem = jsonArrayControl.get(i);
+                    Object receivedItem = i < jsonArrayReceived.size() ? jsonArrayReceived.get(i) : null;
+                    String itemPath = entryPath + "[" + i + "]";
+
+                    if (ignoredPaths.contains(itemPath)) {
+                        if (log.isDebugEnabled()) {
+                            log.debug("JSON array item: '" + itemPath + "' is ignored - skip value validation");
+                        }
+                    } else if (controlItem instanceof JSONObject) {
+                        Assert.isTrue(receivedItem instanceof JSONObject,
+                                ValidationUtils.buildValueMismatchErrorMessage("Value types not equal for entry: '" + controlItem + "'",
+                                        JSONObject.class.getName(), receivedItem != null ? receivedItem.getClass().getName() : null));
                         
-                        validateJson((JSONObject) jsonArrayReceived.get(i),
-                                (JSONObject) jsonArrayControl.get(i), validationContext, context, readContext);
+                        validateJson((JSONObject) receivedItem, (JSONObject) controlItem, itemPath, ignoredPaths, validationContext, context);
                     } else {
-                        Assert.isTrue(jsonArrayControl.get(i).equals(jsonArrayReceived.get(i)),
-                                ValidationUtils.buildValueMismatchErrorMessage("Values not equal for entry: '" + jsonArrayControl.get(i) + "'", 
-                                        jsonArrayControl.get(i), jsonArrayReceived.get(i)));
+                        Assert.isTrue(ObjectUtils.nullSafeEquals(controlItem, receivedItem),
+                                ValidationUtils.buildValueMismatchErrorMessage("Values not equal for entry: '" + controlItem + "'",
+                                        controlItem, receivedItem));
                     }
                 }
             } else {
@@ -196,6 +220,74 @@ public class JsonTextMessageValidator extends ControlMessageValidator<JsonMessag
         }
     }
 
+    /**
+     * Evaluates all ignore expressions once on the received JSON document and collects the concrete JSONPaths of all
+     * matching nodes. Paths use the normalized bracket notation of JSONPath, e.g. $['foo']['bar'][0], so ignore expressions
+     * with wildcards or deep scans resolve to all matching node locations. Received nodes are identified by location
+     * and not by value, so other entries holding equal values are still validated.
+     * @param ignoreExpressions
+     * @param readContext
+     * @return
+     */
+    protected Set<String> getIgnoredPaths(Set<String> ignoreExpressions, ReadContext readContext) {
+        if (CollectionUtils.isEmpty(ignoreExpressions)) {
+            return Collections.emptySet();
+        }
+
+        Configuration pathListConfiguration = readContext.configuration().addOptions(Option.AS_PATH_LIST);
+        Object json = readContext.json();
+
+        Set<String> ignoredPaths = new HashSet<String>();
+        for (String jsonPathExpression : ignoreExpressions) {
+            List<String> foundPaths = JsonPathUtils.compile(jsonPathExpression).read(json, pathListConfiguration);
+            ignoredPaths.addAll(foundPaths);
+        }
+
+        return ignoredPaths;
+    }
+
+    /**
+     * Builds concrete JSONPath of object entry in normalized bracket notation. Entries of the object wrapping
+     * a received JSON array represent the document root.
+     * @param path
+     * @param key
+     * @return
+     */
+    private String getEntryPath(String path, Object key) {
+        if (path == null) {
+            return JSON_PATH_ROOT;
+        }
+
+        return path + "['" + key + "']";
+    }
+
+    /**
+     * Checks if given element node is either part of the ignored paths or
+     * contains @ignore@ tag inside control message
+     * @param controlJsonEntry
+     * @param entryPath
+     * @param ignoredPaths
+     * @return
+     */
+    private boolean isIgnored(Map.Entry controlJsonEntry, String entryPath, Set<String> ignoredPaths) {
+        if (controlJsonEntry.getValue().toString().trim().equals(CitrusConstants.IGNORE_PLACEHOLDER)) {
+            if (log.isDebugEnabled()) {
+                log.debug("JSON entry: '" + controlJsonEntry.getKey() + "' is ignored by placeholder '" +
+                        CitrusConstants.IGNORE_PLACEHOLDER + "'");
+            }
+            return true;
+        }
+
+        if (ignoredPaths.contains(entryPath)) {
+            if (log.isDebugEnabled()) {
+                log.debug("JSON entry: '" + controlJsonEntry.getKey() + "' is ignored - skip value validation");
+            }
+            return true;
+        }
+
+        return false;
+    }
+
     /**
      * Checks if given element node is either on ignore list or
      * contains @ignore@ tag inside control message
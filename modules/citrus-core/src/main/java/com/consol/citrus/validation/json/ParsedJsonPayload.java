@@ -0,0 +1,155 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.validation.json;
+
+import com.consol.citrus.message.Message;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ReadContext;
+import net.minidev.json.parser.JSONParser;
+import net.minidev.json.parser.ParseException;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Parsed JSON representation of a message payload. View is attached to the message so JSON validators, variable extractors
+ * and data dictionaries working on the same message share the parsed JSON object tree and the JSONPath read context.
+ * Payload is parsed lazily on first access.
+ *
+ * Messages are weakly referenced so views are released together with their messages. View is bound to the payload object it
+ * was parsed from. As soon as the message payload is replaced a new view is created for the new payload.
+ *
+ * Clients must not modify the shared JSON object tree. Clients that need to change the JSON data parse their own copy and
+ * attach the changed object tree to the message after setting the new payload.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public final class ParsedJsonPayload {
+
+    /** Parsed views attached to messages */
+    private static final Map<Message, ParsedJsonPayload> views = new WeakHashMap<Message, ParsedJsonPayload>();
+
+    /** Payload object this view was created for */
+    private final Object source;
+
+    /** Payload text */
+    private final String payload;
+
+    /** Parsed JSON object tree */
+    private Object json;
+
+    /** JSONPath read context on parsed JSON */
+    private ReadContext readContext;
+
+    /**
+     * Constructor using payload source object and payload text.
+     * @param source
+     * @param payload
+     */
+    private ParsedJsonPayload(Object source, String payload) {
+        this.source = source;
+        this.payload = payload;
+    }
+
+    /**
+     * Gets parsed view for message payload. Returns view attached to message as long as message payload
+     * has not changed, otherwise creates and attaches a new view.
+     * @param message
+     * @return
+     */
+    public static ParsedJsonPayload forMessage(Message message) {
+        Object source = message.getPayload();
+
+        synchronized (views) {
+            ParsedJsonPayload view = views.get(message);
+
+            if (view == null || view.source != source) {
+                view = new ParsedJsonPayload(source, message.getPayload(String.class));
+                views.put(message, view);
+            }
+
+            return view;
+        }
+    }
+
+    /**
+     * Attaches already parsed JSON object tree to message. Clients that have changed JSON data and set the message payload
+     * accordingly use this method so following clients do not need to parse the new payload again.
+     * @param message
+     * @param json
+     */
+    public static void attach(Message message, Object json) {
+        ParsedJsonPayload view = new ParsedJsonPayload(message.getPayload(), message.getPayload(String.class));
+        view.json = json;
+
+        synchronized (views) {
+            views.put(message, view);
+        }
+    }
+
+    /**
+     * Parses JSON text to new JSON object tree.
+     * @param jsonText
+     * @return
+     * @throws ParseException
+     */
+    public static Object parse(String jsonText) throws ParseException {
+        return new JSONParser(JSONParser.MODE_JSON_SIMPLE).parse(jsonText);
+    }
+
+    /**
+     * Gets the parsed JSON object tree. Parses payload on first access.
+     * @return
+     * @throws ParseException
+     */
+    public synchronized Object getJson() throws ParseException {
+        if (json == null) {
+            json = parse(payload);
+        }
+
+        return json;
+    }
+
+    /**
+     * Gets the JSONPath read context on parsed JSON.
+     * @return
+     * @throws ParseException
+     */
+    public synchronized ReadContext getReadContext() throws ParseException {
+        if (readContext == null) {
+            readContext = JsonPath.parse(getJson());
+        }
+
+        return readContext;
+    }
+
+    /**
+     * Checks if payload has been parsed already.
+     * @return
+     */
+    public synchronized boolean isParsed() {
+        return json != null;
+    }
+
+    /**
+     * Gets the payload text.
+     * @return the payload the payload to get.
+     */
+    public String getPayload() {
+        return payload;
+    }
+}
@@ -28,19 +28,15 @@ import com.consol.citrus.validation.context.ValidationContext;
 import com.consol.citrus.validation.matcher.ValidationMatcherUtils;
 import com.consol.citrus.xml.XsdSchemaRepository;
 import com.consol.citrus.xml.namespace.NamespaceContextBuilder;
-import com.consol.citrus.xml.schema.MultiResourceXsdSchema;
-import com.consol.citrus.xml.schema.WsdlXsdSchema;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.util.*;
 import org.springframework.xml.validation.XmlValidator;
-import org.springframework.xml.validation.XmlValidatorFactory;
 import org.springframework.xml.xsd.XsdSchema;
 import org.w3c.dom.*;
 import org.w3c.dom.ls.LSException;
@@ -49,14 +45,11 @@ import org.xml.sax.SAXParseException;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.NamespaceContext;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Default message validator implementation. Working on XML messages
@@ -78,22 +71,28 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
     /** Root application context this validator is defined in */
     private ApplicationContext applicationContext;
 
-    /** Transformer factory */
-    private TransformerFactory transformerFactory = TransformerFactory.newInstance();
+    /** Compiled validators for single schema instances */
+    private final Map<XsdSchema, XmlValidator> schemaValidators = new ConcurrentHashMap<XsdSchema, XmlValidator>();
+
+    /** Received payload size in characters above which payload is validated in streaming mode, negative value disables streaming */
+    private int streamingThreshold = Integer.getInteger(CitrusConstants.CITRUS_XML_STREAMING_THRESHOLD, -1);
 
     @Override
     public void validateMessagePayload(Message receivedMessage, Message controlMessage,
                                        XmlMessageValidationContext validationContext, TestContext context) throws ValidationException {
         log.info("Start XML message validation");
 
+        // all validation steps share the same parsed received payload
+        ParsedDocumentHolder receivedDocument = new ParsedDocumentHolder(receivedMessage, isStreamingValidation(receivedMessage));
+
         try {
             if (validationContext.isSchemaValidationEnabled()) {
-                validateXMLSchema(receivedMessage, validationContext);
+                validateXMLSchema(receivedDocument, validationContext);
                 validateDTD(validationContext.getDTDResource(), receivedMessage);
             }
 
-            validateNamespaces(validationContext.getControlNamespaces(), receivedMessage);
-            validateMessageContent(receivedMessage, controlMessage, validationContext, context);
+            validateNamespaces(validationContext.getControlNamespaces(), receivedDocument);
+            validateMessageContent(receivedDocument, controlMessage, validationContext, context);
 
             if (controlMessage != null) {
                 Assert.isTrue(controlMessage.getHeaderData().size() <= receivedMessage.getHeaderData().size(),
@@ -115,14 +114,38 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
         } catch (LSException e) {
             throw new CitrusRuntimeException(e);
         } catch (IllegalArgumentException e) {
-            log.error("Failed to validate:\n" + XMLUtils.prettyPrint(receivedMessage.getPayload(String.class)));
+            log.error("Failed to validate:\n" + prettyPrintPayload(receivedDocument));
             throw new ValidationException("Validation failed:", e);
         } catch (ValidationException ex) {
-            log.error("Failed to validate:\n" + XMLUtils.prettyPrint(receivedMessage.getPayload(String.class)));
+            log.error("Failed to validate:\n" + prettyPrintPayload(receivedDocument));
             throw ex;
         }
     }
 
+    /**
+     * Checks if received message payload exceeds the streaming threshold.
+     * @param receivedMessage
+     * @return
+     */
+    private boolean isStreamingValidation(Message receivedMessage) {
+        return streamingThreshold >= 0 && receivedMessage.getPayload() != null &&
+                receivedMessage.getPayload(String.class).length() > streamingThreshold;
+    }
+
+    /**
+     * Pretty prints received payload for logging. Payloads in streaming mode are too large to be parsed and logged.
+     * @param receivedDocument
+     * @return
+     */
+    private String prettyPrintPayload(ParsedDocumentHolder receivedDocument) {
+        String payload = receivedDocument.getMessage().getPayload(String.class);
+        if (receivedDocument.isStreaming()) {
+            return "XML payload of " + payload.length() + " characters omitted in streaming validation mode";
+        }
+
+        return XMLUtils.prettyPrint(payload);
+    }
+
     /**
      * Validate message with a DTD.
      *
@@ -140,12 +163,23 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
      * @param validationContext
      */
     protected void validateXMLSchema(Message receivedMessage, XmlMessageValidationContext validationContext) {
+        validateXMLSchema(new ParsedDocumentHolder(receivedMessage), validationContext);
+    }
+
+    /**
+     * Validate message with a XML schema using the shared parsed received message payload.
+     *
+     * @param receivedDocument
+     * @param validationContext
+     */
+    protected void validateXMLSchema(ParsedDocumentHolder receivedDocument, XmlMessageValidationContext validationContext) {
+        Message receivedMessage = receivedDocument.getMessage();
         if (receivedMessage.getPayload() == null || !StringUtils.hasText(receivedMessage.getPayload(String.class))) {
             return;
         }
 
         try {
-            Document doc = XMLUtils.parseMessagePayload(receivedMessage.getPayload(String.class));
+            Document doc = receivedDocument.getRootDocument();
 
             if (!StringUtils.hasText(doc.getFirstChild().getNamespaceURI())) {
                 return;
@@ -156,7 +190,7 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
             XmlValidator validator = null;
             XsdSchemaRepository schemaRepository = null;
             if (validationContext.getSchema() != null) {
-                validator = applicationContext.getBean(validationContext.getSchema(), XsdSchema.class).createValidator();
+                validator = getSchemaValidator(applicationContext.getBean(validationContext.getSchema(), XsdSchema.class));
             } else if (validationContext.getSchemaRepository() != null) {
                 schemaRepository = applicationContext.getBean(validationContext.getSchemaRepository(), XsdSchemaRepository.class);
             } else if (schemaRepositories.size() == 1) {
@@ -185,39 +219,14 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
                             schemaRepository.getName()));
                 }
 
-                List<Resource> schemas = new ArrayList<Resource>();
-
-                for (XsdSchema xsdSchema : schemaRepository.getSchemas()) {
-                    if (xsdSchema instanceof MultiResourceXsdSchema) {
-                        for (Resource resource : ((MultiResourceXsdSchema) xsdSchema).getSchemas()) {
-                            schemas.add(resource);
-                        }                            
-                    } else if (xsdSchema instanceof WsdlXsdSchema) {
-                        for (Resource resource : ((WsdlXsdSchema) xsdSchema).getSchemas()) {
-                            schemas.add(resource);
-                        }
-                    } else {
-                        synchronized (transformerFactory) {
-                            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                            try {
-                                transformerFactory.newTransformer().transform(xsdSchema.getSource(), new StreamResult(bos));
-                            } catch (TransformerException e) {
-                                throw new CitrusRuntimeException("Failed to read schema " + xsdSchema.getTargetNamespace(), e);
-                            }
-                            schemas.add(new ByteArrayResource(bos.toByteArray()));
-                        }
-                    }
-                }
-                
-                validator = XmlValidatorFactory.createValidator(schemas.toArray(new Resource[schemas.size()]), WsdlXsdSchema.W3C_XML_SCHEMA_NS_URI);
+                validator = schemaRepository.getValidator();
             }
             
-            SAXParseException[] results = validator.validate(new DOMSource(doc));
+            SAXParseException[] results = validator.validate(receivedDocument.getSource());
             if (results.length == 0) {
                 log.info("Schema of received XML validated OK");
             } else {
-                log.error("Schema validation failed for message:\n" +
-                        XMLUtils.prettyPrint(receivedMessage.getPayload(String.class)));
+                log.error("Schema validation failed for message:\n" + prettyPrintPayload(receivedDocument));
                 
                 // Report all parsing errors
                 log.debug("Found " + results.length + " schema validation errors");
@@ -237,6 +246,24 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
         }
     }
 
+    /**
+     * Gets compiled validator for single schema instance. Validators are compiled once per schema and cached.
+     * @param xsdSchema
+     * @return
+     * @throws IOException
+     * @throws SAXException
+     */
+    private XmlValidator getSchemaValidator(XsdSchema xsdSchema) throws IOException, SAXException {
+        XmlValidator validator = schemaValidators.get(xsdSchema);
+
+        if (validator == null) {
+            validator = xsdSchema.createValidator();
+            schemaValidators.put(xsdSchema, validator);
+        }
+
+        return validator;
+    }
+
     /**
      * Validate namespaces in message. The method compares namespace declarations in the root
      * element of the received message to expected namespaces. Prefixes are important too, so
@@ -246,15 +273,27 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
      * @param receivedMessage
      */
     protected void validateNamespaces(Map<String, String> expectedNamespaces, Message receivedMessage) {
+        validateNamespaces(expectedNamespaces, new ParsedDocumentHolder(receivedMessage));
+    }
+
+    /**
+     * Validate namespaces in message using the shared parsed received message payload.
+     *
+     * @param expectedNamespaces
+     * @param receivedDocument
+     */
+    protected void validateNamespaces(Map<String, String> expectedNamespaces, ParsedDocumentHolder receivedDocument) {
         if (CollectionUtils.isEmpty(expectedNamespaces)) { return; }
 
+        Message receivedMessage = receivedDocument.getMessage();
+
         if (receivedMessage.getPayload() == null || !StringUtils.hasText(receivedMessage.getPayload(String.class))) {
             throw new ValidationException("Unable to validate message namespaces - receive message payload was empty");
         }
 
         log.info("Start XML namespace validation");
 
-        Document received = XMLUtils.parseMessagePayload(receivedMessage.getPayload(String.class));
+        Document received = receivedDocument.getRootDocument();
 
         Map<String, String> foundNamespaces = XMLUtils.lookupNamespaces(receivedMessage.getPayload(String.class));
 
@@ -326,6 +365,22 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
      */
     protected void validateMessageContent(Message receivedMessage, Message controlMessage, XmlMessageValidationContext validationContext,
             TestContext context) {
+        validateMessageContent(new ParsedDocumentHolder(receivedMessage), controlMessage, validationContext, context);
+    }
+
+    /**
+     * Validate message payloads by comparing to a control message using the shared parsed received message payload.
+     * Strips whitespace nodes from the shared document so this has to be the last validation step reading the document.
+     * In streaming mode received and control payload are compared as XML streams without parsing any document.
+     *
+     * @param receivedDocument
+     * @param controlMessage
+     * @param validationContext
+     * @param context
+     */
+    protected void validateMessageContent(ParsedDocumentHolder receivedDocument, Message controlMessage, XmlMessageValidationContext validationContext,
+            TestContext context) {
+        Message receivedMessage = receivedDocument.getMessage();
         if (controlMessage == null || controlMessage.getPayload() == null) {
             log.info("Skip message payload validation as no control message was defined");
             return;
@@ -347,9 +402,18 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
             return;
         }
 
+        if (receivedDocument.isStreaming()) {
+            log.info("Start streaming XML tree validation ...");
+
+            new StreamingXmlTreeValidator(validationContext, namespaceContextBuilder.buildContext(
+                    receivedMessage, validationContext.getNamespaces()), context)
+                    .validate(new StringReader(receivedMessage.getPayload(String.class)), new StringReader(controlMessagePayload));
+            return;
+        }
+
         log.info("Start XML tree validation ...");
 
-        Document received = XMLUtils.parseMessagePayload(receivedMessage.getPayload(String.class));
+        Document received = receivedDocument.getDocument();
         Document source = XMLUtils.parseMessagePayload(controlMessagePayload);
 
         XMLUtils.stripWhitespaceNodes(received);
@@ -753,6 +817,22 @@ public class DomXmlMessageValidator extends ControlMessageValidator<XmlMessageVa
         schemaRepositories.add(schemaRepository);
     }
 
+    /**
+     * Gets the streamingThreshold.
+     * @return the streamingThreshold the streamingThreshold to get.
+     */
+    public int getStreamingThreshold() {
+        return streamingThreshold;
+    }
+
+    /**
+     * Sets the streamingThreshold.
+     * @param streamingThreshold the streamingThreshold to set
+     */
+    public void setStreamingThreshold(int streamingThreshold) {
+        this.streamingThreshold = streamingThreshold;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.validation.xml;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.message.Message;
+import com.consol.citrus.util.XMLUtils;
+import org.springframework.util.StringUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.*;
+import javax.xml.transform.Source;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamSource;
+import java.io.StringReader;
+
+/**
+ * Holds received message together with its parsed payload document for the scope of a single message validation.
+ * Payload is parsed lazily on first access, so all validation steps share the same document and the received payload
+ * is parsed at most once.
+ *
+ * Validation steps that modify the document, for instance by stripping whitespace nodes, must run after all other
+ * steps that read the document.
+ *
+ * In streaming mode the payload is never parsed into a complete document. Validation steps use the root document holding
+ * the payload's root element with its attributes and namespace declarations only and read the payload as stream source.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public class ParsedDocumentHolder {
+
+    /** Received message */
+    private final Message message;
+
+    /** Parsed message payload */
+    private Document document;
+
+    /** Document holding payload root element only */
+    private Document rootDocument;
+
+    /** Streaming mode avoids parsing complete payload */
+    private final boolean streaming;
+
+    /**
+     * Constructor using received message.
+     * @param message
+     */
+    public ParsedDocumentHolder(Message message) {
+        this(message, false);
+    }
+
+    /**
+     * Constructor using received message and streaming mode.
+     * @param message
+     * @param streaming
+     */
+    public ParsedDocumentHolder(Message message, boolean streaming) {
+        this.message = message;
+        this.streaming = streaming;
+    }
+
+    /**
+     * Gets the parsed payload document. Parses message payload on first access.
+     * @return
+     */
+    public Document getDocument() {
+        if (document == null) {
+            document = XMLUtils.parseMessagePayload(message.getPayload(String.class));
+        }
+
+        return document;
+    }
+
+    /**
+     * Gets document with payload root element. In streaming mode the document holds the root element with its attributes
+     * and namespace declarations only, otherwise this is the parsed payload document.
+     * @return
+     */
+    public Document getRootDocument() {
+        if (!streaming) {
+            return getDocument();
+        }
+
+        if (rootDocument == null) {
+            rootDocument = readRootDocument(message.getPayload(String.class));
+        }
+
+        return rootDocument;
+    }
+
+    /**
+     * Gets the payload as source. In streaming mode this is a stream source reading the payload, otherwise a DOM source
+     * on the parsed payload document.
+     * @return
+     */
+    public Source getSource() {
+        if (streaming) {
+            return new StreamSource(new StringReader(message.getPayload(String.class)));
+        }
+
+        return new DOMSource(getDocument());
+    }
+
+    /**
+     * Reads root element from payload stream and builds document holding this element only.
+     * @param payload
+     * @return
+     */
+    private Document readRootDocument(String payload) {
+        XMLStreamReader reader = null;
+        try {
+            reader = StreamingXmlTreeValidator.createInputFactory().createXMLStreamReader(new StringReader(payload));
+            while (reader.hasNext() && reader.next() != XMLStreamConstants.START_ELEMENT) {
+                // skip prolog
+            }
+
+            DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            documentBuilderFactory.setNamespaceAware(true);
+            Document rootDocument = documentBuilderFactory.newDocumentBuilder().newDocument();
+
+            if (!reader.isStartElement()) {
+                return rootDocument;
+            }
+
+            Element root = rootDocument.createElementNS(StringUtils.hasLength(reader.getNamespaceURI()) ? reader.getNamespaceURI() : null,
+                    getQualifiedName(reader.getPrefix(), reader.getLocalName()));
+
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                root.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+                        getQualifiedName(StringUtils.hasLength(reader.getNamespacePrefix(i)) ? XMLConstants.XMLNS_ATTRIBUTE : null,
+                                StringUtils.hasLength(reader.getNamespacePrefix(i)) ? reader.getNamespacePrefix(i) : XMLConstants.XMLNS_ATTRIBUTE),
+                        reader.getNamespaceURI(i));
+            }
+
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                root.setAttributeNS(StringUtils.hasLength(reader.getAttributeNamespace(i)) ? reader.getAttributeNamespace(i) : null,
+                        getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+                        reader.getAttributeValue(i));
+            }
+
+            rootDocument.appendChild(root);
+            return rootDocument;
+        } catch (XMLStreamException e) {
+            throw new CitrusRuntimeException("Failed to read root element from message payload", e);
+        } catch (ParserConfigurationException e) {
+            throw new CitrusRuntimeException("Failed to create root document", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private String getQualifiedName(String prefix, String localName) {
+        return StringUtils.hasLength(prefix) ? prefix + ":" + localName : localName;
+    }
+
+    /**
+     * Checks if payload is validated in streaming mode.
+     * @return
+     */
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Checks if message payload has been parsed already.
+     * @return
+     */
+    public boolean isParsed() {
+        return document != null;
+    }
+
+    /**
+     * Gets the message.
+     * @return the message the message to get.
+     */
+    public Message getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,1047 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.validation.xml;
+
+import com.consol.citrus.CitrusConstants;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import com.consol.citrus.validation.ValidationUtils;
+import com.consol.citrus.validation.matcher.ValidationMatcherUtils;
+import com.consol.citrus.xml.xpath.XPathUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.*;
+import java.io.Reader;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * XML tree validator comparing received and control XML documents in lockstep with StAX stream readers. Neither document
+ * is loaded into a DOM tree, so memory usage is bounded by the document depth and the size of single text nodes. This is
+ * the validation mode of choice for very large message payloads.
+ *
+ * Validation rules and error messages are the same as in the DOM tree validation of {@link DomXmlMessageValidator}. Ignore
+ * expressions are evaluated while streaming through the received document. Supported are node path names like
+ * Numbers.NumberItem.AreaCode and XPath location paths with child and descendant steps, name tests, wildcards, positional
+ * predicates and a final attribute step like //ns:NumberItem[2]/@type. As with the DOM validation only the first node
+ * matching an expression in document order is ignored. Any other XPath expression is rejected.
+ *
+ * Validator instances hold stream state and must be used for a single validation only.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public class StreamingXmlTreeValidator {
+
+    /** Logger */
+    private static Logger log = LoggerFactory.getLogger(StreamingXmlTreeValidator.class);
+
+    /** Parser property reporting CDATA sections as separate events */
+    private static final String REPORT_CDATA_EVENT = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    /** Public and system id in document type declaration */
+    private static final Pattern DOCTYPE_ID_PATTERN = Pattern.compile(
+            "\\s(?:PUBLIC\\s+(?:\"([^\"]*)\"|'([^']*)')\\s+(?:\"([^\"]*)\"|'([^']*)')|SYSTEM\\s+(?:\"([^\"]*)\"|'([^']*)'))");
+
+    /** Single XPath location step */
+    private static final Pattern XPATH_STEP_PATTERN = Pattern.compile("(@)?(?:([\\w.\\-]+):)?([\\w.\\-]+|\\*)(?:\\[(\\d+)\\])?");
+
+    /** Test context resolving validation matchers */
+    private final TestContext context;
+
+    /** Ignore expressions evaluated on received document */
+    private final List<IgnoreExpression> ignoreExpressions = new ArrayList<IgnoreExpression>();
+
+    /** Stream cursors on received and control document */
+    private NodeCursor received;
+    private NodeCursor control;
+
+    /**
+     * Default constructor. Namespace context resolves prefixes in XPath ignore expressions.
+     * @param validationContext
+     * @param namespaceContext
+     * @param context
+     */
+    public StreamingXmlTreeValidator(XmlMessageValidationContext validationContext, NamespaceContext namespaceContext, TestContext context) {
+        this.context = context;
+
+        if (validationContext.getIgnoreExpressions() != null) {
+            for (String expression : validationContext.getIgnoreExpressions()) {
+                if (XPathUtils.isXPathExpression(expression)) {
+                    ignoreExpressions.add(new LocationPathExpression(expression, namespaceContext));
+                } else {
+                    ignoreExpressions.add(new PathNameExpression(expression));
+                }
+            }
+        }
+    }
+
+    /**
+     * Validates received XML document against control XML document.
+     * @param receivedXml
+     * @param controlXml
+     */
+    public void validate(Reader receivedXml, Reader controlXml) {
+        XMLInputFactory inputFactory = createInputFactory();
+
+        try {
+            received = new NodeCursor(inputFactory.createXMLStreamReader(receivedXml), true);
+            control = new NodeCursor(inputFactory.createXMLStreamReader(controlXml), false);
+
+            validateNode(received.next(), control.next(), null);
+
+            for (IgnoreExpression expression : ignoreExpressions) {
+                if (expression instanceof LocationPathExpression && !expression.isMatched()) {
+                    throw new CitrusRuntimeException("No result for XPath expression: '" + expression.getExpression() + "'");
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new CitrusRuntimeException("Failed to read XML stream", e);
+        } finally {
+            close(received);
+            close(control);
+        }
+    }
+
+    /**
+     * Creates new input factory for namespace aware stream readers not resolving external resources.
+     * @return
+     */
+    static XMLInputFactory createInputFactory() {
+        XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+        inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        if (inputFactory.isPropertySupported(REPORT_CDATA_EVENT)) {
+            inputFactory.setProperty(REPORT_CDATA_EVENT, true);
+        }
+
+        return inputFactory;
+    }
+
+    /**
+     * Validates received node against control node. Element nodes are validated including all their child nodes.
+     * @param receivedNode
+     * @param controlNode
+     * @param parentName
+     */
+    private void validateNode(StreamNode receivedNode, StreamNode controlNode, String parentName) throws XMLStreamException {
+        switch (receivedNode.type) {
+            case XMLStreamConstants.DTD:
+                doDocumentTypeDefinition(receivedNode, controlNode);
+                validateNode(received.next(), control.next(), null);
+                break;
+            case XMLStreamConstants.START_ELEMENT:
+                doElement(receivedNode, controlNode);
+                break;
+            case XMLStreamConstants.CHARACTERS: case XMLStreamConstants.CDATA:
+                doText(receivedNode, controlNode, parentName);
+                break;
+            case XMLStreamConstants.COMMENT:
+                log.info("Ignored comment node (" + receivedNode.text + ")");
+                skipNode(control, controlNode);
+                break;
+            case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                log.info("Ignored processing instruction (" + receivedNode.qualifiedName + "=" + receivedNode.text + ")");
+                skipNode(control, controlNode);
+                break;
+        }
+    }
+
+    /**
+     * Handle document type definition with validation of publicId and systemId.
+     * @param receivedNode
+     * @param controlNode
+     */
+    private void doDocumentTypeDefinition(StreamNode receivedNode, StreamNode controlNode) {
+        Assert.isTrue(controlNode.type == XMLStreamConstants.DTD, "Missing document type definition in expected xml fragment");
+
+        String[] receivedIds = parseDocumentTypeIds(receivedNode.text);
+        String[] controlIds = parseDocumentTypeIds(controlNode.text);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Validating document type definition: " + receivedIds[0] + " (" + receivedIds[1] + ")");
+        }
+
+        doDocumentTypeId("public", receivedIds[0], controlIds[0]);
+        doDocumentTypeId("system", receivedIds[1], controlIds[1]);
+    }
+
+    /**
+     * Validates single document type id.
+     * @param idType
+     * @param receivedId
+     * @param controlId
+     */
+    private void doDocumentTypeId(String idType, String receivedId, String controlId) {
+        if (!StringUtils.hasText(controlId)) {
+            Assert.isNull(receivedId, ValidationUtils.buildValueMismatchErrorMessage("Document type " + idType + " id not equal",
+                    controlId, receivedId));
+        } else if (controlId.trim().equals(CitrusConstants.IGNORE_PLACEHOLDER)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Document type " + idType + " id: '" + receivedId +
+                        "' is ignored by placeholder '" + CitrusConstants.IGNORE_PLACEHOLDER + "'");
+            }
+        } else {
+            Assert.isTrue(StringUtils.hasText(receivedId) && receivedId.equals(controlId),
+                    ValidationUtils.buildValueMismatchErrorMessage("Document type " + idType + " id not equal",
+                    controlId, receivedId));
+        }
+    }
+
+    /**
+     * Reads public and system id from document type declaration.
+     * @param declaration
+     * @return array holding public id and system id, missing ids are null.
+     */
+    private String[] parseDocumentTypeIds(String declaration) {
+        Matcher matcher = DOCTYPE_ID_PATTERN.matcher(declaration);
+        if (!matcher.find()) {
+            return new String[] { null, null };
+        }
+
+        if (matcher.group(5) != null || matcher.group(6) != null) {
+            return new String[] { null, matcher.group(5) != null ? matcher.group(5) : matcher.group(6) };
+        }
+
+        return new String[] { matcher.group(1) != null ? matcher.group(1) : matcher.group(2),
+                matcher.group(3) != null ? matcher.group(3) : matcher.group(4) };
+    }
+
+    /**
+     * Handle element node including all child nodes.
+     * @param receivedNode
+     * @param controlNode
+     */
+    private void doElement(StreamNode receivedNode, StreamNode controlNode) throws XMLStreamException {
+        if (log.isDebugEnabled()) {
+            log.debug("Validating element: " + receivedNode.localName + " (" + receivedNode.namespaceUri + ")");
+        }
+
+        Assert.isTrue(receivedNode.localName.equals(controlNode.localName),
+                ValidationUtils.buildValueMismatchErrorMessage("Element names not equal", controlNode.localName, receivedNode.localName));
+
+        doElementNamespaceValidation(receivedNode, controlNode);
+
+        //check if element is ignored either by ignore expression or by ignore placeholder in control message
+        StreamNode controlFirstChild = control.peek();
+        if (receivedNode.ignored) {
+            if (log.isDebugEnabled()) {
+                log.debug("Element: '" + receivedNode.localName + "' is on ignore list - skipped validation");
+            }
+            skipElements();
+            return;
+        } else if (StringUtils.hasText(controlFirstChild.getNodeValue()) &&
+                controlFirstChild.getNodeValue().trim().equals(CitrusConstants.IGNORE_PLACEHOLDER)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Element: '" + receivedNode.localName + "' is ignored by placeholder '" +
+                        CitrusConstants.IGNORE_PLACEHOLDER + "'");
+            }
+            skipElements();
+            return;
+        }
+
+        //work on attributes
+        if (log.isDebugEnabled()) {
+            log.debug("Validating attributes for element: " + receivedNode.localName);
+        }
+
+        Assert.isTrue(receivedNode.attributes.size() == controlNode.attributes.size(),
+                ValidationUtils.buildValueMismatchErrorMessage("Number of attributes not equal for element '"
+                        + receivedNode.localName + "'", controlNode.attributes.size(), receivedNode.attributes.size()));
+
+        for (StreamAttribute receivedAttribute : receivedNode.attributes) {
+            doAttribute(receivedNode, receivedAttribute, controlNode);
+        }
+
+        //check if validation matcher on element is specified
+        if (StringUtils.hasText(controlFirstChild.getNodeValue()) &&
+                ValidationMatcherUtils.isValidationMatcherExpression(controlFirstChild.getNodeValue().trim())) {
+            StreamNode receivedFirstChild = received.peek();
+            ValidationMatcherUtils.resolveValidationMatcher(controlNode.qualifiedName,
+                    receivedFirstChild.getNodeValue() != null ? receivedFirstChild.getNodeValue().trim() : "",
+                    controlFirstChild.getNodeValue().trim(),
+                    context);
+            skipElements();
+            return;
+        }
+
+        //work on child nodes in lockstep
+        int childCount = 0;
+        while (true) {
+            StreamNode receivedChild = received.next();
+            StreamNode controlChild = control.next();
+
+            if (receivedChild.type == XMLStreamConstants.END_ELEMENT || controlChild.type == XMLStreamConstants.END_ELEMENT) {
+                int receivedChildCount = childCount + received.countRemaining(receivedChild);
+                int controlChildCount = childCount + control.countRemaining(controlChild);
+
+                Assert.isTrue(receivedChildCount == controlChildCount,
+                        ValidationUtils.buildValueMismatchErrorMessage("Number of child elements not equal for element '"
+                                + receivedNode.localName + "'", controlChildCount, receivedChildCount));
+                break;
+            }
+
+            childCount++;
+            validateNode(receivedChild, controlChild, receivedNode.localName);
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Validation successful for element: " + receivedNode.localName +
+                    " (" + receivedNode.namespaceUri + ")");
+        }
+    }
+
+    /**
+     * Validates element namespace.
+     * @param receivedNode
+     * @param controlNode
+     */
+    private void doElementNamespaceValidation(StreamNode receivedNode, StreamNode controlNode) {
+        if (log.isDebugEnabled()) {
+            log.debug("Validating namespace for element: " + receivedNode.localName);
+        }
+
+        if (receivedNode.namespaceUri != null) {
+            Assert.isTrue(controlNode.namespaceUri != null,
+                    ValidationUtils.buildValueMismatchErrorMessage("Element namespace not equal for element '" +
+                            receivedNode.localName + "'", null, receivedNode.namespaceUri));
+
+            Assert.isTrue(receivedNode.namespaceUri.equals(controlNode.namespaceUri),
+                    ValidationUtils.buildValueMismatchErrorMessage("Element namespace not equal for element '" +
+                            receivedNode.localName + "'", controlNode.namespaceUri, receivedNode.namespaceUri));
+        } else {
+            Assert.isTrue(controlNode.namespaceUri == null,
+                    ValidationUtils.buildValueMismatchErrorMessage("Element namespace not equal for element '" +
+                            receivedNode.localName + "'", controlNode.namespaceUri, null));
+        }
+    }
+
+    /**
+     * Handle text node during validation.
+     * @param receivedNode
+     * @param controlNode
+     * @param parentName
+     */
+    private void doText(StreamNode receivedNode, StreamNode controlNode, String parentName) throws XMLStreamException {
+        if (log.isDebugEnabled()) {
+            log.debug("Validating node value for element: " + parentName);
+        }
+
+        String receivedValue = receivedNode.getNodeValue().trim();
+        Assert.isTrue(controlNode.getNodeValue() != null,
+                ValidationUtils.buildValueMismatchErrorMessage("Node value not equal for element '"
+                        + parentName + "'", null, receivedValue));
+
+        Assert.isTrue(receivedValue.equals(controlNode.getNodeValue().trim()),
+                ValidationUtils.buildValueMismatchErrorMessage("Node value not equal for element '"
+                        + parentName + "'", controlNode.getNodeValue().trim(), receivedValue));
+
+        if (log.isDebugEnabled()) {
+            log.debug("Node value '" + receivedValue + "': OK");
+        }
+    }
+
+    /**
+     * Handle attribute during validation.
+     * @param receivedElement
+     * @param receivedAttribute
+     * @param controlElement
+     */
+    private void doAttribute(StreamNode receivedElement, StreamAttribute receivedAttribute, StreamNode controlElement) {
+        if (log.isDebugEnabled()) {
+            log.debug("Validating attribute: " + receivedAttribute.localName + " (" + receivedAttribute.namespaceUri + ")");
+        }
+
+        StreamAttribute controlAttribute = controlElement.getAttribute(receivedAttribute.namespaceUri, receivedAttribute.localName);
+
+        Assert.isTrue(controlAttribute != null,
+                "Attribute validation failed for element '"
+                        + receivedElement.localName + "', unknown attribute "
+                        + receivedAttribute.localName + " (" + receivedAttribute.namespaceUri + ")");
+
+        if (receivedAttribute.ignored) {
+            if (log.isDebugEnabled()) {
+                log.debug("Attribute '" + receivedAttribute.localName + "' is on ignore list - skipped value validation");
+            }
+            return;
+        } else if (StringUtils.hasText(controlAttribute.value) &&
+                controlAttribute.value.trim().equals(CitrusConstants.IGNORE_PLACEHOLDER)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Attribute: '" + receivedAttribute.localName + "' is ignored by placeholder '" +
+                        CitrusConstants.IGNORE_PLACEHOLDER + "'");
+            }
+            return;
+        }
+
+        String receivedValue = receivedAttribute.value;
+        String controlValue = controlAttribute.value;
+        if (StringUtils.hasText(controlValue) && ValidationMatcherUtils.isValidationMatcherExpression(controlValue.trim())) {
+            ValidationMatcherUtils.resolveValidationMatcher(controlAttribute.qualifiedName,
+                    receivedValue.trim(), controlValue.trim(), context);
+        } else if (receivedValue.contains(":") && controlValue.contains(":")) {
+            doNamespaceQualifiedAttributeValidation(receivedElement, receivedAttribute, controlElement, controlAttribute);
+        } else {
+            Assert.isTrue(receivedValue.equals(controlValue),
+                    ValidationUtils.buildValueMismatchErrorMessage("Values not equal for attribute '"
+                            + receivedAttribute.localName + "'", controlValue, receivedValue));
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Attribute '" + receivedAttribute.localName + "'='" + receivedValue + "': OK");
+        }
+    }
+
+    /**
+     * Perform validation on namespace qualified attribute values. Namespace declarations are looked up on
+     * the document root element and on the attribute's element.
+     * @param receivedElement
+     * @param receivedAttribute
+     * @param controlElement
+     * @param controlAttribute
+     */
+    private void doNamespaceQualifiedAttributeValidation(StreamNode receivedElement, StreamAttribute receivedAttribute,
+                                                         StreamNode controlElement, StreamAttribute controlAttribute) {
+        String receivedValue = receivedAttribute.value;
+        String controlValue = controlAttribute.value;
+
+        String receivedPrefix = receivedValue.substring(0, receivedValue.indexOf(':'));
+        String controlPrefix = controlValue.substring(0, controlValue.indexOf(':'));
+
+        Map<String, String> receivedNamespaces = new HashMap<String, String>(received.rootNamespaces);
+        receivedNamespaces.putAll(receivedElement.namespaces);
+
+        if (receivedNamespaces.containsKey(receivedPrefix)) {
+            Map<String, String> controlNamespaces = new HashMap<String, String>(control.rootNamespaces);
+            controlNamespaces.putAll(controlElement.namespaces);
+
+            if (controlNamespaces.containsKey(controlPrefix)) {
+                Assert.isTrue(controlNamespaces.get(controlPrefix).equals(receivedNamespaces.get(receivedPrefix)),
+                        ValidationUtils.buildValueMismatchErrorMessage("Values not equal for attribute value namespace '"
+                                + receivedValue + "'", controlNamespaces.get(controlPrefix), receivedNamespaces.get(receivedPrefix)));
+
+                // remove namespace prefixes as they must not form equality
+                receivedValue = receivedValue.substring((receivedPrefix + ":").length());
+                controlValue = controlValue.substring((controlPrefix + ":").length());
+            } else {
+                throw new ValidationException("Received attribute value '" + receivedAttribute.localName + "' describes namespace qualified attribute value," +
+                        " control value '" + controlValue + "' does not");
+            }
+        }
+
+        Assert.isTrue(receivedValue.equals(controlValue),
+                ValidationUtils.buildValueMismatchErrorMessage("Values not equal for attribute '"
+                        + receivedAttribute.localName + "'", controlValue, receivedValue));
+    }
+
+    /**
+     * Skips remaining content of current received and control element.
+     */
+    private void skipElements() throws XMLStreamException {
+        received.skipElement();
+        control.skipElement();
+    }
+
+    /**
+     * Skips given node on cursor. In case node is an element its complete content is skipped.
+     * @param cursor
+     * @param node
+     */
+    private void skipNode(NodeCursor cursor, StreamNode node) throws XMLStreamException {
+        if (node.type == XMLStreamConstants.START_ELEMENT) {
+            cursor.skipElement();
+        }
+    }
+
+    /**
+     * Closes cursor quietly.
+     * @param cursor
+     */
+    private void close(NodeCursor cursor) {
+        if (cursor != null) {
+            try {
+                cursor.reader.close();
+            } catch (XMLStreamException e) {
+                log.warn("Failed to close XML stream reader", e);
+            }
+        }
+    }
+
+    /**
+     * Cursor reading nodes from XML stream. Adjacent character events are joined to a single text node and
+     * whitespace only text nodes are skipped. Cursor on received document keeps track of the current element path
+     * and evaluates ignore expressions on each element.
+     */
+    private final class NodeCursor {
+        private final XMLStreamReader reader;
+        private final boolean evaluateIgnoreExpressions;
+
+        /** Current element path, first entry represents the document */
+        private final List<PathEntry> path = new ArrayList<PathEntry>();
+
+        /** Namespace declarations on document root element */
+        private Map<String, String> rootNamespaces = Collections.emptyMap();
+
+        /** Reader is positioned on event that has not been processed yet */
+        private boolean pending = false;
+
+        /** Node read ahead */
+        private StreamNode peeked;
+
+        /** Current element depth */
+        private int depth = 0;
+
+        NodeCursor(XMLStreamReader reader, boolean evaluateIgnoreExpressions) {
+            this.reader = reader;
+            this.evaluateIgnoreExpressions = evaluateIgnoreExpressions;
+            this.path.add(new PathEntry(null, null, 0, 0));
+        }
+
+        /**
+         * Reads next node.
+         * @return
+         */
+        StreamNode next() throws XMLStreamException {
+            if (peeked != null) {
+                StreamNode node = peeked;
+                peeked = null;
+                return node;
+            }
+
+            return read(false);
+        }
+
+        /**
+         * Reads next node without consuming it.
+         * @return
+         */
+        StreamNode peek() throws XMLStreamException {
+            if (peeked == null) {
+                peeked = read(false);
+            }
+
+            return peeked;
+        }
+
+        /**
+         * Skips all remaining content of the current element including its end.
+         */
+        void skipElement() throws XMLStreamException {
+            int elementDepth = depth;
+            if (peeked != null) {
+                if (peeked.type == XMLStreamConstants.START_ELEMENT) {
+                    elementDepth--;
+                } else if (peeked.type == XMLStreamConstants.END_ELEMENT) {
+                    elementDepth++;
+                }
+                peeked = null;
+            }
+
+            while (depth >= elementDepth) {
+                if (read(true).type == XMLStreamConstants.END_DOCUMENT) {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Counts remaining child nodes of current element starting with given node. Consumes the element end.
+         * @param node
+         * @return
+         */
+        int countRemaining(StreamNode node) throws XMLStreamException {
+            int count = 0;
+            while (node.type != XMLStreamConstants.END_ELEMENT && node.type != XMLStreamConstants.END_DOCUMENT) {
+                count++;
+                if (node.type == XMLStreamConstants.START_ELEMENT) {
+                    skipElement();
+                }
+                node = next();
+            }
+
+            return count;
+        }
+
+        /**
+         * Reads next node from stream.
+         * @param skipping when set no text and comment nodes are created.
+         * @return
+         */
+        private StreamNode read(boolean skipping) throws XMLStreamException {
+            StringBuilder text = null;
+
+            while (true) {
+                int event;
+                if (pending) {
+                    event = reader.getEventType();
+                    pending = false;
+                } else if (reader.hasNext()) {
+                    event = reader.next();
+                } else {
+                    return StreamNode.END_DOCUMENT;
+                }
+
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+                    if (!skipping) {
+                        if (text == null) {
+                            text = new StringBuilder();
+                        }
+                        text.append(reader.getText());
+                    }
+                    continue;
+                }
+
+                if (text != null) {
+                    if (StringUtils.hasText(text)) {
+                        pending = true;
+                        return new StreamNode(XMLStreamConstants.CHARACTERS, text.toString());
+                    }
+                    text = null;
+                }
+
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        depth++;
+                        return readElement();
+                    case XMLStreamConstants.END_ELEMENT:
+                        depth--;
+                        if (evaluateIgnoreExpressions) {
+                            path.remove(path.size() - 1);
+                        }
+                        return StreamNode.END_ELEMENT;
+                    case XMLStreamConstants.END_DOCUMENT:
+                        return StreamNode.END_DOCUMENT;
+                    case XMLStreamConstants.CDATA:
+                        if (!skipping) {
+                            return new StreamNode(XMLStreamConstants.CDATA, reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.COMMENT:
+                        if (!skipping) {
+                            return new StreamNode(XMLStreamConstants.COMMENT, reader.getText());
+                        }
+                        break;
+                    case XMLStreamConstants.PROCESSING_INSTRUCTION:
+                        if (!skipping) {
+                            StreamNode node = new StreamNode(XMLStreamConstants.PROCESSING_INSTRUCTION, reader.getPIData());
+                            node.qualifiedName = reader.getPITarget();
+                            return node;
+                        }
+                        break;
+                    case XMLStreamConstants.DTD:
+                        if (!skipping) {
+                            return new StreamNode(XMLStreamConstants.DTD, reader.getText());
+                        }
+                        break;
+                }
+            }
+        }
+
+        /**
+         * Reads element with attributes and namespace declarations from current start element event.
+         * @return
+         */
+        private StreamNode readElement() {
+            StreamNode node = new StreamNode(XMLStreamConstants.START_ELEMENT, null);
+            node.namespaceUri = emptyToNull(reader.getNamespaceURI());
+            node.localName = reader.getLocalName();
+            node.qualifiedName = StringUtils.hasLength(reader.getPrefix()) ? reader.getPrefix() + ":" + node.localName : node.localName;
+
+            for (int i = 0; i < reader.getNamespaceCount(); i++) {
+                node.namespaces.put(reader.getNamespacePrefix(i) != null ? reader.getNamespacePrefix(i) : "", reader.getNamespaceURI(i));
+            }
+
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                StreamAttribute attribute = new StreamAttribute();
+                attribute.namespaceUri = emptyToNull(reader.getAttributeNamespace(i));
+                attribute.localName = reader.getAttributeLocalName(i);
+                attribute.qualifiedName = StringUtils.hasLength(reader.getAttributePrefix(i)) ?
+                        reader.getAttributePrefix(i) + ":" + attribute.localName : attribute.localName;
+                attribute.value = reader.getAttributeValue(i);
+                node.attributes.add(attribute);
+            }
+
+            if (depth == 1) {
+                rootNamespaces = node.namespaces;
+            }
+
+            if (evaluateIgnoreExpressions) {
+                path.add(path.get(path.size() - 1).addChild(node.namespaceUri, node.localName));
+                for (IgnoreExpression expression : ignoreExpressions) {
+                    expression.evaluate(path, node);
+                }
+            }
+
+            return node;
+        }
+
+        private String emptyToNull(String value) {
+            return StringUtils.hasLength(value) ? value : null;
+        }
+    }
+
+    /**
+     * Node read from XML stream.
+     */
+    private static final class StreamNode {
+        static final StreamNode END_ELEMENT = new StreamNode(XMLStreamConstants.END_ELEMENT, null);
+        static final StreamNode END_DOCUMENT = new StreamNode(XMLStreamConstants.END_DOCUMENT, null);
+
+        private final int type;
+        private final String text;
+        private String namespaceUri;
+        private String localName;
+        private String qualifiedName;
+        private final List<StreamAttribute> attributes = new ArrayList<StreamAttribute>();
+        private final Map<String, String> namespaces = new LinkedHashMap<String, String>();
+        private boolean ignored;
+
+        StreamNode(int type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        /**
+         * Gets the node value which is null for elements.
+         * @return
+         */
+        String getNodeValue() {
+            return text;
+        }
+
+        StreamAttribute getAttribute(String namespaceUri, String localName) {
+            for (StreamAttribute attribute : attributes) {
+                if (attribute.localName.equals(localName) &&
+                        (namespaceUri == null ? attribute.namespaceUri == null : namespaceUri.equals(attribute.namespaceUri))) {
+                    return attribute;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * Attribute read from XML stream.
+     */
+    private static final class StreamAttribute {
+        private String namespaceUri;
+        private String localName;
+        private String qualifiedName;
+        private String value;
+        private boolean ignored;
+    }
+
+    /**
+     * Element in current element path with position among its siblings and child counters.
+     */
+    private static final class PathEntry {
+        private final String namespaceUri;
+        private final String localName;
+
+        /** Position among siblings with same name */
+        private final int position;
+
+        /** Position among all sibling elements */
+        private final int index;
+
+        private final Map<String, Integer> childPositions = new HashMap<String, Integer>();
+        private int childCount = 0;
+
+        PathEntry(String namespaceUri, String localName, int position, int index) {
+            this.namespaceUri = namespaceUri;
+            this.localName = localName;
+            this.position = position;
+            this.index = index;
+        }
+
+        /**
+         * Creates path entry for next child element.
+         * @param namespaceUri
+         * @param localName
+         * @return
+         */
+        PathEntry addChild(String namespaceUri, String localName) {
+            String key = "{" + namespaceUri + "}" + localName;
+            Integer position = childPositions.get(key);
+            position = position == null ? 1 : position + 1;
+            childPositions.put(key, position);
+
+            return new PathEntry(namespaceUri, localName, position, ++childCount);
+        }
+    }
+
+    /**
+     * Ignore expression evaluated on each received element in document order.
+     */
+    private abstract static class IgnoreExpression {
+        private final String expression;
+
+        IgnoreExpression(String expression) {
+            this.expression = expression;
+        }
+
+        /**
+         * Marks element or its attributes as ignored when matched by this expression.
+         * @param path current element path with element as last entry.
+         * @param element
+         */
+        abstract void evaluate(List<PathEntry> path, StreamNode element);
+
+        /**
+         * Checks if expression has matched a node.
+         * @return
+         */
+        abstract boolean isMatched();
+
+        String getExpression() {
+            return expression;
+        }
+    }
+
+    /**
+     * Node path name expression like Numbers.NumberItem.AreaCode. Full path names ignore all matching elements and
+     * attributes, shorter path names only the first element with matching path suffix.
+     */
+    private static final class PathNameExpression extends IgnoreExpression {
+        private final String[] tokens;
+        private boolean elementMatched = false;
+        private boolean attributeMatched = false;
+
+        PathNameExpression(String expression) {
+            super(expression);
+            this.tokens = StringUtils.tokenizeToStringArray(expression, ".");
+        }
+
+        @Override
+        void evaluate(List<PathEntry> path, StreamNode element) {
+            String pathName = getPathName(path);
+            if (pathName.equals(getExpression())) {
+                element.ignored = true;
+            }
+
+            if (!elementMatched && endsWith(path, tokens, tokens.length)) {
+                elementMatched = true;
+                element.ignored = true;
+            }
+
+            for (StreamAttribute attribute : element.attributes) {
+                if ((pathName + "." + attribute.qualifiedName).equals(getExpression())) {
+                    attribute.ignored = true;
+                }
+            }
+
+            if (!attributeMatched && tokens.length > 1 && endsWith(path, tokens, tokens.length - 1)) {
+                attributeMatched = true;
+                for (StreamAttribute attribute : element.attributes) {
+                    if (attribute.qualifiedName.equals(tokens[tokens.length - 1])) {
+                        attribute.ignored = true;
+                    }
+                }
+            }
+        }
+
+        @Override
+        boolean isMatched() {
+            return elementMatched || attributeMatched;
+        }
+
+        /**
+         * Checks if local names of last elements in path equal given tokens.
+         * @param path
+         * @param tokens
+         * @param count number of tokens to match.
+         * @return
+         */
+        private boolean endsWith(List<PathEntry> path, String[] tokens, int count) {
+            if (count == 0 || path.size() - 1 < count) {
+                return false;
+            }
+
+            for (int i = 0; i < count; i++) {
+                if (!tokens[count - 1 - i].equals(path.get(path.size() - 1 - i).localName)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private String getPathName(List<PathEntry> path) {
+            StringBuilder pathName = new StringBuilder();
+            for (int i = 1; i < path.size(); i++) {
+                if (i > 1) {
+                    pathName.append('.');
+                }
+                pathName.append(path.get(i).localName);
+            }
+
+            return pathName.toString();
+        }
+    }
+
+    /**
+     * XPath location path expression with child and descendant steps, name tests and positional predicates. The last step
+     * may select attributes. Only the first matching node in document order is ignored.
+     */
+    private static final class LocationPathExpression extends IgnoreExpression {
+        private final List<LocationStep> steps = new ArrayList<LocationStep>();
+        private LocationStep attributeStep;
+        private boolean matched = false;
+
+        LocationPathExpression(String expression, NamespaceContext namespaceContext) {
+            super(expression);
+
+            int i = 0;
+            while (i < expression.length()) {
+                boolean descendant = false;
+                if (expression.charAt(i) == '/') {
+                    descendant = expression.startsWith("//", i);
+                    i += descendant ? 2 : 1;
+                }
+
+                int end = expression.indexOf('/', i);
+                if (end < 0) {
+                    end = expression.length();
+                }
+
+                Matcher matcher = XPATH_STEP_PATTERN.matcher(expression.substring(i, end));
+                if (attributeStep != null || !matcher.matches() ||
+                        (matcher.group(4) != null && (matcher.group(1) != null || (matcher.group(2) != null && matcher.group(3).equals("*"))))) {
+                    throw unsupported();
+                }
+
+                LocationStep step = new LocationStep();
+                step.descendant = descendant;
+                step.localName = matcher.group(3);
+                step.position = matcher.group(4) != null ? Integer.valueOf(matcher.group(4)) : 0;
+
+                if (matcher.group(2) != null) {
+                    String namespaceUri = namespaceContext != null ? namespaceContext.getNamespaceURI(matcher.group(2)) : null;
+                    if (!StringUtils.hasLength(namespaceUri)) {
+                        throw new CitrusRuntimeException("Unable to resolve namespace prefix '" + matcher.group(2) +
+                                "' in ignore expression '" + expression + "'");
+                    }
+                    step.namespaceUri = namespaceUri;
+                } else {
+                    step.anyNamespace = step.localName.equals("*");
+                }
+
+                if (matcher.group(1) != null) {
+                    attributeStep = step;
+                } else {
+                    steps.add(step);
+                }
+
+                i = end;
+            }
+
+            if (steps.isEmpty() || (attributeStep != null && attributeStep.descendant)) {
+                throw unsupported();
+            }
+        }
+
+        private CitrusRuntimeException unsupported() {
+            return new CitrusRuntimeException("Unsupported ignore expression '" + getExpression() + "' in streaming XML validation - " +
+                    "use node path names or XPath location paths with name tests, positional predicates and attribute steps");
+        }
+
+        @Override
+        void evaluate(List<PathEntry> path, StreamNode element) {
+            if (matched || !matches(path, 0, 1)) {
+                return;
+            }
+
+            if (attributeStep == null) {
+                matched = true;
+                element.ignored = true;
+            } else {
+                for (StreamAttribute attribute : element.attributes) {
+                    if (attributeStep.matches(attribute.namespaceUri, attribute.localName)) {
+                        matched = true;
+                        attribute.ignored = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        @Override
+        boolean isMatched() {
+            return matched;
+        }
+
+        /**
+         * Matches location steps starting at given step index against path entries starting at given path index.
+         * @param path
+         * @param stepIndex
+         * @param pathIndex
+         * @return
+         */
+        private boolean matches(List<PathEntry> path, int stepIndex, int pathIndex) {
+            if (stepIndex == steps.size()) {
+                return pathIndex == path.size();
+            }
+
+            LocationStep step = steps.get(stepIndex);
+            if (step.descendant) {
+                for (int i = pathIndex; i < path.size(); i++) {
+                    if (step.matches(path.get(i)) && matches(path, stepIndex + 1, i + 1)) {
+                        return true;
+                    }
+                }
+
+                return false;
+            }
+
+            return pathIndex < path.size() && step.matches(path.get(pathIndex)) && matches(path, stepIndex + 1, pathIndex + 1);
+        }
+    }
+
+    /**
+     * Single location step with name test and optional positional predicate.
+     */
+    private static final class LocationStep {
+        private boolean descendant;
+        private boolean anyNamespace;
+        private String namespaceUri;
+        private String localName;
+        private int position;
+
+        boolean matches(PathEntry entry) {
+            if (!matches(entry.namespaceUri, entry.localName)) {
+                return false;
+            }
+
+            return position == 0 || position == (localName.equals("*") ? entry.index : entry.position);
+        }
+
+        boolean matches(String namespaceUri, String localName) {
+            if (!anyNamespace && !(this.namespaceUri == null ? namespaceUri == null : this.namespaceUri.equals(namespaceUri))) {
+                return false;
+            }
+
+            return this.localName.equals("*") || this.localName.equals(localName);
+        }
+    }
+}
@@ -20,10 +20,10 @@ import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.message.MessageType;
+import com.consol.citrus.validation.json.ParsedJsonPayload;
 import com.consol.citrus.variable.dictionary.AbstractDataDictionary;
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONObject;
-import net.minidev.json.parser.JSONParser;
 import net.minidev.json.parser.ParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,10 +46,8 @@ public abstract class AbstractJsonDataDictionary extends AbstractDataDictionary<
 
     @Override
     protected Message interceptMessage(Message message, String messageType, TestContext context) {
-        JSONParser parser = new JSONParser(JSONParser.MODE_JSON_SIMPLE);
-
         try {
-            Object json = parser.parse(message.getPayload(String.class));
+            Object json = ParsedJsonPayload.parse(message.getPayload(String.class));
 
             if (json instanceof JSONObject) {
                 traverseJsonData((JSONObject) json, "", context);
@@ -62,6 +60,7 @@ public abstract class AbstractJsonDataDictionary extends AbstractDataDictionary<
             }
 
             message.setPayload(json.toString());
+            ParsedJsonPayload.attach(message, json);
         } catch (ParseException e) {
             log.warn("Data dictionary unable to parse JSON object", e);
         }
@@ -25,9 +25,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.xml.namespace.SimpleNamespaceContext;
+import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
 import javax.xml.namespace.NamespaceContext;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 /**
@@ -35,6 +37,9 @@ import java.util.Map;
  * in dictionary value is overwritten accordingly. Namespace context is either evaluated on the fly or by global namespace
  * context builder.
  *
+ * All mapping expressions are evaluated once per document. Evaluation results are attached to the document as
+ * node to value identity map so translating a single node is a simple lookup.
+ *
  * @author Christoph Deppisch
  * @since 1.4
  */
@@ -46,33 +51,70 @@ public class XpathMappingDataDictionary extends AbstractXmlDataDictionary implem
     /** Logger */
     private static Logger log = LoggerFactory.getLogger(XpathMappingDataDictionary.class);
 
+    /** User data key for mapped node values attached to document */
+    private static final String MAPPED_NODES_KEY = XpathMappingDataDictionary.class.getName() + ".mappedNodes";
+
     @Override
     public String translate(Node node, String value, TestContext context) {
-        for (Map.Entry<String, String> expressionEntry : mappings.entrySet()) {
-            String expression = expressionEntry.getKey();
-
-            Node finding = XPathUtils.evaluateAsNode(node.getOwnerDocument(), expression, buildNamespaceContext(node));
+        String mappedValue = getMappedNodes(node.getOwnerDocument()).get(node);
 
-            if (finding != null && finding.equals(node)) {
-                if (log.isDebugEnabled()) {
-                    log.debug(String.format("Data dictionary setting element '%s' value: %s", XMLUtils.getNodesPathName(node), expressionEntry.getValue()));
-                }
-                return context.replaceDynamicContentInString(expressionEntry.getValue());
+        if (mappedValue != null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Data dictionary setting element '%s' value: %s", XMLUtils.getNodesPathName(node), mappedValue));
             }
+            return context.replaceDynamicContentInString(mappedValue);
         }
 
         return value;
     }
 
     /**
-     * Builds namespace context with dynamic lookup on received node document and global namespace mappings from
+     * Gets mapped node values for document. Evaluates all mapping expressions on first access and attaches
+     * the result to the document.
+     * @param document
+     * @return
+     */
+    private Map<Node, String> getMappedNodes(Document document) {
+        MappedNodes mappedNodes = (MappedNodes) document.getUserData(MAPPED_NODES_KEY);
+
+        if (mappedNodes == null || mappedNodes.dictionary != this) {
+            mappedNodes = new MappedNodes(this, evaluateMappings(document));
+            document.setUserData(MAPPED_NODES_KEY, mappedNodes, null);
+        }
+
+        return mappedNodes.values;
+    }
+
+    /**
+     * Evaluates all mapping expressions on document. In case several expressions select the same node the first
+     * expression in mapping order wins.
+     * @param document
+     * @return
+     */
+    private Map<Node, String> evaluateMappings(Document document) {
+        Map<Node, String> mappedNodes = new IdentityHashMap<Node, String>();
+        NamespaceContext namespaceContext = buildNamespaceContext(document);
+
+        for (Map.Entry<String, String> expressionEntry : mappings.entrySet()) {
+            Node finding = XPathUtils.evaluateAsNode(document, expressionEntry.getKey(), namespaceContext);
+
+            if (!mappedNodes.containsKey(finding)) {
+                mappedNodes.put(finding, expressionEntry.getValue());
+            }
+        }
+
+        return mappedNodes;
+    }
+
+    /**
+     * Builds namespace context with dynamic lookup on received document and global namespace mappings from
      * namespace context builder.
-     * @param node the element node from message
+     * @param document the message document
      * @return
      */
-    private NamespaceContext buildNamespaceContext(Node node) {
+    private NamespaceContext buildNamespaceContext(Document document) {
         SimpleNamespaceContext simpleNamespaceContext = new SimpleNamespaceContext();
-        Map<String, String> namespaces = XMLUtils.lookupNamespaces(node.getOwnerDocument());
+        Map<String, String> namespaces = XMLUtils.lookupNamespaces(document);
 
         // add default namespace mappings
         namespaces.putAll(namespaceContextBuilder.getNamespaceMappings());
@@ -106,4 +148,17 @@ public class XpathMappingDataDictionary extends AbstractXmlDataDictionary implem
     public void setNamespaceContextBuilder(NamespaceContextBuilder namespaceContextBuilder) {
         this.namespaceContextBuilder = namespaceContextBuilder;
     }
+
+    /**
+     * Mapped node values of a document together with the dictionary that evaluated the mappings.
+     */
+    private static final class MappedNodes {
+        private final XpathMappingDataDictionary dictionary;
+        private final Map<Node, String> values;
+
+        MappedNodes(XpathMappingDataDictionary dictionary, Map<Node, String> values) {
+            this.dictionary = dictionary;
+            this.values = values;
+        }
+    }
 }
@@ -16,25 +16,38 @@
 
 package com.consol.citrus.xml;
 
+import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.xml.schema.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.BeanNameAware;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.xml.validation.XmlValidator;
+import org.springframework.xml.validation.XmlValidatorFactory;
 import org.springframework.xml.xsd.SimpleXsdSchema;
 import org.springframework.xml.xsd.XsdSchema;
 import org.w3c.dom.Document;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Schema repository holding a set of XML schema resources known in the test scope.
+ *
+ * Repository provides a validator for all known schemas. The validator is compiled once and cached as schema compilation
+ * is expensive for large schema sets. The validator is compiled again when the list of schemas changes. Validators create a lightweight JAXP validator instance from the compiled schema for
+ * each validation so they are safe to use in parallel. For development the repository optionally checks the schema resources
+ * on its locations for modifications and reloads schemas before the next validation.
  * 
  * @author Christoph Deppisch
  */
@@ -50,6 +63,24 @@ public class XsdSchemaRepository implements BeanNameAware, InitializingBean {
 
     /** Mapping strategy */
     private XsdSchemaMappingStrategy schemaMappingStrategy = new TargetNamespaceSchemaMappingStrategy();
+
+    /** Check schema resources for modifications and reload schemas */
+    private boolean checkModified = false;
+
+    /** Schemas set explicitly, schemas loaded from locations are added on initialization */
+    private List<XsdSchema> configuredSchemas = new ArrayList<XsdSchema>();
+
+    /** Compiled validator for all known schemas */
+    private volatile XmlValidator validator;
+
+    /** Schemas the current validator was compiled from, changes to the schema list result in a new validator */
+    private List<XsdSchema> validatorSchemas;
+
+    /** Fingerprint of schema resources the current validator was compiled from */
+    private long resourcesFingerprint;
+
+    /** Transformer factory */
+    private final TransformerFactory transformerFactory = TransformerFactory.newInstance();
     
     /** Logger */
     private static Logger log = LoggerFactory.getLogger(XsdSchemaRepository.class);
@@ -70,6 +101,19 @@ public class XsdSchemaRepository implements BeanNameAware, InitializingBean {
      * {@inheritDoc}
      */
     public void afterPropertiesSet() throws Exception {
+        configuredSchemas = new ArrayList<XsdSchema>(schemas);
+        loadSchemas(schemas);
+
+        if (checkModified) {
+            resourcesFingerprint = getResourcesFingerprint();
+        }
+    }
+
+    /**
+     * Loads schemas from locations and default Citrus message schemas.
+     * @param target the schema list to add loaded schemas to.
+     */
+    private void loadSchemas(List<XsdSchema> target) throws Exception {
         PathMatchingResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver();
         
         for (String location : locations) {
@@ -80,12 +124,12 @@ public class XsdSchemaRepository implements BeanNameAware, InitializingBean {
                     log.info("Loading XSD schema resource " + resource.getFilename());
                     SimpleXsdSchema schema = new SimpleXsdSchema(resource);
                     schema.afterPropertiesSet();
-                    schemas.add(schema);
+                    target.add(schema);
                 } else if (resource.getFilename().endsWith(".wsdl")) {
                     log.info("Loading WSDL schema resource " + resource.getFilename());
                     WsdlXsdSchema wsdl = new WsdlXsdSchema(resource);
                     wsdl.afterPropertiesSet();
-                    schemas.add(wsdl);
+                    target.add(wsdl);
                 } else {
                     log.warn("Skipped resource other than XSD schema for repository (" + resource.getFilename() + ")");
                 }
@@ -93,9 +137,9 @@ public class XsdSchemaRepository implements BeanNameAware, InitializingBean {
         }
 
         // Add default Citrus message schemas if available on classpath
-        addCitrusSchema("citrus-mail-message");
-        addCitrusSchema("citrus-ftp-message");
-        addCitrusSchema("citrus-ssh-message");
+        addCitrusSchema("citrus-mail-message", target);
+        addCitrusSchema("citrus-ftp-message", target);
+        addCitrusSchema("citrus-ssh-message", target);
     }
 
     /**
@@ -103,13 +147,156 @@ public class XsdSchemaRepository implements BeanNameAware, InitializingBean {
      * @param schemaName
      */
     protected void addCitrusSchema(String schemaName) throws IOException, SAXException, ParserConfigurationException {
+        addCitrusSchema(schemaName, schemas);
+    }
+
+    /**
+     * Adds Citrus message schema to schema list if available on classpath.
+     * @param schemaName
+     * @param target
+     */
+    private void addCitrusSchema(String schemaName, List<XsdSchema> target) throws IOException, SAXException, ParserConfigurationException {
         Resource resource = new PathMatchingResourcePatternResolver().getResource("classpath:com/consol/citrus/schema/" + schemaName + ".xsd");
         if (resource.exists()) {
             log.info("Loading XSD schema resource " + resource.getFilename());
             SimpleXsdSchema schema = new SimpleXsdSchema(resource);
             schema.afterPropertiesSet();
-            schemas.add(schema);
+            target.add(schema);
+        }
+    }
+
+    /**
+     * Gets validator for all schemas in this repository. Validator is compiled on first access and cached. In case
+     * modification check is enabled schemas get reloaded and validator is compiled again when schema resources have changed.
+     * @return the validator.
+     * @throws IOException
+     */
+    public XmlValidator getValidator() throws IOException {
+        XmlValidator current = validator;
+        if (current != null && !checkModified && !isSchemasModified()) {
+            return current;
+        }
+
+        synchronized (this) {
+            if (checkModified && validator != null) {
+                long fingerprint = getResourcesFingerprint();
+
+                if (fingerprint != resourcesFingerprint) {
+                    log.info(String.format("Schema resources modified - reloading schema repository '%s'", name));
+                    reloadSchemas();
+                    resourcesFingerprint = fingerprint;
+                    validator = null;
+                }
+            }
+
+            if (validator != null && isSchemasModified()) {
+                log.info(String.format("Schemas modified - compiling schema repository '%s' again", name));
+                validator = null;
+            }
+
+            if (validator == null) {
+                validatorSchemas = new ArrayList<XsdSchema>(schemas);
+                validator = createValidator();
+            }
+
+            return validator;
+        }
+    }
+
+    /**
+     * Checks if schema list has changed since the current validator was compiled.
+     * @return
+     */
+    private boolean isSchemasModified() {
+        return !schemas.equals(validatorSchemas);
+    }
+
+    /**
+     * Compiles validator for all schemas in this repository.
+     * @return
+     * @throws IOException
+     */
+    private XmlValidator createValidator() throws IOException {
+        log.info(String.format("Compiling XML schemas in schema repository '%s'", name));
+
+        List<Resource> schemaResources = new ArrayList<Resource>();
+
+        for (XsdSchema xsdSchema : schemas) {
+            if (xsdSchema instanceof MultiResourceXsdSchema) {
+                for (Resource resource : ((MultiResourceXsdSchema) xsdSchema).getSchemas()) {
+                    schemaResources.add(resource);
+                }
+            } else if (xsdSchema instanceof WsdlXsdSchema) {
+                for (Resource resource : ((WsdlXsdSchema) xsdSchema).getSchemas()) {
+                    schemaResources.add(resource);
+                }
+            } else {
+                synchronized (transformerFactory) {
+                    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                    try {
+                        transformerFactory.newTransformer().transform(xsdSchema.getSource(), new StreamResult(bos));
+                    } catch (TransformerException e) {
+                        throw new CitrusRuntimeException("Failed to read schema " + xsdSchema.getTargetNamespace(), e);
+                    }
+                    schemaResources.add(new ByteArrayResource(bos.toByteArray()));
+                }
+            }
+        }
+
+        return XmlValidatorFactory.createValidator(schemaResources.toArray(new Resource[schemaResources.size()]), WsdlXsdSchema.W3C_XML_SCHEMA_NS_URI);
+    }
+
+    /**
+     * Reloads all schemas from locations. Explicitly configured schemas are kept.
+     */
+    private void reloadSchemas() {
+        List<XsdSchema> reloaded = new ArrayList<XsdSchema>(configuredSchemas);
+
+        try {
+            loadSchemas(reloaded);
+        } catch (Exception e) {
+            throw new CitrusRuntimeException(String.format("Failed to reload schema repository '%s'", name), e);
+        }
+
+        schemas = reloaded;
+    }
+
+    /**
+     * Builds fingerprint of all schema resources on locations and multi resource schemas using resource
+     * names and last modified timestamps. Added, removed and changed resources result in a different fingerprint.
+     * @return
+     * @throws IOException
+     */
+    private long getResourcesFingerprint() throws IOException {
+        List<Resource> resources = new ArrayList<Resource>();
+
+        PathMatchingResourcePatternResolver resourcePatternResolver = new PathMatchingResourcePatternResolver();
+        for (String location : locations) {
+            for (Resource resource : resourcePatternResolver.getResources(location)) {
+                resources.add(resource);
+            }
+        }
+
+        for (XsdSchema xsdSchema : configuredSchemas) {
+            if (xsdSchema instanceof MultiResourceXsdSchema) {
+                for (Resource resource : ((MultiResourceXsdSchema) xsdSchema).getSchemas()) {
+                    resources.add(resource);
+                }
+            }
+        }
+
+        long fingerprint = resources.size();
+        for (Resource resource : resources) {
+            fingerprint = 31 * fingerprint + resource.getDescription().hashCode();
+
+            try {
+                fingerprint = 31 * fingerprint + resource.lastModified();
+            } catch (IOException e) {
+                log.debug("Unable to read last modified timestamp of schema resource " + resource.getDescription());
+            }
         }
+
+        return fingerprint;
     }
 
     /**
@@ -124,8 +311,25 @@ public class XsdSchemaRepository implements BeanNameAware, InitializingBean {
      * Set the list of known schemas.
      * @param schemas the schemas to set
      */
-    public void setSchemas(List<XsdSchema> schemas) {
+    public synchronized void setSchemas(List<XsdSchema> schemas) {
         this.schemas = schemas;
+        this.validator = null;
+    }
+
+    /**
+     * Gets the checkModified.
+     * @return the checkModified the checkModified to get.
+     */
+    public boolean isCheckModified() {
+        return checkModified;
+    }
+
+    /**
+     * Sets the checkModified.
+     * @param checkModified the checkModified to set
+     */
+    public void setCheckModified(boolean checkModified) {
+        this.checkModified = checkModified;
     }
 
     /**
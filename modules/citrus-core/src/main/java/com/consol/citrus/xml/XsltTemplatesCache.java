@@ -0,0 +1,105 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.xml;
+
+import org.springframework.xml.transform.StringSource;
+
+import javax.xml.transform.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of compiled XSLT stylesheets keyed by resolved stylesheet content. Compiled templates are thread safe so
+ * repeated transformations with the same stylesheet only create a new lightweight transformer instance instead of
+ * compiling the stylesheet again.
+ *
+ * Cache is bounded and evicts least recently used templates.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public final class XsltTemplatesCache {
+
+    /** Maximum number of cached templates */
+    private static final int MAX_CACHE_SIZE = 100;
+
+    /** Compiled templates by stylesheet content, least recently used first */
+    private static final Map<String, Templates> compiledTemplates = new LinkedHashMap<String, Templates>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Templates> eldest) {
+            return size() > MAX_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Prevent instantiation.
+     */
+    private XsltTemplatesCache() {
+        super();
+    }
+
+    /**
+     * Creates new transformer for stylesheet. Stylesheet is compiled on first usage and cached.
+     * @param xslt
+     * @return
+     * @throws TransformerConfigurationException
+     */
+    public static Transformer newTransformer(String xslt) throws TransformerConfigurationException {
+        return getTemplates(xslt).newTransformer();
+    }
+
+    /**
+     * Gets compiled templates for stylesheet. Stylesheet is compiled on first usage and cached.
+     * @param xslt
+     * @return
+     * @throws TransformerConfigurationException
+     */
+    public static Templates getTemplates(String xslt) throws TransformerConfigurationException {
+        Templates templates;
+        synchronized (compiledTemplates) {
+            templates = compiledTemplates.get(xslt);
+        }
+
+        if (templates == null) {
+            templates = TransformerFactory.newInstance().newTemplates(new StringSource(xslt));
+
+            synchronized (compiledTemplates) {
+                compiledTemplates.put(xslt, templates);
+            }
+        }
+
+        return templates;
+    }
+
+    /**
+     * Gets the number of cached templates.
+     * @return
+     */
+    public static int getCacheSize() {
+        synchronized (compiledTemplates) {
+            return compiledTemplates.size();
+        }
+    }
+
+    /**
+     * Removes all cached templates.
+     */
+    public static void clearCache() {
+        synchronized (compiledTemplates) {
+            compiledTemplates.clear();
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.xml.xpath;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.xpath.*;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of compiled XPath expressions. Expressions are cached by expression string and the namespace bindings
+ * of all prefixes used in the expression, so the same expression with different namespace contexts is compiled
+ * separately.
+ *
+ * Compiled expressions are not thread safe. Therefore each cache entry is a pool of compiled expression instances.
+ * Clients borrow an instance for exclusive use and give it back after evaluation. Pools are lock free queues so
+ * parallel clients do not block each other. In case the pool is empty a new instance is compiled.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public class XPathExpressionCache {
+
+    /** Default maximum number of cached expression keys */
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    /** Factory creating XPath instances, not thread safe so guarded by itself */
+    private final XPathFactory xPathFactory;
+
+    /** Maximum number of cached expression keys, cache is cleared when exceeded */
+    private int maxSize = DEFAULT_MAX_SIZE;
+
+    /** Pooled compiled expressions by expression key */
+    private final ConcurrentMap<String, Queue<XPathExpression>> pools = new ConcurrentHashMap<String, Queue<XPathExpression>>();
+
+    /** Statistics */
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Default constructor using default XPath factory.
+     */
+    public XPathExpressionCache() {
+        this(XPathFactory.newInstance());
+    }
+
+    /**
+     * Constructor using XPath factory.
+     * @param xPathFactory
+     */
+    public XPathExpressionCache(XPathFactory xPathFactory) {
+        this.xPathFactory = xPathFactory;
+    }
+
+    /**
+     * Evaluates XPath expression on given item using a pooled compiled expression.
+     * @param item the node or document to evaluate.
+     * @param expression the XPath expression.
+     * @param nsContext the optional namespace context.
+     * @param returnType the expected result type.
+     * @return the evaluation result.
+     * @throws XPathExpressionException
+     */
+    public Object evaluate(Object item, String expression, NamespaceContext nsContext, QName returnType)
+            throws XPathExpressionException {
+        String key = buildKey(expression, nsContext);
+        Queue<XPathExpression> pool = pools.get(key);
+        XPathExpression xPathExpression = pool != null ? pool.poll() : null;
+
+        if (xPathExpression != null) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+            xPathExpression = compile(expression, nsContext);
+        }
+
+        try {
+            return xPathExpression.evaluate(item, returnType);
+        } finally {
+            release(key, pool, xPathExpression);
+        }
+    }
+
+    /**
+     * Gives compiled expression back to the pool for later use.
+     * @param key
+     * @param pool
+     * @param xPathExpression
+     */
+    private void release(String key, Queue<XPathExpression> pool, XPathExpression xPathExpression) {
+        if (pool == null) {
+            if (pools.size() >= maxSize) {
+                pools.clear();
+            }
+
+            Queue<XPathExpression> newPool = new ConcurrentLinkedQueue<XPathExpression>();
+            pool = pools.putIfAbsent(key, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+
+        pool.offer(xPathExpression);
+    }
+
+    /**
+     * Compiles new XPath expression instance.
+     * @param expression
+     * @param nsContext
+     * @return
+     * @throws XPathExpressionException
+     */
+    private XPathExpression compile(String expression, NamespaceContext nsContext) throws XPathExpressionException {
+        XPath xpath;
+        synchronized (xPathFactory) {
+            xpath = xPathFactory.newXPath();
+        }
+
+        if (nsContext != null) {
+            xpath.setNamespaceContext(nsContext);
+        }
+
+        return xpath.compile(expression);
+    }
+
+    /**
+     * Builds cache key from expression and namespace bindings of all prefixes used in expression. Prefixes are resolved
+     * when expression is compiled, so these bindings are all that matter for a compiled expression.
+     * @param expression
+     * @param nsContext
+     * @return
+     */
+    private String buildKey(String expression, NamespaceContext nsContext) {
+        if (nsContext == null || expression.indexOf(':') < 0) {
+            return expression;
+        }
+
+        StringBuilder key = new StringBuilder(expression);
+        char quote = 0;
+
+        for (int i = 0; i < expression.length(); i++) {
+            char c = expression.charAt(i);
+
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == ':' && i > 0 && expression.charAt(i - 1) != ':' &&
+                    (i + 1 == expression.length() || expression.charAt(i + 1) != ':')) {
+                int start = i;
+                while (start > 0 && isNameChar(expression.charAt(start - 1))) {
+                    start--;
+                }
+
+                if (start < i) {
+                    String prefix = expression.substring(start, i);
+                    key.append('|').append(prefix).append('=').append(nsContext.getNamespaceURI(prefix));
+                }
+            }
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Checks for valid XML name character.
+     * @param c
+     * @return
+     */
+    private boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.';
+    }
+
+    /**
+     * Removes all cached expressions.
+     */
+    public void clear() {
+        pools.clear();
+    }
+
+    /**
+     * Gets the number of cached expression keys.
+     * @return
+     */
+    public int getSize() {
+        return pools.size();
+    }
+
+    /**
+     * Gets the number of evaluations that used a cached compiled expression.
+     * @return
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Gets the number of evaluations that had to compile the expression.
+     * @return
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Gets the maxSize.
+     * @return the maxSize the maxSize to get.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the maxSize.
+     * @param maxSize the maxSize to set
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+}
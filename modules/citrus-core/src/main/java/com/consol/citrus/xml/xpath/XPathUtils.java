@@ -47,8 +47,12 @@ public abstract class XPathUtils {
     /** Dynamic namespace prefix */
     private static final String DYNAMIC_NS_PREFIX = "dns";
 
+    /** Cache of compiled XPath expressions */
+    private static XPathExpressionCache expressionCache;
+
     static {
         xPathFactory = XPathFactory.newInstance();
+        expressionCache = new XPathExpressionCache(xPathFactory);
     }
     
     /**
@@ -220,23 +224,11 @@ public abstract class XPathUtils {
     }
 
     /**
-     * Construct a xPath expression instance with given expression string and namespace context.
-     * If namespace context is not specified a default context is built from the XML node
-     * that is evaluated against.
-     * @param xPathExpression
-     * @param nsContext
+     * Gets the cache of compiled XPath expressions used for expression evaluation.
      * @return
-     * @throws XPathExpressionException
      */
-    private static XPathExpression buildExpression(String xPathExpression, NamespaceContext nsContext)
-            throws XPathExpressionException {
-        XPath xpath = xPathFactory.newXPath();
-        
-        if (nsContext != null) {
-            xpath.setNamespaceContext(nsContext);
-        }
-
-        return xpath.compile(xPathExpression);
+    public static XPathExpressionCache getExpressionCache() {
+        return expressionCache;
     }
 
     /**
@@ -259,7 +251,7 @@ public abstract class XPathUtils {
      */
     public static Object evaluateExpression(Node node, String xPathExpression, NamespaceContext nsContext, QName returnType) {
         try {
-            return buildExpression(xPathExpression, nsContext).evaluate(node, returnType);
+            return expressionCache.evaluate(node, xPathExpression, nsContext, returnType);
         } catch (XPathExpressionException e) {
             throw new CitrusRuntimeException("Can not evaluate xpath expression '"+xPathExpression+"'", e);
         }
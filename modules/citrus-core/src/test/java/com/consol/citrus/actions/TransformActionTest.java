@@ -56,4 +56,24 @@ public class TransformActionTest extends AbstractTestNGUnitTest {
 		
 		Assert.assertEquals(context.getVariable("var").trim(), "Message: Hello World!");
 	}
+
+	@Test
+	public void testTransformWithDynamicStylesheet(){
+		TransformAction transformAction = new TransformAction();
+		transformAction.setXmlData("<TestRequest><Message>Hello World!</Message></TestRequest>");
+		transformAction.setXsltData("<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">" +
+				"<xsl:output method=\"text\"/>" +
+				"<xsl:template match=\"/\">${prefix}: <xsl:value-of select=\"TestRequest/Message\"/></xsl:template>" +
+				"</xsl:stylesheet>");
+		transformAction.setTargetVariable("var");
+		
+		context.setVariable("prefix", "Message");
+		transformAction.execute(context);
+		transformAction.execute(context);
+		Assert.assertEquals(context.getVariable("var").trim(), "Message: Hello World!");
+		
+		context.setVariable("prefix", "Text");
+		transformAction.execute(context);
+		Assert.assertEquals(context.getVariable("var").trim(), "Text: Hello World!");
+	}
 }
@@ -16,6 +16,7 @@
 
 package com.consol.citrus.channel;
 
+import com.consol.citrus.channel.selector.DispatchingMessageSelector;
 import com.consol.citrus.channel.selector.HeaderMatchingMessageSelector;
 import org.springframework.messaging.Message;
 import org.springframework.integration.core.MessageSelector;
@@ -23,8 +24,12 @@ import org.springframework.integration.support.MessageBuilder;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -123,4 +128,82 @@ public class MessageSelectingQueueChannelTest {
         Assert.assertNull(receivedMessage);
         Assert.assertEquals(retries.get(), 4L);
     }
+
+    @Test
+    public void testWakeupOnArrival() {
+        final MessageSelectingQueueChannel channel = new MessageSelectingQueueChannel();
+        channel.setPollingInterval(5000L);
+
+        channel.send(MessageBuilder.withPayload("OtherMessage").setHeader("foo", "other").build());
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                channel.send(MessageBuilder.withPayload("FooMessage").setHeader("foo", "bar").build());
+            }
+        }, 100L, TimeUnit.MILLISECONDS);
+
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("foo", "bar");
+
+        final AtomicLong retries = new AtomicLong();
+        MessageSelector selector = new HeaderMatchingMessageSelector(headers) {
+            @Override
+            public boolean accept(Message<?> message) {
+                retries.incrementAndGet();
+                return super.accept(message);
+            }
+        };
+
+        long start = System.currentTimeMillis();
+        Message<?> receivedMessage = channel.receive(selector, 10000L);
+        executor.shutdown();
+
+        Assert.assertEquals(receivedMessage.getPayload(), "FooMessage");
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+        Assert.assertEquals(retries.get(), 2L);
+        Assert.assertEquals(channel.getQueueSize(), 1);
+    }
+
+    @Test
+    public void testReceiveIndexed() {
+        MessageSelectingQueueChannel channel = new MessageSelectingQueueChannel();
+        channel.setIndexedHeaders(Collections.singletonList("correlation"));
+
+        for (int i = 0; i < 100; i++) {
+            channel.send(MessageBuilder.withPayload("Message" + i).setHeader("correlation", "key" + i).build());
+        }
+
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("correlation", "key42");
+
+        final AtomicLong retries = new AtomicLong();
+        MessageSelector selector = new HeaderMatchingMessageSelector(headers) {
+            @Override
+            public boolean accept(Message<?> message) {
+                retries.incrementAndGet();
+                return super.accept(message);
+            }
+        };
+
+        Message<?> receivedMessage = channel.receive(selector, 1000L);
+        Assert.assertEquals(receivedMessage.getPayload(), "Message42");
+        Assert.assertEquals(retries.get(), 1L);
+        Assert.assertEquals(channel.getQueueSize(), 99);
+
+        Assert.assertNull(channel.receive(selector));
+        Assert.assertEquals(retries.get(), 1L);
+
+        receivedMessage = channel.receive(new DispatchingMessageSelector("correlation = 'key0'", null));
+        Assert.assertEquals(receivedMessage.getPayload(), "Message0");
+
+        receivedMessage = channel.receive();
+        Assert.assertEquals(receivedMessage.getPayload(), "Message1");
+        Assert.assertNull(channel.receive(new DispatchingMessageSelector("correlation = 'key1'", null)));
+
+        channel.clear();
+        Assert.assertNull(channel.receive(new DispatchingMessageSelector("correlation = 'key2'", null)));
+        Assert.assertEquals(channel.getQueueSize(), 0);
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.channel.selector;
+
+import com.consol.citrus.message.DefaultMessage;
+import org.springframework.integration.support.MessageBuilder;
+import org.springframework.messaging.Message;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.ls.LSException;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class MessageDocumentCacheTest {
+
+    @Test
+    public void testParseOnce() {
+        Message<?> message = MessageBuilder.withPayload("<ns:Foo xmlns:ns=\"http://citrusframework.org/schema\"><ns:text>foobar</ns:text></ns:Foo>").build();
+
+        Document doc = MessageDocumentCache.getDocument(message);
+        Assert.assertEquals(doc.getFirstChild().getLocalName(), "Foo");
+        Assert.assertSame(MessageDocumentCache.getDocument(message), doc);
+
+        Map<String, String> namespaces = MessageDocumentCache.getNamespaces(message);
+        Assert.assertEquals(namespaces.size(), 1L);
+        Assert.assertEquals(namespaces.get("ns"), "http://citrusframework.org/schema");
+
+        namespaces.put("foo", "http://citrusframework.org/foo");
+        Assert.assertEquals(MessageDocumentCache.getNamespaces(message).size(), 1L);
+
+        Assert.assertNotSame(MessageDocumentCache.getDocument(MessageBuilder.withPayload("<ns:Foo xmlns:ns=\"http://citrusframework.org/schema\"><ns:text>foobar</ns:text></ns:Foo>").build()), doc);
+    }
+
+    @Test
+    public void testParseOnceWithMessageObjectPayload() {
+        Message<?> message = MessageBuilder.withPayload(new DefaultMessage("<Foo><text>foobar</text></Foo>")).build();
+
+        Document doc = MessageDocumentCache.getDocument(message);
+        Assert.assertEquals(doc.getFirstChild().getLocalName(), "Foo");
+        Assert.assertSame(MessageDocumentCache.getDocument(message), doc);
+    }
+
+    @Test
+    public void testNonXmlPayload() {
+        Message<?> message = MessageBuilder.withPayload("PLAINTEXT").build();
+
+        try {
+            MessageDocumentCache.getDocument(message);
+            Assert.fail("Missing exception due to non XML payload");
+        } catch (LSException e) {
+            try {
+                MessageDocumentCache.getNamespaces(message);
+                Assert.fail("Missing exception due to non XML payload");
+            } catch (LSException cached) {
+                Assert.assertSame(cached, e);
+            }
+        }
+    }
+
+    @Test
+    public void testParseWhileCallerHoldsMessageMonitor() throws Exception {
+        final Message<?> message = MessageBuilder.withPayload("<Foo><text>foobar</text></Foo>").build();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            synchronized (message) {
+                Future<Document> doc = executor.submit(new Callable<Document>() {
+                    @Override
+                    public Document call() throws Exception {
+                        return MessageDocumentCache.getDocument(message);
+                    }
+                });
+
+                Assert.assertEquals(doc.get(5000L, TimeUnit.MILLISECONDS).getFirstChild().getLocalName(), "Foo");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -22,6 +22,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.consol.citrus.xml.namespace.NamespaceContextBuilder;
+import com.consol.citrus.xml.xpath.XPathUtils;
 
 /**
  * @author Christoph Deppisch
@@ -71,4 +72,15 @@ public class XPathEvaluatingMessageSelectorTest {
         Assert.assertFalse(messageSelector.accept(MessageBuilder.withPayload(new DefaultMessage("<Bar><text>foobar</text></Bar>")).build()));
         Assert.assertFalse(messageSelector.accept(MessageBuilder.withPayload(new DefaultMessage("This is plain text!")).build()));
     }
+
+    @Test
+    public void testPooledXPathExpression() {
+        XPathEvaluatingMessageSelector messageSelector = new XPathEvaluatingMessageSelector("xpath://Foo/pooled", "foobar", nsContextBuilder);
+
+        Assert.assertTrue(messageSelector.accept(MessageBuilder.withPayload("<Foo><pooled>foobar</pooled></Foo>").build()));
+
+        long hitCount = XPathUtils.getExpressionCache().getHitCount();
+        Assert.assertTrue(messageSelector.accept(MessageBuilder.withPayload("<Foo><pooled>foobar</pooled></Foo>").build()));
+        Assert.assertTrue(XPathUtils.getExpressionCache().getHitCount() > hitCount);
+    }
 }
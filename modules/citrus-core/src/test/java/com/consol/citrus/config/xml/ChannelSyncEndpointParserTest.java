@@ -18,8 +18,10 @@ package com.consol.citrus.config.xml;
 
 import com.consol.citrus.TestActor;
 import com.consol.citrus.channel.ChannelSyncEndpoint;
+import com.consol.citrus.channel.ChannelSyncProducer;
 import com.consol.citrus.message.DefaultMessageCorrelator;
 import com.consol.citrus.message.MessageCorrelator;
+import com.consol.citrus.message.correlation.ExpiringObjectStore;
 import com.consol.citrus.testng.AbstractBeanDefinitionParserTest;
 import org.springframework.integration.core.MessagingTemplate;
 import org.testng.Assert;
@@ -46,6 +48,7 @@ public class ChannelSyncEndpointParserTest extends AbstractBeanDefinitionParserT
         Assert.assertEquals(channelSyncEndpoint.getEndpointConfiguration().getPollingInterval(), 500L);
         Assert.assertNotNull(channelSyncEndpoint.getEndpointConfiguration().getChannelResolver());
         Assert.assertEquals(channelSyncEndpoint.getEndpointConfiguration().getCorrelator().getClass(), DefaultMessageCorrelator.class);
+        Assert.assertNull(channelSyncEndpoint.getEndpointConfiguration().getObjectStore());
 
         // 2nd message receiver
         channelSyncEndpoint = endpoints.get("syncChannelEndpoint2");
@@ -64,6 +67,8 @@ public class ChannelSyncEndpointParserTest extends AbstractBeanDefinitionParserT
         Assert.assertNotNull(channelSyncEndpoint.getEndpointConfiguration().getMessagingTemplate());
         Assert.assertEquals(channelSyncEndpoint.getEndpointConfiguration().getMessagingTemplate(), beanDefinitionContext.getBean("messagingTemplate", MessagingTemplate.class));
         Assert.assertEquals(channelSyncEndpoint.getEndpointConfiguration().getPollingInterval(), 250L);
+        Assert.assertEquals(channelSyncEndpoint.getEndpointConfiguration().getObjectStore(), beanDefinitionContext.getBean("objectStore", ExpiringObjectStore.class));
+        Assert.assertEquals(((ChannelSyncProducer) channelSyncEndpoint.createProducer()).getCorrelationManager().getObjectStore(), beanDefinitionContext.getBean("objectStore", ExpiringObjectStore.class));
         Assert.assertNotNull(channelSyncEndpoint.getActor());
         Assert.assertEquals(channelSyncEndpoint.getActor(), beanDefinitionContext.getBean("testActor", TestActor.class));
     }
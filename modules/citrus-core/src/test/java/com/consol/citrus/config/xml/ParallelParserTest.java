@@ -30,7 +30,7 @@ public class ParallelParserTest extends AbstractActionParserTest<Parallel> {
 
     @Test
     public void testFailActionParser() {
-        assertActionCount(2);
+        assertActionCount(3);
         assertActionClassAndName(Parallel.class, "parallel");
         
         Parallel action = getNextTestActionFromTest();
@@ -44,5 +44,16 @@ public class ParallelParserTest extends AbstractActionParserTest<Parallel> {
         Assert.assertEquals(((Parallel)action.getActions().get(0)).getActionCount(), 2);
         Assert.assertEquals(action.getActions().get(1).getClass(), EchoAction.class);
         Assert.assertEquals(action.getActions().get(2).getClass(), EchoAction.class);
+        Assert.assertEquals(action.getMaxConcurrency(), 0);
+        Assert.assertEquals(action.getTimeout(), 0L);
+        Assert.assertFalse(action.isFailFast());
+        Assert.assertNull(action.getExecutorService());
+
+        action = getNextTestActionFromTest();
+        Assert.assertEquals(action.getActionCount(), 1);
+        Assert.assertEquals(action.getMaxConcurrency(), 2);
+        Assert.assertEquals(action.getTimeout(), 10000L);
+        Assert.assertTrue(action.isFailFast());
+        Assert.assertEquals(action.getExecutorService(), beanDefinitionContext.getBean("parallelExecutor"));
     }
 }
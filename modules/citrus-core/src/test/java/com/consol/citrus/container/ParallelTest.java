@@ -20,11 +20,16 @@ import com.consol.citrus.TestAction;
 import com.consol.citrus.actions.*;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.testng.AbstractTestNGUnitTest;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.ParallelContainerException;
 import org.easymock.EasyMock;
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.easymock.EasyMock.*;
 
@@ -160,4 +165,149 @@ public class ParallelTest extends AbstractTestNGUnitTest {
 
         verify(action);
     }
+
+    @Test
+    public void testMaxConcurrency() {
+        Parallel parallelAction = new Parallel();
+        parallelAction.setMaxConcurrency(2);
+
+        ConcurrencyAction concurrencyAction = new ConcurrencyAction();
+        List<TestAction> actionList = new ArrayList<TestAction>();
+        for (int i = 0; i < 10; i++) {
+            actionList.add(concurrencyAction);
+        }
+
+        parallelAction.setActions(actionList);
+
+        parallelAction.execute(context);
+
+        Assert.assertEquals(concurrencyAction.executions.get(), 10);
+        Assert.assertTrue(concurrencyAction.maxActive.get() <= 2);
+    }
+
+    @Test
+    public void testSharedExecutor() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Parallel parallelAction = new Parallel();
+            parallelAction.setExecutorService(executor);
+
+            ConcurrencyAction concurrencyAction = new ConcurrencyAction();
+            List<TestAction> actionList = new ArrayList<TestAction>();
+            for (int i = 0; i < 5; i++) {
+                actionList.add(concurrencyAction);
+            }
+
+            parallelAction.setActions(actionList);
+
+            parallelAction.execute(context);
+            parallelAction.execute(context);
+
+            Assert.assertEquals(concurrencyAction.executions.get(), 10);
+            Assert.assertTrue(concurrencyAction.maxActive.get() <= 2);
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTimeout() {
+        Parallel parallelAction = new Parallel();
+        parallelAction.setTimeout(200L);
+
+        SleepAction sleep = new SleepAction();
+        sleep.setMilliseconds("5000");
+
+        List<TestAction> actionList = new ArrayList<TestAction>();
+        actionList.add(new EchoAction());
+        actionList.add(sleep);
+
+        parallelAction.setActions(actionList);
+
+        long start = System.currentTimeMillis();
+        try {
+            parallelAction.execute(context);
+            Assert.fail("Missing timeout exception");
+        } catch (CitrusRuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("timed out after 200 ms"));
+        }
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+    }
+
+    @Test
+    public void testFailFast() {
+        Parallel parallelAction = new Parallel();
+        parallelAction.setMaxConcurrency(1);
+        parallelAction.setFailFast(true);
+
+        reset(action);
+        replay(action);
+
+        List<TestAction> actionList = new ArrayList<TestAction>();
+        actionList.add(new FailAction());
+        actionList.add(action);
+
+        parallelAction.setActions(actionList);
+
+        try {
+            parallelAction.execute(context);
+            Assert.fail("Missing exception for failing action");
+        } catch (CitrusRuntimeException e) {
+            Assert.assertFalse(e instanceof ParallelContainerException);
+        }
+
+        verify(action);
+    }
+
+    @Test
+    public void testCollectAllErrors() {
+        Parallel parallelAction = new Parallel();
+        parallelAction.setMaxConcurrency(2);
+
+        List<TestAction> actionList = new ArrayList<TestAction>();
+        for (int i = 0; i < 5; i++) {
+            actionList.add(new FailAction());
+        }
+
+        parallelAction.setActions(actionList);
+
+        try {
+            parallelAction.execute(context);
+            Assert.fail("Missing exception for failing actions");
+        } catch (ParallelContainerException e) {
+            Assert.assertEquals(e.getMessage().split("\n").length, 6);
+        }
+    }
+
+    /**
+     * Action tracking the number of executions running at the same time.
+     */
+    private static class ConcurrencyAction extends AbstractTestAction {
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+        private final AtomicInteger executions = new AtomicInteger();
+
+        @Override
+        public void doExecute(TestContext context) {
+            int current = active.incrementAndGet();
+            executions.incrementAndGet();
+
+            synchronized (maxActive) {
+                if (current > maxActive.get()) {
+                    maxActive.set(current);
+                }
+            }
+
+            try {
+                Thread.sleep(20L);
+            } catch (InterruptedException e) {
+                throw new CitrusRuntimeException(e);
+            } finally {
+                active.decrementAndGet();
+            }
+        }
+    }
 }
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.context;
+
+import com.consol.citrus.exceptions.*;
+import com.consol.citrus.functions.*;
+import com.consol.citrus.functions.core.ConcatFunction;
+import com.consol.citrus.testng.AbstractTestNGUnitTest;
+import com.consol.citrus.variable.VariableUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class DynamicContentTemplateTest extends AbstractTestNGUnitTest {
+
+    private static final String[] TEMPLATES = new String[] {
+            "",
+            "Hello TestFramework!",
+            "${greeting} TestFramework!",
+            "<message><text>${greeting} ${text}</text><user>${user}</user></message>",
+            "${greeting}${text}",
+            "citrus:concat('Hello', ' TestFramework!')",
+            "Text: citrus:upperCase('${greeting}') and citrus:lowerCase(${text})!",
+            "citrus:concat(citrus:upperCase('${greeting}'), ' ', citrus:concat(${text}, ' by ', ${user}))",
+            "citrus:concat('citrus', ':citrus')",
+            "<a>citrus:concat(citrus:substring('${greeting}', 1), 'x')</a><b>citrus:upperCase('b')</b>",
+            "citrus:concat()",
+            "${greeting} citrus:upperCase(${greeting}",
+            "${greeting",
+            "${${greeting}}",
+            "time is 12:00 (noon)",
+            "${function}",
+            "citrus:concat('${function}', 'foo')",
+            "citrus:concat('${brackets}', 'foo')",
+            "citr${prefixEnd}lowerCase('ABC')",
+            "${prefixStart}us:lowerCase('ABC')"
+    };
+
+    @Test
+    public void testSameResultAsVariableAndFunctionUtils() {
+        context.setVariable("greeting", "Hello");
+        context.setVariable("text", "TestFramework!");
+        context.setVariable("user", "Christoph");
+        context.setVariable("function", "citrus:upperCase('foo')");
+        context.setVariable("brackets", "(foo)");
+        context.setVariable("prefixEnd", "us:");
+        context.setVariable("prefixStart", "citr");
+        context.setVariable("${greeting", "nested");
+
+        for (String template : TEMPLATES) {
+            for (boolean enableQuoting : new boolean[] { false, true }) {
+                String expected = resolveLegacy(template, enableQuoting);
+
+                Assert.assertEquals(resolve(template, enableQuoting), expected, "Failed for template: " + template);
+                Assert.assertEquals(resolve(template, enableQuoting), expected, "Failed for cached template: " + template);
+            }
+        }
+    }
+
+    @Test
+    public void testSameResultWithMultipleFunctionLibraries() {
+        FunctionLibrary first = new FunctionLibrary();
+        first.setName("first");
+        first.setPrefix("first:");
+        first.setMembers(Collections.<String, Function>singletonMap("concat", new ConcatFunction()));
+
+        FunctionLibrary second = new FunctionLibrary();
+        second.setName("second");
+        second.setPrefix("second:");
+        second.setMembers(Collections.<String, Function>singletonMap("concat", new ConcatFunction()));
+
+        FunctionRegistry functionRegistry = new FunctionRegistry();
+        functionRegistry.setFunctionLibraries(Arrays.asList(first, second));
+        context.setFunctionRegistry(functionRegistry);
+
+        String[] templates = new String[] {
+                "first:concat('second', ':concat(foo)')",
+                "first:concat('sec')ond:concat(foo)",
+                "first:concat('second')first:concat(':concat(foo)')",
+                "first:concat('Hello ', first:concat('second:', 'concat(foo)'))",
+                "second:concat('Hello ', second:concat('first:', 'concat(foo)'))",
+                "second:concat('first', ':concat(foo)')",
+                "first:concat('Hello')second:concat(' TestFramework!')"
+        };
+
+        for (String template : templates) {
+            for (boolean enableQuoting : new boolean[] { false, true }) {
+                String expected = resolveLegacy(template, enableQuoting);
+
+                Assert.assertEquals(resolve(template, enableQuoting), expected, "Failed for template: " + template);
+                Assert.assertEquals(resolve(template, enableQuoting), expected, "Failed for cached template: " + template);
+            }
+        }
+
+        Assert.assertEquals(resolve(templates[0], false), "foo");
+        Assert.assertEquals(resolve(templates[5], false), "first:concat(foo)");
+    }
+
+    @Test
+    public void testFunctionsExecutedOnce() {
+        final int[] executions = new int[] { 0 };
+        Function counter = new Function() {
+            @Override
+            public String execute(List<String> parameterList, TestContext context) {
+                executions[0]++;
+                return parameterList.isEmpty() ? "" : parameterList.get(0);
+            }
+        };
+
+        FunctionLibrary first = new FunctionLibrary();
+        first.setName("first");
+        first.setPrefix("first:");
+        first.setMembers(Collections.singletonMap("count", counter));
+
+        FunctionLibrary second = new FunctionLibrary();
+        second.setName("second");
+        second.setPrefix("second:");
+        second.setMembers(Collections.singletonMap("count", counter));
+
+        FunctionRegistry functionRegistry = new FunctionRegistry();
+        functionRegistry.setFunctionLibraries(Arrays.asList(first, second));
+        context.setFunctionRegistry(functionRegistry);
+        context.setVariable("function", "second:count()");
+        context.setVariable("text", "Hello");
+
+        String[] templates = new String[] {
+                "second:count('${text}') second:count(second:count())",
+                "first:count('second')second:count(':count()')",
+                "second:count() ${function}",
+                "first:count('second', ':count()')"
+        };
+
+        for (String template : templates) {
+            executions[0] = 0;
+            resolveLegacy(template, false);
+            int expected = executions[0];
+
+            executions[0] = 0;
+            resolve(template, false);
+            Assert.assertEquals(executions[0], expected, "Failed for template: " + template);
+
+            executions[0] = 0;
+            resolve(template, false);
+            Assert.assertEquals(executions[0], expected, "Failed for cached template: " + template);
+        }
+    }
+
+    @Test
+    public void testTemplateCache() {
+        String source = "citrus:concat('Hello', ' ${user}')";
+
+        DynamicContentTemplate template = DynamicContentTemplate.getTemplate(source, context.getFunctionRegistry());
+        Assert.assertTrue(template.isDynamic());
+        Assert.assertSame(DynamicContentTemplate.getTemplate(source, context.getFunctionRegistry()), template);
+
+        context.setVariable("user", "Christoph");
+        Assert.assertEquals(template.evaluate(context, false), "Hello Christoph");
+        context.setVariable("user", "Citrus");
+        Assert.assertEquals(template.evaluate(context, false), "Hello Citrus");
+
+        DynamicContentTemplate.clearCache();
+        Assert.assertNotSame(DynamicContentTemplate.getTemplate(source, context.getFunctionRegistry()), template);
+    }
+
+    @Test
+    public void testStaticTemplate() {
+        DynamicContentTemplate template = DynamicContentTemplate.getTemplate("Hello TestFramework!", context.getFunctionRegistry());
+        Assert.assertFalse(template.isDynamic());
+        Assert.assertEquals(template.evaluate(context, true), "Hello TestFramework!");
+    }
+
+    @Test(expectedExceptions = CitrusRuntimeException.class)
+    public void testUnknownVariable() {
+        context.replaceDynamicContentInString("Hello ${unknown}!");
+    }
+
+    @Test(expectedExceptions = NoSuchFunctionException.class)
+    public void testUnknownFunction() {
+        context.replaceDynamicContentInString("Hello citrus:functiondoesnotexist()!");
+    }
+
+    @Test(expectedExceptions = InvalidFunctionUsageException.class)
+    public void testInvalidFunction() {
+        context.replaceDynamicContentInString("Hello citrus:upperCase)(");
+    }
+
+    /**
+     * Resolves template with compiled template.
+     * @param template
+     * @param enableQuoting
+     * @return
+     */
+    private String resolve(String template, boolean enableQuoting) {
+        try {
+            return context.replaceDynamicContentInString(template, enableQuoting);
+        } catch (CitrusRuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+
+    /**
+     * Resolves template with variable and function utilities.
+     * @param template
+     * @param enableQuoting
+     * @return
+     */
+    private String resolveLegacy(String template, boolean enableQuoting) {
+        try {
+            String result = VariableUtils.replaceVariablesInString(template, context, enableQuoting);
+            return FunctionUtils.replaceFunctionsInString(result, context, enableQuoting);
+        } catch (CitrusRuntimeException e) {
+            return e.getClass().getName();
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package com.consol.citrus.endpoint.adapter;
 
+import com.consol.citrus.TestCase;
+import com.consol.citrus.context.TestContext;
 import com.consol.citrus.endpoint.adapter.mapping.XPathPayloadMappingKeyExtractor;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.message.DefaultMessage;
@@ -23,20 +25,28 @@ import com.consol.citrus.message.Message;
 import com.consol.citrus.testng.AbstractTestNGUnitTest;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author Christoph Deppisch
  * @since 1.4
  */
 public class XmlTestExecutingEndpointAdapterTest extends AbstractTestNGUnitTest {
     private XmlTestExecutingEndpointAdapter endpointAdapter;
+    private ApplicationContext ctx;
 
     @BeforeClass
     public void loadContext() {
-        ApplicationContext ctx = new ClassPathXmlApplicationContext(new String[] {"classpath:com/consol/citrus/endpoint/XmlTestExecutingEndpointAdapterTest-context.xml"}, applicationContext);
+        ctx = new ClassPathXmlApplicationContext(new String[] {"classpath:com/consol/citrus/endpoint/XmlTestExecutingEndpointAdapterTest-context.xml"}, applicationContext);
         endpointAdapter = ctx.getBean(XmlTestExecutingEndpointAdapter.class);
     }
 
@@ -110,4 +120,75 @@ public class XmlTestExecutingEndpointAdapterTest extends AbstractTestNGUnitTest
             Assert.assertEquals(e.getMessage(), "Failed to load test case");
         }
     }
+
+    @Test
+    public void testCachedTestDefinitions() throws Exception {
+        final AtomicInteger contextCount = new AtomicInteger();
+        XmlTestExecutingEndpointAdapter testAdapter = new XmlTestExecutingEndpointAdapter() {
+            @Override
+            protected ClassPathXmlApplicationContext createApplicationContext(TestContext context, String packageName, String testName) {
+                contextCount.incrementAndGet();
+                return super.createApplicationContext(context, packageName, testName);
+            }
+        };
+        testAdapter.setApplicationContext(ctx);
+
+        TestCase test = testAdapter.getTestCase(context, "FooTest");
+        TestCase other = testAdapter.getTestCase(context, "FooTest");
+
+        Assert.assertNotSame(other, test);
+        Assert.assertNotSame(other.getActions().get(0), test.getActions().get(0));
+        Assert.assertEquals(other.getName(), "FooTest");
+        Assert.assertEquals(contextCount.get(), 1);
+
+        testAdapter.getTestCase(context, "BarTest");
+        Assert.assertEquals(contextCount.get(), 2);
+
+        testAdapter.destroy();
+    }
+
+    @Test
+    public void testRejectedExecution() throws Exception {
+        XPathPayloadMappingKeyExtractor mappingNameExtractor = new XPathPayloadMappingKeyExtractor();
+        mappingNameExtractor.setXpathExpression("//Test/@name");
+        endpointAdapter.setMappingKeyExtractor(mappingNameExtractor);
+
+        TaskExecutor taskExecutor = endpointAdapter.getTaskExecutor();
+        endpointAdapter.setTaskExecutor(new TaskExecutor() {
+            @Override
+            public void execute(Runnable task) {
+                throw new TaskRejectedException("Queue is full");
+            }
+        });
+
+        try {
+            endpointAdapter.handleMessage(new DefaultMessage("<Test name=\"FooTest\"></Test>"));
+            Assert.fail("Missing exception due to rejected test execution");
+        } catch (CitrusRuntimeException e) {
+            Assert.assertEquals(e.getMessage(), "Unable to execute test 'FooTest' - test execution capacity exceeded");
+            Assert.assertEquals(endpointAdapter.getRejectedExecutions(), 1L);
+        } finally {
+            endpointAdapter.setTaskExecutor(taskExecutor);
+        }
+    }
+
+    @Test
+    public void testDefaultTaskExecutor() throws Exception {
+        XmlTestExecutingEndpointAdapter testAdapter = new XmlTestExecutingEndpointAdapter();
+        testAdapter.setMaxConcurrency(2);
+
+        final CountDownLatch executed = new CountDownLatch(1);
+        testAdapter.executeTest("FooTest", new Runnable() {
+            @Override
+            public void run() {
+                executed.countDown();
+            }
+        });
+
+        Assert.assertTrue(executed.await(5000L, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(testAdapter.getTaskExecutor() instanceof ThreadPoolTaskExecutor);
+        Assert.assertEquals(((ThreadPoolTaskExecutor) testAdapter.getTaskExecutor()).getMaxPoolSize(), 2);
+
+        testAdapter.destroy();
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.message.correlation;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class ExpiringObjectStoreTest {
+
+    @Test
+    public void testAddRemove() {
+        ExpiringObjectStore<String> objectStore = new ExpiringObjectStore<String>();
+
+        objectStore.add("foo", "bar");
+        Assert.assertEquals(objectStore.getSize(), 1);
+        Assert.assertEquals(objectStore.remove("foo"), "bar");
+        Assert.assertNull(objectStore.remove("foo"));
+
+        Assert.assertEquals(objectStore.getSize(), 0);
+        Assert.assertEquals(objectStore.getHitCount(), 1L);
+        Assert.assertEquals(objectStore.getMissCount(), 1L);
+    }
+
+    @Test
+    public void testMaxSize() {
+        ExpiringObjectStore<String> objectStore = new ExpiringObjectStore<String>(3, 0L);
+        final List<String> evicted = new ArrayList<String>();
+        objectStore.setEvictionListener(new ExpiringObjectStore.EvictionListener<String>() {
+            @Override
+            public void onEviction(String correlationKey, String object, boolean expired) {
+                Assert.assertFalse(expired);
+                evicted.add(correlationKey);
+            }
+        });
+
+        for (String key : new String[]{"1", "2", "3", "4", "5"}) {
+            objectStore.add(key, "value" + key);
+        }
+
+        Assert.assertEquals(objectStore.getSize(), 3);
+        Assert.assertEquals(objectStore.getEvictedCount(), 2L);
+        Assert.assertEquals(evicted.size(), 2L);
+        Assert.assertEquals(evicted.get(0), "1");
+        Assert.assertEquals(evicted.get(1), "2");
+
+        Assert.assertNull(objectStore.remove("1"));
+        Assert.assertEquals(objectStore.remove("3"), "value3");
+    }
+
+    @Test
+    public void testTimeToLive() throws InterruptedException {
+        ExpiringObjectStore<String> objectStore = new ExpiringObjectStore<String>(0, 100L);
+        final List<String> expiredKeys = new ArrayList<String>();
+        objectStore.setEvictionListener(new ExpiringObjectStore.EvictionListener<String>() {
+            @Override
+            public void onEviction(String correlationKey, String object, boolean expired) {
+                Assert.assertTrue(expired);
+                expiredKeys.add(correlationKey);
+            }
+        });
+
+        objectStore.add("foo", "bar");
+        objectStore.add("orphaned", "value");
+        Assert.assertEquals(objectStore.remove("foo"), "bar");
+
+        Thread.sleep(200L);
+
+        objectStore.add("new", "value");
+        Assert.assertEquals(objectStore.getSize(), 1);
+        Assert.assertEquals(objectStore.getExpiredCount(), 1L);
+        Assert.assertEquals(expiredKeys.size(), 1L);
+        Assert.assertEquals(expiredKeys.get(0), "orphaned");
+        Assert.assertNull(objectStore.remove("orphaned"));
+        Assert.assertEquals(objectStore.remove("new"), "value");
+    }
+}
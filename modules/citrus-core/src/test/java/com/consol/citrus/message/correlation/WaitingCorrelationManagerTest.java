@@ -0,0 +1,153 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.message.correlation;
+
+import com.consol.citrus.channel.ChannelSyncEndpointConfiguration;
+import com.consol.citrus.context.TestContext;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.testng.AbstractTestNGUnitTest;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.*;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class WaitingCorrelationManagerTest extends AbstractTestNGUnitTest {
+
+    private ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    @Test
+    public void testFind() throws Exception {
+        ChannelSyncEndpointConfiguration pollableEndpointConfiguration = new ChannelSyncEndpointConfiguration();
+        pollableEndpointConfiguration.setPollingInterval(100L);
+        pollableEndpointConfiguration.setTimeout(500L);
+
+        WaitingCorrelationManager<String> correlationManager = new WaitingCorrelationManager<String>(pollableEndpointConfiguration, "Try again");
+        Assert.assertNull(correlationManager.find(""));
+
+        correlationManager.store("foo", "bar");
+        Assert.assertNull(correlationManager.find("bar"));
+        Assert.assertEquals(correlationManager.find("foo"), "bar");
+
+        //2nd invocation with same correlation key
+        Assert.assertNull(correlationManager.find("foo"));
+
+        for (String key : new String[]{"1", "2", "3", "4", "5"}) {
+            correlationManager.store(key, "value" + key);
+        }
+
+        for (String key : new String[]{"1", "5", "3", "2", "4"}) {
+            Assert.assertEquals(correlationManager.find(key), "value" + key);
+            Assert.assertNull(correlationManager.find(key, 0L));
+        }
+    }
+
+    @Test
+    public void testFindWakeupOnStore() throws Exception {
+        ChannelSyncEndpointConfiguration pollableEndpointConfiguration = new ChannelSyncEndpointConfiguration();
+        pollableEndpointConfiguration.setPollingInterval(5000L);
+        pollableEndpointConfiguration.setTimeout(10000L);
+
+        final WaitingCorrelationManager<String> correlationManager = new WaitingCorrelationManager<String>(pollableEndpointConfiguration, "Try again");
+
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                correlationManager.store("foo", "bar");
+            }
+        }, 100L, TimeUnit.MILLISECONDS);
+
+        long start = System.currentTimeMillis();
+        Assert.assertEquals(correlationManager.find("foo"), "bar");
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+    }
+
+    @Test
+    public void testFindWithObjectStoreChange() throws Exception {
+        ChannelSyncEndpointConfiguration pollableEndpointConfiguration = new ChannelSyncEndpointConfiguration();
+        pollableEndpointConfiguration.setPollingInterval(100L);
+        pollableEndpointConfiguration.setTimeout(5000L);
+
+        final WaitingCorrelationManager<String> correlationManager = new WaitingCorrelationManager<String>(pollableEndpointConfiguration, "Try again");
+
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                correlationManager.getObjectStore().add("foo", "bar");
+            }
+        }, 200L, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(correlationManager.find("foo"), "bar");
+    }
+
+    @Test
+    public void testObjectStoreSetAfterCreation() throws Exception {
+        ChannelSyncEndpointConfiguration pollableEndpointConfiguration = new ChannelSyncEndpointConfiguration();
+        pollableEndpointConfiguration.setPollingInterval(100L);
+        pollableEndpointConfiguration.setTimeout(500L);
+
+        WaitingCorrelationManager<String> correlationManager = new WaitingCorrelationManager<String>(pollableEndpointConfiguration, "Try again");
+
+        ObjectStore<String> objectStore = new DefaultObjectStore<String>();
+        pollableEndpointConfiguration.setObjectStore(objectStore);
+
+        correlationManager.store("foo", "bar");
+        Assert.assertSame(correlationManager.getObjectStore(), objectStore);
+        Assert.assertEquals(objectStore.remove("foo"), "bar");
+    }
+
+    @Test
+    public void testNotFound() {
+        ChannelSyncEndpointConfiguration pollableEndpointConfiguration = new ChannelSyncEndpointConfiguration();
+        pollableEndpointConfiguration.setPollingInterval(100L);
+        pollableEndpointConfiguration.setTimeout(300L);
+
+        WaitingCorrelationManager<String> correlationManager = new WaitingCorrelationManager<String>(pollableEndpointConfiguration, "Try again");
+
+        long start = System.currentTimeMillis();
+        Assert.assertNull(correlationManager.find("foo"));
+        Assert.assertTrue(System.currentTimeMillis() - start >= 300L);
+    }
+
+    @Test
+    public void testGetCorrelationKeyWakeup() {
+        ChannelSyncEndpointConfiguration pollableEndpointConfiguration = new ChannelSyncEndpointConfiguration();
+        pollableEndpointConfiguration.setPollingInterval(5000L);
+
+        final WaitingCorrelationManager<String> correlationManager = new WaitingCorrelationManager<String>(pollableEndpointConfiguration, "Try again");
+        final TestContext context = createTestContext();
+
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                correlationManager.saveCorrelationKey("correlationKey", "foo", context);
+            }
+        }, 100L, TimeUnit.MILLISECONDS);
+
+        Assert.assertEquals(correlationManager.getCorrelationKey("correlationKey", context), "foo");
+    }
+
+    @Test(expectedExceptions = CitrusRuntimeException.class)
+    public void testGetCorrelationKeyNotFound() {
+        ChannelSyncEndpointConfiguration pollableEndpointConfiguration = new ChannelSyncEndpointConfiguration();
+        pollableEndpointConfiguration.setPollingInterval(100L);
+
+        WaitingCorrelationManager<String> correlationManager = new WaitingCorrelationManager<String>(pollableEndpointConfiguration, "Try again");
+        correlationManager.getCorrelationKey("unknownKey", createTestContext());
+    }
+}
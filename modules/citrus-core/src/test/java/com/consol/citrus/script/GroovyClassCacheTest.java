@@ -0,0 +1,95 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.script;
+
+import com.consol.citrus.message.DefaultMessage;
+import com.consol.citrus.message.MessageType;
+import com.consol.citrus.testng.AbstractTestNGUnitTest;
+import com.consol.citrus.validation.script.GroovyScriptMessageValidator;
+import com.consol.citrus.validation.script.ScriptValidationContext;
+import groovy.lang.GroovyObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class GroovyClassCacheTest extends AbstractTestNGUnitTest {
+
+    @Test
+    public void testCachedClass() throws Exception {
+        GroovyClassCache.clearCache();
+
+        ClassLoader parent = getClass().getClassLoader();
+        Class<?> groovyClass = GroovyClassCache.parseClass("return 'Hello'", parent);
+
+        Assert.assertSame(GroovyClassCache.parseClass("return 'Hello'", parent), groovyClass);
+        Assert.assertNotSame(GroovyClassCache.parseClass("return 'Bye'", parent), groovyClass);
+        Assert.assertEquals(GroovyClassCache.getCacheSize(), 2);
+
+        Assert.assertEquals(((GroovyObject) groovyClass.newInstance()).invokeMethod("run", new Object[] {}), "Hello");
+
+        GroovyClassCache.clearCache();
+        Assert.assertEquals(GroovyClassCache.getCacheSize(), 0);
+        Assert.assertNotSame(GroovyClassCache.parseClass("return 'Hello'", parent), groovyClass);
+    }
+
+    @Test
+    public void testBoundedCacheSize() throws Exception {
+        GroovyClassCache.clearCache();
+
+        for (int i = 0; i < 600; i++) {
+            GroovyClassCache.parseClass("return " + i, getClass().getClassLoader());
+        }
+
+        Assert.assertEquals(GroovyClassCache.getCacheSize(), 500);
+    }
+
+    @Test
+    public void testCachedClassPerParentClassLoader() throws Exception {
+        GroovyClassCache.clearCache();
+
+        ClassLoader parent = getClass().getClassLoader();
+        ClassLoader otherParent = new URLClassLoader(new URL[] {}, parent);
+
+        Class<?> groovyClass = GroovyClassCache.parseClass("return 'Hello'", parent);
+        Class<?> otherGroovyClass = GroovyClassCache.parseClass("return 'Hello'", otherParent);
+
+        Assert.assertNotSame(otherGroovyClass, groovyClass);
+        Assert.assertSame(groovyClass.getClassLoader().getParent().getParent(), parent);
+        Assert.assertSame(otherGroovyClass.getClassLoader().getParent().getParent(), otherParent);
+        Assert.assertSame(GroovyClassCache.parseClass("return 'Hello'", otherParent), otherGroovyClass);
+        Assert.assertEquals(GroovyClassCache.getCacheSize(), 2);
+    }
+
+    @Test
+    public void testRepeatedScriptValidation() throws Exception {
+        GroovyClassCache.clearCache();
+
+        GroovyScriptMessageValidator validator = new GroovyScriptMessageValidator();
+        ScriptValidationContext validationContext = new ScriptValidationContext(ScriptTypes.GROOVY, MessageType.PLAINTEXT.toString());
+        validationContext.setValidationScript("assert receivedMessage.getPayload(String.class) == 'Hello'");
+
+        for (int i = 0; i < 10; i++) {
+            validator.validateMessage(new DefaultMessage("Hello"), context, validationContext);
+        }
+
+        Assert.assertEquals(GroovyClassCache.getCacheSize(), 1);
+    }
+}
@@ -20,6 +20,7 @@ import org.easymock.EasyMock;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import org.w3c.dom.*;
+import org.w3c.dom.ls.LSException;
 
 import javax.xml.XMLConstants;
 import java.io.*;
@@ -375,4 +376,22 @@ public class XMLUtilsTest {
         Assert.assertEquals(XMLUtils.omitXmlDeclaration(""), "");
         Assert.assertEquals(XMLUtils.omitXmlDeclaration("Test"), "Test");
     }
+
+    @Test
+    public void testParseMessagePayloadParserReuse() throws Exception {
+        Document first = XMLUtils.parseMessagePayload("<testRequest><Message>Hello</Message></testRequest>");
+
+        try {
+            XMLUtils.parseMessagePayload("<testRequest><Message>Hello</testRequest>");
+            Assert.fail("Missing exception due to invalid XML payload");
+        } catch (LSException e) {
+            // expected
+        }
+
+        Document second = XMLUtils.parseMessagePayload("<testResponse><Message>Hello</Message></testResponse>");
+
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first.getDocumentElement().getLocalName(), "testRequest");
+        Assert.assertEquals(second.getDocumentElement().getLocalName(), "testResponse");
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.validation.json;
+
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ReadContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class JsonPathUtilsTest {
+
+    @Test
+    public void testCompiledExpressionCache() {
+        JsonPath jsonPath = JsonPathUtils.compile("$.person.name");
+        Assert.assertSame(JsonPathUtils.compile("$.person.name"), jsonPath);
+
+        JsonPathUtils.clearCache();
+        Assert.assertEquals(JsonPathUtils.getCacheSize(), 0);
+        Assert.assertNotSame(JsonPathUtils.compile("$.person.name"), jsonPath);
+        Assert.assertEquals(JsonPathUtils.getCacheSize(), 1);
+    }
+
+    @Test
+    public void testEvaluateAsString() throws Exception {
+        ReadContext readContext = JsonPath.parse(ParsedJsonPayload.parse("{\"text\":\"Hello World!\", \"person\":{\"name\":\"John\"}, " +
+                "\"items\":[{\"id\":1}, {\"id\":2}]}"));
+
+        Assert.assertEquals(JsonPathUtils.evaluateAsString(readContext, "$.text"), "Hello World!");
+        Assert.assertEquals(JsonPathUtils.evaluateAsString(readContext, "$.person"), "{\"name\":\"John\"}");
+        Assert.assertEquals(JsonPathUtils.evaluateAsString(readContext, "$..name"), "John");
+        Assert.assertEquals(JsonPathUtils.evaluateAsString(readContext, "$.items[*].id"), "[1,2]");
+    }
+}
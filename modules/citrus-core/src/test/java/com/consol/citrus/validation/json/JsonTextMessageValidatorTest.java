@@ -347,6 +347,82 @@ public class JsonTextMessageValidatorTest extends AbstractTestNGUnitTest {
         validator.validateMessagePayload(receivedMessage, controlMessage, validationContext, context);
     }
     
+    @Test
+    public void testJsonValidationIgnoreEntriesInArrays() {
+        JsonTextMessageValidator validator = new JsonTextMessageValidator();
+
+        Message receivedMessage = new DefaultMessage("{\"greetings\":[" +
+                "{\"text\":\"Hello World!\", \"id\":\"a1\"}, " +
+                "{\"text\":\"Hallo Welt!\", \"id\":\"b2\"}]}");
+        Message controlMessage = new DefaultMessage("{\"greetings\":[" +
+                "{\"text\":\"Hello World!\", \"id\":\"?\"}, " +
+                "{\"text\":\"Hallo Welt!\", \"id\":\"?\"}]}");
+
+        JsonMessageValidationContext validationContext = new JsonMessageValidationContext();
+        validationContext.getIgnoreExpressions().add("$.greetings[*].id");
+        validationContext.setControlMessage(controlMessage);
+
+        validator.validateMessagePayload(receivedMessage, controlMessage, validationContext, context);
+    }
+
+    @Test
+    public void testJsonValidationIgnoreEntriesOnlyMatchingNodes() {
+        JsonTextMessageValidator validator = new JsonTextMessageValidator();
+
+        Message receivedMessage = new DefaultMessage("{\"id\":\"x123456789x\", \"object\":{\"id\":\"x123456789x\"}}");
+        Message controlMessage = new DefaultMessage("{\"id\":\"?\", \"object\":{\"id\":\"?\"}}");
+
+        JsonMessageValidationContext validationContext = new JsonMessageValidationContext();
+        validationContext.getIgnoreExpressions().add("$.id");
+        validationContext.setControlMessage(controlMessage);
+
+        try {
+            validator.validateMessagePayload(receivedMessage, controlMessage, validationContext, context);
+        } catch (ValidationException e) {
+            Assert.assertTrue(e.getCause().getMessage().contains("Values not equal for entry: 'id'"));
+            return;
+        }
+
+        Assert.fail("Missing validation exception due to wrong value");
+    }
+
+    @Test
+    public void testJsonValidationIgnoreEntriesOnlyMatchingBooleanAndNumberNodes() {
+        JsonTextMessageValidator validator = new JsonTextMessageValidator();
+
+        Message receivedMessage = new DefaultMessage("{\"active\":true, \"index\":1, \"object\":{\"active\":true, \"index\":1}}");
+        Message controlMessage = new DefaultMessage("{\"active\":false, \"index\":2, \"object\":{\"active\":false, \"index\":1}}");
+
+        JsonMessageValidationContext validationContext = new JsonMessageValidationContext();
+        validationContext.getIgnoreExpressions().add("$.active");
+        validationContext.getIgnoreExpressions().add("$.index");
+        validationContext.setControlMessage(controlMessage);
+
+        try {
+            validator.validateMessagePayload(receivedMessage, controlMessage, validationContext, context);
+        } catch (ValidationException e) {
+            Assert.assertTrue(e.getCause().getMessage().contains("Values not equal for entry: 'active'"));
+            return;
+        }
+
+        Assert.fail("Missing validation exception due to wrong value");
+    }
+
+    @Test
+    public void testJsonValidationIgnoreEntriesInRootArray() {
+        JsonTextMessageValidator validator = new JsonTextMessageValidator();
+
+        Message receivedMessage = new DefaultMessage("[{\"text\":\"Hello World!\", \"index\":1}, 5, {\"text\":\"Hallo Welt!\", \"index\":2}]");
+        Message controlMessage = new DefaultMessage("[{\"text\":\"Hello World!\", \"index\":0}, 0, {\"text\":\"Hallo Welt!\", \"index\":2}]");
+
+        JsonMessageValidationContext validationContext = new JsonMessageValidationContext();
+        validationContext.getIgnoreExpressions().add("$[0].index");
+        validationContext.getIgnoreExpressions().add("$[1]");
+        validationContext.setControlMessage(controlMessage);
+
+        validator.validateMessagePayload(receivedMessage, controlMessage, validationContext, context);
+    }
+
     @Test
     public void testJsonValidationInvalidJsonText() {
         JsonTextMessageValidator validator = new JsonTextMessageValidator();
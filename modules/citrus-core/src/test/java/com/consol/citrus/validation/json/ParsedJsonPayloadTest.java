@@ -0,0 +1,74 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.validation.json;
+
+import com.consol.citrus.message.DefaultMessage;
+import com.consol.citrus.message.Message;
+import net.minidev.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class ParsedJsonPayloadTest {
+
+    @Test
+    public void testSharedParsedPayload() throws Exception {
+        Message message = new DefaultMessage("{\"text\":\"Hello World!\", \"index\":5}");
+
+        ParsedJsonPayload parsedPayload = ParsedJsonPayload.forMessage(message);
+        Assert.assertFalse(parsedPayload.isParsed());
+
+        Object json = parsedPayload.getJson();
+        Assert.assertTrue(parsedPayload.isParsed());
+        Assert.assertEquals(((JSONObject) json).get("text"), "Hello World!");
+
+        Assert.assertSame(ParsedJsonPayload.forMessage(message), parsedPayload);
+        Assert.assertSame(ParsedJsonPayload.forMessage(message).getJson(), json);
+        Assert.assertSame(parsedPayload.getReadContext(), parsedPayload.getReadContext());
+        Assert.assertEquals(parsedPayload.getReadContext().read("$.index").toString(), "5");
+    }
+
+    @Test
+    public void testChangedPayload() throws Exception {
+        Message message = new DefaultMessage("{\"text\":\"Hello World!\"}");
+
+        ParsedJsonPayload parsedPayload = ParsedJsonPayload.forMessage(message);
+        Assert.assertEquals(parsedPayload.getReadContext().read("$.text"), "Hello World!");
+
+        message.setPayload("{\"text\":\"Hallo Welt!\"}");
+
+        ParsedJsonPayload changed = ParsedJsonPayload.forMessage(message);
+        Assert.assertNotSame(changed, parsedPayload);
+        Assert.assertEquals(changed.getReadContext().read("$.text"), "Hallo Welt!");
+    }
+
+    @Test
+    public void testAttachParsedJson() throws Exception {
+        Message message = new DefaultMessage("{\"text\":\"Hello World!\"}");
+
+        JSONObject json = (JSONObject) ParsedJsonPayload.parse(message.getPayload(String.class));
+        json.put("text", "Hallo Welt!");
+        message.setPayload(json.toString());
+        ParsedJsonPayload.attach(message, json);
+
+        ParsedJsonPayload parsedPayload = ParsedJsonPayload.forMessage(message);
+        Assert.assertTrue(parsedPayload.isParsed());
+        Assert.assertSame(parsedPayload.getJson(), json);
+        Assert.assertEquals(parsedPayload.getReadContext().read("$.text"), "Hallo Welt!");
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.consol.citrus.validation.xml;
 
+import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.exceptions.ValidationException;
 import com.consol.citrus.message.DefaultMessage;
@@ -495,6 +496,42 @@ public class DomXmlMessageValidatorTest extends AbstractTestNGUnitTest {
         validator.validateMessage(message, context, validationContext);
     }
     
+    @Test
+    public void testValidateMessagePayloadSharesParsedDocument() {
+        Message message = new DefaultMessage("<ns1:root xmlns:ns1='http://citrusframework.org/ns1'>"
+                        + "<ns1:element attributeA='attribute-value'>text-value</ns1:element>"
+                    + "</ns1:root>");
+
+        Message controlMessage = new DefaultMessage("<ns1:root xmlns:ns1='http://citrusframework.org/ns1'>"
+                        + "<ns1:element attributeA='attribute-value'>text-value</ns1:element>"
+                    + "</ns1:root>");
+
+        XmlMessageValidationContext validationContext = new XmlMessageValidationContext();
+        validationContext.setControlMessage(controlMessage);
+        validationContext.setControlNamespaces(Collections.singletonMap("ns1", "http://citrusframework.org/ns1"));
+
+        final List<Object> documents = new ArrayList<Object>();
+        DomXmlMessageValidator validator = new DomXmlMessageValidator() {
+            @Override
+            protected void validateNamespaces(Map<String, String> expectedNamespaces, ParsedDocumentHolder receivedDocument) {
+                super.validateNamespaces(expectedNamespaces, receivedDocument);
+                documents.add(receivedDocument.getDocument());
+            }
+
+            @Override
+            protected void validateMessageContent(ParsedDocumentHolder receivedDocument, Message controlMessage,
+                                                  XmlMessageValidationContext validationContext, TestContext context) {
+                super.validateMessageContent(receivedDocument, controlMessage, validationContext, context);
+                documents.add(receivedDocument.getDocument());
+            }
+        };
+
+        validator.validateMessage(message, context, validationContext);
+
+        Assert.assertEquals(documents.size(), 2L);
+        Assert.assertSame(documents.get(0), documents.get(1));
+    }
+
     @Test
     public void testValidateMessagePayloadWithIgnoresSuccess() {
         Message message = new DefaultMessage("<root>"
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.validation.xml;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import com.consol.citrus.exceptions.ValidationException;
+import com.consol.citrus.message.DefaultMessage;
+import com.consol.citrus.testng.AbstractTestNGUnitTest;
+import com.consol.citrus.xml.XsdSchemaRepository;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.xml.xsd.SimpleXsdSchema;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.*;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class StreamingXmlTreeValidatorTest extends AbstractTestNGUnitTest {
+
+    private static final String RECEIVED = "<ns0:root xmlns:ns0=\"http://citrusframework.org/ns0\" xmlns:ns1=\"http://citrusframework.org/ns1\">" +
+                "<!-- comment -->" +
+                "<ns0:element index=\"1\" type=\"ns1:simple\">" +
+                    "<ns0:sub-element attribute=\"A\">text value</ns0:sub-element>" +
+                "</ns0:element>" +
+                "<ns0:element index=\"2\" type=\"ns1:complex\">" +
+                    "<ns0:sub-element attribute=\"B\">other &amp; value</ns0:sub-element>" +
+                    "<ns1:data><![CDATA[<data/>]]></ns1:data>" +
+                "</ns0:element>" +
+                "<ns0:empty/>" +
+            "</ns0:root>";
+
+    private static final String[][] CASES = new String[][] {
+            { RECEIVED },
+            { "<ns0:root xmlns:ns0=\"http://citrusframework.org/ns0\" xmlns:ns1=\"http://citrusframework.org/ns1\">\n" +
+                    "  <!-- comment -->\n" +
+                    "  <ns0:element index=\"1\" type=\"ns1:simple\">\n" +
+                    "    <ns0:sub-element attribute=\"A\"> text value </ns0:sub-element>\n" +
+                    "  </ns0:element>\n" +
+                    "  <ns0:element type=\"ns1:complex\" index=\"2\">\n" +
+                    "    <ns0:sub-element attribute=\"B\">other &amp; value</ns0:sub-element>\n" +
+                    "    <ns1:data><![CDATA[<data/>]]></ns1:data>\n" +
+                    "  </ns0:element>\n" +
+                    "  <ns0:empty></ns0:empty>\n" +
+                    "</ns0:root>" },
+            { RECEIVED.replace("text value", "wrong value") },
+            { RECEIVED.replace("index=\"2\"", "index=\"3\"") },
+            { RECEIVED.replace("index=\"2\"", "idx=\"2\"") },
+            { RECEIVED.replace(" index=\"2\"", "") },
+            { RECEIVED.replace("ns1:simple", "ns0:simple") },
+            { RECEIVED.replace("<ns0:empty/>", "") },
+            { RECEIVED.replace("<ns0:empty/>", "<ns0:empty/><ns0:empty/>") },
+            { RECEIVED.replace("<ns0:empty/>", "<ns0:other/>") },
+            { RECEIVED.replace("<ns0:empty/>", "<ns1:empty/>") },
+            { RECEIVED.replace("<ns0:empty/>", "<ns0:empty>text</ns0:empty>") },
+            { RECEIVED.replace("<!-- comment -->", "") },
+            { RECEIVED.replace("<![CDATA[<data/>]]>", "&lt;data/&gt;") },
+            { RECEIVED.replace("<![CDATA[<data/>]]>", "<![CDATA[<other/>]]>") },
+            { RECEIVED.replace("text value", "@ignore@") },
+            { RECEIVED.replace("<ns0:sub-element attribute=\"A\">text value</ns0:sub-element>", "@ignore@") },
+            { RECEIVED.replace("<ns0:sub-element attribute=\"A\">text value</ns0:sub-element>", "@ignore@").replace("index=\"1\"", "index=\"0\"") },
+            { RECEIVED.replace("attribute=\"A\"", "attribute=\"@ignore@\"") },
+            { RECEIVED.replace("text value", "@contains('text')@") },
+            { RECEIVED.replace("text value", "@contains('foo')@") },
+            { RECEIVED.replace("attribute=\"B\"", "attribute=\"@matches('[A-C]')@\"") },
+            { RECEIVED.replace("text value", "wrong value"), "sub-element" },
+            { RECEIVED.replace("other &amp; value", "wrong value"), "sub-element" },
+            { RECEIVED.replace("other &amp; value", "wrong value"), "root.element.sub-element" },
+            { RECEIVED.replace("other &amp; value", "wrong value"), "element.sub-element" },
+            { RECEIVED.replace("attribute=\"A\"", "attribute=\"X\""), "root.element.sub-element.attribute" },
+            { RECEIVED.replace("index=\"1\"", "index=\"0\""), "element.index" },
+            { RECEIVED.replace("index=\"2\"", "index=\"0\""), "element.index" },
+            { RECEIVED.replace("other &amp; value", "wrong value"), "//ns0:sub-element" },
+            { RECEIVED.replace("other &amp; value", "wrong value"), "//ns0:element[2]/ns0:sub-element" },
+            { RECEIVED.replace("other &amp; value", "wrong value"), "/ns0:root/*[2]" },
+            { RECEIVED.replace("other &amp; value", "wrong value"), "/ns0:root/ns0:element[1]" },
+            { RECEIVED.replace("attribute=\"B\"", "attribute=\"X\""), "//ns0:sub-element/@attribute" },
+            { RECEIVED.replace("attribute=\"A\"", "attribute=\"X\""), "//ns0:sub-element/@attribute" },
+            { RECEIVED.replace("index=\"2\"", "index=\"0\""), "//ns0:element[2]/@*" },
+            { RECEIVED, "//ns0:missing" }
+    };
+
+    @Test
+    public void testSameResultAsDomValidation() {
+        for (String[] testCase : CASES) {
+            String received = RECEIVED;
+            String control = testCase[0];
+            Set<String> ignoreExpressions = new HashSet<String>(Arrays.asList(testCase).subList(1, testCase.length));
+
+            String expected = validate(received, control, ignoreExpressions, -1);
+            String result = validate(received, control, ignoreExpressions, 0);
+
+            // streaming validation detects differing child counts not before the first differing child node
+            if (expected.startsWith("Number of child elements not equal")) {
+                Assert.assertNotEquals(result, "OK", "Failed for control: " + control + " ignoring " + ignoreExpressions);
+            } else {
+                Assert.assertEquals(result, expected, "Failed for control: " + control + " ignoring " + ignoreExpressions);
+            }
+        }
+    }
+
+    @Test
+    public void testDocumentTypeDefinition() {
+        String received = "<?xml version=\"1.0\"?><!DOCTYPE root PUBLIC \"-//Citrus//Test\" \"http://citrusframework.org/test.dtd\"><root>value</root>";
+
+        Assert.assertEquals(validate(received, received, Collections.<String>emptySet(), 0), "OK");
+        Assert.assertEquals(validate(received, received.replace("-//Citrus//Test", "@ignore@").replace("http://citrusframework.org/test.dtd", "@ignore@"),
+                Collections.<String>emptySet(), 0), "OK");
+        Assert.assertEquals(validate(received, received.replace("test.dtd", "other.dtd"), Collections.<String>emptySet(), 0),
+                "Document type system id not equal, expected 'http://citrusframework.org/other.dtd' but was 'http://citrusframework.org/test.dtd'");
+        Assert.assertEquals(validate(received, "<?xml version=\"1.0\"?><!DOCTYPE root SYSTEM \"http://citrusframework.org/test.dtd\"><root>value</root>",
+                Collections.<String>emptySet(), 0), "Document type public id not equal, expected 'null' but was '-//Citrus//Test'");
+        Assert.assertEquals(validate(received, "<?xml version=\"1.0\"?><root>value</root>", Collections.<String>emptySet(), 0),
+                "Missing document type definition in expected xml fragment");
+        Assert.assertEquals(validate(received, received.replace("value", "other"), Collections.<String>emptySet(), 0),
+                "Node value not equal for element 'root', expected 'other' but was 'value'");
+    }
+
+    @Test
+    public void testLargePayload() {
+        StringBuilder payload = new StringBuilder("<ns:numbers xmlns:ns=\"http://citrusframework.org/numbers\">");
+        for (int i = 0; i < 20000; i++) {
+            payload.append("<ns:number index=\"").append(i).append("\"><ns:value>").append(i * 2).append("</ns:value></ns:number>");
+        }
+        payload.append("</ns:numbers>");
+
+        String received = payload.toString();
+        Assert.assertEquals(validate(received, received, Collections.<String>emptySet(), 0), "OK");
+        Assert.assertEquals(validate(received, received.replace("<ns:value>39998</ns:value>", "<ns:value>0</ns:value>"),
+                Collections.<String>emptySet(), 0), "Node value not equal for element 'value', expected '0' but was '39998'");
+        Assert.assertEquals(validate(received, received.replace("<ns:value>39998</ns:value>", "<ns:value>0</ns:value>"),
+                Collections.singleton("//ns:number[20000]/ns:value"), 0), "OK");
+    }
+
+    @Test
+    public void testStreamingSchemaValidation() throws Exception {
+        DomXmlMessageValidator validator = new DomXmlMessageValidator();
+        validator.setStreamingThreshold(0);
+
+        XsdSchemaRepository schemaRepository = new XsdSchemaRepository();
+        SimpleXsdSchema schema = new SimpleXsdSchema(new ClassPathResource("com/consol/citrus/validation/test.xsd"));
+        schema.afterPropertiesSet();
+        schemaRepository.getSchemas().add(schema);
+        validator.addSchemaRepository(schemaRepository);
+
+        ParsedDocumentHolder receivedDocument = new ParsedDocumentHolder(new DefaultMessage("<message xmlns='http://citrusframework.org/test'>"
+                + "<correlationId>Kx1R123456789</correlationId>"
+                + "<bookingId>Bx1G987654321</bookingId>"
+                + "<test>Hello TestFramework</test>"
+                + "</message>"), true);
+        validator.validateXMLSchema(receivedDocument, new XmlMessageValidationContext());
+        Assert.assertFalse(receivedDocument.isParsed());
+        Assert.assertEquals(receivedDocument.getRootDocument().getFirstChild().getLocalName(), "message");
+
+        try {
+            validator.validateXMLSchema(new ParsedDocumentHolder(new DefaultMessage("<message xmlns='http://citrusframework.org/test'>"
+                    + "<correlationId>Kx1R123456789</correlationId>"
+                    + "<unknown>Hello TestFramework</unknown>"
+                    + "</message>"), true), new XmlMessageValidationContext());
+            Assert.fail("Missing validation exception due to schema validation error");
+        } catch (ValidationException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Schema validation failed"));
+        }
+    }
+
+    @Test
+    public void testStreamingNamespaceValidation() {
+        Map<String, String> namespaces = new HashMap<String, String>();
+        namespaces.put("ns0", "http://citrusframework.org/ns0");
+        namespaces.put("ns1", "http://citrusframework.org/other");
+
+        XmlMessageValidationContext validationContext = new XmlMessageValidationContext();
+        validationContext.setControlNamespaces(namespaces);
+
+        Assert.assertEquals(validate(RECEIVED, RECEIVED, validationContext, 0), validate(RECEIVED, RECEIVED, validationContext, -1));
+    }
+
+    @Test(expectedExceptions = CitrusRuntimeException.class,
+            expectedExceptionsMessageRegExp = "Unsupported ignore expression .*")
+    public void testUnsupportedIgnoreExpression() {
+        XmlMessageValidationContext validationContext = new XmlMessageValidationContext();
+        validationContext.setIgnoreExpressions(Collections.singleton("//ns0:element[@index = '2']"));
+
+        new StreamingXmlTreeValidator(validationContext, null, context);
+    }
+
+    /**
+     * Validates received payload and returns validation error message or OK.
+     * @param received
+     * @param control
+     * @param ignoreExpressions
+     * @param streamingThreshold
+     * @return
+     */
+    private String validate(String received, String control, Set<String> ignoreExpressions, int streamingThreshold) {
+        XmlMessageValidationContext validationContext = new XmlMessageValidationContext();
+        validationContext.setIgnoreExpressions(ignoreExpressions);
+
+        return validate(received, control, validationContext, streamingThreshold);
+    }
+
+    private String validate(String received, String control, XmlMessageValidationContext validationContext, int streamingThreshold) {
+        DomXmlMessageValidator validator = new DomXmlMessageValidator();
+        validator.setStreamingThreshold(streamingThreshold);
+
+        try {
+            validator.validateMessagePayload(new DefaultMessage(received), new DefaultMessage(control), validationContext, context);
+            return "OK";
+        } catch (ValidationException e) {
+            return e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        } catch (CitrusRuntimeException e) {
+            return e.getMessage();
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -129,4 +130,47 @@ public class XpathMappingDataDictionaryTest extends AbstractTestNGUnitTest {
                 "   <OtherText name=\"bar\">GoodBye!</OtherText>" + System.getProperty("line.separator") +
                 "</TestMessage>");
     }
+
+    @Test
+    public void testTranslateFirstMatchingExpression() throws Exception {
+        Message message = new DefaultMessage("<?xml version=\"1.0\" encoding=\"UTF-8\"?><TestMessage><Text>Hello World!</Text><OtherText name=\"foo\">No changes</OtherText></TestMessage>");
+
+        Map<String, String> mappings = new LinkedHashMap<String, String>();
+        mappings.put("//TestMessage/Text", "Hello!");
+        mappings.put("//Text", "Ignored!");
+        mappings.put("/TestMessage/*[2]", "GoodBye!");
+
+        XpathMappingDataDictionary dictionary = new XpathMappingDataDictionary();
+        dictionary.setMappings(mappings);
+
+        Message intercepted = dictionary.interceptMessage(message, CitrusConstants.DEFAULT_MESSAGE_TYPE, context);
+        Assert.assertEquals(intercepted.getPayload(String.class).trim(), "<?xml version=\"1.0\" encoding=\"UTF-8\"?><TestMessage>" + System.getProperty("line.separator") +
+                "   <Text>Hello!</Text>" + System.getProperty("line.separator") +
+                "   <OtherText name=\"foo\">GoodBye!</OtherText>" + System.getProperty("line.separator") +
+                "</TestMessage>");
+    }
+
+    @Test
+    public void testTranslateManyNodes() throws Exception {
+        StringBuilder payload = new StringBuilder("<TestMessage>");
+        Map<String, String> mappings = new HashMap<String, String>();
+        for (int i = 1; i <= 500; i++) {
+            payload.append("<Item id=\"").append(i).append("\">value").append(i).append("</Item>");
+
+            if (i % 2 == 0) {
+                mappings.put("/TestMessage/Item[" + i + "]", "mapped" + i);
+                mappings.put("/TestMessage/Item[" + i + "]/@id", "id" + i);
+            }
+        }
+        payload.append("</TestMessage>");
+
+        XpathMappingDataDictionary dictionary = new XpathMappingDataDictionary();
+        dictionary.setMappings(mappings);
+
+        String intercepted = dictionary.interceptMessage(new DefaultMessage(payload.toString()), CitrusConstants.DEFAULT_MESSAGE_TYPE, context).getPayload(String.class);
+        Assert.assertTrue(intercepted.contains("<Item id=\"1\">value1</Item>"));
+        Assert.assertTrue(intercepted.contains("<Item id=\"id2\">mapped2</Item>"));
+        Assert.assertTrue(intercepted.contains("<Item id=\"499\">value499</Item>"));
+        Assert.assertTrue(intercepted.contains("<Item id=\"id500\">mapped500</Item>"));
+    }
 }
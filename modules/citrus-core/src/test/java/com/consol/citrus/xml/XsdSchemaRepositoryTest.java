@@ -16,12 +16,22 @@
 
 package com.consol.citrus.xml;
 
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.xml.validation.XmlValidator;
 import org.springframework.xml.xsd.SimpleXsdSchema;
+import org.springframework.xml.xsd.XsdSchema;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import com.consol.citrus.xml.schema.WsdlXsdSchema;
 
+import javax.xml.transform.stream.StreamSource;
+import java.io.File;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+
 /**
  * @author Christoph Deppisch
  */
@@ -133,4 +143,104 @@ public class XsdSchemaRepositoryTest {
         Assert.assertEquals(schemaRepository.getSchemas().size(), 1);
         Assert.assertEquals(schemaRepository.getSchemas().get(0).getClass(), SimpleXsdSchema.class);
     }
+
+    @Test
+    public void testCachedValidator() throws Exception {
+        XsdSchemaRepository schemaRepository = new XsdSchemaRepository();
+        schemaRepository.getLocations().add("classpath:com/consol/citrus/validation/test.xsd");
+        schemaRepository.afterPropertiesSet();
+
+        XmlValidator validator = schemaRepository.getValidator();
+        Assert.assertNotNull(validator);
+        Assert.assertSame(schemaRepository.getValidator(), validator);
+    }
+
+    @Test
+    public void testValidatorOnModifiedSchemaList() throws Exception {
+        XsdSchemaRepository schemaRepository = new XsdSchemaRepository();
+        schemaRepository.getSchemas().add(createSchema("foo", "http://citrusframework.org/test"));
+        schemaRepository.afterPropertiesSet();
+
+        XmlValidator validator = schemaRepository.getValidator();
+        Assert.assertSame(schemaRepository.getValidator(), validator);
+        Assert.assertTrue(validate(validator, "<bar xmlns=\"http://citrusframework.org/bar\"/>") > 0);
+
+        schemaRepository.getSchemas().add(createSchema("bar", "http://citrusframework.org/bar"));
+
+        XmlValidator modified = schemaRepository.getValidator();
+        Assert.assertNotSame(modified, validator);
+        Assert.assertSame(schemaRepository.getValidator(), modified);
+        Assert.assertEquals(validate(modified, "<bar xmlns=\"http://citrusframework.org/bar\"/>"), 0);
+
+        schemaRepository.setSchemas(new ArrayList<XsdSchema>(Collections.singletonList(createSchema("foo", "http://citrusframework.org/test"))));
+
+        XmlValidator replaced = schemaRepository.getValidator();
+        Assert.assertNotSame(replaced, modified);
+        Assert.assertTrue(validate(replaced, "<bar xmlns=\"http://citrusframework.org/bar\"/>") > 0);
+    }
+
+    @Test
+    public void testReloadModifiedSchemas() throws Exception {
+        File schemaFile = File.createTempFile("citrus-test", ".xsd");
+        schemaFile.deleteOnExit();
+        writeSchema(schemaFile, "foo", System.currentTimeMillis() - 60000L);
+
+        XsdSchemaRepository schemaRepository = new XsdSchemaRepository();
+        schemaRepository.setCheckModified(true);
+        schemaRepository.getLocations().add(schemaFile.toURI().toString());
+        schemaRepository.afterPropertiesSet();
+
+        XmlValidator validator = schemaRepository.getValidator();
+        Assert.assertSame(schemaRepository.getValidator(), validator);
+        Assert.assertEquals(validate(validator, "<foo xmlns=\"http://citrusframework.org/test\"/>"), 0);
+        Assert.assertTrue(validate(validator, "<bar xmlns=\"http://citrusframework.org/test\"/>") > 0);
+
+        writeSchema(schemaFile, "bar", System.currentTimeMillis());
+
+        XmlValidator reloaded = schemaRepository.getValidator();
+        Assert.assertNotSame(reloaded, validator);
+        Assert.assertSame(schemaRepository.getValidator(), reloaded);
+        Assert.assertEquals(schemaRepository.getSchemas().size(), 1);
+        Assert.assertEquals(validate(reloaded, "<bar xmlns=\"http://citrusframework.org/test\"/>"), 0);
+    }
+
+    /**
+     * Creates simple schema with single root element.
+     * @param elementName
+     * @param targetNamespace
+     * @return
+     * @throws Exception
+     */
+    private XsdSchema createSchema(String elementName, String targetNamespace) throws Exception {
+        SimpleXsdSchema schema = new SimpleXsdSchema(new ByteArrayResource(("<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" " +
+                "targetNamespace=\"" + targetNamespace + "\" elementFormDefault=\"qualified\">" +
+                "<xs:element name=\"" + elementName + "\"/></xs:schema>").getBytes()));
+        schema.afterPropertiesSet();
+        return schema;
+    }
+
+    /**
+     * Writes simple schema with single root element to file.
+     * @param schemaFile
+     * @param elementName
+     * @param lastModified
+     * @throws Exception
+     */
+    private void writeSchema(File schemaFile, String elementName, long lastModified) throws Exception {
+        FileCopyUtils.copy(("<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\" " +
+                "targetNamespace=\"http://citrusframework.org/test\" elementFormDefault=\"qualified\">" +
+                "<xs:element name=\"" + elementName + "\"/></xs:schema>").getBytes(), schemaFile);
+        Assert.assertTrue(schemaFile.setLastModified(lastModified));
+    }
+
+    /**
+     * Validates XML and returns number of validation errors.
+     * @param validator
+     * @param xml
+     * @return
+     * @throws Exception
+     */
+    private int validate(XmlValidator validator, String xml) throws Exception {
+        return validator.validate(new StreamSource(new StringReader(xml))).length;
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.xml;
+
+import org.springframework.xml.transform.StringResult;
+import org.springframework.xml.transform.StringSource;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.xml.transform.Templates;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class XsltTemplatesCacheTest {
+
+    private static final String XSLT = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">" +
+            "<xsl:output method=\"text\"/>" +
+            "<xsl:template match=\"/\">%s<xsl:value-of select=\"TestRequest/Message\"/></xsl:template>" +
+            "</xsl:stylesheet>";
+
+    @Test
+    public void testCachedTemplates() throws Exception {
+        XsltTemplatesCache.clearCache();
+
+        Templates templates = XsltTemplatesCache.getTemplates(String.format(XSLT, "Message: "));
+
+        Assert.assertSame(XsltTemplatesCache.getTemplates(String.format(XSLT, "Message: ")), templates);
+        Assert.assertNotSame(XsltTemplatesCache.getTemplates(String.format(XSLT, "Text: ")), templates);
+        Assert.assertEquals(XsltTemplatesCache.getCacheSize(), 2);
+
+        StringResult result = new StringResult();
+        XsltTemplatesCache.newTransformer(String.format(XSLT, "Message: "))
+                .transform(new StringSource("<TestRequest><Message>Hello World!</Message></TestRequest>"), result);
+        Assert.assertEquals(result.toString(), "Message: Hello World!");
+        Assert.assertEquals(XsltTemplatesCache.getCacheSize(), 2);
+
+        XsltTemplatesCache.clearCache();
+        Assert.assertEquals(XsltTemplatesCache.getCacheSize(), 0);
+    }
+
+    @Test
+    public void testBoundedCacheSize() throws Exception {
+        XsltTemplatesCache.clearCache();
+
+        for (int i = 0; i < 150; i++) {
+            XsltTemplatesCache.getTemplates(String.format(XSLT, "Message" + i + ": "));
+        }
+
+        Assert.assertEquals(XsltTemplatesCache.getCacheSize(), 100);
+    }
+}
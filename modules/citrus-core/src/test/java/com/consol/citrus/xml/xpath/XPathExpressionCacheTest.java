@@ -0,0 +1,121 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.xml.xpath;
+
+import com.consol.citrus.util.XMLUtils;
+import org.springframework.util.xml.SimpleNamespaceContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.w3c.dom.Document;
+
+import javax.xml.xpath.XPathConstants;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class XPathExpressionCacheTest {
+
+    private Document document = XMLUtils.parseMessagePayload("<ns1:root xmlns:ns1=\"http://citrusframework.org/foo\" xmlns:ns2=\"http://citrusframework.org/bar\">" +
+            "<ns1:value>foo</ns1:value><ns2:value>bar</ns2:value></ns1:root>");
+
+    @Test
+    public void testCachedEvaluation() throws Exception {
+        XPathExpressionCache cache = new XPathExpressionCache();
+
+        Assert.assertEquals(cache.evaluate(document, "count(//*)", null, XPathConstants.NUMBER), 3.0D);
+        Assert.assertEquals(cache.getMissCount(), 1L);
+        Assert.assertEquals(cache.getHitCount(), 0L);
+
+        Assert.assertEquals(cache.evaluate(document, "count(//*)", null, XPathConstants.NUMBER), 3.0D);
+        Assert.assertEquals(cache.getMissCount(), 1L);
+        Assert.assertEquals(cache.getHitCount(), 1L);
+        Assert.assertEquals(cache.getSize(), 1);
+
+        cache.clear();
+        Assert.assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testNamespaceBindings() throws Exception {
+        XPathExpressionCache cache = new XPathExpressionCache();
+
+        SimpleNamespaceContext fooContext = new SimpleNamespaceContext();
+        fooContext.bindNamespaceUri("ns", "http://citrusframework.org/foo");
+
+        SimpleNamespaceContext barContext = new SimpleNamespaceContext();
+        barContext.bindNamespaceUri("ns", "http://citrusframework.org/bar");
+
+        SimpleNamespaceContext sameFooContext = new SimpleNamespaceContext();
+        sameFooContext.bindNamespaceUri("ns", "http://citrusframework.org/foo");
+        sameFooContext.bindNamespaceUri("other", "http://citrusframework.org/other");
+
+        Assert.assertEquals(cache.evaluate(document, "string(//ns:value)", fooContext, XPathConstants.STRING), "foo");
+        Assert.assertEquals(cache.evaluate(document, "string(//ns:value)", barContext, XPathConstants.STRING), "bar");
+        Assert.assertEquals(cache.getMissCount(), 2L);
+
+        Assert.assertEquals(cache.evaluate(document, "string(//ns:value)", sameFooContext, XPathConstants.STRING), "foo");
+        Assert.assertEquals(cache.evaluate(document, "string(//ns:value[text() = 'a:b'])", fooContext, XPathConstants.STRING), "");
+        Assert.assertEquals(cache.getMissCount(), 3L);
+        Assert.assertEquals(cache.getHitCount(), 1L);
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        XPathExpressionCache cache = new XPathExpressionCache();
+        cache.setMaxSize(2);
+
+        cache.evaluate(document, "count(//*)", null, XPathConstants.NUMBER);
+        cache.evaluate(document, "count(/*)", null, XPathConstants.NUMBER);
+        Assert.assertEquals(cache.getSize(), 2);
+
+        cache.evaluate(document, "count(/*/*)", null, XPathConstants.NUMBER);
+        Assert.assertEquals(cache.getSize(), 1);
+    }
+
+    @Test
+    public void testParallelEvaluation() throws Exception {
+        final XPathExpressionCache cache = new XPathExpressionCache();
+        final SimpleNamespaceContext nsContext = new SimpleNamespaceContext();
+        nsContext.bindNamespaceUri("ns", "http://citrusframework.org/bar");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Object>> results = new ArrayList<Future<Object>>();
+
+        try {
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() throws Exception {
+                        Document doc = XMLUtils.parseMessagePayload("<value xmlns=\"http://citrusframework.org/bar\">bar</value>");
+                        return cache.evaluate(doc, "string(/ns:value)", nsContext, XPathConstants.STRING);
+                    }
+                }));
+            }
+
+            for (Future<Object> result : results) {
+                Assert.assertEquals(result.get(), "bar");
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertEquals(cache.getHitCount() + cache.getMissCount(), 100L);
+        Assert.assertTrue(cache.getMissCount() <= 4L);
+    }
+}
@@ -23,7 +23,7 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.ftp.message.FtpMessage;
 import com.consol.citrus.message.*;
 import com.consol.citrus.message.correlation.CorrelationManager;
-import com.consol.citrus.message.correlation.PollingCorrelationManager;
+import com.consol.citrus.message.correlation.WaitingCorrelationManager;
 import com.consol.citrus.messaging.*;
 import org.apache.commons.net.ProtocolCommandEvent;
 import org.apache.commons.net.ProtocolCommandListener;
@@ -66,7 +66,7 @@ public class FtpClient extends AbstractEndpoint implements Producer, ReplyConsum
     protected FtpClient(FtpEndpointConfiguration endpointConfiguration) {
         super(endpointConfiguration);
 
-        this.correlationManager = new PollingCorrelationManager(endpointConfiguration, "Reply message did not arrive yet");
+        this.correlationManager = new WaitingCorrelationManager(endpointConfiguration, "Reply message did not arrive yet");
     }
 
     @Override
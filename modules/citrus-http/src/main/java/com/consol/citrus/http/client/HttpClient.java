@@ -24,18 +24,18 @@ import com.consol.citrus.http.interceptor.LoggingClientInterceptor;
 import com.consol.citrus.http.message.HttpMessage;
 import com.consol.citrus.message.*;
 import com.consol.citrus.message.correlation.CorrelationManager;
-import com.consol.citrus.message.correlation.PollingCorrelationManager;
+import com.consol.citrus.message.correlation.WaitingCorrelationManager;
 import com.consol.citrus.messaging.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.*;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
-import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.util.CollectionUtils;
-import org.springframework.web.client.DefaultResponseErrorHandler;
-import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.web.client.*;
 
-import java.io.IOException;
 import java.util.Arrays;
 
 /**
@@ -45,7 +45,7 @@ import java.util.Arrays;
  * @author Christoph Deppisch
  * @since 1.4
  */
-public class HttpClient extends AbstractEndpoint implements Producer, ReplyConsumer {
+public class HttpClient extends AbstractEndpoint implements Producer, ReplyConsumer, DisposableBean {
     /** Logger */
     private static Logger log = LoggerFactory.getLogger(HttpClient.class);
 
@@ -66,7 +66,7 @@ public class HttpClient extends AbstractEndpoint implements Producer, ReplyConsu
     public HttpClient(HttpEndpointConfiguration endpointConfiguration) {
         super(endpointConfiguration);
 
-        this.correlationManager = new PollingCorrelationManager(endpointConfiguration, "Reply message did not arrive yet");
+        this.correlationManager = new WaitingCorrelationManager(endpointConfiguration, "Reply message did not arrive yet");
     }
 
     @Override
@@ -76,13 +76,6 @@ public class HttpClient extends AbstractEndpoint implements Producer, ReplyConsu
 
     @Override
     public void send(Message message, TestContext context) {
-        if (CollectionUtils.isEmpty(getEndpointConfiguration().getClientInterceptors())) {
-            LoggingClientInterceptor loggingClientInterceptor = new LoggingClientInterceptor();
-            loggingClientInterceptor.setMessageListener(context.getMessageListeners());
-
-            getEndpointConfiguration().setClientInterceptors(Arrays.<ClientHttpRequestInterceptor>asList(loggingClientInterceptor));
-        }
-
         HttpMessage httpMessage;
         if (message instanceof HttpMessage) {
             httpMessage = (HttpMessage) message;
@@ -114,7 +107,21 @@ public class HttpClient extends AbstractEndpoint implements Producer, ReplyConsu
 
         HttpEntity<?> requestEntity = getEndpointConfiguration().getMessageConverter().convertOutbound(httpMessage, getEndpointConfiguration());
 
-        getEndpointConfiguration().getRestTemplate().setErrorHandler(new InternalResponseErrorHandler(correlationKey));
+        if (getEndpointConfiguration().isAsync()) {
+            context.onOutboundMessage(httpMessage);
+            sendAsync(endpointUri, method, requestEntity, correlationKey);
+            return;
+        }
+
+        synchronized (getEndpointConfiguration()) {
+            if (CollectionUtils.isEmpty(getEndpointConfiguration().getClientInterceptors())) {
+                LoggingClientInterceptor loggingClientInterceptor = new LoggingClientInterceptor();
+                loggingClientInterceptor.setMessageListener(context.getMessageListeners());
+
+                getEndpointConfiguration().setClientInterceptors(Arrays.<ClientHttpRequestInterceptor>asList(loggingClientInterceptor));
+            }
+        }
+
         ResponseEntity<?> response = getEndpointConfiguration().getRestTemplate().exchange(endpointUri, method, requestEntity, String.class);
 
         log.info("HTTP message was successfully sent to endpoint: '" + endpointUri + "'");
@@ -122,6 +129,38 @@ public class HttpClient extends AbstractEndpoint implements Producer, ReplyConsu
         correlationManager.store(correlationKey, getEndpointConfiguration().getMessageConverter().convertInbound(response, getEndpointConfiguration()));
     }
 
+    /**
+     * Sends request in non blocking asynchronous mode. Method returns immediately, response message
+     * is stored with correlation key of the request as soon as it arrives.
+     * @param endpointUri
+     * @param method
+     * @param requestEntity
+     * @param correlationKey
+     */
+    private void sendAsync(final String endpointUri, HttpMethod method, HttpEntity<?> requestEntity, final String correlationKey) {
+        ListenableFuture<ResponseEntity<String>> response = getEndpointConfiguration().getAsyncRestTemplate().exchange(endpointUri, method, requestEntity, String.class);
+        response.addCallback(new ListenableFutureCallback<ResponseEntity<String>>() {
+            @Override
+            public void onSuccess(ResponseEntity<String> result) {
+                log.info("Received asynchronous HTTP response from endpoint: '" + endpointUri + "'");
+                correlationManager.store(correlationKey, getEndpointConfiguration().getMessageConverter().convertInbound(result, getEndpointConfiguration()));
+            }
+
+            @Override
+            public void onFailure(Throwable ex) {
+                if (ex instanceof HttpStatusCodeException &&
+                        getEndpointConfiguration().getErrorHandlingStrategy().equals(ErrorHandlingStrategy.PROPAGATE)) {
+                    HttpStatusCodeException error = (HttpStatusCodeException) ex;
+                    correlationManager.store(correlationKey, getEndpointConfiguration().getMessageConverter().convertInbound(
+                            new ResponseEntity<String>(error.getResponseBodyAsString(), error.getResponseHeaders(), error.getStatusCode()), getEndpointConfiguration()));
+                } else {
+                    log.warn("Asynchronous HTTP request to endpoint '" + endpointUri + "' failed", ex);
+                    correlationManager.store(correlationKey, new AsyncRequestFailure(ex));
+                }
+            }
+        });
+    }
+
     @Override
     public Message receive(TestContext context) {
         return receive(correlationManager.getCorrelationKey(
@@ -143,54 +182,56 @@ public class HttpClient extends AbstractEndpoint implements Producer, ReplyConsu
     public Message receive(String selector, TestContext context, long timeout) {
         Message message = correlationManager.find(selector, timeout);
 
+        if (message instanceof AsyncRequestFailure) {
+            Throwable failure = ((AsyncRequestFailure) message).getFailure();
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+
+            throw new CitrusRuntimeException("Failed to send asynchronous HTTP request", failure);
+        }
+
         if (message == null) {
             throw new ActionTimeoutException("Action timeout while receiving synchronous reply message from http server");
         }
 
+        if (getEndpointConfiguration().isAsync()) {
+            // asynchronous responses bypass the logging client interceptor so report them here in test thread
+            context.onInboundMessage(message);
+        }
+
         return message;
     }
 
+    @Override
+    public void destroy() throws Exception {
+        getEndpointConfiguration().destroy();
+    }
+
     /**
-     * Handles error response messages constructing a proper response message
-     * which will be propagated to the respective reply handler for
-     * further processing.
+     * Failure of asynchronous request stored in place of the response message so receive operations
+     * waiting for the response are released immediately.
      */
-    private class InternalResponseErrorHandler implements ResponseErrorHandler {
-
-        /** Request message associated with this response error handler */
-        private String correlationKey;
-
-        /**
-         * Default constructor provided with request message
-         * associated with this error handler.
-         */
-        public InternalResponseErrorHandler(String correlationKey) {
-            this.correlationKey = correlationKey;
-        }
+    private static class AsyncRequestFailure extends DefaultMessage {
+        /** Cause of failure */
+        private final Throwable failure;
 
         /**
-         * Check for error HTTP status code in response message.
-         * Delegates to default Spring implementation.
+         * Default constructor using failure.
+         * @param failure
          */
-        public boolean hasError(ClientHttpResponse response) throws IOException {
-            return new DefaultResponseErrorHandler().hasError(response);
+        public AsyncRequestFailure(Throwable failure) {
+            super(failure.getMessage() != null ? failure.getMessage() : failure.getClass().getName());
+            this.failure = failure;
         }
 
         /**
-         * Handle error response message according to error strategy.
+         * Gets the failure.
+         * @return
          */
-        public void handleError(ClientHttpResponse response) throws IOException {
-            if (getEndpointConfiguration().getErrorHandlingStrategy().equals(ErrorHandlingStrategy.PROPAGATE)) {
-                Message responseMessage = getEndpointConfiguration().getMessageConverter().convertInbound(
-                        new ResponseEntity(response.getBody(), response.getHeaders(), response.getStatusCode()), getEndpointConfiguration());
-                correlationManager.store(correlationKey, responseMessage);
-            } else if (getEndpointConfiguration().getErrorHandlingStrategy().equals(ErrorHandlingStrategy.THROWS_EXCEPTION)) {
-                new DefaultResponseErrorHandler().handleError(response);
-            } else {
-                throw new CitrusRuntimeException("Unsupported error strategy: " + getEndpointConfiguration().getErrorHandlingStrategy());
-            }
+        public Throwable getFailure() {
+            return failure;
         }
-
     }
 
     /**
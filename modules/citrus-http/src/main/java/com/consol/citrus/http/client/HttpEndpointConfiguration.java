@@ -19,16 +19,32 @@ package com.consol.citrus.http.client;
 import com.consol.citrus.endpoint.AbstractPollableEndpointConfiguration;
 import com.consol.citrus.endpoint.resolver.DynamicEndpointUriResolver;
 import com.consol.citrus.endpoint.resolver.EndpointUriResolver;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.http.message.HttpMessageConverter;
 import com.consol.citrus.message.*;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.client.*;
 import org.springframework.integration.http.support.DefaultHttpHeaderMapper;
 import org.springframework.integration.mapping.HeaderMapper;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.*;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Christoph Deppisch
@@ -36,6 +52,9 @@ import java.util.List;
  */
 public class HttpEndpointConfiguration extends AbstractPollableEndpointConfiguration {
 
+    /** Logger */
+    private static Logger log = LoggerFactory.getLogger(HttpEndpointConfiguration.class);
+
     /** Http url as service destination */
     private String requestUrl;
 
@@ -54,6 +73,24 @@ public class HttpEndpointConfiguration extends AbstractPollableEndpointConfigura
     /** Request factory */
     private ClientHttpRequestFactory requestFactory;
 
+    /** Default request factory created by this configuration, destroyed on destroy */
+    private HttpComponentsClientHttpRequestFactory defaultRequestFactory;
+
+    /** Error handler installed once on rest template, handles error responses according to error handling strategy */
+    private final ResponseErrorHandler responseErrorHandler = new InternalResponseErrorHandler();
+
+    /** Send requests in non blocking asynchronous mode */
+    private boolean async = false;
+
+    /** The async rest template */
+    private AsyncRestTemplate asyncRestTemplate;
+
+    /** Async request factory */
+    private AsyncClientHttpRequestFactory asyncRequestFactory;
+
+    /** Event loop group of default async request factory, shut down on destroy */
+    private EventLoopGroup asyncEventLoopGroup;
+
     /** Resolves dynamic endpoint uri */
     private EndpointUriResolver endpointUriResolver = new DynamicEndpointUriResolver();
 
@@ -72,6 +109,18 @@ public class HttpEndpointConfiguration extends AbstractPollableEndpointConfigura
     /** Reply message correlator */
     private MessageCorrelator correlator = new DefaultMessageCorrelator();
 
+    /** Maximum number of pooled connections used by default request factory */
+    private int maxConnections = 100;
+
+    /** Maximum number of pooled connections per route used by default request factory */
+    private int maxConnectionsPerRoute = 20;
+
+    /** Keep alive time in milliseconds for pooled connections, negative value uses server keep alive header */
+    private long keepAliveTimeout = -1L;
+
+    /** Idle time in milliseconds after which pooled connections get evicted, negative value disables eviction */
+    private long idleConnectionTimeout = -1L;
+
     /**
      * Get the complete request URL.
      * @return the urlPath
@@ -102,6 +151,7 @@ public class HttpEndpointConfiguration extends AbstractPollableEndpointConfigura
      */
     public void setRestTemplate(RestTemplate restTemplate) {
         this.restTemplate = restTemplate;
+        restTemplate.setErrorHandler(responseErrorHandler);
     }
 
     /**
@@ -184,11 +234,97 @@ public class HttpEndpointConfiguration extends AbstractPollableEndpointConfigura
         if (restTemplate == null) {
             restTemplate = new RestTemplate();
             restTemplate.setRequestFactory(getRequestFactory());
+            restTemplate.setErrorHandler(responseErrorHandler);
         }
 
         return restTemplate;
     }
 
+    /**
+     * Gets the async rest template used in asynchronous mode.
+     * @return
+     */
+    public synchronized AsyncRestTemplate getAsyncRestTemplate() {
+        if (asyncRestTemplate == null) {
+            asyncRestTemplate = new AsyncRestTemplate(getAsyncRequestFactory());
+        }
+
+        return asyncRestTemplate;
+    }
+
+    /**
+     * Sets the async rest template used in asynchronous mode.
+     * @param asyncRestTemplate
+     */
+    public synchronized void setAsyncRestTemplate(AsyncRestTemplate asyncRestTemplate) {
+        this.asyncRestTemplate = asyncRestTemplate;
+    }
+
+    /**
+     * Gets the async client request factory. Default factory uses non blocking Netty client
+     * so in flight requests do not occupy a thread each.
+     * @return
+     */
+    public synchronized AsyncClientHttpRequestFactory getAsyncRequestFactory() {
+        if (asyncRequestFactory == null) {
+            asyncEventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("citrus-http-client", true));
+            asyncRequestFactory = new Netty4ClientHttpRequestFactory(asyncEventLoopGroup);
+        }
+
+        return asyncRequestFactory;
+    }
+
+    /**
+     * Closes pooled connections of default request factory and shuts down event loop threads of default async request factory.
+     * Request factories set from outside are not touched as their lifecycle is managed elsewhere.
+     */
+    public synchronized void destroy() {
+        if (defaultRequestFactory != null) {
+            try {
+                defaultRequestFactory.destroy();
+            } catch (Exception e) {
+                log.warn("Failed to close default Http request factory", e);
+            }
+
+            if (requestFactory == defaultRequestFactory) {
+                requestFactory = null;
+            }
+            defaultRequestFactory = null;
+        }
+
+        if (asyncEventLoopGroup != null) {
+            asyncEventLoopGroup.shutdownGracefully();
+            asyncEventLoopGroup = null;
+            asyncRequestFactory = null;
+            asyncRestTemplate = null;
+        }
+    }
+
+    /**
+     * Sets the async client request factory.
+     * @param asyncRequestFactory
+     */
+    public synchronized void setAsyncRequestFactory(AsyncClientHttpRequestFactory asyncRequestFactory) {
+        this.asyncRequestFactory = asyncRequestFactory;
+    }
+
+    /**
+     * Is asynchronous mode enabled.
+     * @return
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Enables asynchronous mode. Send operation returns immediately and response is
+     * stored for later receive operations as soon as it arrives.
+     * @param async
+     */
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
     /**
      * Gets the endpointUriResolver.
      * @return the endpointUriResolver
@@ -242,19 +378,62 @@ public class HttpEndpointConfiguration extends AbstractPollableEndpointConfigura
      * Gets the client request factory.
      * @return
      */
-    public ClientHttpRequestFactory getRequestFactory() {
+    public synchronized ClientHttpRequestFactory getRequestFactory() {
         if (requestFactory == null) {
-            requestFactory = new HttpComponentsClientHttpRequestFactory();
+            defaultRequestFactory = new HttpComponentsClientHttpRequestFactory(createHttpClient());
+            requestFactory = defaultRequestFactory;
         }
 
         return requestFactory;
     }
 
+    /**
+     * Creates default Http client with pooled connection manager that is able to serve concurrent requests.
+     * @return
+     */
+    private org.apache.http.client.HttpClient createHttpClient() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+
+        HttpClientBuilder httpClientBuilder = HttpClientBuilder.create()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager);
+
+        if (keepAliveTimeout >= 0) {
+            httpClientBuilder.setKeepAliveStrategy(new ConnectionKeepAliveStrategy() {
+                @Override
+                public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                    BasicHeaderElementIterator headers = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+                    while (headers.hasNext()) {
+                        HeaderElement header = headers.nextElement();
+                        if (header.getValue() != null && header.getName().equalsIgnoreCase("timeout")) {
+                            try {
+                                return Math.min(Long.parseLong(header.getValue()) * 1000L, keepAliveTimeout);
+                            } catch (NumberFormatException e) {
+                                break;
+                            }
+                        }
+                    }
+
+                    return keepAliveTimeout;
+                }
+            });
+        }
+
+        if (idleConnectionTimeout >= 0) {
+            httpClientBuilder.evictExpiredConnections()
+                    .evictIdleConnections(idleConnectionTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        return httpClientBuilder.build();
+    }
+
     /**
      * Sets the client request factory.
      * @param requestFactory
      */
-    public void setRequestFactory(ClientHttpRequestFactory requestFactory) {
+    public synchronized void setRequestFactory(ClientHttpRequestFactory requestFactory) {
         this.requestFactory = requestFactory;
     }
 
@@ -274,4 +453,85 @@ public class HttpEndpointConfiguration extends AbstractPollableEndpointConfigura
         this.messageConverter = messageConverter;
     }
 
+    /**
+     * Gets the maximum number of pooled connections.
+     * @return
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Sets the maximum number of pooled connections used by default request factory.
+     * @param maxConnections
+     */
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    /**
+     * Gets the maximum number of pooled connections per route.
+     * @return
+     */
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    /**
+     * Sets the maximum number of pooled connections per route used by default request factory.
+     * @param maxConnectionsPerRoute
+     */
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    /**
+     * Gets the keep alive timeout for pooled connections.
+     * @return
+     */
+    public long getKeepAliveTimeout() {
+        return keepAliveTimeout;
+    }
+
+    /**
+     * Sets the keep alive timeout in milliseconds for pooled connections used by default request factory.
+     * @param keepAliveTimeout
+     */
+    public void setKeepAliveTimeout(long keepAliveTimeout) {
+        this.keepAliveTimeout = keepAliveTimeout;
+    }
+
+    /**
+     * Gets the idle connection timeout.
+     * @return
+     */
+    public long getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    /**
+     * Sets the idle time in milliseconds after which pooled connections of default request factory get evicted.
+     * @param idleConnectionTimeout
+     */
+    public void setIdleConnectionTimeout(long idleConnectionTimeout) {
+        this.idleConnectionTimeout = idleConnectionTimeout;
+    }
+
+
+    /**
+     * Handles error response messages according to error handling strategy. Propagated error responses are not
+     * treated as error so the rest template returns them as usual response to the calling client.
+     */
+    private class InternalResponseErrorHandler extends DefaultResponseErrorHandler {
+        @Override
+        public boolean hasError(ClientHttpResponse response) throws IOException {
+            if (errorHandlingStrategy.equals(ErrorHandlingStrategy.PROPAGATE)) {
+                return false;
+            } else if (errorHandlingStrategy.equals(ErrorHandlingStrategy.THROWS_EXCEPTION)) {
+                return super.hasError(response);
+            } else {
+                throw new CitrusRuntimeException("Unsupported error strategy: " + errorHandlingStrategy);
+            }
+        }
+    }
 }
@@ -59,6 +59,12 @@ public class HttpClientParser extends AbstractEndpointParser {
         }
 
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("request-url"), "requestUrl");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("async"), "async");
+        BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration, element.getAttribute("async-rest-template"), "asyncRestTemplate");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("max-connections"), "maxConnections");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("max-connections-per-route"), "maxConnectionsPerRoute");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("keep-alive-timeout"), "keepAliveTimeout");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("idle-connection-timeout"), "idleConnectionTimeout");
 
         String requestMethod = element.getAttribute("request-method");
         if (StringUtils.hasText(requestMethod)) {
@@ -71,6 +77,7 @@ public class HttpClientParser extends AbstractEndpointParser {
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("charset"), "charset");
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("content-type"), "contentType");
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("polling-interval"), "pollingInterval");
+        BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration, element.getAttribute("object-store"), "objectStore");
 
         if (element.hasAttribute("error-strategy")) {
             endpointConfiguration.addPropertyValue("errorHandlingStrategy",
@@ -47,6 +47,12 @@ public class HttpServerParser extends AbstractServerParser {
         BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("root-parent-context"), "useRootContextAsParent");
         BeanDefinitionParserUtils.setPropertyReference(builder, element.getAttribute("connectors"), "connectors");
         BeanDefinitionParserUtils.setPropertyReference(builder, element.getAttribute("connector"), "connector");
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("min-threads"), "minThreads");
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("max-threads"), "maxThreads");
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("acceptors"), "acceptors");
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("selectors"), "selectors");
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("accept-queue-size"), "acceptQueueSize");
+        BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("idle-timeout"), "idleTimeout");
 
         BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("servlet-name"), "servletName");
         BeanDefinitionParserUtils.setPropertyValue(builder, element.getAttribute("servlet-mapping-path"), "servletMappingPath");
@@ -22,10 +22,10 @@ import com.consol.citrus.http.servlet.CitrusDispatcherServlet;
 import com.consol.citrus.http.servlet.RequestCachingServletFilter;
 import com.consol.citrus.server.AbstractServer;
 import org.eclipse.jetty.security.SecurityHandler;
-import org.eclipse.jetty.server.Connector;
-import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.*;
 import org.eclipse.jetty.server.handler.*;
 import org.eclipse.jetty.servlet.*;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
@@ -95,6 +95,27 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
     /** Message converter */
     private HttpMessageConverter messageConverter = new HttpMessageConverter();
 
+    /** Minimum number of server threads */
+    private int minThreads = 8;
+
+    /** Maximum number of server threads */
+    private int maxThreads = 200;
+
+    /** Number of acceptor threads on default connector, negative value uses Jetty default */
+    private int acceptors = -1;
+
+    /** Number of selector threads on default connector, negative value uses Jetty default */
+    private int selectors = -1;
+
+    /** Accept queue size of default connector, zero uses operating system default */
+    private int acceptQueueSize = 0;
+
+    /** Idle timeout in milliseconds of connections on default connector */
+    private long idleTimeout = 30000L;
+
+    /** Server thread pool */
+    private QueuedThreadPool threadPool;
+
     @Override
     protected void shutdown() {
         if (jettyServer != null) {
@@ -111,14 +132,22 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
     @Override
     protected void startup() {
         synchronized (serverLock) {
+            threadPool = new QueuedThreadPool(maxThreads, minThreads);
+            threadPool.setName(getName() + "-qtp");
+
+            jettyServer = new Server(threadPool);
+
             if (connectors != null && connectors.length > 0) {
-                jettyServer = new Server();
                 jettyServer.setConnectors(connectors);
             } else if (connector != null) {
-                jettyServer = new Server();
                 jettyServer.addConnector(connector);
             } else {
-                jettyServer = new Server(port);
+                ServerConnector serverConnector = new ServerConnector(jettyServer, acceptors, selectors);
+                serverConnector.setPort(port);
+                serverConnector.setAcceptQueueSize(acceptQueueSize);
+                serverConnector.setIdleTimeout(idleTimeout);
+
+                jettyServer.addConnector(serverConnector);
             }
             
             HandlerCollection handlers = new HandlerCollection();
@@ -204,6 +233,33 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
         servletHandler.addFilter(filterHolder, filterMapping);
     }
 
+    /**
+     * Gets the number of server threads currently busy with processing requests.
+     * Returns -1 when server is not started.
+     * @return
+     */
+    public int getBusyThreads() {
+        return threadPool != null ? threadPool.getBusyThreads() : -1;
+    }
+
+    /**
+     * Gets the number of server threads currently in pool.
+     * Returns -1 when server is not started.
+     * @return
+     */
+    public int getThreads() {
+        return threadPool != null ? threadPool.getThreads() : -1;
+    }
+
+    /**
+     * Gets the number of jobs waiting for a free server thread.
+     * Returns -1 when server is not started.
+     * @return
+     */
+    public int getQueueSize() {
+        return threadPool != null ? threadPool.getQueueSize() : -1;
+    }
+
     /**
      * Gets the customized servlet name or default name if not set.
      * @return the servletName
@@ -550,4 +606,100 @@ public class HttpServer extends AbstractServer implements ApplicationContextAwar
     public void setMessageConverter(HttpMessageConverter messageConverter) {
         this.messageConverter = messageConverter;
     }
+
+    /**
+     * Gets the minimum number of server threads.
+     * @return the minThreads the minThreads to get.
+     */
+    public int getMinThreads() {
+        return minThreads;
+    }
+
+    /**
+     * Sets the minimum number of server threads.
+     * @param minThreads the minThreads to set
+     */
+    public void setMinThreads(int minThreads) {
+        this.minThreads = minThreads;
+    }
+
+    /**
+     * Gets the maximum number of server threads.
+     * @return the maxThreads the maxThreads to get.
+     */
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Sets the maximum number of server threads.
+     * @param maxThreads the maxThreads to set
+     */
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    /**
+     * Gets the number of acceptor threads.
+     * @return the acceptors the acceptors to get.
+     */
+    public int getAcceptors() {
+        return acceptors;
+    }
+
+    /**
+     * Sets the number of acceptor threads.
+     * @param acceptors the acceptors to set
+     */
+    public void setAcceptors(int acceptors) {
+        this.acceptors = acceptors;
+    }
+
+    /**
+     * Gets the number of selector threads.
+     * @return the selectors the selectors to get.
+     */
+    public int getSelectors() {
+        return selectors;
+    }
+
+    /**
+     * Sets the number of selector threads.
+     * @param selectors the selectors to set
+     */
+    public void setSelectors(int selectors) {
+        this.selectors = selectors;
+    }
+
+    /**
+     * Gets the accept queue size.
+     * @return the acceptQueueSize the acceptQueueSize to get.
+     */
+    public int getAcceptQueueSize() {
+        return acceptQueueSize;
+    }
+
+    /**
+     * Sets the accept queue size.
+     * @param acceptQueueSize the acceptQueueSize to set
+     */
+    public void setAcceptQueueSize(int acceptQueueSize) {
+        this.acceptQueueSize = acceptQueueSize;
+    }
+
+    /**
+     * Gets the connection idle timeout.
+     * @return the idleTimeout the idleTimeout to get.
+     */
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * Sets the connection idle timeout.
+     * @param idleTimeout the idleTimeout to set
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
 }
@@ -19,15 +19,28 @@ package com.consol.citrus.http.client;
 import com.consol.citrus.endpoint.resolver.EndpointUriResolver;
 import com.consol.citrus.http.message.HttpMessage;
 import com.consol.citrus.message.*;
+import com.consol.citrus.report.MessageListener;
+import com.consol.citrus.report.MessageListeners;
 import com.consol.citrus.testng.AbstractTestNGUnitTest;
 import org.easymock.EasyMock;
 import org.easymock.IAnswer;
 import org.springframework.http.*;
+import org.springframework.http.client.AsyncClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.concurrent.SettableListenableFuture;
 import org.springframework.web.client.*;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
-import java.util.List;
+import java.io.IOException;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static org.easymock.EasyMock.*;
 
@@ -37,6 +50,7 @@ import static org.easymock.EasyMock.*;
 public class HttpClientTest extends AbstractTestNGUnitTest {
 
     private RestTemplate restTemplate = EasyMock.createMock(RestTemplate.class);
+    private AsyncRestTemplate asyncRestTemplate = EasyMock.createMock(AsyncRestTemplate.class);
 
     @Test
     public void testHttpPostRequest() {
@@ -51,8 +65,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         Message requestMessage = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -76,6 +88,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, endpointConfiguration.getTimeout());
@@ -102,8 +116,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
         Message requestMessage = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>")
                 .setHeader("Operation", "foo");
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -128,6 +140,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, endpointConfiguration.getTimeout());
@@ -155,8 +169,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
                 .contentType("application/xml;charset=UTF-8")
                 .accept("application/xml");
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -181,6 +193,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, endpointConfiguration.getTimeout());
@@ -205,8 +219,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
         HttpMessage requestMessage = new HttpMessage("<TestRequest><Message>Hello World!</Message></TestRequest>")
                 .method(HttpMethod.GET);
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -230,6 +242,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, endpointConfiguration.getTimeout());
@@ -253,8 +267,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         Message requestMessage = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -278,6 +290,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, endpointConfiguration.getTimeout());
@@ -301,8 +315,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         Message requestMessage = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -326,6 +338,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, endpointConfiguration.getTimeout());
@@ -352,8 +366,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         Message requestMessage = new HttpMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate, correlator);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -369,6 +381,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate, correlator);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive("correlationKey", context, endpointConfiguration.getTimeout());
@@ -395,8 +409,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
         EndpointUriResolver endpointUriResolver = EasyMock.createMock(EndpointUriResolver.class);
         endpointConfiguration.setEndpointUriResolver(endpointUriResolver);
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate, endpointUriResolver);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -411,6 +423,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate, endpointUriResolver);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, endpointConfiguration.getTimeout());
@@ -436,8 +450,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         Message requestMessage = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -450,6 +462,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         httpClient.send(requestMessage, context);
 
         HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, 1000L);
@@ -472,8 +486,6 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         Message requestMessage = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
 
-        endpointConfiguration.setRestTemplate(restTemplate);
-
         reset(restTemplate);
 
         restTemplate.setInterceptors(anyObject(List.class));
@@ -486,6 +498,8 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
 
         replay(restTemplate);
 
+        endpointConfiguration.setRestTemplate(restTemplate);
+
         try {
             httpClient.send(requestMessage, context);
 
@@ -496,4 +510,263 @@ public class HttpClientTest extends AbstractTestNGUnitTest {
             verify(restTemplate);
         }
     }
+
+    @Test
+    public void testConcurrentErrorResponses() throws Exception {
+        final HttpEndpointConfiguration endpointConfiguration = new HttpEndpointConfiguration();
+        final HttpClient httpClient = new HttpClient(endpointConfiguration);
+
+        endpointConfiguration.setRequestMethod(HttpMethod.POST);
+        endpointConfiguration.setRequestUrl("http://localhost:8088/test");
+
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        endpointConfiguration.setRequestFactory(new ClientHttpRequestFactory() {
+            @Override
+            public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+                return new MockClientHttpRequest(httpMethod, uri) {
+                    @Override
+                    protected ClientHttpResponse executeInternal() throws IOException {
+                        try {
+                            barrier.await(5, TimeUnit.SECONDS);
+                        } catch (Exception e) {
+                            throw new IOException(e);
+                        }
+
+                        return new MockClientHttpResponse(getBodyAsBytes(), HttpStatus.INTERNAL_SERVER_ERROR);
+                    }
+                };
+            }
+        });
+
+        List<Future<String>> results = new ArrayList<Future<String>>();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (final String payload : Arrays.asList("<Foo/>", "<Bar/>")) {
+                results.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        HttpMessage requestMessage = new HttpMessage(payload);
+                        httpClient.send(requestMessage, context);
+                        return httpClient.receive(endpointConfiguration.getCorrelator().getCorrelationKey(requestMessage), context, 1000L).getPayload(String.class);
+                    }
+                }));
+            }
+
+            Assert.assertEquals(results.get(0).get(5, TimeUnit.SECONDS), "<Foo/>");
+            Assert.assertEquals(results.get(1).get(5, TimeUnit.SECONDS), "<Bar/>");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAsyncRequests() {
+        HttpEndpointConfiguration endpointConfiguration = new HttpEndpointConfiguration();
+        HttpClient httpClient = new HttpClient(endpointConfiguration);
+        String requestUrl = "http://localhost:8088/test";
+
+        endpointConfiguration.setRequestMethod(HttpMethod.POST);
+        endpointConfiguration.setRequestUrl(requestUrl);
+        endpointConfiguration.setAsync(true);
+        endpointConfiguration.setAsyncRestTemplate(asyncRestTemplate);
+
+        HttpMessage fooRequest = new HttpMessage("<FooRequest/>");
+        HttpMessage barRequest = new HttpMessage("<BarRequest/>");
+
+        SettableListenableFuture<ResponseEntity<String>> fooResponse = new SettableListenableFuture<ResponseEntity<String>>();
+        SettableListenableFuture<ResponseEntity<String>> barResponse = new SettableListenableFuture<ResponseEntity<String>>();
+
+        reset(asyncRestTemplate);
+
+        expect(asyncRestTemplate.exchange(eq(requestUrl), eq(HttpMethod.POST), anyObject(HttpEntity.class), eq(String.class)))
+                .andReturn(fooResponse).once();
+        expect(asyncRestTemplate.exchange(eq(requestUrl), eq(HttpMethod.POST), anyObject(HttpEntity.class), eq(String.class)))
+                .andReturn(barResponse).once();
+
+        replay(asyncRestTemplate);
+
+        httpClient.send(fooRequest, context);
+        httpClient.send(barRequest, context);
+
+        barResponse.set(new ResponseEntity<String>("<BarResponse/>", HttpStatus.OK));
+        fooResponse.set(new ResponseEntity<String>("<FooResponse/>", HttpStatus.OK));
+
+        Assert.assertEquals(httpClient.receive(endpointConfiguration.getCorrelator().getCorrelationKey(fooRequest), context, 1000L).getPayload(String.class), "<FooResponse/>");
+        Assert.assertEquals(httpClient.receive(endpointConfiguration.getCorrelator().getCorrelationKey(barRequest), context, 1000L).getPayload(String.class), "<BarResponse/>");
+
+        verify(asyncRestTemplate);
+    }
+
+    @Test
+    public void testAsyncResponseMessageListener() {
+        HttpEndpointConfiguration endpointConfiguration = new HttpEndpointConfiguration();
+        HttpClient httpClient = new HttpClient(endpointConfiguration);
+        String requestUrl = "http://localhost:8088/test";
+
+        endpointConfiguration.setRequestMethod(HttpMethod.POST);
+        endpointConfiguration.setRequestUrl(requestUrl);
+        endpointConfiguration.setAsync(true);
+        endpointConfiguration.setAsyncRestTemplate(asyncRestTemplate);
+
+        MessageListener messageListener = EasyMock.createMock(MessageListener.class);
+        MessageListeners messageListeners = new MessageListeners();
+        messageListeners.addMessageListener(messageListener);
+        context.setMessageListeners(messageListeners);
+
+        SettableListenableFuture<ResponseEntity<String>> response = new SettableListenableFuture<ResponseEntity<String>>();
+
+        reset(asyncRestTemplate, messageListener);
+
+        expect(asyncRestTemplate.exchange(eq(requestUrl), eq(HttpMethod.POST), anyObject(HttpEntity.class), eq(String.class)))
+                .andReturn(response).once();
+
+        messageListener.onOutboundMessage(anyObject(Message.class), eq(context));
+        expectLastCall().once();
+        messageListener.onInboundMessage(anyObject(Message.class), eq(context));
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            public Object answer() throws Throwable {
+                Assert.assertEquals(((Message) getCurrentArguments()[0]).getPayload(String.class), "<TestResponse/>");
+                return null;
+            }
+        }).once();
+
+        replay(asyncRestTemplate, messageListener);
+
+        httpClient.send(new HttpMessage("<TestRequest/>"), context);
+        response.set(new ResponseEntity<String>("<TestResponse/>", HttpStatus.OK));
+
+        Assert.assertEquals(httpClient.receive(context, 1000L).getPayload(String.class), "<TestResponse/>");
+
+        verify(asyncRestTemplate, messageListener);
+    }
+
+    @Test
+    public void testAsyncErrorResponsePropagateStrategy() {
+        HttpEndpointConfiguration endpointConfiguration = new HttpEndpointConfiguration();
+        HttpClient httpClient = new HttpClient(endpointConfiguration);
+        String requestUrl = "http://localhost:8088/test";
+
+        endpointConfiguration.setRequestMethod(HttpMethod.POST);
+        endpointConfiguration.setRequestUrl(requestUrl);
+        endpointConfiguration.setAsync(true);
+        endpointConfiguration.setAsyncRestTemplate(asyncRestTemplate);
+
+        SettableListenableFuture<ResponseEntity<String>> response = new SettableListenableFuture<ResponseEntity<String>>();
+        response.setException(new HttpClientErrorException(HttpStatus.FORBIDDEN, "FORBIDDEN", new HttpHeaders(), "<Forbidden/>".getBytes(), null));
+
+        reset(asyncRestTemplate);
+
+        expect(asyncRestTemplate.exchange(eq(requestUrl), eq(HttpMethod.POST), anyObject(HttpEntity.class), eq(String.class)))
+                .andReturn(response).once();
+
+        replay(asyncRestTemplate);
+
+        httpClient.send(new HttpMessage("<TestRequest/>"), context);
+
+        HttpMessage responseMessage = (HttpMessage) httpClient.receive(context, 1000L);
+        Assert.assertEquals(responseMessage.getStatusCode(), HttpStatus.FORBIDDEN);
+        Assert.assertEquals(responseMessage.getPayload(String.class), "<Forbidden/>");
+
+        verify(asyncRestTemplate);
+    }
+
+    @Test
+    public void testAsyncRequestFailure() {
+        HttpEndpointConfiguration endpointConfiguration = new HttpEndpointConfiguration();
+        HttpClient httpClient = new HttpClient(endpointConfiguration);
+        String requestUrl = "http://localhost:8088/test";
+
+        endpointConfiguration.setRequestMethod(HttpMethod.POST);
+        endpointConfiguration.setRequestUrl(requestUrl);
+        endpointConfiguration.setAsync(true);
+        endpointConfiguration.setAsyncRestTemplate(asyncRestTemplate);
+
+        SettableListenableFuture<ResponseEntity<String>> response = new SettableListenableFuture<ResponseEntity<String>>();
+        response.setException(new ResourceAccessException("Connection refused"));
+
+        reset(asyncRestTemplate);
+
+        expect(asyncRestTemplate.exchange(eq(requestUrl), eq(HttpMethod.POST), anyObject(HttpEntity.class), eq(String.class)))
+                .andReturn(response).once();
+
+        replay(asyncRestTemplate);
+
+        httpClient.send(new HttpMessage("<TestRequest/>"), context);
+
+        long start = System.currentTimeMillis();
+        try {
+            httpClient.receive(context, 10000L);
+            Assert.fail("Missing exception due to failed asynchronous request");
+        } catch (ResourceAccessException e) {
+            Assert.assertEquals(e.getMessage(), "Connection refused");
+        }
+
+        Assert.assertTrue(System.currentTimeMillis() - start < 5000L, "Receive must not wait for timeout on failed request");
+
+        verify(asyncRestTemplate);
+    }
+
+    @Test
+    public void testDestroyDefaultAsyncRequestFactory() throws Exception {
+        HttpEndpointConfiguration endpointConfiguration = new HttpEndpointConfiguration();
+        HttpClient httpClient = new HttpClient(endpointConfiguration);
+
+        AsyncClientHttpRequestFactory requestFactory = endpointConfiguration.getAsyncRequestFactory();
+        Assert.assertSame(endpointConfiguration.getAsyncRequestFactory(), requestFactory);
+
+        httpClient.destroy();
+
+        Assert.assertNotSame(endpointConfiguration.getAsyncRequestFactory(), requestFactory);
+        httpClient.destroy();
+    }
+
+    @Test
+    public void testSharedRestTemplateErrorResponses() {
+        RestTemplate sharedRestTemplate = new RestTemplate(new ClientHttpRequestFactory() {
+            @Override
+            public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+                return new MockClientHttpRequest(httpMethod, uri) {
+                    @Override
+                    protected ClientHttpResponse executeInternal() throws IOException {
+                        return new MockClientHttpResponse(getBodyAsBytes(), HttpStatus.INTERNAL_SERVER_ERROR);
+                    }
+                };
+            }
+        });
+
+        HttpEndpointConfiguration fooConfiguration = new HttpEndpointConfiguration();
+        fooConfiguration.setRequestUrl("http://localhost:8088/foo");
+        fooConfiguration.setRestTemplate(sharedRestTemplate);
+        HttpClient fooClient = new HttpClient(fooConfiguration);
+
+        HttpEndpointConfiguration barConfiguration = new HttpEndpointConfiguration();
+        barConfiguration.setRequestUrl("http://localhost:8088/bar");
+        barConfiguration.setRestTemplate(sharedRestTemplate);
+        HttpClient barClient = new HttpClient(barConfiguration);
+
+        fooClient.send(new HttpMessage("<Foo/>"), context);
+        HttpMessage responseMessage = (HttpMessage) fooClient.receive(context, 1000L);
+        Assert.assertEquals(responseMessage.getStatusCode(), HttpStatus.INTERNAL_SERVER_ERROR);
+        Assert.assertEquals(responseMessage.getPayload(String.class), "<Foo/>");
+
+        barClient.send(new HttpMessage("<Bar/>"), context);
+        responseMessage = (HttpMessage) barClient.receive(context, 1000L);
+        Assert.assertEquals(responseMessage.getStatusCode(), HttpStatus.INTERNAL_SERVER_ERROR);
+        Assert.assertEquals(responseMessage.getPayload(String.class), "<Bar/>");
+    }
+
+    @Test
+    public void testDestroyDefaultRequestFactory() throws Exception {
+        HttpEndpointConfiguration endpointConfiguration = new HttpEndpointConfiguration();
+        HttpClient httpClient = new HttpClient(endpointConfiguration);
+
+        ClientHttpRequestFactory requestFactory = endpointConfiguration.getRequestFactory();
+        Assert.assertTrue(requestFactory instanceof HttpComponentsClientHttpRequestFactory);
+        Assert.assertSame(endpointConfiguration.getRequestFactory(), requestFactory);
+
+        httpClient.destroy();
+
+        Assert.assertNotSame(endpointConfiguration.getRequestFactory(), requestFactory);
+        httpClient.destroy();
+    }
 }
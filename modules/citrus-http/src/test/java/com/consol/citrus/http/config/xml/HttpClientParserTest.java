@@ -19,6 +19,7 @@ package com.consol.citrus.http.config.xml;
 import com.consol.citrus.TestActor;
 import com.consol.citrus.http.client.HttpClient;
 import com.consol.citrus.message.DefaultMessageCorrelator;
+import com.consol.citrus.message.correlation.ExpiringObjectStore;
 import com.consol.citrus.testng.AbstractBeanDefinitionParserTest;
 import org.springframework.beans.factory.parsing.BeanDefinitionParsingException;
 import org.springframework.http.HttpMethod;
@@ -49,6 +50,12 @@ public class HttpClientParserTest extends AbstractBeanDefinitionParserTest {
         Assert.assertEquals(httpClient.getEndpointConfiguration().getRequestMethod(), HttpMethod.POST);
         Assert.assertEquals(httpClient.getEndpointConfiguration().getCorrelator().getClass(), DefaultMessageCorrelator.class);
         Assert.assertEquals(httpClient.getEndpointConfiguration().getTimeout(), 5000L);
+        Assert.assertFalse(httpClient.getEndpointConfiguration().isAsync());
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getMaxConnections(), 100);
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getMaxConnectionsPerRoute(), 20);
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getKeepAliveTimeout(), -1L);
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getIdleConnectionTimeout(), -1L);
+        Assert.assertNull(httpClient.getEndpointConfiguration().getObjectStore());
 
 
         // 2nd message sender
@@ -71,6 +78,8 @@ public class HttpClientParserTest extends AbstractBeanDefinitionParserTest {
         Assert.assertEquals(httpClient.getEndpointConfiguration().getRequestUrl(), "http://localhost:8080/test");
         Assert.assertNotNull(httpClient.getEndpointConfiguration().getCorrelator());
         Assert.assertEquals(httpClient.getEndpointConfiguration().getCorrelator(), beanDefinitionContext.getBean("replyMessageCorrelator"));
+        Assert.assertTrue(httpClient.getEndpointConfiguration().isAsync());
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getAsyncRestTemplate(), beanDefinitionContext.getBean("asyncRestTemplate"));
 
         // 4th message sender
         httpClient = clients.get("httpClient4");
@@ -80,6 +89,11 @@ public class HttpClientParserTest extends AbstractBeanDefinitionParserTest {
         Assert.assertNotNull(httpClient.getEndpointConfiguration().getClientInterceptors());
         Assert.assertEquals(httpClient.getEndpointConfiguration().getClientInterceptors().get(0), beanDefinitionContext.getBean("clientInterceptor"));
         Assert.assertEquals(httpClient.getEndpointConfiguration().getPollingInterval(), 250L);
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getMaxConnections(), 50);
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getMaxConnectionsPerRoute(), 25);
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getKeepAliveTimeout(), 30000L);
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getIdleConnectionTimeout(), 60000L);
+        Assert.assertEquals(httpClient.getEndpointConfiguration().getObjectStore(), beanDefinitionContext.getBean("objectStore", ExpiringObjectStore.class));
     }
 
     @Test
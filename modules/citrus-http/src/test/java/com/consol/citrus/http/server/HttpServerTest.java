@@ -60,6 +60,11 @@ public class HttpServerTest extends AbstractTestNGUnitTest {
         server.setPort(port);
         server.setApplicationContext(applicationContext);
         server.setContextConfigLocation("classpath:com/consol/citrus/http/HttpServerTest-http-servlet.xml");
+        server.setMinThreads(4);
+        server.setMaxThreads(20);
+        server.setAcceptQueueSize(128);
+
+        Assert.assertEquals(server.getThreads(), -1);
 
         server.startup();
 
@@ -70,6 +75,10 @@ public class HttpServerTest extends AbstractTestNGUnitTest {
         //assert get was successful
         Assert.assertEquals(client.receive(context).getHeader(HttpMessageHeaders.HTTP_STATUS_CODE), HttpStatus.OK.value());
 
+        Assert.assertTrue(server.getThreads() >= 4 && server.getThreads() <= 20, "Unexpected number of server threads: " + server.getThreads());
+        Assert.assertTrue(server.getBusyThreads() >= 0);
+        Assert.assertEquals(server.getQueueSize(), 0);
+
         server.shutdown();
 
         try {
@@ -20,6 +20,8 @@ import com.consol.citrus.container.*;
 import com.consol.citrus.dsl.design.TestDesigner;
 import com.consol.citrus.dsl.runner.TestRunner;
 
+import java.util.concurrent.ExecutorService;
+
 /**
  * @author Christoph Deppisch
  * @since 2.3
@@ -60,4 +62,43 @@ public class ParallelBuilder extends AbstractTestContainerBuilder<Parallel> {
         this(runner, new Parallel());
     }
 
+    /**
+     * Sets the maximum number of nested actions running at the same time.
+     * @param maxConcurrency
+     * @return
+     */
+    public ParallelBuilder maxConcurrency(int maxConcurrency) {
+        action.setMaxConcurrency(maxConcurrency);
+        return this;
+    }
+
+    /**
+     * Sets the overall timeout in milliseconds for all nested actions.
+     * @param timeout
+     * @return
+     */
+    public ParallelBuilder timeout(long timeout) {
+        action.setTimeout(timeout);
+        return this;
+    }
+
+    /**
+     * Enables or disables cancellation of remaining actions on first action error.
+     * @param failFast
+     * @return
+     */
+    public ParallelBuilder failFast(boolean failFast) {
+        action.setFailFast(failFast);
+        return this;
+    }
+
+    /**
+     * Sets the shared executor service running nested actions.
+     * @param executorService
+     * @return
+     */
+    public ParallelBuilder executor(ExecutorService executorService) {
+        action.setExecutorService(executorService);
+        return this;
+    }
 }
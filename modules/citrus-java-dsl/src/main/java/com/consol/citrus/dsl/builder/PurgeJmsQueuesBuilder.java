@@ -135,6 +135,36 @@ public class PurgeJmsQueuesBuilder extends AbstractTestActionBuilder<PurgeJmsQue
 		return this;
 	}
 
+	/**
+	 * Drains all queues concurrently with one session per queue.
+	 * @param parallel
+	 * @return
+	 */
+	public PurgeJmsQueuesBuilder parallel(boolean parallel) {
+		action.setParallel(parallel);
+		return this;
+	}
+
+	/**
+	 * Sets the number of messages acknowledged at once in parallel mode.
+	 * @param batchSize
+	 * @return
+	 */
+	public PurgeJmsQueuesBuilder batchSize(int batchSize) {
+		action.setBatchSize(batchSize);
+		return this;
+	}
+
+	/**
+	 * Enables or disables pending message checks with queue browser in parallel mode.
+	 * @param browseQueues
+	 * @return
+	 */
+	public PurgeJmsQueuesBuilder browseQueues(boolean browseQueues) {
+		action.setBrowseQueues(browseQueues);
+		return this;
+	}
+
 	/**
 	 * Checks if connection factory is set properly.
 	 * @return
@@ -45,7 +45,7 @@ public class TestExecutingEndpointAdapter extends XmlTestExecutingEndpointAdapte
                     mappingName + "' in Spring bean context", e);
         }
 
-        getTaskExecutor().execute(new Runnable() {
+        executeTest(mappingName, new Runnable() {
             public void run() {
                 if (executable instanceof TestRunner) {
                     prepareExecution(request, (TestRunner) executable);
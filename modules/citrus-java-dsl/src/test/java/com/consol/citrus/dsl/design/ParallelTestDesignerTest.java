@@ -71,4 +71,31 @@ public class ParallelTestDesignerTest extends AbstractTestNGUnitTest {
         assertEquals(container.getActionCount(), 3);
         assertEquals(container.getTestAction(0).getClass(), EchoAction.class);
     }
+
+    @Test
+    public void testParallelBuilderExecutionOptions() {
+        MockTestDesigner builder = new MockTestDesigner(applicationContext) {
+            @Override
+            public void configure() {
+                parallel()
+                    .maxConcurrency(2)
+                    .timeout(10000L)
+                    .failFast(true)
+                    .actions(echo("${var}"),
+                        echo("ASDF"));
+            }
+        };
+
+        builder.configure();
+
+        TestCase test = builder.getTestCase();
+        assertEquals(test.getActionCount(), 1);
+        assertEquals(test.getActions().get(0).getClass(), Parallel.class);
+
+        Parallel container = (Parallel)test.getActions().get(0);
+        assertEquals(container.getActionCount(), 2);
+        assertEquals(container.getMaxConcurrency(), 2);
+        assertEquals(container.getTimeout(), 10000L);
+        assertEquals(container.isFailFast(), true);
+    }
 }
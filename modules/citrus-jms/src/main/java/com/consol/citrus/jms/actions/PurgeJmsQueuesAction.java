@@ -27,6 +27,7 @@ import org.springframework.jms.support.destination.DynamicDestinationResolver;
 import javax.jms.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
 
 /**
  * Action to purge JMS queue destinations by simply consuming 
@@ -36,12 +37,22 @@ import java.util.List;
  *
  * Consumer will continue to receive messages until message receive timeout is reached,
  * so no messages are left.
+ *
+ * In parallel mode all queues are drained concurrently each with its own session. Messages are acknowledged in
+ * batches and consumer does not sleep between messages. Concurrent consumers may see delivery gaps longer than the receive
+ * timeout, so by default a queue browser double checks for pending messages when receive timeout is reached and purging
+ * continues as long as the browser reports messages. Each queue is always purged with at least one timed receive,
+ * browser results are never used to stop purging early as brokers may not expose all pending messages to queue browsers.
+ * When queue browsing is disabled parallel purging relies on the receive timeout only.
  *  
  * @author Christoph Deppisch
  * @since 2007
  */
 public class PurgeJmsQueuesAction extends AbstractTestAction {
 
+    /** Maximum number of receive retries after receive timeout while queue browser reports pending messages */
+    private static final int MAX_BROWSE_RETRIES = 10;
+
     /** List of queue names to be purged */
     private List<String> queueNames = new ArrayList<String>();
 
@@ -57,6 +68,15 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
     /** Wait some time between message consumption in ms */
     private long sleepTime = 350;
 
+    /** Drain queues concurrently with one session per queue */
+    private boolean parallel = false;
+
+    /** Number of messages acknowledged at once in parallel mode */
+    private int batchSize = 100;
+
+    /** Check for pending messages with queue browser in parallel mode */
+    private boolean browseQueues = true;
+
     /**
      * Logger
      */
@@ -79,16 +99,21 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
         
         try {
         	connection = createConnection();
-            session = createSession(connection);
-            connection.start();
-            
-            for (Queue queue : queues) {
-                purgeQueue(queue, session);
-            }
-            for (String queueName : queueNames) {
-                purgeQueue(queueName, session);
-            }
 
+            if (parallel) {
+                connection.start();
+                purgeQueuesParallel(connection);
+            } else {
+                session = createSession(connection);
+                connection.start();
+
+                for (Queue queue : queues) {
+                    purgeQueue(queue, session);
+                }
+                for (String queueName : queueNames) {
+                    purgeQueue(queueName, session);
+                }
+            }
         } catch (JMSException e) {
             log.error("Error while establishing jms queue connection", e);
             throw new CitrusRuntimeException(e);
@@ -100,6 +125,85 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
         log.info("JMS queues purged successfully");
     }
 
+    /**
+     * Purges all queues concurrently. Each queue is drained in its own thread with its own session on the shared connection.
+     * @param connection
+     * @throws JMSException
+     */
+    private void purgeQueuesParallel(final Connection connection) throws JMSException {
+        List<Callable<Long>> tasks = new ArrayList<Callable<Long>>();
+
+        for (final Queue queue : queues) {
+            tasks.add(new Callable<Long>() {
+                @Override
+                public Long call() throws JMSException {
+                    return purgeQueueInSession(connection, queue, null);
+                }
+            });
+        }
+
+        for (final String queueName : queueNames) {
+            tasks.add(new Callable<Long>() {
+                @Override
+                public Long call() throws JMSException {
+                    return purgeQueueInSession(connection, null, queueName);
+                }
+            });
+        }
+
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.size());
+        try {
+            long purged = 0L;
+            for (Future<Long> result : executor.invokeAll(tasks)) {
+                purged += result.get();
+            }
+
+            log.info("Purged " + purged + " message(s) from " + tasks.size() + " JMS queue(s)");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CitrusRuntimeException("Interrupted while purging JMS queues", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof JMSException) {
+                throw (JMSException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            throw new CitrusRuntimeException("Failed to purge JMS queues", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Purges a queue with its own client acknowledge session. Queue is either given as destination or resolved by its name.
+     * @param connection
+     * @param queue
+     * @param queueName
+     * @return number of purged messages
+     * @throws JMSException
+     */
+    @SuppressWarnings("PMD.CloseResource") //suppress since session closed via JmsUtils
+    private long purgeQueueInSession(Connection connection, Queue queue, String queueName) throws JMSException {
+        Session session = null;
+
+        try {
+            session = createSession(connection, Session.CLIENT_ACKNOWLEDGE);
+
+            if (queue != null) {
+                return purgeDestination(queue, session, queue.getQueueName());
+            } else {
+                return purgeDestination(getDestination(session, queueName), session, queueName);
+            }
+        } finally {
+            JmsUtils.closeSession(session);
+        }
+    }
+
     /**
      * Purges a queue destination identified by its name.
      * @param queueName
@@ -121,36 +225,86 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
     }
 
     /**
-     * Purge destination by receiving all available messages.
+     * Purge destination by receiving all available messages. In parallel mode messages are acknowledged in batches.
      * @param destination
      * @param session
      * @param destinationName
+     * @return number of purged messages
      * @throws JMSException
      */
-    private void purgeDestination(Destination destination, Session session, String destinationName) throws JMSException {
+    private long purgeDestination(Destination destination, Session session, String destinationName) throws JMSException {
         if (log.isDebugEnabled()) {
             log.debug("Try to purge queue " + destinationName);
         }
 
+        long startTime = System.currentTimeMillis();
+        long purged = 0L;
+
+        boolean browse = parallel && browseQueues && destination instanceof Queue;
+
         MessageConsumer messageConsumer = session.createConsumer(destination);
         try {
-            javax.jms.Message message;
-            do {
-                message = (receiveTimeout >= 0) ? messageConsumer.receive(receiveTimeout) : messageConsumer.receive();
-    
-                if (message != null) {
-                    log.debug("Removed message from queue " + destinationName);
-                    
+            javax.jms.Message unacknowledged = null;
+            int browseRetries = 0;
+
+            while (true) {
+                javax.jms.Message message = (receiveTimeout >= 0) ? messageConsumer.receive(receiveTimeout) : messageConsumer.receive();
+
+                if (message == null) {
+                    if (unacknowledged != null) {
+                        unacknowledged.acknowledge();
+                        unacknowledged = null;
+                    }
+
+                    if (browse && browseRetries++ < MAX_BROWSE_RETRIES && hasPendingMessages((Queue) destination, session)) {
+                        log.debug("Queue browser reports pending messages on queue " + destinationName + " - continue purging");
+                        continue;
+                    }
+
+                    break;
+                }
+
+                purged++;
+                browseRetries = 0;
+                log.debug("Removed message from queue " + destinationName);
+
+                if (parallel) {
+                    unacknowledged = message;
+                    if (purged % Math.max(batchSize, 1) == 0) {
+                        message.acknowledge();
+                        unacknowledged = null;
+                    }
+                } else {
                     try {
                         Thread.sleep(sleepTime);
                     } catch (InterruptedException e) {
                         log.warn("Interrupted during wait", e);
                     }
                 }
-            } while (message != null);
+            }
         } finally {
             JmsUtils.closeMessageConsumer(messageConsumer);
         }
+
+        log.info("Purged " + purged + " message(s) from queue " + destinationName + " in " + (System.currentTimeMillis() - startTime) + " ms");
+
+        return purged;
+    }
+
+    /**
+     * Checks for pending messages on queue using a queue browser.
+     * @param queue
+     * @param session
+     * @return
+     * @throws JMSException
+     */
+    private boolean hasPendingMessages(Queue queue, Session session) throws JMSException {
+        QueueBrowser queueBrowser = session.createBrowser(queue);
+        try {
+            return queueBrowser.getEnumeration().hasMoreElements();
+        } finally {
+            queueBrowser.close();
+        }
     }
     
     /**
@@ -183,10 +337,21 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
      * @throws JMSException
      */
     protected Session createSession(Connection connection) throws JMSException {
+        return createSession(connection, Session.AUTO_ACKNOWLEDGE);
+    }
+
+    /**
+     * Create queue session with acknowledge mode.
+     * @param connection
+     * @param acknowledgeMode
+     * @return
+     * @throws JMSException
+     */
+    protected Session createSession(Connection connection, int acknowledgeMode) throws JMSException {
         if (connection instanceof QueueConnection) {
-            return ((QueueConnection) connection).createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+            return ((QueueConnection) connection).createQueueSession(false, acknowledgeMode);
         }
-        return connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        return connection.createSession(false, acknowledgeMode);
     }
 
     /**
@@ -268,4 +433,51 @@ public class PurgeJmsQueuesAction extends AbstractTestAction {
         return sleepTime;
     }
 
+    /**
+     * Gets the parallel.
+     * @return the parallel the parallel to get.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets the parallel.
+     * @param parallel the parallel to set
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * Gets the batchSize.
+     * @return the batchSize the batchSize to get.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the batchSize.
+     * @param batchSize the batchSize to set
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Gets the browseQueues.
+     * @return the browseQueues the browseQueues to get.
+     */
+    public boolean isBrowseQueues() {
+        return browseQueues;
+    }
+
+    /**
+     * Sets the browseQueues.
+     * @param browseQueues the browseQueues to set
+     */
+    public void setBrowseQueues(boolean browseQueues) {
+        this.browseQueues = browseQueues;
+    }
 }
@@ -78,6 +78,8 @@ public abstract class AbstractJmsEndpointParser extends AbstractEndpointParser {
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("pub-sub-domain"), "pubSubDomain");
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("use-object-messages"), "useObjectMessages");
         BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration, element.getAttribute("message-converter"), "messageConverter");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("cache-consumers"), "cacheConsumers");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("consumer-cache-size"), "consumerCacheSize");
     }
 
 }
@@ -58,5 +58,9 @@ public class JmsSyncEndpointParser extends AbstractJmsEndpointParser {
 
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration,
                 element.getAttribute("polling-interval"), "pollingInterval");
+        BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration,
+                element.getAttribute("object-store"), "objectStore");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration,
+                element.getAttribute("shared-reply-consumer"), "sharedReplyConsumer");
     }
 }
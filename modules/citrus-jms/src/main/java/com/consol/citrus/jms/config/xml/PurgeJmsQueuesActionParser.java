@@ -62,6 +62,9 @@ public class PurgeJmsQueuesActionParser implements BeanDefinitionParser {
         beanDefinition.addPropertyReference("connectionFactory", connectionFactory);
         
         BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("receive-timeout"), "receiveTimeout");
+        BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("parallel"), "parallel");
+        BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("batch-size"), "batchSize");
+        BeanDefinitionParserUtils.setPropertyValue(beanDefinition, element.getAttribute("browse-queues"), "browseQueues");
         
         List<String> queueNames = new ArrayList<String>();
         ManagedList<BeanDefinition> queueRefs = new ManagedList<BeanDefinition>();
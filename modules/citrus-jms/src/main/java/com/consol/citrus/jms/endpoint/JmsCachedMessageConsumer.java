@@ -0,0 +1,95 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.jms.endpoint;
+
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.util.StringUtils;
+
+import javax.jms.*;
+
+/**
+ * Cached message consumer on a destination with optional message selector. Consumer keeps its own session open across
+ * receive operations. The JMS message consumer itself is only open while a receive operation is waiting for a message.
+ *
+ * Idle long living JMS message consumers would keep messages that the JMS provider has dispatched in advance (e.g. ActiveMQ
+ * prefetches up to 1000 messages on auto acknowledged queue consumers) so other consumers on the same destination would
+ * starve. Closing the message consumer after each receive returns these messages to the provider right away.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public class JmsCachedMessageConsumer {
+
+    /** Dedicated session of this consumer */
+    private final Session session;
+
+    /** Destination to receive messages from */
+    private final Destination destination;
+
+    /** Optional message selector */
+    private final String selector;
+
+    /** Do not receive messages published by own connection */
+    private final boolean noLocal;
+
+    /**
+     * Default constructor creating session on given connection.
+     * @param connection
+     * @param destination
+     * @param selector
+     * @param noLocal
+     * @throws JMSException
+     */
+    public JmsCachedMessageConsumer(Connection connection, Destination destination, String selector, boolean noLocal) throws JMSException {
+        this.session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        this.destination = destination;
+        this.selector = StringUtils.hasText(selector) ? selector : null;
+        this.noLocal = noLocal;
+    }
+
+    /**
+     * Waits for next message on a new message consumer that is closed afterwards. Negative timeout waits forever.
+     * Receive operations are serialized as sessions must not be used by multiple threads concurrently.
+     * @param timeout
+     * @return the message or null when timeout is exceeded.
+     * @throws JMSException
+     */
+    public synchronized Message receive(long timeout) throws JMSException {
+        MessageConsumer messageConsumer;
+        if (destination instanceof Topic) {
+            messageConsumer = session.createConsumer(destination, selector, noLocal);
+        } else {
+            messageConsumer = session.createConsumer(destination, selector);
+        }
+
+        try {
+            if (timeout >= 0) {
+                return messageConsumer.receive(timeout);
+            } else {
+                return messageConsumer.receive();
+            }
+        } finally {
+            JmsUtils.closeMessageConsumer(messageConsumer);
+        }
+    }
+
+    /**
+     * Closes session.
+     */
+    public void close() {
+        JmsUtils.closeSession(session);
+    }
+}
@@ -18,12 +18,22 @@ package com.consol.citrus.jms.endpoint;
 
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.ActionTimeoutException;
+import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.messaging.AbstractSelectiveMessageConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jms.connection.ConnectionFactoryUtils;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.SessionCallback;
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.util.StringUtils;
 
+import javax.jms.*;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * @author Christoph Deppisch
  * @since 1.4
@@ -36,6 +46,12 @@ public class JmsConsumer extends AbstractSelectiveMessageConsumer {
     /** Endpoint configuration */
     private final JmsEndpointConfiguration endpointConfiguration;
 
+    /** Cached message consumers by message selector in least recently used order */
+    private final Map<String, JmsCachedMessageConsumer> cachedConsumers = new LinkedHashMap<String, JmsCachedMessageConsumer>(16, 0.75f, true);
+
+    /** Connection shared by cached message consumers */
+    private Connection connection;
+
     /**
      * Default constructor using endpoint.
      * @param name
@@ -58,13 +74,12 @@ public class JmsConsumer extends AbstractSelectiveMessageConsumer {
 
         log.info("Waiting for JMS message on destination: '" + destinationName + "'");
 
-        endpointConfiguration.getJmsTemplate().setReceiveTimeout(timeout);
         javax.jms.Message receivedJmsMessage;
 
-        if (StringUtils.hasText(selector)) {
-            receivedJmsMessage = endpointConfiguration.getJmsTemplate().receiveSelected(selector);
+        if (endpointConfiguration.isCacheConsumers()) {
+            receivedJmsMessage = receiveCached(selector, timeout);
         } else {
-            receivedJmsMessage = endpointConfiguration.getJmsTemplate().receive();
+            receivedJmsMessage = receiveSelected(selector, timeout);
         }
 
         if (receivedJmsMessage == null) {
@@ -79,4 +94,137 @@ public class JmsConsumer extends AbstractSelectiveMessageConsumer {
         return receivedMessage;
     }
 
+    /**
+     * Receives message with selector on default destination using a new message consumer. Timeout is passed to the
+     * consumer directly so the shared JMS template receive timeout is not modified.
+     * @param selector
+     * @param timeout
+     * @return
+     */
+    private javax.jms.Message receiveSelected(final String selector, final long timeout) {
+        final JmsTemplate jmsTemplate = endpointConfiguration.getJmsTemplate();
+
+        return jmsTemplate.execute(new SessionCallback<javax.jms.Message>() {
+            @Override
+            public javax.jms.Message doInJms(Session session) throws JMSException {
+                MessageConsumer messageConsumer;
+                if (jmsTemplate.isPubSubDomain()) {
+                    messageConsumer = session.createConsumer(resolveDestination(session), StringUtils.hasText(selector) ? selector : null, jmsTemplate.isPubSubNoLocal());
+                } else {
+                    messageConsumer = session.createConsumer(resolveDestination(session), StringUtils.hasText(selector) ? selector : null);
+                }
+
+                try {
+                    javax.jms.Message message = (timeout >= 0) ? messageConsumer.receive(timeout) : messageConsumer.receive();
+
+                    if (session.getTransacted()) {
+                        if (jmsTemplate.isSessionTransacted() &&
+                                !ConnectionFactoryUtils.isSessionTransactional(session, jmsTemplate.getConnectionFactory())) {
+                            JmsUtils.commitIfNecessary(session);
+                        }
+                    } else if (message != null && session.getAcknowledgeMode() == Session.CLIENT_ACKNOWLEDGE) {
+                        message.acknowledge();
+                    }
+
+                    return message;
+                } finally {
+                    JmsUtils.closeMessageConsumer(messageConsumer);
+                }
+            }
+        }, true);
+    }
+
+    /**
+     * Receives message with selector on cached message consumer.
+     * @param selector
+     * @param timeout
+     * @return
+     */
+    private javax.jms.Message receiveCached(String selector, long timeout) {
+        try {
+            return getCachedConsumer(selector).receive(timeout);
+        } catch (JMSException e) {
+            throw new CitrusRuntimeException("Failed to receive message on cached message consumer", e);
+        }
+    }
+
+    /**
+     * Gets cached message consumer for message selector. Consumer is created on first usage. When the consumer
+     * cache size is exceeded the least recently used consumer is closed.
+     * @param selector
+     * @return
+     */
+    private synchronized JmsCachedMessageConsumer getCachedConsumer(String selector) {
+        String key = StringUtils.hasText(selector) ? selector : "";
+        JmsCachedMessageConsumer cachedConsumer = cachedConsumers.get(key);
+
+        if (cachedConsumer == null) {
+            try {
+                if (connection == null) {
+                    connection = endpointConfiguration.getJmsTemplate().getConnectionFactory().createConnection();
+                    connection.start();
+                }
+
+                Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                try {
+                    cachedConsumer = new JmsCachedMessageConsumer(connection, resolveDestination(session), selector,
+                            endpointConfiguration.getJmsTemplate().isPubSubNoLocal());
+                } finally {
+                    JmsUtils.closeSession(session);
+                }
+            } catch (JMSException e) {
+                throw new CitrusRuntimeException("Failed to create cached message consumer", e);
+            }
+
+            cachedConsumers.put(key, cachedConsumer);
+            evictCachedConsumers();
+        }
+
+        return cachedConsumer;
+    }
+
+    /**
+     * Closes least recently used message consumers until consumer cache size is met.
+     */
+    private void evictCachedConsumers() {
+        Iterator<Map.Entry<String, JmsCachedMessageConsumer>> it = cachedConsumers.entrySet().iterator();
+        while (cachedConsumers.size() > Math.max(endpointConfiguration.getConsumerCacheSize(), 1) && it.hasNext()) {
+            Map.Entry<String, JmsCachedMessageConsumer> eldest = it.next();
+            it.remove();
+
+            log.debug("Closing least recently used message consumer for selector: '" + eldest.getKey() + "'");
+            eldest.getValue().close();
+        }
+    }
+
+    /**
+     * Resolves default destination of JMS template. Destination name is resolved with the template's destination resolver.
+     * @param session
+     * @return
+     * @throws JMSException
+     */
+    protected Destination resolveDestination(Session session) throws JMSException {
+        JmsTemplate jmsTemplate = endpointConfiguration.getJmsTemplate();
+
+        if (jmsTemplate.getDefaultDestination() != null) {
+            return jmsTemplate.getDefaultDestination();
+        } else if (StringUtils.hasText(jmsTemplate.getDefaultDestinationName())) {
+            return jmsTemplate.getDestinationResolver().resolveDestinationName(session, jmsTemplate.getDefaultDestinationName(), jmsTemplate.isPubSubDomain());
+        } else {
+            throw new CitrusRuntimeException("Unable to receive message - no default destination or destination name set");
+        }
+    }
+
+    /**
+     * Closes all cached message consumers and the shared connection.
+     */
+    public synchronized void destroy() {
+        for (JmsCachedMessageConsumer cachedConsumer : cachedConsumers.values()) {
+            cachedConsumer.close();
+        }
+        cachedConsumers.clear();
+
+        JmsUtils.closeConnection(connection, true);
+        connection = null;
+    }
 }
@@ -64,6 +64,12 @@ public class JmsEndpointConfiguration extends AbstractEndpointConfiguration {
     /** Should always use object messages */
     private boolean useObjectMessages = false;
 
+    /** Keep sessions for message consumers open across receive operations */
+    private boolean cacheConsumers = false;
+
+    /** Maximum number of cached message consumers, least recently used consumers are closed first */
+    private int consumerCacheSize = 10;
+
     /**
      * Gets the destination name.
      * @return the destinationName
@@ -260,4 +266,41 @@ public class JmsEndpointConfiguration extends AbstractEndpointConfiguration {
     public void setUseObjectMessages(boolean useObjectMessages) {
         this.useObjectMessages = useObjectMessages;
     }
+
+    /**
+     * Gets the cacheConsumers.
+     * @return the cacheConsumers the cacheConsumers to get.
+     */
+    public boolean isCacheConsumers() {
+        return cacheConsumers;
+    }
+
+    /**
+     * Sets the cacheConsumers. When enabled endpoint keeps a long living session per message selector open across
+     * receive operations. The JMS message consumer on this session is only open while a receive operation is waiting.
+     * @param cacheConsumers the cacheConsumers to set
+     */
+    public void setCacheConsumers(boolean cacheConsumers) {
+        this.cacheConsumers = cacheConsumers;
+    }
+
+    /**
+     * Gets the consumerCacheSize.
+     * @return the consumerCacheSize the consumerCacheSize to get.
+     */
+    public int getConsumerCacheSize() {
+        return consumerCacheSize;
+    }
+
+    /**
+     * Sets the consumerCacheSize. When more message selectors are in use the least recently used
+     * cached message consumer is closed. Each cached consumer holds an open session on the JMS provider. While a receive
+     * operation is waiting the provider may dispatch messages in advance to the consumer (e.g. ActiveMQ prefetch), so
+     * competing consumers on the same queue may not see these messages until the receive operation has finished.
+     * Use a prefetch size of 0 or 1 on the connection factory when other consumers compete for the same queue.
+     * @param consumerCacheSize the consumerCacheSize to set
+     */
+    public void setConsumerCacheSize(int consumerCacheSize) {
+        this.consumerCacheSize = consumerCacheSize;
+    }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.jms.endpoint;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.util.StringUtils;
+
+import javax.jms.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Long living reply consumer shared by all requests of a synchronous JMS producer. Consumer listens on a temporary
+ * reply destination exclusively used by this consumer and dispatches incoming reply messages to waiting callers by
+ * JMS correlation id. Shared reply consumer is not used with named reply destinations as these may hold replies for other clients.
+ *
+ * Each request gets a JMS correlation id before it is sent. Explicit correlation ids set on the request are kept, otherwise
+ * a unique correlation id is generated. Reply messages may carry either this correlation id or the JMS message id of
+ * the request as correlation id. Concurrent requests must not use the same explicit correlation id.
+ *
+ * Replies for requests that are not registered yet or anymore are held in a small bounded buffer, because the JMS message id
+ * of a request is only known after it was sent. Oldest unmatched replies are discarded when the buffer is full.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public class JmsSharedReplyConsumer implements MessageListener {
+
+    /** Logger */
+    private static Logger log = LoggerFactory.getLogger(JmsSharedReplyConsumer.class);
+
+    /** Maximum number of buffered reply messages that do not match a registered request */
+    private static final int MAX_UNMATCHED_REPLIES = 100;
+
+    /** Dedicated session for asynchronous reply message delivery */
+    private final Session session;
+
+    /** Temporary reply destination shared by all requests */
+    private final Destination replyDestination;
+
+    /** Message consumer listening on reply destination */
+    private final MessageConsumer messageConsumer;
+
+    /** Reply messages of in-flight requests by correlation id and JMS message id, reply may arrive before caller starts waiting */
+    private final Map<String, BlockingQueue<Message>> replies = new HashMap<String, BlockingQueue<Message>>();
+
+    /** JMS message ids of in-flight requests by correlation id, correlation id itself as long as request is not sent */
+    private final Map<String, String> inFlightRequests = new HashMap<String, String>();
+
+    /** Reply messages not matching any registered request by correlation id, oldest first */
+    private final LinkedHashMap<String, Message> unmatchedReplies = new LinkedHashMap<String, Message>();
+
+    /** Guards dispatching of replies and registration of requests, never held during broker operations */
+    private final Object dispatchLock = new Object();
+
+    /**
+     * Default constructor creating temporary reply destination and message consumer on given connection.
+     * @param connection
+     * @param endpointConfiguration
+     * @throws JMSException
+     */
+    public JmsSharedReplyConsumer(Connection connection, JmsSyncEndpointConfiguration endpointConfiguration) throws JMSException {
+        this.session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+        if (endpointConfiguration.isPubSubDomain()) {
+            replyDestination = session.createTemporaryTopic();
+        } else {
+            replyDestination = session.createTemporaryQueue();
+        }
+
+        messageConsumer = session.createConsumer(replyDestination);
+        messageConsumer.setMessageListener(this);
+
+        log.info("Listening for reply messages on shared reply destination: '{}'", replyDestination);
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        try {
+            String correlationId = message.getJMSCorrelationID();
+
+            if (correlationId == null) {
+                log.warn("Discard reply message without correlation id on shared reply destination: '{}'", replyDestination);
+                return;
+            }
+
+            synchronized (dispatchLock) {
+                BlockingQueue<Message> correlatedReplies = replies.get(correlationId);
+
+                if (correlatedReplies != null) {
+                    correlatedReplies.offer(message);
+                    return;
+                }
+
+                unmatchedReplies.put(correlationId, message);
+
+                if (unmatchedReplies.size() > MAX_UNMATCHED_REPLIES) {
+                    Iterator<String> it = unmatchedReplies.keySet().iterator();
+                    log.warn("Discard reply message with unknown correlation id '{}' on shared reply destination: '{}'", it.next(), replyDestination);
+                    it.remove();
+                }
+            }
+        } catch (JMSException e) {
+            log.error("Failed to dispatch reply message on shared reply destination", e);
+        }
+    }
+
+    /**
+     * Sends request with shared reply destination and registers the request as in-flight. Request is registered with
+     * its correlation id before it is sent and with its JMS message id afterwards.
+     * @param messageProducer
+     * @param destination
+     * @param request
+     * @return the correlation id of the request.
+     * @throws JMSException
+     */
+    public String send(MessageProducer messageProducer, Destination destination, Message request) throws JMSException {
+        String correlationId = request.getJMSCorrelationID();
+        if (!StringUtils.hasText(correlationId)) {
+            correlationId = UUID.randomUUID().toString();
+            request.setJMSCorrelationID(correlationId);
+        }
+
+        request.setJMSReplyTo(replyDestination);
+
+        BlockingQueue<Message> correlatedReplies = new LinkedBlockingQueue<Message>();
+        synchronized (dispatchLock) {
+            if (inFlightRequests.containsKey(correlationId)) {
+                throw new CitrusRuntimeException("Unable to send request - another request is in-flight for correlation id: " + correlationId);
+            }
+
+            inFlightRequests.put(correlationId, correlationId);
+            register(correlationId, correlatedReplies);
+        }
+
+        try {
+            messageProducer.send(destination, request);
+        } catch (JMSException e) {
+            unregister(correlationId);
+            throw e;
+        } catch (RuntimeException e) {
+            unregister(correlationId);
+            throw e;
+        }
+
+        String messageId = request.getJMSMessageID();
+        if (StringUtils.hasText(messageId) && !messageId.equals(correlationId)) {
+            synchronized (dispatchLock) {
+                inFlightRequests.put(correlationId, messageId);
+                register(messageId, correlatedReplies);
+            }
+        }
+
+        return correlationId;
+    }
+
+    /**
+     * Registers reply queue for correlation id and moves already received replies to this queue.
+     * Callers must hold the dispatch lock.
+     * @param correlationId
+     * @param correlatedReplies
+     */
+    private void register(String correlationId, BlockingQueue<Message> correlatedReplies) {
+        replies.put(correlationId, correlatedReplies);
+
+        Message reply = unmatchedReplies.remove(correlationId);
+        if (reply != null) {
+            correlatedReplies.offer(reply);
+        }
+    }
+
+    /**
+     * Removes request with given correlation id so late reply messages are no longer dispatched to it.
+     * @param correlationId
+     */
+    private void unregister(String correlationId) {
+        synchronized (dispatchLock) {
+            String messageId = inFlightRequests.remove(correlationId);
+            replies.remove(correlationId);
+
+            if (messageId != null) {
+                replies.remove(messageId);
+            }
+        }
+    }
+
+    /**
+     * Waits for reply message with given correlation id. Negative timeout waits forever. Request is no longer in-flight
+     * afterwards so late reply messages are not dispatched to it.
+     * @param correlationId
+     * @param timeout
+     * @return the reply message or null when timeout is exceeded.
+     */
+    public Message receive(String correlationId, long timeout) {
+        BlockingQueue<Message> correlatedReplies;
+        synchronized (dispatchLock) {
+            correlatedReplies = replies.get(correlationId);
+        }
+
+        if (correlatedReplies == null) {
+            throw new CitrusRuntimeException("Unable to receive reply message - no request in-flight for correlation id: " + correlationId);
+        }
+
+        try {
+            if (timeout >= 0) {
+                return correlatedReplies.poll(timeout, TimeUnit.MILLISECONDS);
+            } else {
+                return correlatedReplies.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            unregister(correlationId);
+        }
+    }
+
+    /**
+     * Gets the number of requests waiting for reply messages.
+     * @return
+     */
+    public int getInFlightRequestCount() {
+        synchronized (dispatchLock) {
+            return inFlightRequests.size();
+        }
+    }
+
+    /**
+     * Gets the number of buffered reply messages that do not match a registered request.
+     * @return
+     */
+    public int getUnmatchedReplyCount() {
+        synchronized (dispatchLock) {
+            return unmatchedReplies.size();
+        }
+    }
+
+    /**
+     * Closes message consumer and session and deletes temporary reply destination.
+     */
+    public void close() {
+        JmsUtils.closeMessageConsumer(messageConsumer);
+
+        try {
+            if (replyDestination instanceof TemporaryQueue) {
+                ((TemporaryQueue) replyDestination).delete();
+            } else if (replyDestination instanceof TemporaryTopic) {
+                ((TemporaryTopic) replyDestination).delete();
+            }
+        } catch (JMSException e) {
+            log.error("Error while deleting temporary destination '" + replyDestination + "'", e);
+        }
+
+        JmsUtils.closeSession(session);
+
+        synchronized (dispatchLock) {
+            replies.clear();
+            inFlightRequests.clear();
+            unmatchedReplies.clear();
+        }
+    }
+
+    /**
+     * Gets the shared reply destination.
+     * @return
+     */
+    public Destination getReplyDestination() {
+        return replyDestination;
+    }
+}
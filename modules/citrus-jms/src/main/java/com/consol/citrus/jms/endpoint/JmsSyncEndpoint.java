@@ -54,7 +54,7 @@ public class JmsSyncEndpoint extends JmsEndpoint implements DisposableBean {
     }
 
     @Override
-    public SelectiveConsumer createConsumer() {
+    public synchronized SelectiveConsumer createConsumer() {
         if (jmsSyncMessageProducer != null) {
             return jmsSyncMessageProducer;
         }
@@ -67,7 +67,7 @@ public class JmsSyncEndpoint extends JmsEndpoint implements DisposableBean {
     }
 
     @Override
-    public Producer createProducer() {
+    public synchronized Producer createProducer() {
         if (jmsSyncMessageConsumer != null) {
             return jmsSyncMessageConsumer;
         }
@@ -84,6 +84,10 @@ public class JmsSyncEndpoint extends JmsEndpoint implements DisposableBean {
         if (jmsSyncMessageProducer != null) {
             jmsSyncMessageProducer.destroy();
         }
+
+        if (jmsSyncMessageConsumer != null) {
+            jmsSyncMessageConsumer.destroy();
+        }
     }
 
 }
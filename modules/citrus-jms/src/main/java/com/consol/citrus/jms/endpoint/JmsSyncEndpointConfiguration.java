@@ -19,6 +19,8 @@ package com.consol.citrus.jms.endpoint;
 import com.consol.citrus.endpoint.PollableEndpointConfiguration;
 import com.consol.citrus.message.DefaultMessageCorrelator;
 import com.consol.citrus.message.MessageCorrelator;
+import com.consol.citrus.message.correlation.ObjectStore;
+import com.consol.citrus.message.correlation.ObjectStoreProvider;
 
 import javax.jms.*;
 
@@ -29,7 +31,7 @@ import javax.jms.*;
  * @author Christoph Deppisch
  * @since 1.4
  */
-public class JmsSyncEndpointConfiguration extends JmsEndpointConfiguration implements PollableEndpointConfiguration {
+public class JmsSyncEndpointConfiguration extends JmsEndpointConfiguration implements PollableEndpointConfiguration, ObjectStoreProvider {
 
     /** Reply message correlator */
     private MessageCorrelator correlator = new DefaultMessageCorrelator();
@@ -43,6 +45,12 @@ public class JmsSyncEndpointConfiguration extends JmsEndpointConfiguration imple
     /** Polling interval when waiting for synchronous reply message to arrive */
     private long pollingInterval = 500L;
 
+    /** Object store for correlated objects, default object store of correlation manager is used when not set */
+    private ObjectStore objectStore;
+
+    /** Use long living temporary reply destination and consumer shared by all requests, ignored with named reply destinations */
+    private boolean sharedReplyConsumer = false;
+
     /**
      * Set the reply message correlator.
      * @param correlator the correlator to set
@@ -107,4 +115,36 @@ public class JmsSyncEndpointConfiguration extends JmsEndpointConfiguration imple
         this.pollingInterval = pollingInterval;
     }
 
+    /**
+     * Gets the objectStore.
+     * @return the objectStore the objectStore to get.
+     */
+    public ObjectStore getObjectStore() {
+        return objectStore;
+    }
+
+    /**
+     * Sets the objectStore.
+     * @param objectStore the objectStore to set
+     */
+    public void setObjectStore(ObjectStore objectStore) {
+        this.objectStore = objectStore;
+    }
+
+    /**
+     * Gets the sharedReplyConsumer.
+     * @return the sharedReplyConsumer the sharedReplyConsumer to get.
+     */
+    public boolean isSharedReplyConsumer() {
+        return sharedReplyConsumer;
+    }
+
+    /**
+     * Sets the sharedReplyConsumer.
+     * @param sharedReplyConsumer the sharedReplyConsumer to set
+     */
+    public void setSharedReplyConsumer(boolean sharedReplyConsumer) {
+        this.sharedReplyConsumer = sharedReplyConsumer;
+    }
+
 }
@@ -21,7 +21,7 @@ import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.message.correlation.CorrelationManager;
-import com.consol.citrus.message.correlation.PollingCorrelationManager;
+import com.consol.citrus.message.correlation.WaitingCorrelationManager;
 import com.consol.citrus.messaging.ReplyConsumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +48,12 @@ public class JmsSyncProducer extends JmsProducer implements ReplyConsumer {
     /** Store of reply messages */
     private CorrelationManager<Message> correlationManager;
 
+    /** Reply consumer shared by all requests in shared reply consumer mode */
+    private JmsSharedReplyConsumer sharedReplyConsumer;
+
+    /** Message producer reused by all requests in shared reply consumer mode */
+    private MessageProducer sharedMessageProducer;
+
     /** Endpoint configuration */
     private final JmsSyncEndpointConfiguration endpointConfiguration;
 
@@ -63,7 +69,7 @@ public class JmsSyncProducer extends JmsProducer implements ReplyConsumer {
         super(name, endpointConfiguration);
         this.endpointConfiguration = endpointConfiguration;
 
-        this.correlationManager = new PollingCorrelationManager(endpointConfiguration, "Reply message did not arrive yet");
+        this.correlationManager = new WaitingCorrelationManager(endpointConfiguration, "Reply message did not arrive yet");
     }
 
     @Override
@@ -79,6 +85,11 @@ public class JmsSyncProducer extends JmsProducer implements ReplyConsumer {
 
         context.onOutboundMessage(message);
 
+        if (isSharedReplyConsumer(message)) {
+            sendWithSharedReplyConsumer(message, correlationKey, context);
+            return;
+        }
+
         MessageProducer messageProducer = null;
         MessageConsumer messageConsumer = null;
         Destination replyToDestination = null;
@@ -109,18 +120,7 @@ public class JmsSyncProducer extends JmsProducer implements ReplyConsumer {
 
             javax.jms.Message jmsReplyMessage = (endpointConfiguration.getTimeout() >= 0) ? messageConsumer.receive(endpointConfiguration.getTimeout()) : messageConsumer.receive();
 
-            if (jmsReplyMessage == null) {
-                throw new ActionTimeoutException("Reply timed out after " +
-                        endpointConfiguration.getTimeout() + "ms. Did not receive reply message on reply destination");
-            }
-
-            Message responseMessage = endpointConfiguration.getMessageConverter().convertInbound(jmsReplyMessage, endpointConfiguration);
-
-            log.info("Received reply message on destination: '{}'", replyToDestination);
-
-            context.onInboundMessage(responseMessage);
-
-            correlationManager.store(correlationKey, responseMessage);
+            handleReplyMessage(jmsReplyMessage, replyToDestination, correlationKey, context);
         } catch (JMSException e) {
             throw new CitrusRuntimeException(e);
         } finally {
@@ -130,6 +130,82 @@ public class JmsSyncProducer extends JmsProducer implements ReplyConsumer {
         }
     }
 
+    /**
+     * Checks if message is sent with shared reply consumer. Shared reply consumer is only used with temporary reply
+     * destinations, named reply destinations use a message selector per request so replies for other clients are not consumed.
+     * @param message
+     * @return
+     */
+    private boolean isSharedReplyConsumer(Message message) {
+        return endpointConfiguration.isSharedReplyConsumer() &&
+                endpointConfiguration.getReplyDestination() == null &&
+                !StringUtils.hasText(endpointConfiguration.getReplyDestinationName()) &&
+                message.getHeader(org.springframework.messaging.MessageHeaders.REPLY_CHANNEL) == null;
+    }
+
+    /**
+     * Sends message with temporary reply destination and message consumer shared by all requests. Replies are
+     * dispatched by JMS correlation id so concurrent callers only wait for their own reply message.
+     * @param message
+     * @param correlationKey
+     * @param context
+     */
+    private void sendWithSharedReplyConsumer(Message message, String correlationKey, TestContext context) {
+        String replyCorrelationId;
+        JmsSharedReplyConsumer replyConsumer;
+
+        try {
+            synchronized (this) {
+                createConnection();
+                createSession(connection);
+
+                if (sharedReplyConsumer == null) {
+                    sharedReplyConsumer = new JmsSharedReplyConsumer(connection, endpointConfiguration);
+                }
+
+                if (sharedMessageProducer == null) {
+                    sharedMessageProducer = session.createProducer(null);
+                }
+
+                javax.jms.Message jmsRequest = endpointConfiguration.getMessageConverter().createJmsMessage(message, session, endpointConfiguration);
+                endpointConfiguration.getMessageConverter().convertOutbound(jmsRequest, message, endpointConfiguration);
+
+                // shared session is not thread safe, reply dispatching is not blocked while sending
+                replyConsumer = sharedReplyConsumer;
+                replyCorrelationId = replyConsumer.send(sharedMessageProducer, getDefaultDestination(session), jmsRequest);
+            }
+
+            log.info("Message was successfully sent to destination: '{}'", endpointConfiguration.getDefaultDestinationName());
+            log.info("Waiting for reply message on destination: '{}'", replyConsumer.getReplyDestination());
+
+            handleReplyMessage(replyConsumer.receive(replyCorrelationId, endpointConfiguration.getTimeout()), replyConsumer.getReplyDestination(), correlationKey, context);
+        } catch (JMSException e) {
+            throw new CitrusRuntimeException(e);
+        }
+    }
+
+    /**
+     * Converts reply message and stores it with correlation key for later receive operations.
+     * @param jmsReplyMessage
+     * @param replyToDestination
+     * @param correlationKey
+     * @param context
+     */
+    private void handleReplyMessage(javax.jms.Message jmsReplyMessage, Destination replyToDestination, String correlationKey, TestContext context) {
+        if (jmsReplyMessage == null) {
+            throw new ActionTimeoutException("Reply timed out after " +
+                    endpointConfiguration.getTimeout() + "ms. Did not receive reply message on reply destination");
+        }
+
+        Message responseMessage = endpointConfiguration.getMessageConverter().convertInbound(jmsReplyMessage, endpointConfiguration);
+
+        log.info("Received reply message on destination: '{}'", replyToDestination);
+
+        context.onInboundMessage(responseMessage);
+
+        correlationManager.store(correlationKey, responseMessage);
+    }
+
     @Override
     public Message receive(TestContext context) {
         return receive(correlationManager.getCorrelationKey(
@@ -302,6 +378,11 @@ public class JmsSyncProducer extends JmsProducer implements ReplyConsumer {
      * Destroy method closing JMS session and connection
      */
     public void destroy() {
+        if (sharedReplyConsumer != null) {
+            sharedReplyConsumer.close();
+        }
+
+        JmsUtils.closeMessageProducer(sharedMessageProducer);
         JmsUtils.closeSession(session);
 
         if (connection != null) {
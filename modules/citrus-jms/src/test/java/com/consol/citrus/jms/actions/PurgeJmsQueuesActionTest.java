@@ -192,4 +192,157 @@ public class PurgeJmsQueuesActionTest extends AbstractTestNGUnitTest {
         
         verify(connectionFactory, connection, session, messageConsumer);
     }
+
+    @Test
+    public void testParallelPurgeBatchAcknowledge() throws JMSException {
+        PurgeJmsQueuesAction purgeQueuesAction = new PurgeJmsQueuesAction();
+        purgeQueuesAction.setConnectionFactory(connectionFactory);
+        purgeQueuesAction.setParallel(true);
+        purgeQueuesAction.setBrowseQueues(false);
+        purgeQueuesAction.setBatchSize(2);
+
+        List<String> queueNames = new ArrayList<String>();
+        queueNames.add("myQueue");
+        purgeQueuesAction.setQueueNames(queueNames);
+
+        TextMessage jmsMessage = EasyMock.createMock(TextMessage.class);
+
+        reset(connectionFactory, connection, session, messageConsumer, jmsMessage);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.start();
+        expectLastCall().once();
+
+        expect(connection.createSession(false, Session.CLIENT_ACKNOWLEDGE)).andReturn(session).once();
+
+        expect(session.createQueue("myQueue")).andReturn(queue).once();
+
+        expect(session.createConsumer(queue)).andReturn(messageConsumer).once();
+        expect(messageConsumer.receive(100L)).andReturn(jmsMessage).times(3).andReturn(null);
+
+        jmsMessage.acknowledge();
+        expectLastCall().times(2);
+
+        replay(connectionFactory, connection, session, messageConsumer, jmsMessage);
+
+        purgeQueuesAction.execute(context);
+
+        verify(connectionFactory, connection, session, messageConsumer, jmsMessage);
+    }
+
+    @Test
+    public void testParallelPurgeWithQueueBrowser() throws JMSException {
+        PurgeJmsQueuesAction purgeQueuesAction = new PurgeJmsQueuesAction();
+        purgeQueuesAction.setConnectionFactory(connectionFactory);
+        purgeQueuesAction.setParallel(true);
+
+        List<String> queueNames = new ArrayList<String>();
+        queueNames.add("myQueue");
+        purgeQueuesAction.setQueueNames(queueNames);
+
+        Map<String, Object> requestHeaders = new HashMap<String, Object>();
+        TextMessage jmsRequest = new TextMessageImpl("<TestRequest>Hello World!</TestRequest>", requestHeaders);
+
+        QueueBrowser queueBrowser = EasyMock.createMock(QueueBrowser.class);
+
+        reset(connectionFactory, connection, session, messageConsumer, queueBrowser);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.start();
+        expectLastCall().once();
+
+        expect(connection.createSession(false, Session.CLIENT_ACKNOWLEDGE)).andReturn(session).once();
+
+        expect(session.createQueue("myQueue")).andReturn(queue).once();
+
+        expect(session.createBrowser(queue)).andReturn(queueBrowser).times(2);
+        expect(queueBrowser.getEnumeration()).andReturn(Collections.enumeration(Arrays.asList(jmsRequest))).once();
+        expect(queueBrowser.getEnumeration()).andReturn(Collections.enumeration(Collections.emptyList())).once();
+        queueBrowser.close();
+        expectLastCall().times(2);
+
+        expect(session.createConsumer(queue)).andReturn(messageConsumer).once();
+        expect(messageConsumer.receive(100L)).andReturn(jmsRequest).andReturn(null).andReturn(jmsRequest).andReturn(null);
+
+        replay(connectionFactory, connection, session, messageConsumer, queueBrowser);
+
+        purgeQueuesAction.execute(context);
+
+        verify(connectionFactory, connection, session, messageConsumer, queueBrowser);
+    }
+
+    @Test
+    public void testParallelPurgeIgnoresEmptyQueueBrowser() throws JMSException {
+        PurgeJmsQueuesAction purgeQueuesAction = new PurgeJmsQueuesAction();
+        purgeQueuesAction.setConnectionFactory(connectionFactory);
+        purgeQueuesAction.setParallel(true);
+
+        List<Queue> queues = new ArrayList<Queue>();
+        queues.add(queue);
+        purgeQueuesAction.setQueues(queues);
+
+        Map<String, Object> requestHeaders = new HashMap<String, Object>();
+        TextMessage jmsRequest = new TextMessageImpl("<TestRequest>Hello World!</TestRequest>", requestHeaders);
+
+        QueueBrowser queueBrowser = EasyMock.createMock(QueueBrowser.class);
+
+        reset(connectionFactory, connection, session, messageConsumer, queue, queueBrowser);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.start();
+        expectLastCall().once();
+
+        expect(connection.createSession(false, Session.CLIENT_ACKNOWLEDGE)).andReturn(session).once();
+
+        expect(queue.getQueueName()).andReturn("myQueue").once();
+
+        expect(session.createConsumer(queue)).andReturn(messageConsumer).once();
+        expect(messageConsumer.receive(100L)).andReturn(jmsRequest).andReturn(null);
+
+        expect(session.createBrowser(queue)).andReturn(queueBrowser).once();
+        expect(queueBrowser.getEnumeration()).andReturn(Collections.enumeration(Collections.emptyList())).once();
+        queueBrowser.close();
+        expectLastCall().once();
+
+        replay(connectionFactory, connection, session, messageConsumer, queue, queueBrowser);
+
+        purgeQueuesAction.execute(context);
+
+        verify(connectionFactory, connection, session, messageConsumer, queue, queueBrowser);
+    }
+
+    @Test
+    public void testParallelPurgeQueueNameList() throws JMSException {
+        PurgeJmsQueuesAction purgeQueuesAction = new PurgeJmsQueuesAction();
+        purgeQueuesAction.setConnectionFactory(connectionFactory);
+        purgeQueuesAction.setParallel(true);
+        purgeQueuesAction.setBrowseQueues(false);
+
+        List<String> queueNames = new ArrayList<String>();
+        queueNames.add("myQueue");
+        queueNames.add("anotherQueue");
+        queueNames.add("someQueue");
+        purgeQueuesAction.setQueueNames(queueNames);
+
+        reset(connectionFactory, connection, session, messageConsumer);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.start();
+        expectLastCall().once();
+
+        expect(connection.createSession(false, Session.CLIENT_ACKNOWLEDGE)).andReturn(session).times(3);
+
+        expect(session.createQueue("myQueue")).andReturn(queue).once();
+        expect(session.createQueue("anotherQueue")).andReturn(queue).once();
+        expect(session.createQueue("someQueue")).andReturn(queue).once();
+
+        expect(session.createConsumer(queue)).andReturn(messageConsumer).times(3);
+        expect(messageConsumer.receive(100L)).andReturn(null).times(3);
+
+        replay(connectionFactory, connection, session, messageConsumer);
+
+        purgeQueuesAction.execute(context);
+
+        verify(connectionFactory, connection, session, messageConsumer);
+    }
 }
@@ -45,6 +45,8 @@ public class JmsEndpointParserTest extends AbstractBeanDefinitionParserTest {
         Assert.assertNull(jmsEndpoint.getEndpointConfiguration().getDestination());
         Assert.assertEquals(jmsEndpoint.getEndpointConfiguration().getTimeout(), 5000L);
         Assert.assertEquals(jmsEndpoint.getEndpointConfiguration().isUseObjectMessages(), false);
+        Assert.assertEquals(jmsEndpoint.getEndpointConfiguration().isCacheConsumers(), false);
+        Assert.assertEquals(jmsEndpoint.getEndpointConfiguration().getConsumerCacheSize(), 10);
 
         // 2nd message receiver
         jmsEndpoint = endpoints.get("jmsEndpoint2");
@@ -54,6 +56,8 @@ public class JmsEndpointParserTest extends AbstractBeanDefinitionParserTest {
         Assert.assertNull(jmsEndpoint.getEndpointConfiguration().getDestinationName());
         Assert.assertNotNull(jmsEndpoint.getEndpointConfiguration().getDestination());
         Assert.assertEquals(jmsEndpoint.getEndpointConfiguration().getTimeout(), 10000L);
+        Assert.assertEquals(jmsEndpoint.getEndpointConfiguration().isCacheConsumers(), true);
+        Assert.assertEquals(jmsEndpoint.getEndpointConfiguration().getConsumerCacheSize(), 50);
 
         // 3rd message receiver
         jmsEndpoint = endpoints.get("jmsEndpoint3");
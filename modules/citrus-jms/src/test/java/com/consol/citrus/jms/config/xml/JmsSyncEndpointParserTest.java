@@ -18,8 +18,10 @@ package com.consol.citrus.jms.config.xml;
 
 import com.consol.citrus.TestActor;
 import com.consol.citrus.jms.endpoint.JmsSyncEndpoint;
+import com.consol.citrus.jms.endpoint.JmsSyncProducer;
 import com.consol.citrus.message.DefaultMessageCorrelator;
 import com.consol.citrus.message.MessageCorrelator;
+import com.consol.citrus.message.correlation.ExpiringObjectStore;
 import com.consol.citrus.testng.AbstractBeanDefinitionParserTest;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -45,6 +47,8 @@ public class JmsSyncEndpointParserTest extends AbstractBeanDefinitionParserTest
         Assert.assertNull(jmsSyncEndpoint.getEndpointConfiguration().getDestination());
         Assert.assertEquals(jmsSyncEndpoint.getEndpointConfiguration().getTimeout(), 5000L);
         Assert.assertEquals(jmsSyncEndpoint.getEndpointConfiguration().getCorrelator().getClass(), DefaultMessageCorrelator.class);
+        Assert.assertFalse(jmsSyncEndpoint.getEndpointConfiguration().isSharedReplyConsumer());
+        Assert.assertNull(jmsSyncEndpoint.getEndpointConfiguration().getObjectStore());
 
         // 2nd message receiver
         jmsSyncEndpoint = endpoints.get("jmsSyncEndpoint2");
@@ -54,6 +58,7 @@ public class JmsSyncEndpointParserTest extends AbstractBeanDefinitionParserTest
         Assert.assertNotNull(jmsSyncEndpoint.getEndpointConfiguration().getDestination());
         Assert.assertEquals(jmsSyncEndpoint.getEndpointConfiguration().getTimeout(), 10000L);
         Assert.assertEquals(jmsSyncEndpoint.getEndpointConfiguration().getCorrelator(), beanDefinitionContext.getBean("replyMessageCorrelator", MessageCorrelator.class));
+        Assert.assertTrue(jmsSyncEndpoint.getEndpointConfiguration().isSharedReplyConsumer());
 
         // 3rd message receiver
         jmsSyncEndpoint = endpoints.get("jmsSyncEndpoint3");
@@ -67,6 +72,8 @@ public class JmsSyncEndpointParserTest extends AbstractBeanDefinitionParserTest
         jmsSyncEndpoint = endpoints.get("jmsSyncEndpoint4");
         Assert.assertNotNull(jmsSyncEndpoint.getActor());
         Assert.assertEquals(jmsSyncEndpoint.getActor(), beanDefinitionContext.getBean("testActor", TestActor.class));
+        Assert.assertEquals(jmsSyncEndpoint.getEndpointConfiguration().getObjectStore(), beanDefinitionContext.getBean("objectStore", ExpiringObjectStore.class));
+        Assert.assertEquals(((JmsSyncProducer) jmsSyncEndpoint.createProducer()).getCorrelationManager().getObjectStore(), beanDefinitionContext.getBean("objectStore", ExpiringObjectStore.class));
     }
 
     @Test
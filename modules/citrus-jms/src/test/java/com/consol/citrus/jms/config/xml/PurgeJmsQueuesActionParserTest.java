@@ -41,10 +41,16 @@ public class PurgeJmsQueuesActionParserTest extends AbstractActionParserTest<Pur
         Assert.assertEquals(action.getQueueNames().get(0), "JMS.Queue.1");
         Assert.assertEquals(action.getQueueNames().get(1), "JMS.Queue.2");
         Assert.assertEquals(action.getQueueNames().get(2), "JMS.Queue.3");
+        Assert.assertFalse(action.isParallel());
+        Assert.assertEquals(action.getBatchSize(), 100);
+        Assert.assertTrue(action.isBrowseQueues());
         
         action = getNextTestActionFromTest();
         Assert.assertNotNull(action.getReceiveTimeout());
         Assert.assertEquals(action.getReceiveTimeout(), 125);
+        Assert.assertTrue(action.isParallel());
+        Assert.assertEquals(action.getBatchSize(), 500);
+        Assert.assertFalse(action.isBrowseQueues());
         Assert.assertNotNull(action.getConnectionFactory());
         Assert.assertEquals(action.getQueues().size(), 0);
         Assert.assertEquals(action.getQueueNames().size(), 3);
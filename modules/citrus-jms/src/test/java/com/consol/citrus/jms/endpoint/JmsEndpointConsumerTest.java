@@ -21,8 +21,10 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.message.DefaultMessage;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.testng.AbstractTestNGUnitTest;
+import com.consol.citrus.messaging.SelectiveConsumer;
 import org.easymock.EasyMock;
 import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.SessionCallback;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -56,12 +58,9 @@ public class JmsEndpointConsumerTest extends AbstractTestNGUnitTest {
 
         reset(jmsTemplate, connectionFactory, destination);
 
-        jmsTemplate.setReceiveTimeout(5000L);
-        expectLastCall().once();
-        
         expect(jmsTemplate.getDefaultDestination()).andReturn(destination).atLeastOnce();
         
-        expect(jmsTemplate.receive()).andReturn(new TextMessageImpl(controlMessage.getPayload(String.class), controlHeaders));
+        expect(jmsTemplate.execute(anyObject(SessionCallback.class), eq(true))).andReturn(new TextMessageImpl(controlMessage.getPayload(String.class), controlHeaders));
 
         replay(jmsTemplate, connectionFactory, destination);
         
@@ -311,4 +310,187 @@ public class JmsEndpointConsumerTest extends AbstractTestNGUnitTest {
         
         verify(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
     }
+
+    @Test
+    public void testReceiveWithCachedConsumer() throws Exception {
+        JmsEndpoint endpoint = new JmsEndpoint();
+        endpoint.getEndpointConfiguration().setConnectionFactory(connectionFactory);
+
+        endpoint.getEndpointConfiguration().setDestination(destination);
+        endpoint.getEndpointConfiguration().setCacheConsumers(true);
+
+        final Message controlMessage = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
+
+        Map<String, Object> headers = new HashMap<String, Object>();
+
+        reset(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session).times(2);
+        expect(session.createConsumer(destination, null)).andReturn(messageConsumer).times(3);
+
+        expect(messageConsumer.receive(100L)).andReturn(null).once();
+        expect(messageConsumer.receive(5000L)).andReturn(new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", headers)).times(2);
+
+        connection.start();
+        expectLastCall().once();
+
+        session.close();
+        expectLastCall().times(2);
+
+        messageConsumer.close();
+        expectLastCall().times(3);
+
+        connection.stop();
+        expectLastCall().once();
+
+        connection.close();
+        expectLastCall().once();
+
+        replay(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        SelectiveConsumer consumer = endpoint.createConsumer();
+        try {
+            consumer.receive(context, 100L);
+            Assert.fail("Missing exception due to receive timeout");
+        } catch (ActionTimeoutException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Action timed out while receiving JMS message on"));
+        }
+
+        Message receivedMessage = consumer.receive(context);
+        Assert.assertEquals(receivedMessage.getPayload(), controlMessage.getPayload());
+        receivedMessage = consumer.receive(context);
+        Assert.assertEquals(receivedMessage.getPayload(), controlMessage.getPayload());
+
+        endpoint.destroy();
+
+        verify(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+    }
+
+    @Test
+    public void testCachedConsumerPerMessageSelector() throws JMSException {
+        JmsEndpoint endpoint = new JmsEndpoint();
+        endpoint.getEndpointConfiguration().setConnectionFactory(connectionFactory);
+
+        endpoint.getEndpointConfiguration().setDestination(destination);
+        endpoint.getEndpointConfiguration().setCacheConsumers(true);
+        endpoint.getEndpointConfiguration().setTimeout(100L);
+
+        reset(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session).times(4);
+        expect(session.createConsumer(destination, "Operation = 'sayHello'")).andReturn(messageConsumer).times(3);
+        expect(session.createConsumer(destination, "Operation = 'sayBye'")).andReturn(messageConsumer).times(3);
+
+        expect(messageConsumer.receive(100L)).andReturn(null).times(6);
+
+        connection.start();
+        expectLastCall().once();
+
+        session.close();
+        expectLastCall().times(2);
+
+        messageConsumer.close();
+        expectLastCall().times(6);
+
+        replay(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        SelectiveConsumer consumer = endpoint.createConsumer();
+        for (int i = 0; i < 3; i++) {
+            try {
+                consumer.receive("Operation = 'sayHello'", context);
+                Assert.fail("Missing exception due to receive timeout");
+            } catch (ActionTimeoutException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Action timed out while receiving JMS message on"));
+            }
+
+            try {
+                consumer.receive("Operation = 'sayBye'", context);
+                Assert.fail("Missing exception due to receive timeout");
+            } catch (ActionTimeoutException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Action timed out while receiving JMS message on"));
+            }
+        }
+
+        verify(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+    }
+
+    @Test
+    public void testCachedConsumerEviction() throws JMSException {
+        JmsEndpoint endpoint = new JmsEndpoint();
+        endpoint.getEndpointConfiguration().setConnectionFactory(connectionFactory);
+
+        endpoint.getEndpointConfiguration().setDestination(destination);
+        endpoint.getEndpointConfiguration().setCacheConsumers(true);
+        endpoint.getEndpointConfiguration().setConsumerCacheSize(1);
+        endpoint.getEndpointConfiguration().setTimeout(100L);
+
+        reset(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        expect(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).andReturn(session).times(6);
+        expect(session.createConsumer(destination, "Operation = 'sayHello'")).andReturn(messageConsumer).times(2);
+        expect(session.createConsumer(destination, "Operation = 'sayBye'")).andReturn(messageConsumer).once();
+
+        expect(messageConsumer.receive(100L)).andReturn(null).times(3);
+
+        connection.start();
+        expectLastCall().once();
+
+        session.close();
+        expectLastCall().times(5);
+
+        messageConsumer.close();
+        expectLastCall().times(3);
+
+        replay(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        SelectiveConsumer consumer = endpoint.createConsumer();
+        for (String selector : new String[] { "Operation = 'sayHello'", "Operation = 'sayBye'", "Operation = 'sayHello'" }) {
+            try {
+                consumer.receive(selector, context);
+                Assert.fail("Missing exception due to receive timeout");
+            } catch (ActionTimeoutException e) {
+                Assert.assertTrue(e.getMessage().startsWith("Action timed out while receiving JMS message on"));
+            }
+        }
+
+        verify(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+    }
+
+    @Test
+    public void testReceiveTopicWithPubSubNoLocal() throws JMSException {
+        JmsEndpoint endpoint = new JmsEndpoint();
+        endpoint.getEndpointConfiguration().setConnectionFactory(connectionFactory);
+
+        endpoint.getEndpointConfiguration().setDestination(destination);
+        endpoint.getEndpointConfiguration().setPubSubDomain(true);
+        endpoint.getEndpointConfiguration().getJmsTemplate().setPubSubNoLocal(true);
+
+        final Message controlMessage = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
+
+        Map<String, Object> headers = new HashMap<String, Object>();
+
+        reset(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(session).once();
+        expect(session.getTransacted()).andReturn(false).once();
+        expect(session.getAcknowledgeMode()).andReturn(Session.AUTO_ACKNOWLEDGE).once();
+
+        expect(session.createConsumer(destination, "Operation = 'sayHello'", true)).andReturn(messageConsumer).once();
+
+        connection.start();
+        expectLastCall().once();
+
+        expect(messageConsumer.receive(5000L)).andReturn(new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", headers)).once();
+
+        replay(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+
+        Message receivedMessage = endpoint.createConsumer().receive("Operation = 'sayHello'", context);
+        Assert.assertEquals(receivedMessage.getPayload(), controlMessage.getPayload());
+
+        verify(jmsTemplate, connectionFactory, destination, connection, session, messageConsumer);
+    }
 }
@@ -22,7 +22,7 @@ import com.consol.citrus.message.*;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.message.correlation.ObjectStore;
 import com.consol.citrus.testng.AbstractTestNGUnitTest;
-import org.easymock.EasyMock;
+import org.easymock.*;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -46,6 +46,7 @@ public class JmsEndpointSyncProducerTest extends AbstractTestNGUnitTest {
     private MessageProducer messageProducer = EasyMock.createMock(MessageProducer.class);
     private Queue replyDestinationQueue = EasyMock.createMock(Queue.class);
     private TemporaryQueue tempReplyQueue = EasyMock.createMock(TemporaryQueue.class);
+    private Session replySession = EasyMock.createMock(Session.class);
 
     private int retryCount = 0;
     
@@ -425,4 +426,248 @@ public class JmsEndpointSyncProducerTest extends AbstractTestNGUnitTest {
             Assert.assertEquals(retryCount, 1);
         }
     }
+
+    @Test
+    public void testSendMessageWithSharedReplyConsumer() throws JMSException {
+        JmsSyncEndpoint endpoint = new JmsSyncEndpoint();
+        endpoint.getEndpointConfiguration().setConnectionFactory(connectionFactory);
+        endpoint.getEndpointConfiguration().setSharedReplyConsumer(true);
+
+        endpoint.getEndpointConfiguration().setDestination(destination);
+
+        final Message message = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
+
+        final TextMessage jmsResponse = new TextMessageImpl("<TestResponse>Hello World!</TestResponse>", new HashMap<String, Object>()) {
+            @Override
+            public String getJMSCorrelationID() throws JMSException {
+                return "123456789";
+            }
+        };
+
+        final Capture<MessageListener> replyListener = new Capture<MessageListener>();
+
+        reset(connectionFactory, destination, connection, session, replySession, messageConsumer, messageProducer, tempReplyQueue);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.start();
+        expectLastCall().once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(session).once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(replySession).once();
+
+        expect(replySession.createTemporaryQueue()).andReturn(tempReplyQueue).once();
+        expect(replySession.createConsumer(tempReplyQueue)).andReturn(messageConsumer).once();
+        messageConsumer.setMessageListener(capture(replyListener));
+        expectLastCall().once();
+
+        expect(session.createProducer(null)).andReturn(messageProducer).once();
+        messageProducer.send(eq(destination), (TextMessage) anyObject());
+        expectLastCall().andAnswer(new IAnswer<Object>() {
+            @Override
+            public Object answer() throws Throwable {
+                Assert.assertEquals(((TextMessage) getCurrentArguments()[1]).getJMSReplyTo(), tempReplyQueue);
+
+                // reply arrives while request is still being sent
+                new Thread(new Runnable() {
+                    @Override
+                    public void run() {
+                        replyListener.getValue().onMessage(jmsResponse);
+                    }
+                }).start();
+                return null;
+            }
+        }).times(2);
+
+        expect(session.createTextMessage("<TestRequest><Message>Hello World!</Message></TestRequest>")).andReturn(
+                new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", new HashMap<String, Object>())).times(2);
+
+        replay(connectionFactory, destination, connection, session, replySession, messageConsumer, messageProducer, tempReplyQueue);
+
+        endpoint.createProducer().send(message, context);
+        Assert.assertEquals(((JmsSyncProducer) endpoint.createConsumer()).receive(context, 1000L).getPayload(String.class), "<TestResponse>Hello World!</TestResponse>");
+
+        endpoint.createProducer().send(message, context);
+        Assert.assertEquals(((JmsSyncProducer) endpoint.createConsumer()).receive(context, 1000L).getPayload(String.class), "<TestResponse>Hello World!</TestResponse>");
+
+        verify(connectionFactory, destination, connection, session, replySession, messageConsumer, messageProducer, tempReplyQueue);
+    }
+
+    @Test
+    public void testSharedReplyConsumerTimeout() throws JMSException {
+        JmsSyncEndpoint endpoint = new JmsSyncEndpoint();
+        endpoint.getEndpointConfiguration().setConnectionFactory(connectionFactory);
+        endpoint.getEndpointConfiguration().setSharedReplyConsumer(true);
+        endpoint.getEndpointConfiguration().setDestination(destination);
+        endpoint.getEndpointConfiguration().setTimeout(500L);
+
+        final Message message = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
+
+        reset(connectionFactory, destination, connection, session, replySession, messageConsumer, messageProducer, tempReplyQueue);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.start();
+        expectLastCall().once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(session).once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(replySession).once();
+
+        expect(replySession.createTemporaryQueue()).andReturn(tempReplyQueue).once();
+        expect(replySession.createConsumer(tempReplyQueue)).andReturn(messageConsumer).once();
+        messageConsumer.setMessageListener(anyObject(MessageListener.class));
+        expectLastCall().once();
+
+        expect(session.createProducer(null)).andReturn(messageProducer).once();
+        messageProducer.send(eq(destination), (TextMessage) anyObject());
+        expectLastCall().once();
+
+        expect(session.createTextMessage("<TestRequest><Message>Hello World!</Message></TestRequest>")).andReturn(
+                new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", new HashMap<String, Object>())).once();
+
+        replay(connectionFactory, destination, connection, session, replySession, messageConsumer, messageProducer, tempReplyQueue);
+
+        try {
+            endpoint.createProducer().send(message, context);
+            Assert.fail("Missing timeout exception on JmsSyncProducer");
+        } catch (ActionTimeoutException e) {
+            Assert.assertEquals(e.getLocalizedMessage(), "Reply timed out after 500ms. Did not receive reply message on reply destination");
+        }
+
+        verify(connectionFactory, destination, connection, session, replySession, messageConsumer, messageProducer, tempReplyQueue);
+    }
+
+    @Test
+    public void testSharedReplyConsumerNotUsedWithNamedReplyDestination() throws JMSException {
+        JmsSyncEndpoint endpoint = new JmsSyncEndpoint();
+        endpoint.getEndpointConfiguration().setConnectionFactory(connectionFactory);
+        endpoint.getEndpointConfiguration().setSharedReplyConsumer(true);
+        endpoint.getEndpointConfiguration().setDestination(destination);
+        endpoint.getEndpointConfiguration().setReplyDestination(replyDestinationQueue);
+
+        final Message message = new DefaultMessage("<TestRequest><Message>Hello World!</Message></TestRequest>");
+
+        TextMessage jmsResponse = new TextMessageImpl("<TestResponse>Hello World!</TestResponse>", new HashMap<String, Object>());
+
+        reset(connectionFactory, destination, connection, session, messageConsumer, messageProducer);
+
+        expect(connectionFactory.createConnection()).andReturn(connection).once();
+        connection.start();
+        expectLastCall().once();
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(session).once();
+
+        expect(session.createConsumer(replyDestinationQueue, "JMSCorrelationID = '123456789'")).andReturn(messageConsumer).once();
+        expect(messageConsumer.receive(anyLong())).andReturn(jmsResponse).once();
+
+        expect(session.createProducer(destination)).andReturn(messageProducer).once();
+        messageProducer.send((TextMessage)anyObject());
+        expectLastCall().once();
+
+        expect(session.createTextMessage("<TestRequest><Message>Hello World!</Message></TestRequest>")).andReturn(
+                new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", new HashMap<String, Object>()));
+
+        replay(connectionFactory, destination, connection, session, messageConsumer, messageProducer);
+
+        endpoint.createProducer().send(message, context);
+
+        verify(connectionFactory, destination, connection, session, messageConsumer, messageProducer);
+    }
+
+    @Test
+    public void testSharedReplyConsumerCorrelation() throws JMSException {
+        TextMessage jmsRequest = new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", new HashMap<String, Object>());
+
+        reset(connection, replySession, messageConsumer, messageProducer, tempReplyQueue);
+
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(replySession).once();
+        expect(replySession.createTemporaryQueue()).andReturn(tempReplyQueue).once();
+        expect(replySession.createConsumer(tempReplyQueue)).andReturn(messageConsumer).once();
+        messageConsumer.setMessageListener(anyObject(MessageListener.class));
+        expectLastCall().once();
+
+        messageProducer.send(destination, jmsRequest);
+        expectLastCall().times(2);
+
+        replay(connection, replySession, messageConsumer, messageProducer, tempReplyQueue);
+
+        JmsSharedReplyConsumer replyConsumer = new JmsSharedReplyConsumer(connection, new JmsSyncEndpointConfiguration());
+
+        // unknown replies are not dispatched to requests
+        replyConsumer.onMessage(createReply("unknown"));
+        Assert.assertEquals(replyConsumer.getUnmatchedReplyCount(), 1);
+        Assert.assertEquals(replyConsumer.getInFlightRequestCount(), 0);
+
+        // reply carries generated correlation id of request
+        String correlationId = replyConsumer.send(messageProducer, destination, jmsRequest);
+        Assert.assertNotNull(correlationId);
+        Assert.assertNotEquals(correlationId, "123456789");
+        Assert.assertEquals(replyConsumer.getInFlightRequestCount(), 1);
+
+        replyConsumer.onMessage(createReply(correlationId));
+        Assert.assertEquals(replyConsumer.receive(correlationId, 100L).getJMSCorrelationID(), correlationId);
+        Assert.assertEquals(replyConsumer.getInFlightRequestCount(), 0);
+
+        // reply carries JMS message id of request
+        correlationId = replyConsumer.send(messageProducer, destination, jmsRequest);
+        replyConsumer.onMessage(createReply("123456789"));
+        Assert.assertEquals(replyConsumer.receive(correlationId, 100L).getJMSCorrelationID(), "123456789");
+        Assert.assertEquals(replyConsumer.getInFlightRequestCount(), 0);
+
+        // late replies are not dispatched anymore
+        replyConsumer.onMessage(createReply(correlationId));
+        Assert.assertEquals(replyConsumer.getUnmatchedReplyCount(), 2);
+
+        verify(connection, replySession, messageConsumer, messageProducer, tempReplyQueue);
+    }
+
+    @Test
+    public void testSharedReplyConsumerExplicitCorrelationId() throws JMSException {
+        TextMessage jmsRequest = new TextMessageImpl("<TestRequest><Message>Hello World!</Message></TestRequest>", new HashMap<String, Object>()) {
+            @Override
+            public String getJMSCorrelationID() throws JMSException {
+                return "myCorrelationId";
+            }
+        };
+
+        reset(connection, replySession, messageConsumer, messageProducer, tempReplyQueue);
+
+        expect(connection.createSession(anyBoolean(), anyInt())).andReturn(replySession).once();
+        expect(replySession.createTemporaryQueue()).andReturn(tempReplyQueue).once();
+        expect(replySession.createConsumer(tempReplyQueue)).andReturn(messageConsumer).once();
+        messageConsumer.setMessageListener(anyObject(MessageListener.class));
+        expectLastCall().once();
+
+        messageProducer.send(destination, jmsRequest);
+        expectLastCall().once();
+
+        replay(connection, replySession, messageConsumer, messageProducer, tempReplyQueue);
+
+        JmsSharedReplyConsumer replyConsumer = new JmsSharedReplyConsumer(connection, new JmsSyncEndpointConfiguration());
+
+        Assert.assertEquals(replyConsumer.send(messageProducer, destination, jmsRequest), "myCorrelationId");
+
+        try {
+            replyConsumer.send(messageProducer, destination, jmsRequest);
+            Assert.fail("Missing exception due to duplicate correlation id");
+        } catch (CitrusRuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("myCorrelationId"));
+        }
+
+        replyConsumer.onMessage(createReply("myCorrelationId"));
+        Assert.assertEquals(replyConsumer.receive("myCorrelationId", 100L).getJMSCorrelationID(), "myCorrelationId");
+        Assert.assertEquals(replyConsumer.getInFlightRequestCount(), 0);
+        Assert.assertEquals(replyConsumer.getUnmatchedReplyCount(), 0);
+
+        verify(connection, replySession, messageConsumer, messageProducer, tempReplyQueue);
+    }
+
+    /**
+     * Creates reply message with given correlation id.
+     * @param correlationId
+     * @return
+     */
+    private TextMessage createReply(final String correlationId) {
+        return new TextMessageImpl("<TestResponse>Hello World!</TestResponse>", new HashMap<String, Object>()) {
+            @Override
+            public String getJMSCorrelationID() throws JMSException {
+                return correlationId;
+            }
+        };
+    }
 }
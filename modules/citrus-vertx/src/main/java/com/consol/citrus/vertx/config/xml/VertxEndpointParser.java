@@ -20,6 +20,7 @@ import com.consol.citrus.config.util.BeanDefinitionParserUtils;
 import com.consol.citrus.config.xml.AbstractEndpointParser;
 import com.consol.citrus.endpoint.Endpoint;
 import com.consol.citrus.endpoint.EndpointConfiguration;
+import com.consol.citrus.vertx.endpoint.VertxBufferOverflowPolicy;
 import com.consol.citrus.vertx.endpoint.VertxEndpoint;
 import com.consol.citrus.vertx.endpoint.VertxEndpointConfiguration;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
@@ -50,6 +51,14 @@ public class VertxEndpointParser extends AbstractEndpointParser {
 
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("polling-interval"), "pollingInterval");
         BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration, element.getAttribute("message-converter"), "messageConverter");
+
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("buffered"), "buffered");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("buffer-size"), "bufferSize");
+
+        if (element.hasAttribute("overflow-policy")) {
+            endpointConfiguration.addPropertyValue("overflowPolicy",
+                    VertxBufferOverflowPolicy.fromName(element.getAttribute("overflow-policy")));
+        }
     }
 
     @Override
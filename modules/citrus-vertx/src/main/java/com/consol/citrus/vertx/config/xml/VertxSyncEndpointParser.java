@@ -37,6 +37,8 @@ public class VertxSyncEndpointParser extends VertxEndpointParser {
 
         BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration,
                 element.getAttribute("message-correlator"), "correlator");
+        BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration,
+                element.getAttribute("object-store"), "objectStore");
     }
 
     @Override
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.vertx.endpoint;
+
+/**
+ * Enumeration representing the different policies of a buffering Vert.x consumer when the message buffer is full.
+ * Event bus handlers must not block so incoming messages are never delayed until buffer space becomes available.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public enum VertxBufferOverflowPolicy {
+    DROP_OLDEST("dropOldest"),
+    DROP_NEWEST("dropNewest"),
+    FAIL("fail");
+
+    /** Name representation */
+    private String name;
+
+    /**
+     * Default constructor using String name representation field.
+     * @param name
+     */
+    VertxBufferOverflowPolicy(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the policy from given name representation.
+     * @param name
+     * @return
+     */
+    public static VertxBufferOverflowPolicy fromName(String name) {
+        for (VertxBufferOverflowPolicy policy : values()) {
+            if (policy.getName().equals(name)) {
+                return policy;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown buffer overflow policy: " + name);
+    }
+
+    /**
+     * Gets the name representation.
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+}
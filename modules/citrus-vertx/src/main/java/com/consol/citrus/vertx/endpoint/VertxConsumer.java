@@ -43,6 +43,9 @@ public class VertxConsumer extends AbstractMessageConsumer {
     /** Retry logger */
     private static final Logger RETRY_LOG = LoggerFactory.getLogger("com.consol.citrus.RetryLogger");
 
+    /** Message buffer registered once on event bus address in buffered mode */
+    private VertxMessageBuffer messageBuffer;
+
     /**
      * Default constructor using endpoint.
      * @param name
@@ -53,12 +56,21 @@ public class VertxConsumer extends AbstractMessageConsumer {
         super(name, endpointConfiguration);
         this.vertx = vertx;
         this.endpointConfiguration = endpointConfiguration;
+
+        if (endpointConfiguration.isBuffered()) {
+            // register buffer right away so messages published before first receive are not lost
+            getMessageBuffer();
+        }
     }
 
     @Override
     public Message receive(TestContext context, long timeout) {
         log.info("Receiving message on Vert.x event bus address: '" + endpointConfiguration.getAddress() + "'");
 
+        if (endpointConfiguration.isBuffered()) {
+            return receiveBuffered(context, timeout);
+        }
+
         VertxSingleMessageHandler vertxMessageHandler = new VertxSingleMessageHandler();
         vertx.eventBus().registerHandler(endpointConfiguration.getAddress(), vertxMessageHandler);
 
@@ -94,6 +106,67 @@ public class VertxConsumer extends AbstractMessageConsumer {
         return message;
     }
 
+    /**
+     * Receives next message from message buffer with timed wait.
+     * @param context
+     * @param timeout
+     * @return
+     */
+    private Message receiveBuffered(TestContext context, long timeout) {
+        Message message = endpointConfiguration.getMessageConverter().convertInbound(getMessageBuffer().receive(timeout), endpointConfiguration);
+
+        if (message == null) {
+            throw new ActionTimeoutException("Action timed out while receiving message on Vert.x event bus address '" + endpointConfiguration.getAddress() + "'");
+        }
+
+        log.info("Received message on Vert.x event bus address: '" + endpointConfiguration.getAddress() + "'");
+
+        context.onInboundMessage(message);
+
+        return message;
+    }
+
+    /**
+     * Gets the message buffer. Buffer is created and registered on event bus address when consumer is created and
+     * registered again on first usage after consumer has been destroyed.
+     * @return
+     */
+    private synchronized VertxMessageBuffer getMessageBuffer() {
+        if (messageBuffer == null) {
+            messageBuffer = new VertxMessageBuffer(endpointConfiguration.getAddress(),
+                    endpointConfiguration.getBufferSize(), endpointConfiguration.getOverflowPolicy());
+            vertx.eventBus().registerHandler(endpointConfiguration.getAddress(), messageBuffer);
+        }
+
+        return messageBuffer;
+    }
+
+    /**
+     * Gets the number of messages currently buffered in buffered mode.
+     * @return
+     */
+    public synchronized int getBufferDepth() {
+        return messageBuffer != null ? messageBuffer.getDepth() : 0;
+    }
+
+    /**
+     * Gets the number of messages dropped due to buffer overflow in buffered mode.
+     * @return
+     */
+    public synchronized long getDroppedMessages() {
+        return messageBuffer != null ? messageBuffer.getDroppedMessages() : 0L;
+    }
+
+    /**
+     * Unregisters message buffer from event bus address.
+     */
+    public synchronized void destroy() {
+        if (messageBuffer != null) {
+            vertx.eventBus().unregisterHandler(endpointConfiguration.getAddress(), messageBuffer);
+            messageBuffer = null;
+        }
+    }
+
     /**
      * Simple Vert.x message handler stores first message received on event bus and ignores all further messages
      * until subscription is unregistered automatically.
@@ -20,16 +20,21 @@ import com.consol.citrus.endpoint.AbstractEndpoint;
 import com.consol.citrus.messaging.Consumer;
 import com.consol.citrus.messaging.Producer;
 import com.consol.citrus.vertx.factory.VertxInstanceFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 
 /**
  * @author Christoph Deppisch
  * @since 1.4.1
  */
-public class VertxEndpoint extends AbstractEndpoint {
+public class VertxEndpoint extends AbstractEndpoint implements InitializingBean, DisposableBean {
 
     /** Vert.x instance */
     private VertxInstanceFactory vertxInstanceFactory;
 
+    /** Cached consumer in buffered mode */
+    private VertxConsumer bufferedConsumer;
+
     /**
      * Default constructor initializing endpoint configuration.
      */
@@ -54,10 +59,40 @@ public class VertxEndpoint extends AbstractEndpoint {
 
     @Override
     public Consumer createConsumer() {
+        if (getEndpointConfiguration().isBuffered()) {
+            synchronized (this) {
+                if (bufferedConsumer == null) {
+                    bufferedConsumer = new VertxConsumer(getConsumerName(), vertxInstanceFactory.newInstance(getEndpointConfiguration()),
+                            getEndpointConfiguration());
+                }
+
+                return bufferedConsumer;
+            }
+        }
+
         return new VertxConsumer(getConsumerName(), vertxInstanceFactory.newInstance(getEndpointConfiguration()),
                 getEndpointConfiguration());
     }
 
+    /**
+     * Creates consumer in buffered mode on startup so message buffer is registered on event bus address
+     * before first receive operation and no messages are lost.
+     * @throws Exception
+     */
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (getEndpointConfiguration().isBuffered() && vertxInstanceFactory != null) {
+            createConsumer();
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (bufferedConsumer != null) {
+            bufferedConsumer.destroy();
+        }
+    }
+
     @Override
     public VertxEndpointConfiguration getEndpointConfiguration() {
         return (VertxEndpointConfiguration) super.getEndpointConfiguration();
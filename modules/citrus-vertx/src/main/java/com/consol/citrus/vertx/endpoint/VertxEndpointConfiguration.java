@@ -40,6 +40,15 @@ public class VertxEndpointConfiguration extends AbstractPollableEndpointConfigur
     /** Message converter */
     private VertxMessageConverter messageConverter = new VertxMessageConverter();
 
+    /** Register consumer once and buffer incoming messages between receive operations */
+    private boolean buffered = false;
+
+    /** Maximum number of buffered messages */
+    private int bufferSize = 1000;
+
+    /** Policy when message buffer is full */
+    private VertxBufferOverflowPolicy overflowPolicy = VertxBufferOverflowPolicy.DROP_NEWEST;
+
     /**
      * Gets the address on the vert.x event bus.
      * @return
@@ -119,4 +128,53 @@ public class VertxEndpointConfiguration extends AbstractPollableEndpointConfigur
     public void setMessageConverter(VertxMessageConverter messageConverter) {
         this.messageConverter = messageConverter;
     }
+
+    /**
+     * Gets the buffered.
+     * @return the buffered the buffered to get.
+     */
+    public boolean isBuffered() {
+        return buffered;
+    }
+
+    /**
+     * Sets the buffered. When enabled consumer registers once on the event bus address and buffers all incoming messages
+     * instead of registering a new handler for each receive operation.
+     * @param buffered the buffered to set
+     */
+    public void setBuffered(boolean buffered) {
+        this.buffered = buffered;
+    }
+
+    /**
+     * Gets the bufferSize.
+     * @return the bufferSize the bufferSize to get.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Sets the bufferSize.
+     * @param bufferSize the bufferSize to set
+     */
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Gets the overflowPolicy.
+     * @return the overflowPolicy the overflowPolicy to get.
+     */
+    public VertxBufferOverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets the overflowPolicy.
+     * @param overflowPolicy the overflowPolicy to set
+     */
+    public void setOverflowPolicy(VertxBufferOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
 }
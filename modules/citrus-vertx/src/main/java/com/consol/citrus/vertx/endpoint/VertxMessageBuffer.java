@@ -0,0 +1,127 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.vertx.endpoint;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.vertx.java.core.Handler;
+import org.vertx.java.core.eventbus.Message;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vert.x event bus handler buffering all incoming messages in a bounded blocking queue. Handler is registered once
+ * on the event bus address so messages arriving between receive operations are not lost. Receive operations take messages
+ * from the buffer with timed waits.
+ *
+ * When buffer is full incoming messages are handled according to the buffer overflow policy.
+ *
+ * @author Christoph Deppisch
+ * @since 2.3
+ */
+public class VertxMessageBuffer implements Handler<Message> {
+
+    /** Logger */
+    private static Logger log = LoggerFactory.getLogger(VertxMessageBuffer.class);
+
+    /** Event bus address */
+    private final String address;
+
+    /** Buffered messages */
+    private final BlockingQueue<Message> messages;
+
+    /** Policy when buffer is full */
+    private final VertxBufferOverflowPolicy overflowPolicy;
+
+    /** Number of messages dropped due to buffer overflow */
+    private final AtomicLong droppedMessages = new AtomicLong();
+
+    /** Overflow marker raised on next receive when using fail policy */
+    private volatile boolean overflow = false;
+
+    /**
+     * Default constructor using buffer settings.
+     * @param address
+     * @param bufferSize
+     * @param overflowPolicy
+     */
+    public VertxMessageBuffer(String address, int bufferSize, VertxBufferOverflowPolicy overflowPolicy) {
+        this.address = address;
+        this.messages = new LinkedBlockingQueue<Message>(Math.max(bufferSize, 1));
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public void handle(Message event) {
+        while (!messages.offer(event)) {
+            if (overflowPolicy == VertxBufferOverflowPolicy.DROP_OLDEST) {
+                if (messages.poll() != null) {
+                    droppedMessages.incrementAndGet();
+                    log.warn("Vert.x message buffer full - dropped oldest message on event bus address '" + address + "'");
+                }
+            } else {
+                droppedMessages.incrementAndGet();
+                overflow = overflowPolicy == VertxBufferOverflowPolicy.FAIL;
+
+                log.warn("Vert.x message buffer full - dropped message on event bus address '" + address + "'");
+                log.debug("Vert.x message dropped is " + event);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Waits for next buffered message. Negative timeout waits forever.
+     * @param timeout
+     * @return the message or null when timeout is exceeded.
+     */
+    public Message receive(long timeout) {
+        if (overflow) {
+            overflow = false;
+            throw new CitrusRuntimeException("Vert.x message buffer overflow on event bus address '" + address + "' - " +
+                    droppedMessages.get() + " message(s) dropped");
+        }
+
+        try {
+            if (timeout >= 0) {
+                return messages.poll(timeout, TimeUnit.MILLISECONDS);
+            } else {
+                return messages.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of currently buffered messages.
+     * @return
+     */
+    public int getDepth() {
+        return messages.size();
+    }
+
+    /**
+     * Gets the number of messages dropped due to buffer overflow.
+     * @return
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+}
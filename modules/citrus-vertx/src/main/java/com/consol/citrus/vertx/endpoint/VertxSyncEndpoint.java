@@ -50,7 +50,7 @@ public class VertxSyncEndpoint extends VertxEndpoint {
     }
 
     @Override
-    public Consumer createConsumer() {
+    public synchronized Consumer createConsumer() {
         if (vertxSyncMessageProducer != null) {
             return vertxSyncMessageProducer;
         }
@@ -65,7 +65,7 @@ public class VertxSyncEndpoint extends VertxEndpoint {
     }
 
     @Override
-    public Producer createProducer() {
+    public synchronized Producer createProducer() {
         if (vertxSyncMessageConsumer != null) {
             return vertxSyncMessageConsumer;
         }
@@ -78,4 +78,11 @@ public class VertxSyncEndpoint extends VertxEndpoint {
 
         return vertxSyncMessageProducer;
     }
+
+    @Override
+    public void destroy() throws Exception {
+        if (vertxSyncMessageConsumer != null) {
+            vertxSyncMessageConsumer.destroy();
+        }
+    }
 }
@@ -16,12 +16,14 @@
 
 package com.consol.citrus.vertx.endpoint;
 
+import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.message.DefaultMessage;
 import com.consol.citrus.message.Message;
 import com.consol.citrus.report.MessageListeners;
 import com.consol.citrus.testng.AbstractTestNGUnitTest;
 import com.consol.citrus.vertx.factory.SingleVertxInstanceFactory;
 import com.consol.citrus.vertx.message.CitrusVertxMessageHeaders;
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.easymock.IAnswer;
 import org.testng.Assert;
@@ -163,4 +165,61 @@ public class VertxEndpointTest extends AbstractTestNGUnitTest {
 
         verify(vertx, eventBus, messageListeners);
     }
+
+    @Test
+    public void testVertxEndpointBufferedConsumer() throws Exception {
+        String eventBusAddress = "news-feed";
+        VertxEndpointConfiguration endpointConfiguration = new VertxEndpointConfiguration();
+        endpointConfiguration.setAddress(eventBusAddress);
+        endpointConfiguration.setBuffered(true);
+
+        VertxEndpoint vertxEndpoint = new VertxEndpoint(endpointConfiguration);
+        vertxEndpoint.setVertxInstanceFactory(instanceFactory);
+
+        final Capture<Handler> handler = new Capture<Handler>();
+
+        reset(vertx, eventBus, messageMock);
+
+        expect(messageMock.body()).andReturn("Hello from Vertx!").times(2);
+        expect(messageMock.address()).andReturn(eventBusAddress).times(2);
+        expect(messageMock.replyAddress()).andReturn("replyAddress").times(2);
+
+        expect(vertx.eventBus()).andReturn(eventBus).times(2);
+        expect(eventBus.registerHandler(eq(eventBusAddress), capture(handler))).andReturn(eventBus).once();
+        expect(eventBus.unregisterHandler(eq(eventBusAddress), anyObject(Handler.class))).andReturn(eventBus).once();
+
+        replay(vertx, eventBus, messageMock);
+
+        vertxEndpoint.afterPropertiesSet();
+        Assert.assertTrue(handler.hasCaptured());
+
+        // messages published before first receive are buffered
+        handler.getValue().handle(messageMock);
+        handler.getValue().handle(messageMock);
+
+        VertxConsumer consumer = (VertxConsumer) vertxEndpoint.createConsumer();
+        Assert.assertSame(vertxEndpoint.createConsumer(), consumer);
+        Assert.assertEquals(consumer.getBufferDepth(), 2);
+
+        Message receivedMessage = consumer.receive(context, endpointConfiguration.getTimeout());
+        Assert.assertEquals(receivedMessage.getPayload(), "Hello from Vertx!");
+        Assert.assertEquals(receivedMessage.getHeader(CitrusVertxMessageHeaders.VERTX_ADDRESS), eventBusAddress);
+        Assert.assertEquals(receivedMessage.getHeader(CitrusVertxMessageHeaders.VERTX_REPLY_ADDRESS), "replyAddress");
+        Assert.assertEquals(consumer.getBufferDepth(), 1);
+
+        receivedMessage = vertxEndpoint.createConsumer().receive(context, endpointConfiguration.getTimeout());
+        Assert.assertEquals(receivedMessage.getPayload(), "Hello from Vertx!");
+        Assert.assertEquals(consumer.getBufferDepth(), 0);
+
+        try {
+            consumer.receive(context, 100L);
+            Assert.fail("Missing exception due to receive timeout");
+        } catch (ActionTimeoutException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Action timed out while receiving message on Vert.x event bus address"));
+        }
+
+        vertxEndpoint.destroy();
+
+        verify(vertx, eventBus, messageMock);
+    }
 }
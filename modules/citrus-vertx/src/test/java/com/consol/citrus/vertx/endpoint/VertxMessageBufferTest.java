@@ -0,0 +1,78 @@
+/*
+ * Copyright 2006-2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.consol.citrus.vertx.endpoint;
+
+import com.consol.citrus.exceptions.CitrusRuntimeException;
+import org.easymock.EasyMock;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.vertx.java.core.eventbus.Message;
+
+/**
+ * @author Christoph Deppisch
+ */
+public class VertxMessageBufferTest {
+
+    private Message first = EasyMock.createMock(Message.class);
+    private Message second = EasyMock.createMock(Message.class);
+    private Message third = EasyMock.createMock(Message.class);
+
+    @Test
+    public void testDropNewest() {
+        VertxMessageBuffer messageBuffer = new VertxMessageBuffer("news-feed", 2, VertxBufferOverflowPolicy.DROP_NEWEST);
+
+        messageBuffer.handle(first);
+        messageBuffer.handle(second);
+        messageBuffer.handle(third);
+
+        Assert.assertEquals(messageBuffer.getDepth(), 2);
+        Assert.assertEquals(messageBuffer.getDroppedMessages(), 1L);
+        Assert.assertSame(messageBuffer.receive(0L), first);
+        Assert.assertSame(messageBuffer.receive(0L), second);
+        Assert.assertNull(messageBuffer.receive(10L));
+    }
+
+    @Test
+    public void testDropOldest() {
+        VertxMessageBuffer messageBuffer = new VertxMessageBuffer("news-feed", 2, VertxBufferOverflowPolicy.DROP_OLDEST);
+
+        messageBuffer.handle(first);
+        messageBuffer.handle(second);
+        messageBuffer.handle(third);
+
+        Assert.assertEquals(messageBuffer.getDepth(), 2);
+        Assert.assertEquals(messageBuffer.getDroppedMessages(), 1L);
+        Assert.assertSame(messageBuffer.receive(0L), second);
+        Assert.assertSame(messageBuffer.receive(0L), third);
+    }
+
+    @Test
+    public void testFailOnOverflow() {
+        VertxMessageBuffer messageBuffer = new VertxMessageBuffer("news-feed", 1, VertxBufferOverflowPolicy.FAIL);
+
+        messageBuffer.handle(first);
+        messageBuffer.handle(second);
+
+        try {
+            messageBuffer.receive(0L);
+            Assert.fail("Missing exception due to buffer overflow");
+        } catch (CitrusRuntimeException e) {
+            Assert.assertEquals(e.getMessage(), "Vert.x message buffer overflow on event bus address 'news-feed' - 1 message(s) dropped");
+        }
+
+        Assert.assertSame(messageBuffer.receive(0L), first);
+    }
+}
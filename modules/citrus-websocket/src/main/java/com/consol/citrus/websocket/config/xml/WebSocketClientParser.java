@@ -44,6 +44,8 @@ public class WebSocketClientParser extends AbstractEndpointParser {
 
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("url"), "endpointUri");
         BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration, element.getAttribute("message-converter"), "messageConverter");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("session-queue-capacity"), "sessionQueueCapacity");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("send-timeout"), "sendTimeout");
         BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration, element.getAttribute("endpoint-resolver"), "endpointUriResolver");
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("polling-interval"), "pollingInterval");
     }
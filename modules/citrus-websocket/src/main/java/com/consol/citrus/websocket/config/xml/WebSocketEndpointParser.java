@@ -40,6 +40,8 @@ public class WebSocketEndpointParser extends AbstractEndpointParser {
 
         BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("path"), "endpointUri");
         BeanDefinitionParserUtils.setPropertyReference(endpointConfiguration, element.getAttribute("message-converter"), "messageConverter");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("session-queue-capacity"), "sessionQueueCapacity");
+        BeanDefinitionParserUtils.setPropertyValue(endpointConfiguration, element.getAttribute("send-timeout"), "sendTimeout");
     }
 
     @Override
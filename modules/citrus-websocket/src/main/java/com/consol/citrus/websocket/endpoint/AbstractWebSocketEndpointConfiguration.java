@@ -19,6 +19,7 @@ package com.consol.citrus.websocket.endpoint;
 import com.consol.citrus.endpoint.AbstractPollableEndpointConfiguration;
 import com.consol.citrus.endpoint.resolver.DynamicEndpointUriResolver;
 import com.consol.citrus.endpoint.resolver.EndpointUriResolver;
+import com.consol.citrus.websocket.handler.CitrusWebSocketHandler;
 import com.consol.citrus.websocket.message.WebSocketMessageConverter;
 
 /**
@@ -36,6 +37,12 @@ public abstract class AbstractWebSocketEndpointConfiguration extends AbstractPol
     /** The message converter */
     private WebSocketMessageConverter messageConverter = new WebSocketMessageConverter();
 
+    /** Inbound message queue capacity per session */
+    private int sessionQueueCapacity = CitrusWebSocketHandler.DEFAULT_SESSION_QUEUE_CAPACITY;
+
+    /** Send timeout per session */
+    private long sendTimeout = CitrusWebSocketHandler.DEFAULT_SEND_TIMEOUT;
+
     @Override
     public WebSocketMessageConverter getMessageConverter() {
         return messageConverter;
@@ -65,4 +72,24 @@ public abstract class AbstractWebSocketEndpointConfiguration extends AbstractPol
     public void setEndpointUriResolver(EndpointUriResolver endpointUriResolver) {
         this.endpointUriResolver = endpointUriResolver;
     }
+
+    @Override
+    public int getSessionQueueCapacity() {
+        return sessionQueueCapacity;
+    }
+
+    @Override
+    public void setSessionQueueCapacity(int sessionQueueCapacity) {
+        this.sessionQueueCapacity = sessionQueueCapacity;
+    }
+
+    @Override
+    public long getSendTimeout() {
+        return sendTimeout;
+    }
+
+    @Override
+    public void setSendTimeout(long sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
 }
@@ -20,6 +20,7 @@ import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.websocket.handler.CitrusWebSocketHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.util.concurrent.ListenableFuture;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.client.WebSocketClient;
@@ -30,7 +31,7 @@ import org.springframework.web.socket.client.standard.StandardWebSocketClient;
  * @author Martin Maher
  * @since 2.3
  */
-public class WebSocketClientEndpointConfiguration extends AbstractWebSocketEndpointConfiguration {
+public class WebSocketClientEndpointConfiguration extends AbstractWebSocketEndpointConfiguration implements DisposableBean {
     /** Logger */
     private static final Logger LOG = LoggerFactory.getLogger(WebSocketClientEndpointConfiguration.class);
 
@@ -59,7 +60,7 @@ public class WebSocketClientEndpointConfiguration extends AbstractWebSocketEndpo
      * @return
      */
     private CitrusWebSocketHandler getWebSocketClientHandler(String url) {
-        CitrusWebSocketHandler handler = new CitrusWebSocketHandler();
+        CitrusWebSocketHandler handler = new CitrusWebSocketHandler(getSessionQueueCapacity());
         ListenableFuture<WebSocketSession> future = client.doHandshake(handler, url);
         try {
             future.get();
@@ -78,4 +79,11 @@ public class WebSocketClientEndpointConfiguration extends AbstractWebSocketEndpo
     public void setClient(WebSocketClient client) {
         this.client = client;
     }
+
+    @Override
+    public void destroy() throws Exception {
+        if (handler != null) {
+            handler.destroy();
+        }
+    }
 }
@@ -19,13 +19,17 @@ package com.consol.citrus.websocket.endpoint;
 import com.consol.citrus.context.TestContext;
 import com.consol.citrus.exceptions.ActionTimeoutException;
 import com.consol.citrus.message.Message;
+import com.consol.citrus.message.MessageSelectorBuilder;
 import com.consol.citrus.messaging.AbstractSelectiveMessageConsumer;
+import com.consol.citrus.websocket.handler.CitrusWebSocketHandler;
+import com.consol.citrus.websocket.message.WebSocketMessageHeaders;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.util.StringUtils;
 
 /**
- * Consumer polls for incoming messages on web socket handler.
+ * Consumer waits for incoming messages on web socket handler. Message selector may name a web socket session id
+ * in order to receive messages of this session only.
  * @author Martin Maher
  * @since 2.3
  */
@@ -54,8 +58,14 @@ public class WebSocketConsumer extends AbstractSelectiveMessageConsumer {
     public Message receive(String selector, TestContext context, long timeout) {
         LOG.info(String.format("Waiting %s ms for Web Socket message ...", timeout));
 
-        WebSocketMessage<?> message = receive(endpointConfiguration, timeout);
-        Message receivedMessage = endpointConfiguration.getMessageConverter().convertInbound(message, endpointConfiguration);
+        String sessionId = null;
+        if (StringUtils.hasText(selector)) {
+            sessionId = MessageSelectorBuilder.withString(selector).toKeyValueMap().get(WebSocketMessageHeaders.WEB_SOCKET_SESSION_ID);
+        }
+
+        CitrusWebSocketHandler.SessionMessage message = receive(endpointConfiguration, sessionId, timeout);
+        Message receivedMessage = endpointConfiguration.getMessageConverter().convertInbound(message.getMessage(), endpointConfiguration);
+        receivedMessage.setHeader(WebSocketMessageHeaders.WEB_SOCKET_SESSION_ID, message.getSessionId());
 
         LOG.info("Received Web Socket message");
         context.onInboundMessage(receivedMessage);
@@ -64,33 +74,21 @@ public class WebSocketConsumer extends AbstractSelectiveMessageConsumer {
     }
 
     /**
-     * Receive web socket message by polling on web socket handler for incoming message.
+     * Receive web socket message by waiting on web socket handler for incoming message. When session id is
+     * given only messages of this session are received.
      * @param config
+     * @param sessionId
      * @param timeout
      * @return
      */
-    private WebSocketMessage<?> receive(WebSocketEndpointConfiguration config, long timeout) {
-        long timeLeft = timeout;
-
-        WebSocketMessage<?> message = config.getHandler().getMessage();
+    private CitrusWebSocketHandler.SessionMessage receive(WebSocketEndpointConfiguration config, String sessionId, long timeout) {
         String path = endpointConfiguration.getEndpointUri();
-        while (message == null && timeLeft > 0) {
-            timeLeft -= endpointConfiguration.getPollingInterval();
-            long sleep = timeLeft > 0 ? endpointConfiguration.getPollingInterval() : endpointConfiguration.getPollingInterval() + timeLeft;
-            if (LOG.isDebugEnabled()) {
-                String msg = "Waiting for message on '%s' - retrying in %s ms";
-                LOG.debug(String.format(msg, path, (sleep)));
-            }
-
-            try {
-                Thread.sleep(sleep);
-            } catch (InterruptedException e) {
-                LOG.warn(String.format("Thread interrupted while waiting for message on '%s'", path), e);
-            }
-
-            message = config.getHandler().getMessage();
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Waiting for message on '%s'%s", path, sessionId != null ? String.format(" (%s)", sessionId) : ""));
         }
 
+        CitrusWebSocketHandler.SessionMessage message = config.getHandler().receive(sessionId, timeout);
+
         if (message == null) {
             throw new ActionTimeoutException(String.format("Action timed out while receiving message on '%s'", path));
         }
@@ -20,13 +20,14 @@ import com.consol.citrus.endpoint.AbstractEndpoint;
 import com.consol.citrus.websocket.handler.CitrusWebSocketHandler;
 import com.consol.citrus.messaging.Producer;
 import com.consol.citrus.messaging.SelectiveConsumer;
+import org.springframework.beans.factory.DisposableBean;
 
 /**
  * Endpoint constructs web socket consumer and producer with given endpoint configuration.
  * @author Martin Maher
  * @since 2.3
  */
-public class WebSocketEndpoint extends AbstractEndpoint {
+public class WebSocketEndpoint extends AbstractEndpoint implements DisposableBean {
     /**
      * Cached producer or consumer
      */
@@ -72,4 +73,11 @@ public class WebSocketEndpoint extends AbstractEndpoint {
     public void setWebSocketHandler(CitrusWebSocketHandler handler) {
         getEndpointConfiguration().setHandler(handler);
     }
+
+    @Override
+    public void destroy() throws Exception {
+        if (getEndpointConfiguration() instanceof DisposableBean) {
+            ((DisposableBean) getEndpointConfiguration()).destroy();
+        }
+    }
 }
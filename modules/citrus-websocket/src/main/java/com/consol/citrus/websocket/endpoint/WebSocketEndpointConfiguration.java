@@ -76,4 +76,28 @@ public interface WebSocketEndpointConfiguration extends PollableEndpointConfigur
      * @param endpointUriResolver the endpointUriResolver to set
      */
     void setEndpointUriResolver(EndpointUriResolver endpointUriResolver);
+
+    /**
+     * Gets the inbound message queue capacity per web socket session.
+     * @return
+     */
+    int getSessionQueueCapacity();
+
+    /**
+     * Sets the inbound message queue capacity per web socket session.
+     * @param sessionQueueCapacity
+     */
+    void setSessionQueueCapacity(int sessionQueueCapacity);
+
+    /**
+     * Gets the send timeout per web socket session.
+     * @return
+     */
+    long getSendTimeout();
+
+    /**
+     * Sets the send timeout per web socket session.
+     * @param sendTimeout
+     */
+    void setSendTimeout(long sendTimeout);
 }
@@ -19,13 +19,14 @@ package com.consol.citrus.websocket.endpoint;
 import com.consol.citrus.websocket.handler.CitrusWebSocketHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
 
 /**
  * Web socket endpoint configuration for server side web socket communication.
  * @author Martin Maher
  * @since 2.3
  */
-public class WebSocketServerEndpointConfiguration extends AbstractWebSocketEndpointConfiguration {
+public class WebSocketServerEndpointConfiguration extends AbstractWebSocketEndpointConfiguration implements DisposableBean {
     /** Logger */
     private static final Logger LOG = LoggerFactory.getLogger(WebSocketServerEndpointConfiguration.class);
 
@@ -44,4 +45,11 @@ public class WebSocketServerEndpointConfiguration extends AbstractWebSocketEndpo
         }
         this.handler = handler;
     }
+
+    @Override
+    public void destroy() throws Exception {
+        if (handler != null) {
+            handler.destroy();
+        }
+    }
 }
@@ -16,19 +16,28 @@
 
 package com.consol.citrus.websocket.handler;
 
+import com.consol.citrus.exceptions.CitrusRuntimeException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.socket.*;
 import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Queue;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Web Socket Handler for handling incoming and sending outgoing Web Socket messages
+ * Web Socket Handler for handling incoming and sending outgoing Web Socket messages. Incoming messages are stored in
+ * bounded inbound queues per session. Receive operations wait for messages either on a specific session or on
+ * all sessions in order of arrival. When the inbound queue of a session stays full the session is closed so container
+ * threads are never blocked for long.
+ *
+ * Messages without target session are published to all open sessions in parallel with a send timeout per session.
  *
  * @author Martin Maher
  * @since 2.3
@@ -37,11 +46,55 @@ public class CitrusWebSocketHandler extends AbstractWebSocketHandler {
     /** Logger */
     private static final Logger LOG = LoggerFactory.getLogger(CitrusWebSocketHandler.class);
 
-    /** Inbound message cache */
-    private final Queue<WebSocketMessage<?>> inboundMessages = new LinkedList<>();
+    /** Default capacity of inbound message queue per session */
+    public static final int DEFAULT_SESSION_QUEUE_CAPACITY = 1000;
+
+    /** Default send timeout per session */
+    public static final long DEFAULT_SEND_TIMEOUT = 5000L;
+
+    /** Maximum time to wait for space in a full inbound queue before the session is closed */
+    public static final long DEFAULT_INBOUND_QUEUE_TIMEOUT = 500L;
+
+    /** Inbound message queues by session id */
+    private final ConcurrentMap<String, BlockingQueue<InboundMessage>> inboundMessages = new ConcurrentHashMap<>();
+
+    /** Sequence number of inbound messages in order of arrival */
+    private final AtomicLong arrivalSequence = new AtomicLong();
+
+    /** Lock and condition signalling new inbound messages to receive operations on all sessions */
+    private final Lock arrivalLock = new ReentrantLock();
+    private final Condition messageArrived = arrivalLock.newCondition();
 
     /** Web socket sessions */
-    private final Map<String, WebSocketSession> sessions = new HashMap<>();
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    /** Send locks by session id */
+    private final ConcurrentMap<String, Lock> sessionLocks = new ConcurrentHashMap<>();
+
+    /** Capacity of inbound message queue per session */
+    private final int sessionQueueCapacity;
+
+    /** Executor publishing messages to multiple sessions in parallel */
+    private final ExecutorService broadcastExecutor;
+
+    /**
+     * Default constructor.
+     */
+    public CitrusWebSocketHandler() {
+        this(DEFAULT_SESSION_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Constructor using inbound queue capacity per session.
+     * @param sessionQueueCapacity
+     */
+    public CitrusWebSocketHandler(int sessionQueueCapacity) {
+        this.sessionQueueCapacity = Math.max(sessionQueueCapacity, 1);
+
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("citrus-websocket-broadcast-");
+        threadFactory.setDaemon(true);
+        this.broadcastExecutor = Executors.newCachedThreadPool(threadFactory);
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
@@ -52,19 +105,19 @@ public class CitrusWebSocketHandler extends AbstractWebSocketHandler {
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         LOG.debug(String.format("WebSocket endpoint (%s) received text message", session.getId()));
-        inboundMessages.add(message);
+        addInboundMessage(session, message);
     }
 
     @Override
     protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
         LOG.debug(String.format("WebSocket endpoint (%s) received binary message", session.getId()));
-        inboundMessages.add(message);
+        addInboundMessage(session, message);
     }
 
     @Override
     protected void handlePongMessage(WebSocketSession session, PongMessage message) throws Exception {
         LOG.debug(String.format("WebSocket endpoint (%s) received pong message", session.getId()));
-        inboundMessages.add(message);
+        addInboundMessage(session, message);
     }
 
     @Override
@@ -76,6 +129,55 @@ public class CitrusWebSocketHandler extends AbstractWebSocketHandler {
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         LOG.debug(String.format("WebSocket session (%s) closed - status : %s", session.getId(), status));
         sessions.remove(session.getId());
+        sessionLocks.remove(session.getId());
+
+        BlockingQueue<InboundMessage> queue = inboundMessages.get(session.getId());
+        if (queue != null && queue.isEmpty()) {
+            inboundMessages.remove(session.getId(), queue);
+        }
+    }
+
+    /**
+     * Adds message to inbound queue of session. When queue is full the caller waits a short time for space to become
+     * available. After that the message is dropped and the session is closed as the container thread must not be blocked.
+     * @param session
+     * @param message
+     * @throws Exception
+     */
+    private void addInboundMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+        BlockingQueue<InboundMessage> queue = getInboundQueue(session.getId());
+
+        if (!queue.offer(new InboundMessage(arrivalSequence.incrementAndGet(), message), DEFAULT_INBOUND_QUEUE_TIMEOUT, TimeUnit.MILLISECONDS)) {
+            LOG.error(String.format("WebSocket inbound queue full (%s) - dropping message and closing session", session.getId()));
+            session.close(CloseStatus.SERVICE_OVERLOAD);
+            return;
+        }
+
+        arrivalLock.lock();
+        try {
+            messageArrived.signalAll();
+        } finally {
+            arrivalLock.unlock();
+        }
+    }
+
+    /**
+     * Gets inbound queue of session, creating it if not present yet.
+     * @param sessionId
+     * @return
+     */
+    private BlockingQueue<InboundMessage> getInboundQueue(String sessionId) {
+        BlockingQueue<InboundMessage> queue = inboundMessages.get(sessionId);
+
+        if (queue == null) {
+            queue = new LinkedBlockingQueue<>(sessionQueueCapacity);
+            BlockingQueue<InboundMessage> existing = inboundMessages.putIfAbsent(sessionId, queue);
+            if (existing != null) {
+                queue = existing;
+            }
+        }
+
+        return queue;
     }
 
     /**
@@ -83,7 +185,114 @@ public class CitrusWebSocketHandler extends AbstractWebSocketHandler {
      * @return
      */
     public WebSocketMessage<?> getMessage() {
-        return inboundMessages.poll();
+        SessionMessage message = receive(null, 0L);
+        return message != null ? message.getMessage() : null;
+    }
+
+    /**
+     * Waits for next inbound message on given session. When session id is empty the next message of any session is
+     * received in order of arrival. Negative timeout waits forever.
+     * @param sessionId
+     * @param timeout
+     * @return the message or null when timeout is exceeded.
+     */
+    public SessionMessage receive(String sessionId, long timeout) {
+        try {
+            if (sessionId != null) {
+                return receiveFromSession(sessionId, timeout);
+            }
+
+            long deadline = System.currentTimeMillis() + timeout;
+            arrivalLock.lock();
+            try {
+                while (true) {
+                    SessionMessage message = pollEarliestMessage();
+                    if (message != null) {
+                        return message;
+                    }
+
+                    if (timeout < 0) {
+                        messageArrived.await();
+                    } else {
+                        long timeLeft = deadline - System.currentTimeMillis();
+                        if (timeLeft <= 0) {
+                            return null;
+                        }
+
+                        messageArrived.await(timeLeft, TimeUnit.MILLISECONDS);
+                    }
+                }
+            } finally {
+                arrivalLock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Waits for next inbound message on given session.
+     * @param sessionId
+     * @param timeout
+     * @return
+     * @throws InterruptedException
+     */
+    private SessionMessage receiveFromSession(String sessionId, long timeout) throws InterruptedException {
+        BlockingQueue<InboundMessage> queue = getInboundQueue(sessionId);
+        InboundMessage message = timeout >= 0 ? queue.poll(timeout, TimeUnit.MILLISECONDS) : queue.take();
+
+        if (message == null) {
+            return null;
+        }
+
+        removeClosedSessionQueue(sessionId, queue);
+
+        return new SessionMessage(sessionId, message.getMessage());
+    }
+
+    /**
+     * Polls message that arrived first among the heads of all session inbound queues without waiting. Messages
+     * of one session arrive in sequence order so only queue heads need to be compared.
+     * @return
+     */
+    private SessionMessage pollEarliestMessage() {
+        while (true) {
+            String earliestSessionId = null;
+            BlockingQueue<InboundMessage> earliestQueue = null;
+            long earliestSequence = Long.MAX_VALUE;
+
+            for (Map.Entry<String, BlockingQueue<InboundMessage>> entry : inboundMessages.entrySet()) {
+                InboundMessage head = entry.getValue().peek();
+                if (head != null && head.getSequence() < earliestSequence) {
+                    earliestSessionId = entry.getKey();
+                    earliestQueue = entry.getValue();
+                    earliestSequence = head.getSequence();
+                }
+            }
+
+            if (earliestQueue == null) {
+                return null;
+            }
+
+            // message may have been received from session directly in the meantime
+            InboundMessage message = earliestQueue.poll();
+            if (message != null) {
+                removeClosedSessionQueue(earliestSessionId, earliestQueue);
+                return new SessionMessage(earliestSessionId, message.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes inbound queue of closed session once all messages have been received.
+     * @param sessionId
+     * @param queue
+     */
+    private void removeClosedSessionQueue(String sessionId, BlockingQueue<InboundMessage> queue) {
+        if (queue.isEmpty() && !sessions.containsKey(sessionId)) {
+            inboundMessages.remove(sessionId, queue);
+        }
     }
 
     /**
@@ -92,21 +301,229 @@ public class CitrusWebSocketHandler extends AbstractWebSocketHandler {
      * @return
      */
     public boolean sendMessage(WebSocketMessage<?> message) {
-        boolean sentSuccessfully = false;
+        return sendMessage(message, DEFAULT_SEND_TIMEOUT);
+    }
+
+    /**
+     * Publish message to all open sessions known to this handler. Sessions are served in parallel and each send operation
+     * must complete within given send timeout.
+     * @param message
+     * @param sendTimeout
+     * @return
+     */
+    public boolean sendMessage(WebSocketMessage<?> message, long sendTimeout) {
         if (sessions.isEmpty()) {
             LOG.warn("No Web Socket session exists - message cannot be sent");
         }
 
+        List<WebSocketSession> openSessions = new ArrayList<>();
         for (WebSocketSession session : sessions.values()) {
             if (session != null && session.isOpen()) {
-                try {
-                    session.sendMessage(message);
+                openSessions.add(session);
+            }
+        }
+
+        return send(openSessions, message, sendTimeout);
+    }
+
+    /**
+     * Send message to session with given id. Send operation must complete within given send timeout.
+     * @param sessionId
+     * @param message
+     * @param sendTimeout
+     * @return
+     */
+    public boolean sendMessage(String sessionId, WebSocketMessage<?> message, long sendTimeout) {
+        WebSocketSession session = sessions.get(sessionId);
+
+        if (session == null || !session.isOpen()) {
+            throw new CitrusRuntimeException(String.format("Unable to send message - no open Web Socket session (%s)", sessionId));
+        }
+
+        return send(Collections.singletonList(session), message, sendTimeout);
+    }
+
+    /**
+     * Sends message to given sessions in parallel. All send operations share the same deadline so a broadcast
+     * never takes longer than the send timeout. Caller is not blocked by socket writes that never complete.
+     * @param targetSessions
+     * @param message
+     * @param sendTimeout
+     * @return true when message was sent to at least one session.
+     */
+    private boolean send(List<WebSocketSession> targetSessions, final WebSocketMessage<?> message, long sendTimeout) {
+        boolean sentSuccessfully = false;
+        final long deadline = System.currentTimeMillis() + sendTimeout;
+
+        Map<WebSocketSession, Future<Boolean>> results = new LinkedHashMap<>();
+        for (final WebSocketSession session : targetSessions) {
+            results.put(session, broadcastExecutor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    return send(session, message, deadline - System.currentTimeMillis());
+                }
+            }));
+        }
+
+        for (Map.Entry<WebSocketSession, Future<Boolean>> result : results.entrySet()) {
+            try {
+                if (result.getValue().get(Math.max(deadline - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS)) {
                     sentSuccessfully = true;
-                } catch (IOException e) {
-                    LOG.error(String.format("(%s) error sending message", session.getId()), e);
                 }
+            } catch (TimeoutException e) {
+                result.getValue().cancel(true);
+                LOG.error(String.format("(%s) timed out sending message after %s ms", result.getKey().getId(), sendTimeout));
+            } catch (ExecutionException e) {
+                LOG.error(String.format("(%s) error sending message", result.getKey().getId()), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CitrusRuntimeException("Interrupted while sending Web Socket message", e);
             }
         }
+
         return sentSuccessfully;
     }
+
+    /**
+     * Sends message to single session. Send operations on the same session are serialized with a session lock as web socket
+     * sessions do not support concurrent sending. When the lock is not available within the timeout, e.g. because a previous
+     * socket write on this session never completed, the message is not sent.
+     * @param session
+     * @param message
+     * @param timeout
+     * @return
+     */
+    private boolean send(WebSocketSession session, WebSocketMessage<?> message, long timeout) {
+        Lock lock = getSessionLock(session.getId());
+
+        try {
+            if (!lock.tryLock(Math.max(timeout, 0L), TimeUnit.MILLISECONDS)) {
+                LOG.error(String.format("(%s) error sending message - previous send operation still in progress", session.getId()));
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        try {
+            session.sendMessage(message);
+            return true;
+        } catch (IOException e) {
+            LOG.error(String.format("(%s) error sending message", session.getId()), e);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets send lock of session, creating it if not present yet.
+     * @param sessionId
+     * @return
+     */
+    private Lock getSessionLock(String sessionId) {
+        Lock lock = sessionLocks.get(sessionId);
+
+        if (lock == null) {
+            lock = new ReentrantLock();
+            Lock existing = sessionLocks.putIfAbsent(sessionId, lock);
+            if (existing != null) {
+                lock = existing;
+            }
+        }
+
+        return lock;
+    }
+
+    /**
+     * Stops send operations in progress and releases broadcast threads.
+     */
+    public void destroy() {
+        broadcastExecutor.shutdownNow();
+    }
+
+    /**
+     * Gets the number of messages waiting in inbound queue of session.
+     * @param sessionId
+     * @return
+     */
+    public int getQueueDepth(String sessionId) {
+        BlockingQueue<InboundMessage> queue = inboundMessages.get(sessionId);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /**
+     * Inbound message along with its sequence number in order of arrival.
+     */
+    private static class InboundMessage {
+        /** Sequence number in order of arrival */
+        private final long sequence;
+
+        /** Received message */
+        private final WebSocketMessage<?> message;
+
+        /**
+         * Default constructor using sequence number and message.
+         * @param sequence
+         * @param message
+         */
+        public InboundMessage(long sequence, WebSocketMessage<?> message) {
+            this.sequence = sequence;
+            this.message = message;
+        }
+
+        /**
+         * Gets the sequence number.
+         * @return
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * Gets the message.
+         * @return
+         */
+        public WebSocketMessage<?> getMessage() {
+            return message;
+        }
+    }
+
+    /**
+     * Inbound message along with the id of the session it was received on.
+     */
+    public static class SessionMessage {
+        /** Web socket session id */
+        private final String sessionId;
+
+        /** Received message */
+        private final WebSocketMessage<?> message;
+
+        /**
+         * Default constructor using session id and message.
+         * @param sessionId
+         * @param message
+         */
+        public SessionMessage(String sessionId, WebSocketMessage<?> message) {
+            this.sessionId = sessionId;
+            this.message = message;
+        }
+
+        /**
+         * Gets the session id.
+         * @return
+         */
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        /**
+         * Gets the message.
+         * @return
+         */
+        public WebSocketMessage<?> getMessage() {
+            return message;
+        }
+    }
 }
@@ -19,6 +19,7 @@ package com.consol.citrus.websocket.servlet;
 import com.consol.citrus.exceptions.CitrusRuntimeException;
 import com.consol.citrus.http.servlet.CitrusDispatcherServlet;
 import com.consol.citrus.websocket.endpoint.WebSocketEndpoint;
+import com.consol.citrus.websocket.endpoint.WebSocketEndpointConfiguration;
 import com.consol.citrus.websocket.handler.CitrusWebSocketHandler;
 import com.consol.citrus.websocket.handler.WebSocketUrlHandlerMapping;
 import com.consol.citrus.websocket.interceptor.SessionEnricherHandshakeInterceptor;
@@ -80,9 +81,10 @@ public class CitrusWebSocketDispatcherServlet extends CitrusDispatcherServlet {
 
             Map<String, Object> wsHandlers = new HashMap<>();
             for (WebSocketEndpoint webSocketEndpoint : webSocketEndpoints) {
-                String wsPath = webSocketEndpoint.getEndpointConfiguration().getEndpointUri();
+                WebSocketEndpointConfiguration endpointConfiguration = webSocketEndpoint.getEndpointConfiguration();
+                String wsPath = endpointConfiguration.getEndpointUri();
 
-                CitrusWebSocketHandler handler = new CitrusWebSocketHandler();
+                CitrusWebSocketHandler handler = new CitrusWebSocketHandler(endpointConfiguration.getSessionQueueCapacity());
                 webSocketEndpoint.setWebSocketHandler(handler);
                 WebSocketHttpRequestHandler wsRequestHandler = new WebSocketHttpRequestHandler(handler, handshakeHandler);
                 SessionEnricherHandshakeInterceptor handshakeInterceptor = new SessionEnricherHandshakeInterceptor(webSocketEndpoint.getName(), wsPath);
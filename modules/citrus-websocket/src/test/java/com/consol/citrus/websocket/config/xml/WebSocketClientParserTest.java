@@ -40,6 +40,8 @@ public class WebSocketClientParserTest extends AbstractBeanDefinitionParserTest
         WebSocketEndpoint webSocketClient = clients.get("webSocketClient1");
         Assert.assertEquals(webSocketClient.getEndpointConfiguration().getEndpointUri(), "ws://localhost:8080/test");
         Assert.assertEquals(webSocketClient.getEndpointConfiguration().getTimeout(), 5000L);
+        Assert.assertEquals(webSocketClient.getEndpointConfiguration().getSessionQueueCapacity(), 1000);
+        Assert.assertEquals(webSocketClient.getEndpointConfiguration().getSendTimeout(), 5000L);
 
         // 2nd message sender
         webSocketClient = clients.get("webSocketClient2");
@@ -47,6 +49,8 @@ public class WebSocketClientParserTest extends AbstractBeanDefinitionParserTest
         Assert.assertEquals(webSocketClient.getEndpointConfiguration().getMessageConverter(), beanDefinitionContext.getBean("messageConverter"));
         Assert.assertEquals(webSocketClient.getEndpointConfiguration().getEndpointUriResolver(), beanDefinitionContext.getBean("endpointResolver"));
         Assert.assertEquals(webSocketClient.getEndpointConfiguration().getTimeout(), 10000L);
+        Assert.assertEquals(webSocketClient.getEndpointConfiguration().getSessionQueueCapacity(), 50);
+        Assert.assertEquals(webSocketClient.getEndpointConfiguration().getSendTimeout(), 2000L);
 
         // 3rd message sender
         webSocketClient = clients.get("webSocketClient3");
@@ -47,6 +47,8 @@ public class WebSocketEndpointParserTest extends AbstractBeanDefinitionParserTes
         Assert.assertEquals(webSocketEndpoint.getName(), "websocket1");
         Assert.assertEquals(webSocketEndpoint.getEndpointConfiguration().getEndpointUri(), "/test1");
         Assert.assertEquals(webSocketEndpoint.getEndpointConfiguration().getTimeout(), 5000L);
+        Assert.assertEquals(webSocketEndpoint.getEndpointConfiguration().getSessionQueueCapacity(), 1000);
+        Assert.assertEquals(webSocketEndpoint.getEndpointConfiguration().getSendTimeout(), 5000L);
 
         webSocketEndpoint = server.getWebSockets().get(1);
         Assert.assertEquals(webSocketEndpoint.getName(), "websocket2");
@@ -59,6 +61,8 @@ public class WebSocketEndpointParserTest extends AbstractBeanDefinitionParserTes
         Assert.assertEquals(webSocketEndpoint.getName(), "websocket3");
         Assert.assertEquals(webSocketEndpoint.getEndpointConfiguration().getEndpointUri(), "/test3");
         Assert.assertEquals(webSocketEndpoint.getEndpointConfiguration().getTimeout(), 10000L);
+        Assert.assertEquals(webSocketEndpoint.getEndpointConfiguration().getSessionQueueCapacity(), 50);
+        Assert.assertEquals(webSocketEndpoint.getEndpointConfiguration().getSendTimeout(), 2000L);
 
     }
 
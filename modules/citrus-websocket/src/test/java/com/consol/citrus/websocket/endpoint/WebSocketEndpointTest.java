@@ -22,12 +22,16 @@ import com.consol.citrus.message.Message;
 import com.consol.citrus.testng.AbstractTestNGUnitTest;
 import com.consol.citrus.websocket.handler.CitrusWebSocketHandler;
 import com.consol.citrus.websocket.message.WebSocketMessage;
+import com.consol.citrus.websocket.message.WebSocketMessageHeaders;
 import org.easymock.EasyMock;
 import org.easymock.IAnswer;
 import org.springframework.web.socket.*;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import static org.easymock.EasyMock.*;
 
 public class WebSocketEndpointTest extends AbstractTestNGUnitTest {
@@ -176,4 +180,166 @@ public class WebSocketEndpointTest extends AbstractTestNGUnitTest {
 
         verify(session);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testWebSocketEndpointSessionReply() throws Exception {
+        WebSocketServerEndpointConfiguration endpointConfiguration = new WebSocketServerEndpointConfiguration();
+        WebSocketEndpoint webSocketEndpoint = new WebSocketEndpoint(endpointConfiguration);
+        String endpointUri = "/test";
+
+        CitrusWebSocketHandler handler = new CitrusWebSocketHandler();
+        endpointConfiguration.setHandler(handler);
+        endpointConfiguration.setEndpointUri(endpointUri);
+
+        final Message responseMessage = new DefaultMessage("<TestResponse><Message>Hello Session!</Message></TestResponse>");
+
+        reset(session, session2);
+
+        expect(session.getId()).andReturn("test-socket-1").atLeastOnce();
+        expect(session2.getId()).andReturn("test-socket-2").atLeastOnce();
+        expect(session2.isOpen()).andReturn(true).once();
+
+        session2.sendMessage(anyObject(org.springframework.web.socket.WebSocketMessage.class));
+        expectLastCall().andAnswer(new IAnswer<Void>() {
+            @Override
+            public Void answer() throws Throwable {
+                org.springframework.web.socket.WebSocketMessage request = (org.springframework.web.socket.WebSocketMessage) getCurrentArguments()[0];
+
+                Assert.assertTrue(TextMessage.class.isInstance(request));
+                Assert.assertEquals(((TextMessage)request).getPayload(), responseMessage.getPayload(String.class));
+                return null;
+            }
+        }).once();
+
+        replay(session, session2);
+
+        handler.afterConnectionEstablished(session);
+        handler.afterConnectionEstablished(session2);
+
+        handler.handleMessage(session, new TextMessage("Hello from 1st session"));
+        handler.handleMessage(session2, new TextMessage("Hello from 2nd session"));
+        handler.handleMessage(session, new TextMessage("Hello again from 1st session"));
+
+        Assert.assertEquals(handler.getQueueDepth("test-socket-1"), 2);
+        Assert.assertEquals(handler.getQueueDepth("test-socket-2"), 1);
+
+        WebSocketConsumer consumer = (WebSocketConsumer) webSocketEndpoint.createConsumer();
+        WebSocketMessage requestMessage = (WebSocketMessage) consumer.receive(WebSocketMessageHeaders.WEB_SOCKET_SESSION_ID + " = 'test-socket-2'", context, 1000L);
+        Assert.assertEquals(requestMessage.getPayload(), "Hello from 2nd session");
+        Assert.assertEquals(requestMessage.getHeader(WebSocketMessageHeaders.WEB_SOCKET_SESSION_ID), "test-socket-2");
+
+        requestMessage = (WebSocketMessage) consumer.receive(context, 1000L);
+        Assert.assertEquals(requestMessage.getPayload(), "Hello from 1st session");
+        Assert.assertEquals(requestMessage.getHeader(WebSocketMessageHeaders.WEB_SOCKET_SESSION_ID), "test-socket-1");
+
+        requestMessage = (WebSocketMessage) consumer.receive(context, 1000L);
+        Assert.assertEquals(requestMessage.getPayload(), "Hello again from 1st session");
+
+        try {
+            consumer.receive(WebSocketMessageHeaders.WEB_SOCKET_SESSION_ID + " = 'test-socket-2'", context, 100L);
+            Assert.fail("Missing timeout exception on web socket endpoint");
+        } catch (ActionTimeoutException e) {
+            Assert.assertTrue(e.getMessage().contains(endpointUri));
+        }
+
+        responseMessage.setHeader(WebSocketMessageHeaders.WEB_SOCKET_SESSION_ID, "test-socket-2");
+        webSocketEndpoint.createProducer().send(responseMessage, context);
+
+        verify(session, session2);
+    }
+
+    @Test
+    public void testWebSocketEndpointBroadcastSendTimeout() throws Exception {
+        WebSocketServerEndpointConfiguration endpointConfiguration = new WebSocketServerEndpointConfiguration();
+        WebSocketEndpoint webSocketEndpoint = new WebSocketEndpoint(endpointConfiguration);
+
+        CitrusWebSocketHandler handler = new CitrusWebSocketHandler();
+        endpointConfiguration.setHandler(handler);
+        endpointConfiguration.setEndpointUri("/test");
+        endpointConfiguration.setSendTimeout(500L);
+
+        final CountDownLatch release = new CountDownLatch(1);
+        IAnswer<Void> stalledSend = new IAnswer<Void>() {
+            @Override
+            public Void answer() throws Throwable {
+                // blocking socket writes do not react on thread interruption
+                long deadline = System.currentTimeMillis() + 10000L;
+                while (release.getCount() > 0 && System.currentTimeMillis() < deadline) {
+                    try {
+                        release.await(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        // ignore
+                    }
+                }
+                return null;
+            }
+        };
+
+        reset(session, session2, session3);
+
+        // allow session id access while send operation on the same session is blocked
+        makeThreadSafe(session, false);
+        makeThreadSafe(session2, false);
+        makeThreadSafe(session3, false);
+
+        expect(session.getId()).andReturn("test-socket-1").atLeastOnce();
+        expect(session2.getId()).andReturn("test-socket-2").atLeastOnce();
+        expect(session3.getId()).andReturn("test-socket-3").atLeastOnce();
+        expect(session.isOpen()).andReturn(true).times(2);
+        expect(session2.isOpen()).andReturn(true).once();
+        expect(session3.isOpen()).andReturn(true).once();
+
+        session.sendMessage(anyObject(org.springframework.web.socket.WebSocketMessage.class));
+        expectLastCall().andAnswer(stalledSend).once();
+        session2.sendMessage(anyObject(org.springframework.web.socket.WebSocketMessage.class));
+        expectLastCall().andAnswer(stalledSend).once();
+        session3.sendMessage(anyObject(org.springframework.web.socket.WebSocketMessage.class));
+        expectLastCall().andAnswer(stalledSend).once();
+
+        replay(session, session2, session3);
+
+        handler.afterConnectionEstablished(session);
+        handler.afterConnectionEstablished(session2);
+        handler.afterConnectionEstablished(session3);
+
+        long start = System.currentTimeMillis();
+        webSocketEndpoint.createProducer().send(new DefaultMessage("Hello all!"), context);
+        Assert.assertTrue(System.currentTimeMillis() - start < 1200L, "Send timeouts of stalled sessions must not add up");
+
+        // previous socket write on session still blocks so next send operation gives up
+        start = System.currentTimeMillis();
+        Assert.assertFalse(handler.sendMessage("test-socket-1", new TextMessage("Hello again!"), 500L));
+        Assert.assertTrue(System.currentTimeMillis() - start < 1200L);
+
+        release.countDown();
+        webSocketEndpoint.destroy();
+
+        verify(session, session2, session3);
+    }
+
+    @Test
+    public void testWebSocketEndpointInboundQueueFull() throws Exception {
+        CitrusWebSocketHandler handler = new CitrusWebSocketHandler(1);
+
+        reset(session);
+
+        expect(session.getId()).andReturn("test-socket-1").atLeastOnce();
+        session.close(CloseStatus.SERVICE_OVERLOAD);
+        expectLastCall().once();
+
+        replay(session);
+
+        handler.afterConnectionEstablished(session);
+        handler.handleMessage(session, new TextMessage("Hello"));
+
+        long start = System.currentTimeMillis();
+        handler.handleMessage(session, new TextMessage("Hello again"));
+        Assert.assertTrue(System.currentTimeMillis() - start < 2000L, "Full inbound queue must not block container thread");
+
+        Assert.assertEquals(handler.getQueueDepth("test-socket-1"), 1);
+        Assert.assertEquals(handler.receive(null, 100L).getMessage().getPayload(), "Hello");
+        Assert.assertNull(handler.receive(null, 100L));
+
+        verify(session);
+    }
+}
@@ -146,6 +146,7 @@ public class CitrusWebSocketDispatcherServletTest extends AbstractTestNGUnitTest
         wsEndpoint.setWebSocketHandler(isA(CitrusWebSocketHandler.class));
 
         expect(wsEndpointConfig.getEndpointUri()).andReturn(endpointUri).once();
+        expect(wsEndpointConfig.getSessionQueueCapacity()).andReturn(1000).once();
 
         replay(httpServer);
         replay(wsEndpoint);